@@ -0,0 +1,162 @@
+package net.masonapps.csgvr.utils;
+
+import android.util.Log;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+
+import net.masonapps.csgvr.modeling.Solid;
+import net.masonapps.csgvr.modeling.SolidCollisionWorld;
+import net.masonapps.csgvr.modeling.SolidShapeCache;
+import net.masonapps.csgvr.modeling.SolidWorld;
+import net.masonapps.csgvr.primitives.Box;
+
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.masonapps.libgdxgooglevr.utils.MicroBenchmark;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Compares closest hit ray tests and overlap tests over a scene of solids done by a linear scan, by the aabb tree of
+ * {@link SolidWorld} and by the bullet broadphase of {@link SolidCollisionWorld}. Run it on the GL thread of a debug
+ * build after Bullet.init(), every solid creates its model.
+ */
+public class SolidQueryBenchmarks {
+
+    private static final String TAG = SolidQueryBenchmarks.class.getSimpleName();
+    public static final int DEFAULT_SOLID_COUNT = 1000;
+    private static final int RAY_COUNT = 64;
+
+    private final MicroBenchmark benchmark;
+    private final Vector3 tempV = new Vector3();
+    private final Array<Solid> overlapping = new Array<>();
+    private int next = 0;
+
+    public SolidQueryBenchmarks(MicroBenchmark benchmark) {
+        this.benchmark = benchmark;
+    }
+
+    /**
+     * @return the report table, also written to the log
+     */
+    public String run(int solidCount) {
+        final SolidWorld world = new SolidWorld();
+        final SolidShapeCache shapeCache = new SolidShapeCache();
+        final Solid[] solids = new Solid[solidCount];
+        final Ray[] rays = new Ray[RAY_COUNT];
+        try {
+            // one shared geometry, so the shape cache builds the hulls once
+            final PolyhedronsSet box = new Box(0.5f, 0.5f, 0.5f).createPolyhedronsSet();
+            MathUtils.random.setSeed(solidCount);
+            // constant density, a few solids touch their neighbours
+            final float extent = (float) Math.cbrt(solidCount) * 0.75f;
+            for (int i = 0; i < solidCount; i++) {
+                final Solid solid = new Solid(box);
+                solid.setPosition(MathUtils.random(-extent, extent), MathUtils.random(-extent, extent), MathUtils.random(-extent, extent));
+                solid.setRotation(MathUtils.random(360f), MathUtils.random(360f), MathUtils.random(360f));
+                solids[i] = solid;
+                world.add(solid);
+            }
+            world.update();
+            world.updateBounds();
+            for (int i = 0; i < RAY_COUNT; i++) {
+                rays[i] = new Ray(new Vector3(0f, 0f, extent * 2f), new Vector3(MathUtils.random(-0.4f, 0.4f), MathUtils.random(-0.4f, 0.4f), -1f).nor());
+            }
+            runRays(world, solids, rays, shapeCache);
+            runOverlaps(world, solids);
+        } finally {
+            world.dispose();
+            shapeCache.dispose();
+        }
+        final String report = benchmark.report();
+        Log.i(TAG, "\n" + report);
+        return report;
+    }
+
+    private void runRays(final SolidWorld world, final Solid[] solids, final Ray[] rays, SolidShapeCache shapeCache) {
+        final int size = solids.length;
+        benchmark.run("closest solid linear scan", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                final Ray ray = rays[next++ % rays.length];
+                Solid closest = null;
+                float closestDst = Float.POSITIVE_INFINITY;
+                for (Solid solid : solids) {
+                    if (solid.castRay(ray, tempV)) {
+                        final float dst = ray.origin.dst(tempV);
+                        if (dst < closestDst) {
+                            closestDst = dst;
+                            closest = solid;
+                        }
+                    }
+                }
+                MicroBenchmark.consume(closest);
+            }
+        });
+        benchmark.run("SolidWorld.getClosestSolid aabb tree", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                MicroBenchmark.consume(world.getClosestSolid(rays[next++ % rays.length], tempV));
+            }
+        });
+        final Solid[] expected = new Solid[rays.length];
+        for (int i = 0; i < rays.length; i++) {
+            expected[i] = world.getClosestSolid(rays[i]);
+        }
+        final SolidCollisionWorld collisionWorld = world.enableCollisionQueries(shapeCache);
+        // the two paths have to agree before the timing means anything
+        for (int i = 0; i < rays.length; i++) {
+            if (collisionWorld.getClosestSolid(rays[i]) != expected[i])
+                Log.w(TAG, "bullet closest solid differs from the aabb tree for " + rays[i]);
+        }
+        benchmark.run("SolidCollisionWorld.getClosestSolid", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                MicroBenchmark.consume(world.getClosestSolid(rays[next++ % rays.length], tempV));
+            }
+        });
+        benchmark.run("SolidCollisionWorld.sync one moved", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                solids[next++ % solids.length].invalidate();
+                collisionWorld.sync();
+                MicroBenchmark.consume(collisionWorld.getSyncedCount());
+            }
+        });
+    }
+
+    private void runOverlaps(final SolidWorld world, final Solid[] solids) {
+        final int size = solids.length;
+        benchmark.run("overlapping solids linear aabb scan", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                final Solid solid = solids[next++ % solids.length];
+                overlapping.clear();
+                for (Solid other : solids) {
+                    if (other != solid && other.getBoundingBox().intersects(solid.getBoundingBox()))
+                        overlapping.add(other);
+                }
+                MicroBenchmark.consume(overlapping.size);
+            }
+        });
+        final SolidCollisionWorld collisionWorld = world.getCollisionWorld();
+        if (collisionWorld == null) return;
+        benchmark.run("SolidCollisionWorld.getOverlappingSolids", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                overlapping.clear();
+                collisionWorld.getOverlappingSolids(solids[next++ % solids.length], overlapping);
+                MicroBenchmark.consume(overlapping.size);
+            }
+        });
+        benchmark.run("SolidCollisionWorld.getSolidsInBounds", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                overlapping.clear();
+                collisionWorld.getSolidsInBounds(solids[next++ % solids.length].getBoundingBox(), overlapping);
+                MicroBenchmark.consume(overlapping.size);
+            }
+        });
+    }
+}
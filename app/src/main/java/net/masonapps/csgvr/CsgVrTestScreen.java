@@ -16,8 +16,8 @@ import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.utils.ClickListener;
-import com.google.vr.sdk.controller.Controller;
 
+import net.masonapps.csgvr.modeling.CsgNode;
 import net.masonapps.csgvr.modeling.Solid;
 import net.masonapps.csgvr.modeling.SolidModelingScreen;
 import net.masonapps.csgvr.modeling.SolidWorld;
@@ -26,27 +26,36 @@ import net.masonapps.csgvr.primitives.Cylinder;
 import net.masonapps.csgvr.ui.DaydreamCameraController;
 import net.masonapps.csgvr.ui.Grid;
 import net.masonapps.csgvr.ui.TranslationManipulator;
+import net.masonapps.csgvr.utils.ProjectFile;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
 import org.apache.commons.math3.geometry.euclidean.threed.Plane;
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
 import org.apache.commons.math3.geometry.euclidean.threed.SubPlane;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.apache.commons.math3.geometry.euclidean.twod.PolygonsSet;
 import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
-import org.apache.commons.math3.geometry.partitioning.RegionFactory;
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
 import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
+import org.masonapps.libgdxgooglevr.ui.ProfilerOverlay;
 import org.masonapps.libgdxgooglevr.ui.TextButtonVR;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Created by Bob on 6/12/2017.
  */
 
 public class CsgVrTestScreen extends SolidModelingScreen {
 
+    private static final String TAG = CsgVrTestScreen.class.getSimpleName();
+    private static final String PROJECT_FILE_NAME = "project.csgp";
+
     private final DaydreamCameraController cameraController;
     private final Matrix4 tempM = new Matrix4();
     private final Ray tempRay = new Ray();
@@ -65,19 +74,35 @@ public class CsgVrTestScreen extends SolidModelingScreen {
     private SubPlane selectedPlane = null;
     @Nullable
     private Solid selectedSolid = null;
+    // debug builds only, toggled with the app button
+    @Nullable
+    private ProfilerOverlay profilerOverlay = null;
     private DaydreamControllerInputListener listener = new DaydreamControllerInputListener() {
         @Override
-        public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+        public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
             
         }
 
         @Override
-        public void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event) {
-
+        public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
+            if (event.button == DaydreamButtonEvent.BUTTON_APP && event.action == DaydreamButtonEvent.ACTION_DOWN && profilerOverlay != null) {
+                profilerOverlay.setVisible(!profilerOverlay.isVisible());
+                return;
+            }
+            if (event.button != DaydreamButtonEvent.BUTTON_TOUCHPAD) return;
+            if (event.action == DaydreamButtonEvent.ACTION_DOWN) {
+                if (selectedSolid != null && translationManipulator.inputDown(GdxVr.input.getInputRay()))
+                    return;
+                final Solid newSolid = getSolidWorld().getClosestSolid(GdxVr.input.getInputRay());
+                if (newSolid != selectedSolid)
+                    select(newSolid);
+            } else if (event.action == DaydreamButtonEvent.ACTION_UP) {
+                translationManipulator.inputUp();
+            }
         }
 
         @Override
-        public void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event) {
+        public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
 
         }
 
@@ -136,25 +161,26 @@ public class CsgVrTestScreen extends SolidModelingScreen {
         grid = Grid.newInstance(5f);
         grid.setToPlane(new Plane(new Vector3D(0, 1, 0), 1e-10));
 
-        polyhedronsSet = new Box(2, 0.25f, 2).createSolid().getPolyhedronsSet();
+        CsgNode node = new CsgNode(null, new Box(2, 0.25f, 2));
         for (int i = 1; i < 3; i++) {
             final Box box = new Box(2, 0.25f, 2);
             box.rotateY(30 * i);
-            polyhedronsSet = (PolyhedronsSet) new RegionFactory<Euclidean3D>().union(polyhedronsSet, box.createSolid().getPolyhedronsSet());
+            node = new CsgNode(null, node, new CsgNode(null, box), CsgNode.Operator.UNION);
         }
 
         final Cylinder cylinder = new Cylinder(0.5f, 0.5f);
-        polyhedronsSet = (PolyhedronsSet) new RegionFactory<Euclidean3D>().union(polyhedronsSet, cylinder.createSolid().getPolyhedronsSet());
+        node = new CsgNode(null, node, new CsgNode(null, cylinder), CsgNode.Operator.UNION);
 
         final Cylinder hole = new Cylinder(0.25f, 1f);
-        polyhedronsSet = (PolyhedronsSet) new RegionFactory<Euclidean3D>().difference(polyhedronsSet, hole.createSolid().getPolyhedronsSet());
+        node = new CsgNode(null, node, new CsgNode(null, hole), CsgNode.Operator.DIFFERENCE);
         final Cylinder rounded = new Cylinder((float) (Math.sqrt(2) * 0.95), 0.5f);
         rounded.setDivisions(24);
-        polyhedronsSet = (PolyhedronsSet) new RegionFactory<Euclidean3D>().intersection(polyhedronsSet, rounded.createSolid().getPolyhedronsSet());
+        node = new CsgNode(null, node, new CsgNode(null, rounded), CsgNode.Operator.INTERSECTION);
+        polyhedronsSet = node.getPolyhedronsSet();
 
 //        instances.add(PolyhedronsetToLineModel.convert(polyhedronsSet));
 
-        final Solid solid = new Solid(polyhedronsSet);
+        final Solid solid = new Solid(node);
         getWorld().add(solid);
         translationManipulator = new TranslationManipulator();
 //        wireFrame = getWorld().add(new Entity(new ModelInstance(DebugUtils.createEdgeModel(solid.getModelInstance(false).model, Color.BLACK))));
@@ -170,7 +196,99 @@ public class CsgVrTestScreen extends SolidModelingScreen {
         });
         addCubeButton.setPosition(-0.5f, 0.5f, -1f);
 
+        final TextButtonVR saveButton = new TextButtonVR(spriteBatch, "Save", game.getSkin());
+        saveButton.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                save();
+            }
+        });
+        saveButton.setPosition(-0.5f, 0.25f, -1f);
+
+        final TextButtonVR openButton = new TextButtonVR(spriteBatch, "Open", game.getSkin());
+        openButton.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                open();
+            }
+        });
+        openButton.setPosition(-0.5f, 0f, -1f);
+
+        final TextButtonVR drillButton = new TextButtonVR(spriteBatch, "Drill", game.getSkin());
+        drillButton.addListener(new ClickListener() {
+            @Override
+            public void clicked(InputEvent event, float x, float y) {
+                drillSelected();
+            }
+        });
+        drillButton.setPosition(-0.5f, -0.25f, -1f);
+
         getUiContainer().addProcessor(addCubeButton);
+        getUiContainer().addProcessor(saveButton);
+        getUiContainer().addProcessor(openButton);
+        getUiContainer().addProcessor(drillButton);
+
+        if (BuildConfig.DEBUG) {
+            profilerOverlay = new ProfilerOverlay(spriteBatch, game.getSkin());
+            profilerOverlay.setPosition(0.5f, 0.5f, -1f);
+            profilerOverlay.setVisible(false);
+            getUiContainer().addProcessor(profilerOverlay);
+        }
+    }
+
+    private void save() {
+        try {
+            ProjectFile.write(Gdx.files.local(PROJECT_FILE_NAME).file(), getSolidWorld());
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "saving " + PROJECT_FILE_NAME + " failed", e);
+        }
+    }
+
+    /**
+     * subtracts a vertical hole from the selected solid, the new mesh is uploaded over the next frames while the old
+     * one keeps rendering
+     */
+    private void drillSelected() {
+        if (selectedSolid == null || selectedSolid.getCsgNode() == null) return;
+        final CsgNode node = new CsgNode(null, selectedSolid.getCsgNode(), new CsgNode(null, new Cylinder(0.1f, 4f)), CsgNode.Operator.DIFFERENCE);
+        selectedSolid.setCsgNode(node);
+        getSolidWorld().updateMesh(selectedSolid, node.getMeshData());
+    }
+
+    /**
+     * replaces the solids of the world with the saved ones
+     */
+    private void open() {
+        final File file = Gdx.files.local(PROJECT_FILE_NAME).file();
+        if (!file.exists()) return;
+        final List<ProjectFile.Entry> entries;
+        try {
+            entries = ProjectFile.read(file);
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "opening " + PROJECT_FILE_NAME + " failed", e);
+            return;
+        }
+        final SolidWorld world = getSolidWorld();
+        select(null);
+        for (int i = world.entities.size - 1; i >= 0; i--) {
+            final Entity entity = world.entities.get(i);
+            if (entity instanceof Solid) {
+                world.remove(entity);
+                entity.dispose();
+            }
+        }
+        for (ProjectFile.Entry entry : entries) {
+            world.add(entry.createSolid());
+        }
+    }
+
+    /**
+     * the world keeps the selected solid out of the static batches while it is being moved
+     */
+    private void select(@Nullable Solid solid) {
+        selectedSolid = solid;
+        getSolidWorld().setSelectedSolid(solid);
+        translationManipulator.setSolid(solid);
     }
 
     private SolidWorld getSolidWorld() {
@@ -110,9 +110,9 @@ public class DebugUtils {
             final short[] indices = new short[mesh.getNumIndices()];
             mesh.getIndices(indices);
             for (int i = 0; i < indices.length; i += 3) {
-                final int a = indices[i] * vertexSize;
-                final int b = indices[i + 1] * vertexSize;
-                final int c = indices[i + 2] * vertexSize;
+                final int a = (indices[i] & 0xFFFF) * vertexSize;
+                final int b = (indices[i + 1] & 0xFFFF) * vertexSize;
+                final int c = (indices[i + 2] & 0xFFFF) * vertexSize;
                 part.line(vertices[a], vertices[a + 1], vertices[a + 2], vertices[b], vertices[b + 1], vertices[b + 2]);
                 part.line(vertices[b], vertices[b + 1], vertices[b + 2], vertices[c], vertices[c + 1], vertices[c + 2]);
                 part.line(vertices[c], vertices[c + 1], vertices[c + 2], vertices[a], vertices[a + 1], vertices[a + 2]);
@@ -3,6 +3,8 @@ package net.masonapps.csgvr.csg;
 import android.support.annotation.Nullable;
 import android.util.Log;
 
+import net.masonapps.csgvr.utils.GeometryEvents;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,6 +32,13 @@ public class BspNode {
     }
 
     public void build(List<CSGPolygon> polygons) {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.BSP_BUILD);
+        buildNode(polygons);
+        if (event != null)
+            GeometryEvents.end(event, polygons.size(), allPolygons().size());
+    }
+
+    private void buildNode(List<CSGPolygon> polygons) {
         List<CSGPolygon> polygonList = polygons.stream().filter(CSGPolygon::isValid).distinct().collect(Collectors.toList());
         Log.d("BspNode::build", "polygonList size: " + polygonList.size());
         if (polygonList.isEmpty()) return;
@@ -43,11 +52,11 @@ public class BspNode {
         polygonList.forEach(polygon -> this.plane.splitPolygon(polygon, this.polygons, this.polygons, f, b));
         if (!f.isEmpty()) {
             if (front == null) front = new BspNode();
-            front.build(f);
+            front.buildNode(f);
         }
         if (!b.isEmpty()) {
             if (back == null) back = new BspNode();
-            back.build(b);
+            back.buildNode(b);
         }
     }
 
@@ -14,6 +14,8 @@ import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 
+import net.masonapps.csgvr.utils.GeometryEvents;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -43,12 +45,21 @@ public class CSG {
     }
 
     public static List<CSGPolygon> meshToPolygons(Mesh mesh, Matrix4 transform) {
-        List<CSGPolygon> polygons = new ArrayList<>();
         final int vertexSize = mesh.getVertexSize() / 4;
         float[] vertices = new float[mesh.getNumVertices() * vertexSize];
         mesh.getVertices(vertices);
-        short[] indices = new short[mesh.getNumIndices()];
-        mesh.getIndices(indices);
+        short[] shortIndices = new short[mesh.getNumIndices()];
+        mesh.getIndices(shortIndices);
+        // indices are unsigned on the gpu
+        int[] indices = new int[shortIndices.length];
+        for (int i = 0; i < shortIndices.length; i++) {
+            indices[i] = shortIndices[i] & 0xFFFF;
+        }
+        return meshToPolygons(vertices, indices, vertexSize, transform);
+    }
+
+    public static List<CSGPolygon> meshToPolygons(float[] vertices, int[] indices, int vertexSize, Matrix4 transform) {
+        List<CSGPolygon> polygons = new ArrayList<>(indices.length / 3);
         for (int i = 0; i < indices.length; i += 3) {
             final ArrayList<CSGVertex> csgVertices = new ArrayList<>(3);
             csgVertices.add(createVertex(vertices, indices[i] * vertexSize, transform));
@@ -135,6 +146,7 @@ public class CSG {
     }
 
     public CSG union(CSG csg) {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.CSG_UNION);
         final BspNode a = new BspNode(this.copy().polygons);
         final BspNode b = new BspNode(csg.copy().polygons);
         a.clipTo(b);
@@ -143,10 +155,13 @@ public class CSG {
         b.clipTo(a);
         b.invert();
         a.build(b.allPolygons());
-        return new CSG(a.allPolygons());
+        final CSG result = new CSG(a.allPolygons());
+        GeometryEvents.end(event, polygons.size() + csg.polygons.size(), result.polygons.size());
+        return result;
     }
 
     public CSG subtract(CSG csg) {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.CSG_SUBTRACT);
         final BspNode a = new BspNode(this.copy().polygons);
         final BspNode b = new BspNode(csg.copy().polygons);
         a.invert();
@@ -157,10 +172,13 @@ public class CSG {
         b.invert();
         a.build(b.allPolygons());
         a.invert();
-        return new CSG(a.allPolygons());
+        final CSG result = new CSG(a.allPolygons());
+        GeometryEvents.end(event, polygons.size() + csg.polygons.size(), result.polygons.size());
+        return result;
     }
 
     public CSG intersect(CSG csg) {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.CSG_INTERSECT);
         final BspNode a = new BspNode(this.copy().polygons);
         final BspNode b = new BspNode(csg.copy().polygons);
         a.invert();
@@ -170,7 +188,9 @@ public class CSG {
         b.clipTo(a);
         a.build(b.allPolygons());
         a.invert();
-        return new CSG(a.allPolygons());
+        final CSG result = new CSG(a.allPolygons());
+        GeometryEvents.end(event, polygons.size() + csg.polygons.size(), result.polygons.size());
+        return result;
     }
 
     public CSG inverse() {
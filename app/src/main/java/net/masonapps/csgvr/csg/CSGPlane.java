@@ -5,6 +5,8 @@ import android.util.Log;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.Pools;
 
+import net.masonapps.csgvr.utils.GeometryEvents;
+
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -78,6 +80,7 @@ public class CSGPlane {
                 break;
             case SPANNING:
                 Log.d(tag, "splitting spanning polygon");
+                GeometryEvents.countSplit();
                 List<CSGVertex> f = new ArrayList<>();
                 List<CSGVertex> b = new ArrayList<>();
                 for (int i = 0; i < polygon.vertices.size(); i++) {
@@ -4,6 +4,13 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import net.masonapps.csgvr.primitives.Primitive;
+import net.masonapps.csgvr.utils.ConversionUtils;
+import net.masonapps.csgvr.utils.GeometryEvents;
+import net.masonapps.csgvr.utils.MeshData;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.apache.commons.math3.geometry.partitioning.RegionFactory;
 
 /**
  * Created by Bob on 7/5/2017.
@@ -22,18 +29,25 @@ public class CsgNode {
     private Operator operator = null;
     @Nullable
     private Primitive primitive = null;
+    @Nullable
+    private PolyhedronsSet polyhedronsSet = null;
+    @Nullable
+    private MeshData meshData = null;
 
     public CsgNode(@Nullable CsgNode parent, @NonNull CsgNode left, @NonNull CsgNode right, @NonNull Operator operator) {
         this.parent = parent;
         this.left = left;
         this.right = right;
         this.operator = operator;
+        left.parent = this;
+        right.parent = this;
         isLeaf = false;
     }
 
     public CsgNode(@Nullable CsgNode parent, @NonNull Primitive primitive) {
         this.parent = parent;
         this.primitive = primitive;
+        primitive.setCsgNode(this);
         isLeaf = true;
     }
 
@@ -63,6 +77,92 @@ public class CsgNode {
         return isLeaf;
     }
 
+    /**
+     * evaluates the boolean operations of this node and its children the first time it is called
+     */
+    public PolyhedronsSet getPolyhedronsSet() {
+        if (polyhedronsSet == null)
+            polyhedronsSet = evaluate();
+        return polyhedronsSet;
+    }
+
+    public boolean isEvaluated() {
+        return polyhedronsSet != null;
+    }
+
+    private PolyhedronsSet evaluate() {
+        if (isLeaf || left == null || right == null || operator == null) {
+            if (primitive == null)
+                throw new IllegalStateException("leaf node does not have a primitive");
+            return primitive.createPolyhedronsSet();
+        }
+        // merging modifies the trees in place, copies keep the cached child results intact
+        final PolyhedronsSet a = (PolyhedronsSet) left.getPolyhedronsSet().copySelf();
+        final PolyhedronsSet b = (PolyhedronsSet) right.getPolyhedronsSet().copySelf();
+        return apply(operator, a, b);
+    }
+
+    /**
+     * runs a region boolean, the trees of a and b are modified in place
+     */
+    public static PolyhedronsSet apply(Operator operator, PolyhedronsSet a, PolyhedronsSet b) {
+        final GeometryEvents.Event event = GeometryEvents.begin(eventType(operator));
+        final int nodesIn = event != null ? GeometryEvents.countNodes(a.getTree(false)) + GeometryEvents.countNodes(b.getTree(false)) : 0;
+        final RegionFactory<Euclidean3D> regionFactory = new RegionFactory<>();
+        final PolyhedronsSet result;
+        switch (operator) {
+            case UNION:
+                result = (PolyhedronsSet) regionFactory.union(a, b);
+                break;
+            case DIFFERENCE:
+                result = (PolyhedronsSet) regionFactory.difference(a, b);
+                break;
+            case INTERSECTION:
+                result = (PolyhedronsSet) regionFactory.intersection(a, b);
+                break;
+            default:
+                throw new IllegalStateException("unknown operator " + operator);
+        }
+        if (event != null)
+            GeometryEvents.end(event, nodesIn, GeometryEvents.countNodes(result.getTree(false)));
+        return result;
+    }
+
+    private static GeometryEvents.Type eventType(Operator operator) {
+        switch (operator) {
+            case DIFFERENCE:
+                return GeometryEvents.Type.REGION_DIFFERENCE;
+            case INTERSECTION:
+                return GeometryEvents.Type.REGION_INTERSECTION;
+            default:
+                return GeometryEvents.Type.REGION_UNION;
+        }
+    }
+
+    public MeshData getMeshData() {
+        if (meshData == null)
+            meshData = ConversionUtils.polyhedronsSetToMeshData(getPolyhedronsSet());
+        return meshData;
+    }
+
+    public boolean hasMeshData() {
+        return meshData != null;
+    }
+
+    public void setMeshData(@Nullable MeshData meshData) {
+        this.meshData = meshData;
+    }
+
+    /**
+     * call after editing the primitive or operator of this node, clears the cached results up to the root
+     */
+    public void invalidate() {
+        polyhedronsSet = null;
+        meshData = null;
+        if (parent != null)
+            parent.invalidate();
+    }
+
     public enum Operator {
         UNION, DIFFERENCE, INTERSECTION
     }
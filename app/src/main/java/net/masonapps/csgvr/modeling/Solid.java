@@ -3,225 +3,207 @@ package net.masonapps.csgvr.modeling;
 import android.support.annotation.Nullable;
 
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
 
 import net.masonapps.csgvr.utils.ConversionUtils;
+import net.masonapps.csgvr.utils.MeshData;
+import net.masonapps.csgvr.utils.StagedMeshUpload;
+import net.masonapps.csgvr.utils.TriangleBVH;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Line;
-import org.apache.commons.math3.geometry.euclidean.threed.Plane;
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
-import org.apache.commons.math3.geometry.euclidean.threed.SubPlane;
-import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.gfx.Entity;
+import org.masonapps.libgdxgooglevr.vr.GLTaskScheduler;
 
 /**
  * Created by Bob on 6/13/2017.
  */
 
 public class Solid extends Entity {
-    private static final Vector3 dir = new Vector3();
-    private static final Vector3 tmp = new Vector3();
-    private static final Vector3 tmp2 = new Vector3();
-    protected final Vector3 position = new Vector3();
-    protected final Quaternion rotation = new Quaternion();
-    private final Quaternion rotator = new Quaternion();
     public double tolerance = 1e-10;
+    protected final Vector3 baryCenter = new Vector3();
+    @Nullable
     protected PolyhedronsSet polyhedronsSet;
-    protected boolean isTransformUpdated = false;
+    @Nullable
+    protected CsgNode csgNode = null;
+    protected MeshData meshData;
+    @Nullable
+    private StagedMeshUpload meshUpload = null;
+    @Nullable
+    private TriangleBVH bvh = null;
+    private final TriangleBVH.Hit hit = new TriangleBVH.Hit();
+    private int modificationCount = 0;
     private BoundingBox boundingBox = new BoundingBox();
     private Ray tempRay = new Ray();
-    private Vector3 lastPosition = new Vector3();
-    private Quaternion lastRotation = new Quaternion();
-    private Matrix4 inverseTransform = new Matrix4();
+    private final Vector3 tmpV = new Vector3();
 
     public Solid(PolyhedronsSet polyhedronsSet) {
-        super(ConversionUtils.polyhedronsSetToModelInstance(polyhedronsSet, new Material(ColorAttribute.createDiffuse(Color.SKY))));
-        this.polyhedronsSet = polyhedronsSet;
+        this(polyhedronsSet, ConversionUtils.polyhedronsSetToMeshData(polyhedronsSet));
     }
 
-    protected Solid() {
-        this(null);
-    }
-
-    @Nullable
-    public PolyhedronsSet getPolyhedronsSet() {
-        return polyhedronsSet;
-    }
-
-    protected void updateTransform() {
-        if (isTransformUpdated) return;
-        final Vector3 baryCenter = ConversionUtils.convertVector((Vector3D) polyhedronsSet.getBarycenter());
-        modelInstance.transform.idt();
-        modelInstance.transform.translate(-baryCenter.x, -baryCenter.y, -baryCenter.z);
-        modelInstance.transform.rotate(rotation);
-        modelInstance.transform.translate(baryCenter.x + position.x, baryCenter.y + position.y, baryCenter.z + position.z);
-
-        inverseTransform.set(modelInstance.transform).inv();
-
-        modelInstance.calculateBoundingBox(boundingBox);
-
-        isTransformUpdated = true;
-    }
-
-    public boolean castRay(Ray ray, Vector3 hitPoint) {
-        updateTransform();
-        if (polyhedronsSet != null) {
-            if (Intersector.intersectRayBoundsFast(ray, boundingBox)) {
-                tempRay.set(GdxVr.input.getInputRay()).mul(inverseTransform);
-                final Vector3D point = ConversionUtils.convertVector(tempRay.origin);
-                final Vector3D point2 = ConversionUtils.convertVector(tempRay.direction).add(point);
-                final SubPlane plane3D = (SubPlane) polyhedronsSet.firstIntersection(point, new Line(point, point2, polyhedronsSet.getTolerance()));
-                if (plane3D != null) {
-                    final com.badlogic.gdx.math.Plane plane = ConversionUtils.convertPlane((Plane) plane3D.getHyperplane());
-                    if (Intersector.intersectRayPlane(tempRay, plane, hitPoint)) {
-                        hitPoint.mul(modelInstance.transform);
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
-    public void setRotationX(float angle) {
-        rotation.set(Vector3.X, angle);
-        invalidate();
-    }
-
-    public void setRotationY(float angle) {
-        rotation.set(Vector3.Y, angle);
-        invalidate();
-    }
-
-    public void setRotationZ(float angle) {
-        rotation.set(Vector3.Z, angle);
-        invalidate();
-    }
-
-    public void rotateX(float angle) {
-        rotator.set(Vector3.X, angle);
-        rotation.mul(rotator);
-        invalidate();
-    }
-
-    public void rotateY(float angle) {
-        rotator.set(Vector3.Y, angle);
-        rotation.mul(rotator);
-        invalidate();
-    }
-
-    public void rotateZ(float angle) {
-        rotator.set(Vector3.Z, angle);
-        invalidate();
-    }
-
-    public void setRotation(float yaw, float pitch, float roll) {
-        rotation.setEulerAngles(yaw, pitch, roll);
-        invalidate();
-    }
-
-    public void setRotation(Vector3 dir, Vector3 up) {
-        tmp.set(up).crs(dir).nor();
-        tmp2.set(dir).crs(tmp).nor();
-        rotation.setFromAxes(tmp.x, tmp2.x, dir.x, tmp.y, tmp2.y, dir.y, tmp.z, tmp2.z, dir.z);
-        invalidate();
-    }
-
-    public void lookAt(Vector3 position, Vector3 up) {
-        dir.set(position).sub(this.position).nor();
-        setRotation(dir, up);
+    private Solid(PolyhedronsSet polyhedronsSet, MeshData meshData) {
+        super(ConversionUtils.meshDataToModelInstance(meshData, new Material(ColorAttribute.createDiffuse(Color.SKY))));
+        this.polyhedronsSet = polyhedronsSet;
+        this.meshData = meshData;
+        baryCenter.set(meshData.center);
     }
 
-    public Quaternion getRotation() {
-        return rotation;
+    /**
+     * uses the cached mesh of the node when available, the boolean operations are not evaluated until {@link #getPolyhedronsSet()} is called
+     */
+    public Solid(CsgNode csgNode) {
+        super(ConversionUtils.meshDataToModelInstance(csgNode.getMeshData(), new Material(ColorAttribute.createDiffuse(Color.SKY))));
+        this.csgNode = csgNode;
+        this.polyhedronsSet = csgNode.isEvaluated() ? csgNode.getPolyhedronsSet() : null;
+        this.meshData = csgNode.getMeshData();
+        baryCenter.set(meshData.center);
     }
 
-    public void setRotation(Quaternion q) {
-        rotation.set(q);
-        invalidate();
+    protected Solid() {
+        this((PolyhedronsSet) null);
     }
 
-    public void translateX(float units) {
-        this.position.x += units;
-        invalidate();
+    public MeshData getMeshData() {
+        return meshData;
     }
 
-    public float getX() {
-        return this.position.x;
+    /**
+     * starts uploading a new mesh in chunks, the current mesh keeps rendering until {@link #stepMeshUpload()} swaps it in
+     */
+    public void setMeshData(MeshData meshData) {
+        if (meshUpload != null)
+            meshUpload.cancel();
+        meshUpload = new StagedMeshUpload(meshData);
     }
 
-    public void setX(float x) {
-        this.position.x = x;
-        invalidate();
+    public boolean isMeshUploading() {
+        return meshUpload != null;
     }
 
-    public void translateY(float units) {
-        this.position.y += units;
-        invalidate();
-    }
+    /**
+     * uploads the next chunk of a pending mesh and swaps it in once complete, call once per frame on the GL thread
+     *
+     * @return true when no upload is pending anymore
+     */
+    public boolean stepMeshUpload() {
+        if (meshUpload == null) return true;
+        if (meshUpload.step() != StagedMeshUpload.State.READY) return false;
 
-    public float getY() {
-        return this.position.y;
-    }
+        final MeshData newMeshData = meshUpload.getMeshData();
+        final Array<Mesh> meshes = meshUpload.takeMeshes();
+        meshUpload = null;
 
-    public void setY(float y) {
-        this.position.y = y;
-        invalidate();
-    }
+        // keep the solid in place although the new mesh has its own barycenter
+        getRotation().transform(tmpV.set(newMeshData.center).sub(baryCenter));
+        final Model oldModel = modelInstance.model;
+        setModelInstance(ConversionUtils.meshesToModelInstance(meshes, modelInstance.materials.first(), new Matrix4()));
+        translate(tmpV);
+        meshData = newMeshData;
+        baryCenter.set(newMeshData.center);
+        bvh = null;
 
-    public void translateZ(float units) {
-        this.position.z += units;
-        invalidate();
+        // the old mesh may still be referenced by this frame's render list
+        GdxVr.app.postRunnable(new Runnable() {
+            @Override
+            public void run() {
+                oldModel.dispose();
+            }
+        }, GLTaskScheduler.Priority.LOW);
+        return true;
     }
 
-    public float getZ() {
-        return this.position.z;
+    @Nullable
+    public PolyhedronsSet getPolyhedronsSet() {
+        if (polyhedronsSet == null && csgNode != null)
+            polyhedronsSet = csgNode.getPolyhedronsSet();
+        return polyhedronsSet;
     }
 
-    public void setZ(float z) {
-        this.position.z = z;
-        invalidate();
+    @Nullable
+    public CsgNode getCsgNode() {
+        return csgNode;
     }
 
-    public void translate(float x, float y, float z) {
-        this.position.add(x, y, z);
-        invalidate();
+    /**
+     * replaces the tree after a boolean operation, swap the mesh with {@link SolidWorld#updateMesh(Solid, MeshData)}
+     */
+    public void setCsgNode(CsgNode csgNode) {
+        this.csgNode = csgNode;
+        this.polyhedronsSet = csgNode.isEvaluated() ? csgNode.getPolyhedronsSet() : null;
     }
 
-    public void translate(Vector3 trans) {
-        this.position.add(trans);
-        invalidate();
+    protected void updateTransform() {
+        if (!updated) recalculateTransform();
     }
 
-    public void setPosition(float x, float y, float z) {
-        this.position.set(x, y, z);
-        invalidate();
+    /**
+     * the vertices are relative to the barycenter, so the position is where the barycenter is placed and rotations are about it
+     */
+    @Override
+    public void recalculateTransform() {
+        super.recalculateTransform();
+        // world space bounds for the early out in castRay
+        modelInstance.calculateBoundingBox(boundingBox).mul(modelInstance.transform);
     }
 
-    public Vector3 getPosition() {
-        return position;
+    public boolean castRay(Ray ray, Vector3 hitPoint) {
+        if (castRay(ray, hit)) {
+            hitPoint.set(hit.point);
+            return true;
+        }
+        return false;
     }
 
-    public void setPosition(Vector3 pos) {
-        this.position.set(pos);
-        invalidate();
+    /**
+     * tests the ray against the render triangles, the hit point, normal and distance are in world space
+     */
+    public boolean castRay(Ray ray, TriangleBVH.Hit hit) {
+        updateTransform();
+        if (!Intersector.intersectRayBoundsFast(ray, boundingBox)) return false;
+        if (bvh == null)
+            bvh = new TriangleBVH(meshData);
+        tempRay.set(ray).mul(inverseTransform);
+        if (bvh.intersect(tempRay, hit)) {
+            hit.point.mul(modelInstance.transform);
+            // normals transform with the inverse transpose, rotating them is only right for uniform scale
+            hit.normal.traMul(inverseTransform).nor();
+            hit.distance = ray.origin.dst(hit.point);
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void invalidate() {
         super.invalidate();
-        isTransformUpdated = false;
+        modificationCount++;
+    }
+
+    /**
+     * @return a counter that changes every time the solid is invalidated
+     */
+    public int getModificationCount() {
+        return modificationCount;
     }
 
     public BoundingBox getBoundingBox() {
         return boundingBox;
     }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (meshUpload != null)
+            meshUpload.cancel();
+        meshUpload = null;
+    }
 }
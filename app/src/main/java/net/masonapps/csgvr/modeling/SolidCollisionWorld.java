@@ -0,0 +1,361 @@
+package net.masonapps.csgvr.modeling;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.physics.bullet.collision.AllHitsRayResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.ContactResultCallback;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionDispatcher;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionObjectWrapper;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionWorld;
+import com.badlogic.gdx.physics.bullet.collision.btDbvtBroadphase;
+import com.badlogic.gdx.physics.bullet.collision.btDefaultCollisionConfiguration;
+import com.badlogic.gdx.physics.bullet.collision.btManifoldPoint;
+import com.badlogic.gdx.physics.bullet.collision.btSphereShape;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.masonapps.csgvr.utils.MeshData;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Collision only bullet world mirroring the solids of a {@link SolidWorld}, queried through its dbvt broadphase instead
+ * of testing every solid. Each solid is a collision object with the unsimplified convex hulls of
+ * {@link SolidShapeCache.Kind#QUERY_HULLS}, which enclose the mesh, so hulls find the candidates and ray hits are refined
+ * against the render triangles.
+ * Transforms are pushed to bullet lazily before a query, only for solids whose modification count changed.
+ */
+public class SolidCollisionWorld implements Disposable {
+
+    public static final float DEFAULT_RAY_LENGTH = 1000f;
+    // penetration depth below which touching hulls do not count as overlapping
+    public static final float DEFAULT_OVERLAP_TOLERANCE = 1e-4f;
+    private static final float PROBE_RADIUS = 1e-3f;
+
+    private final btCollisionConfiguration collisionConfiguration = new btDefaultCollisionConfiguration();
+    private final btCollisionDispatcher dispatcher = new btCollisionDispatcher(collisionConfiguration);
+    private final btDbvtBroadphase broadphase = new btDbvtBroadphase();
+    private final btCollisionWorld collisionWorld = new btCollisionWorld(dispatcher, broadphase, collisionConfiguration);
+    private final SolidShapeCache shapeCache;
+    // unordered so a removal moves the last body into the gap instead of shifting every index after it
+    private final Array<Body> bodies = new Array<>(false, 16);
+    private final ObjectMap<Solid, Body> bodiesBySolid = new ObjectMap<>();
+    private final AllHitsRayResultCallback rayCallback = new AllHitsRayResultCallback(Vector3.Zero, Vector3.Z);
+    private final CandidateCallback contactCallback = new CandidateCallback();
+    // unit box scaled to the queried bounds, and a small sphere finding hulls that contain a ray origin
+    private final btBoxShape boxShape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+    private final btSphereShape probeShape = new btSphereShape(PROBE_RADIUS);
+    private final btCollisionObject queryObject = new btCollisionObject();
+    private final IntArray candidates = new IntArray();
+    private final Matrix4 tempM = new Matrix4();
+    private final Vector3 rayFrom = new Vector3();
+    private final Vector3 rayTo = new Vector3();
+    private final Vector3 tempV = new Vector3();
+    private final Vector3 closestHitPoint = new Vector3();
+    private float rayLength = DEFAULT_RAY_LENGTH;
+    private float overlapTolerance = DEFAULT_OVERLAP_TOLERANCE;
+    private int stamp = 0;
+    private int syncedCount = 0;
+
+    /**
+     * @param shapeCache may be shared with the physics, identical solids share their query hulls, it is not disposed with this world
+     */
+    public SolidCollisionWorld(SolidShapeCache shapeCache) {
+        this.shapeCache = shapeCache;
+        queryObject.setUserValue(-1);
+    }
+
+    public void add(Solid solid) {
+        if (bodiesBySolid.containsKey(solid)) return;
+        final Body body = new Body(solid);
+        body.shape = shapeCache.obtain(solid, SolidShapeCache.Kind.QUERY_HULLS);
+        body.meshData = solid.getMeshData();
+        body.scale.set(solid.getScale());
+        body.object.setCollisionShape(body.shape);
+        body.object.setUserValue(bodies.size);
+        bodies.add(body);
+        bodiesBySolid.put(solid, body);
+        collisionWorld.addCollisionObject(body.object);
+    }
+
+    public void remove(Solid solid) {
+        final Body body = bodiesBySolid.remove(solid);
+        if (body == null) return;
+        final int index = body.object.getUserValue();
+        bodies.removeIndex(index);
+        // removeIndex moves the last body into the gap
+        if (index < bodies.size)
+            bodies.get(index).object.setUserValue(index);
+        collisionWorld.removeCollisionObject(body.object);
+        body.object.dispose();
+        shapeCache.release(body.shape);
+    }
+
+    public boolean contains(Solid solid) {
+        return bodiesBySolid.containsKey(solid);
+    }
+
+    public int size() {
+        return bodies.size;
+    }
+
+    /**
+     * pushes the transforms and shapes of the solids that changed since the last sync, queries call this themselves
+     */
+    public void sync() {
+        syncedCount = 0;
+        for (int i = 0; i < bodies.size; i++) {
+            final Body body = bodies.get(i);
+            final Solid solid = body.solid;
+            // shapes are shared so scale is baked into them, a new mesh or scale needs a different shape
+            final boolean shapeChanged = body.meshData != solid.getMeshData() || !body.scale.equals(solid.getScale());
+            if (!shapeChanged && body.modificationCount == solid.getModificationCount()) continue;
+            body.modificationCount = solid.getModificationCount();
+            if (shapeChanged) {
+                final btCollisionShape shape = shapeCache.obtain(solid, SolidShapeCache.Kind.QUERY_HULLS);
+                body.object.setCollisionShape(shape);
+                shapeCache.release(body.shape);
+                body.shape = shape;
+                body.meshData = solid.getMeshData();
+                body.scale.set(solid.getScale());
+            }
+            body.object.setWorldTransform(tempM.set(solid.getPosition(), solid.getRotation()));
+            collisionWorld.updateSingleAabb(body.object);
+            syncedCount++;
+        }
+    }
+
+    /**
+     * @return the number of solids the last {@link #sync()} pushed to bullet
+     */
+    public int getSyncedCount() {
+        return syncedCount;
+    }
+
+    @Nullable
+    public Solid getClosestSolid(Ray ray) {
+        return getClosestSolid(ray, null);
+    }
+
+    /**
+     * The broadphase and the hulls give the candidates and their hull entry distance, candidates are then tested
+     * against their triangles nearest first until the next hull starts beyond the nearest exact hit.
+     */
+    @Nullable
+    public Solid getClosestSolid(Ray ray, @Nullable Vector3 hitPoint) {
+        sync();
+        collectRayCandidates(ray);
+        sortCandidates();
+        Solid closest = null;
+        float closestDst = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < candidates.size; i++) {
+            final Body body = bodies.get(candidates.get(i));
+            if (body.fraction * rayLength > closestDst) break;
+            if (body.solid.castRay(ray, tempV)) {
+                final float dst = ray.origin.dst(tempV);
+                if (dst < closestDst) {
+                    closestDst = dst;
+                    closest = body.solid;
+                    closestHitPoint.set(tempV);
+                }
+            }
+        }
+        if (closest != null && hitPoint != null)
+            hitPoint.set(closestHitPoint);
+        return closest;
+    }
+
+    private void collectRayCandidates(Ray ray) {
+        stamp++;
+        candidates.clear();
+        rayFrom.set(ray.origin);
+        rayTo.set(ray.direction).nor().scl(rayLength).add(ray.origin);
+        rayCallback.getCollisionObjects().clear();
+        rayCallback.getHitFractions().clear();
+        rayCallback.getHitPointWorld().clear();
+        rayCallback.getHitNormalWorld().clear();
+        rayCallback.setCollisionObject(null);
+        rayCallback.setClosestHitFraction(1f);
+        rayCallback.setRayFromWorld(rayFrom);
+        rayCallback.setRayToWorld(rayTo);
+        collisionWorld.rayTest(rayFrom, rayTo, rayCallback);
+        final int hitCount = rayCallback.getCollisionObjects().size();
+        for (int i = 0; i < hitCount; i++) {
+            // a compound reports every hull it hits, keep the nearest per solid
+            addCandidate(rayCallback.getCollisionObjects().at(i).getUserValue(), rayCallback.getHitFractions().at(i));
+        }
+        // a ray starting inside a hull does not hit it, the probe finds those with an entry distance of 0
+        queryObject.setCollisionShape(probeShape);
+        queryObject.setWorldTransform(tempM.setToTranslation(ray.origin));
+        contactCallback.begin(0f, -1);
+        collisionWorld.contactTest(queryObject, contactCallback);
+    }
+
+    private void addCandidate(int index, float fraction) {
+        final Body body = bodies.get(index);
+        if (body.stamp != stamp) {
+            body.stamp = stamp;
+            body.fraction = fraction;
+            candidates.add(index);
+        } else if (fraction < body.fraction) {
+            body.fraction = fraction;
+        }
+    }
+
+    private void sortCandidates() {
+        // a ray rarely crosses more than a handful of hulls
+        final int[] items = candidates.items;
+        for (int i = 1; i < candidates.size; i++) {
+            final int index = items[i];
+            final float fraction = bodies.get(index).fraction;
+            int j = i - 1;
+            while (j >= 0 && bodies.get(items[j]).fraction > fraction) {
+                items[j + 1] = items[j];
+                j--;
+            }
+            items[j + 1] = index;
+        }
+    }
+
+    /**
+     * @param out receives the other solids whose hulls penetrate the hulls of the solid, it is not cleared
+     */
+    public Array<Solid> getOverlappingSolids(Solid solid, Array<Solid> out) {
+        final Body body = bodiesBySolid.get(solid);
+        if (body == null) return out;
+        sync();
+        stamp++;
+        candidates.clear();
+        contactCallback.begin(overlapTolerance, body.object.getUserValue());
+        collisionWorld.contactTest(body.object, contactCallback);
+        return addCandidates(out);
+    }
+
+    /**
+     * @param out receives the solids whose hulls penetrate the box, it is not cleared
+     */
+    public Array<Solid> getSolidsInBounds(BoundingBox bounds, Array<Solid> out) {
+        if (!bounds.isValid()) return out;
+        sync();
+        stamp++;
+        candidates.clear();
+        boxShape.setLocalScaling(bounds.getDimensions(tempV));
+        queryObject.setCollisionShape(boxShape);
+        queryObject.setWorldTransform(tempM.setToTranslation(bounds.getCenter(tempV)));
+        contactCallback.begin(overlapTolerance, -1);
+        collisionWorld.contactTest(queryObject, contactCallback);
+        return addCandidates(out);
+    }
+
+    /**
+     * @return true if the hulls of the two solids penetrate each other
+     */
+    public boolean isOverlapping(Solid a, Solid b) {
+        final Body bodyA = bodiesBySolid.get(a);
+        final Body bodyB = bodiesBySolid.get(b);
+        if (bodyA == null || bodyB == null || bodyA == bodyB) return false;
+        sync();
+        stamp++;
+        candidates.clear();
+        contactCallback.begin(overlapTolerance, -1);
+        collisionWorld.contactPairTest(bodyA.object, bodyB.object, contactCallback);
+        return candidates.size > 0;
+    }
+
+    private Array<Solid> addCandidates(Array<Solid> out) {
+        for (int i = 0; i < candidates.size; i++) {
+            out.add(bodies.get(candidates.get(i)).solid);
+        }
+        return out;
+    }
+
+    public void setRayLength(float rayLength) {
+        this.rayLength = rayLength;
+    }
+
+    public void setOverlapTolerance(float overlapTolerance) {
+        this.overlapTolerance = overlapTolerance;
+    }
+
+    public btCollisionWorld getCollisionWorld() {
+        return collisionWorld;
+    }
+
+    @Override
+    public void dispose() {
+        for (int i = 0; i < bodies.size; i++) {
+            final Body body = bodies.get(i);
+            collisionWorld.removeCollisionObject(body.object);
+            body.object.dispose();
+            shapeCache.release(body.shape);
+        }
+        bodies.clear();
+        bodiesBySolid.clear();
+        queryObject.dispose();
+        boxShape.dispose();
+        probeShape.dispose();
+        contactCallback.dispose();
+        rayCallback.dispose();
+        collisionWorld.dispose();
+        broadphase.dispose();
+        dispatcher.dispose();
+        collisionConfiguration.dispose();
+    }
+
+    /**
+     * adds the solid of every contact deeper than the tolerance to the candidates, each solid once per query
+     */
+    private class CandidateCallback extends ContactResultCallback {
+        private float tolerance;
+        private int excluded;
+
+        /**
+         * @param excluded index of the queried solid, which is in contact with itself, or -1
+         */
+        void begin(float tolerance, int excluded) {
+            this.tolerance = tolerance;
+            this.excluded = excluded;
+        }
+
+        @Override
+        public float addSingleResult(btManifoldPoint cp, btCollisionObjectWrapper colObj0Wrap, int partId0, int index0,
+                                     btCollisionObjectWrapper colObj1Wrap, int partId1, int index1) {
+            if (cp.getDistance() >= -tolerance) return 0f;
+            add(colObj0Wrap.getCollisionObject().getUserValue());
+            add(colObj1Wrap.getCollisionObject().getUserValue());
+            return 0f;
+        }
+
+        private void add(int index) {
+            // the query object has -1
+            if (index < 0 || index >= bodies.size || index == excluded) return;
+            addCandidate(index, 0f);
+        }
+    }
+
+    private static class Body {
+        final Solid solid;
+        final btCollisionObject object = new btCollisionObject();
+        final Vector3 scale = new Vector3();
+        btCollisionShape shape;
+        MeshData meshData;
+        // -1 so the first sync always places the object
+        int modificationCount = -1;
+        int stamp = 0;
+        // nearest hull entry along the ray as a fraction of the ray length
+        float fraction;
+
+        Body(Solid solid) {
+            this.solid = solid;
+        }
+    }
+}
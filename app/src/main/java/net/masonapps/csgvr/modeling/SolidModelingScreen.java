@@ -9,13 +9,14 @@ import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.environment.BaseLight;
 import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.Bullet;
 import com.badlogic.gdx.utils.Array;
-import com.google.vr.sdk.controller.Controller;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.gfx.VrGame;
 import org.masonapps.libgdxgooglevr.gfx.VrWorldScreen;
 import org.masonapps.libgdxgooglevr.gfx.World;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
 import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
 import org.masonapps.libgdxgooglevr.input.VrUiContainer;
@@ -25,11 +26,17 @@ import org.masonapps.libgdxgooglevr.input.VrUiContainer;
  */
 
 public class SolidModelingScreen extends VrWorldScreen {
-    
+
+    private static boolean bulletInitialized = false;
     private VrUiContainer uiContainer;
+    private final SolidShapeCache shapeCache;
 
     public SolidModelingScreen(VrGame game) {
         super(game);
+        initializeBullet();
+        shapeCache = new SolidShapeCache();
+        // the world is created by the super constructor, before the shape cache exists
+        ((SolidWorld) world).enableCollisionQueries(shapeCache);
         environment = createEnvironment();
         final Array<BaseLight> lights = new Array<>();
         addLights(lights);
@@ -38,6 +45,13 @@ public class SolidModelingScreen extends VrWorldScreen {
         GdxVr.input.setInputProcessor(uiContainer);
     }
 
+    private static void initializeBullet() {
+        if (!bulletInitialized) {
+            Bullet.init();
+            bulletInitialized = true;
+        }
+    }
+
     protected Environment createEnvironment() {
         final Environment environment = new Environment();
         environment.set(new ColorAttribute(ColorAttribute.AmbientLight, Color.DARK_GRAY));
@@ -85,18 +99,30 @@ public class SolidModelingScreen extends VrWorldScreen {
         return uiContainer;
     }
 
+    public SolidShapeCache getShapeCache() {
+        return shapeCache;
+    }
+
+    @Override
+    @CallSuper
+    public void dispose() {
+        // the world releases the shapes of its collision world first
+        super.dispose();
+        shapeCache.dispose();
+    }
+
     @Override
-    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+    public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
 
     }
 
     @Override
-    public void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event) {
+    public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
 
     }
 
     @Override
-    public void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event) {
+    public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
 
     }
 
@@ -0,0 +1,403 @@
+package net.masonapps.csgvr.modeling;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.physics.bullet.collision.btBvhTriangleMeshShape;
+import com.badlogic.gdx.physics.bullet.collision.btCollisionShape;
+import com.badlogic.gdx.physics.bullet.collision.btCompoundShape;
+import com.badlogic.gdx.physics.bullet.collision.btConvexHullShape;
+import com.badlogic.gdx.physics.bullet.collision.btShapeHull;
+import com.badlogic.gdx.physics.bullet.collision.btTriangleMesh;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BufferUtils;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntSet;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.masonapps.csgvr.utils.MeshData;
+
+import org.masonapps.libgdxgooglevr.bullet.BulletConstructor;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Builds Bullet collision shapes from the vertex and index buffers of solids and shares them between solids with the
+ * same geometry. Static solids get a {@link btBvhTriangleMeshShape}, dynamic solids a {@link btCompoundShape} of convex
+ * hulls, one per connected part of the mesh and one per octant for parts that fill too little of their bounds to be
+ * approximated by a single hull. Dynamic hulls of more than {@link #MAX_HULL_VERTICES} points are simplified and may
+ * cut into the mesh, {@link Kind#QUERY_HULLS} keep every hull vertex so they always enclose it. Every {@link #obtain(MeshData, Kind)} has to be matched by a {@link #release(btCollisionShape)},
+ * the native shape is disposed with the last release. Bullet.init() has to be called before shapes are built.
+ */
+public class SolidShapeCache implements Disposable {
+
+    public enum Kind {
+        STATIC_MESH,
+        DYNAMIC_HULLS,
+        /**
+         * the same hulls as {@link #DYNAMIC_HULLS} without simplification, for queries that must not miss the mesh
+         */
+        QUERY_HULLS
+    }
+
+    public static final int MAX_HULL_VERTICES = 42;
+    // mesh volume over bounds volume below which a connected part is split into octants, a sphere fills about 0.52
+    public static final float MIN_HULL_FILL = 0.35f;
+
+    private static final Vector3 ONE = new Vector3(1f, 1f, 1f);
+    private final LongMap<Array<Entry>> entries = new LongMap<>();
+    private final ObjectMap<btCollisionShape, Entry> entriesByShape = new ObjectMap<>();
+    private int hits = 0;
+    private int misses = 0;
+
+    public btCollisionShape obtain(MeshData meshData, Kind kind) {
+        return obtain(meshData, kind, ONE);
+    }
+
+    /**
+     * @param scale baked into the shape, shared shapes can not be scaled per collision object
+     * @return the shared shape for the geometry, the reference count is incremented
+     */
+    public btCollisionShape obtain(MeshData meshData, Kind kind, Vector3 scale) {
+        final long hash = geometryHash(meshData, kind, scale);
+        Array<Entry> bucket = entries.get(hash);
+        if (bucket == null) {
+            bucket = new Array<>(1);
+            entries.put(hash, bucket);
+        }
+        for (int i = 0; i < bucket.size; i++) {
+            final Entry entry = bucket.get(i);
+            if (entry.kind == kind && entry.scale.equals(scale) && sameGeometry(entry.meshData, meshData)) {
+                entry.refCount++;
+                hits++;
+                return entry.shape;
+            }
+        }
+        misses++;
+        final Entry entry = kind == Kind.STATIC_MESH ? buildTriangleMesh(meshData, scale) : buildHulls(meshData, kind, scale);
+        entry.hash = hash;
+        entry.refCount = 1;
+        bucket.add(entry);
+        entriesByShape.put(entry.shape, entry);
+        return entry.shape;
+    }
+
+    public btCollisionShape obtain(Solid solid, Kind kind) {
+        return obtain(solid.getMeshData(), kind, solid.getScale());
+    }
+
+    /**
+     * @param mass 0 for a static body with a triangle mesh shape, positive for a dynamic body with convex hulls
+     * @return a constructor that does not dispose the shared shape, {@link #release(btCollisionShape)} its shape after disposing it
+     */
+    public BulletConstructor newConstructor(Solid solid, float mass) {
+        final btCollisionShape shape = obtain(solid, mass > 0f ? Kind.DYNAMIC_HULLS : Kind.STATIC_MESH);
+        return new BulletConstructor(solid.modelInstance.model, mass, shape, false);
+    }
+
+    /**
+     * decrements the reference count of a shape obtained from this cache and disposes it with the last reference
+     */
+    public void release(btCollisionShape shape) {
+        final Entry entry = entriesByShape.get(shape);
+        if (entry == null)
+            throw new IllegalArgumentException("shape was not obtained from this cache or was already disposed");
+        if (--entry.refCount > 0) return;
+        entriesByShape.remove(shape);
+        final Array<Entry> bucket = entries.get(entry.hash);
+        bucket.removeValue(entry, true);
+        if (bucket.size == 0)
+            entries.remove(entry.hash);
+        entry.dispose();
+    }
+
+    public int getRefCount(btCollisionShape shape) {
+        final Entry entry = entriesByShape.get(shape);
+        return entry == null ? 0 : entry.refCount;
+    }
+
+    public int getShapeCount() {
+        return entriesByShape.size;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * disposes every shape regardless of its reference count
+     */
+    @Override
+    public void dispose() {
+        for (Entry entry : entriesByShape.values()) {
+            entry.dispose();
+        }
+        entriesByShape.clear();
+        entries.clear();
+    }
+
+    /**
+     * FNV-1a over the positions and indices, normals do not change the collision shape
+     */
+    static long geometryHash(MeshData meshData, Kind kind, Vector3 scale) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ kind.ordinal()) * 0x100000001b3L;
+        hash = (hash ^ Float.floatToIntBits(scale.x)) * 0x100000001b3L;
+        hash = (hash ^ Float.floatToIntBits(scale.y)) * 0x100000001b3L;
+        hash = (hash ^ Float.floatToIntBits(scale.z)) * 0x100000001b3L;
+        final float[] vertices = meshData.vertices;
+        for (int i = 0; i < vertices.length; i += meshData.vertexSize) {
+            hash = (hash ^ Float.floatToIntBits(vertices[i])) * 0x100000001b3L;
+            hash = (hash ^ Float.floatToIntBits(vertices[i + 1])) * 0x100000001b3L;
+            hash = (hash ^ Float.floatToIntBits(vertices[i + 2])) * 0x100000001b3L;
+        }
+        for (int index : meshData.indices) {
+            hash = (hash ^ index) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static boolean sameGeometry(MeshData a, MeshData b) {
+        return a == b || (a.vertexSize == b.vertexSize && Arrays.equals(a.indices, b.indices) && Arrays.equals(a.vertices, b.vertices));
+    }
+
+    private static Entry buildTriangleMesh(MeshData meshData, Vector3 scale) {
+        final btTriangleMesh triangleMesh = new btTriangleMesh(true, false);
+        final Vector3 v0 = new Vector3(), v1 = new Vector3(), v2 = new Vector3();
+        final int[] indices = meshData.indices;
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            getPosition(meshData, indices[i], v0).scl(scale);
+            getPosition(meshData, indices[i + 1], v1).scl(scale);
+            getPosition(meshData, indices[i + 2], v2).scl(scale);
+            triangleMesh.addTriangle(v0, v1, v2, false);
+        }
+        final Entry entry = new Entry(Kind.STATIC_MESH, meshData, scale, new btBvhTriangleMeshShape(triangleMesh, true));
+        // the shape does not own its mesh interface
+        entry.natives.add(triangleMesh);
+        return entry;
+    }
+
+    private static Entry buildHulls(MeshData meshData, Kind kind, Vector3 scale) {
+        final btCompoundShape compound = new btCompoundShape();
+        final Entry entry = new Entry(kind, meshData, scale, compound);
+        final int[] welded = weldPositions(meshData);
+        final Array<IntArray> parts = connectedParts(meshData, welded);
+        final Matrix4 identity = new Matrix4();
+        for (IntArray part : parts) {
+            if (fill(meshData, part) >= MIN_HULL_FILL) {
+                addHull(meshData, welded, part, scale, compound, identity, entry);
+            } else {
+                for (IntArray octant : splitIntoOctants(meshData, part)) {
+                    addHull(meshData, welded, octant, scale, compound, identity, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * @param welded see {@link #weldPositions(MeshData)}, every position is added to the hull once
+     * @param triangles indices of the first index of every triangle of the hull
+     */
+    private static void addHull(MeshData meshData, int[] welded, IntArray triangles, Vector3 scale, btCompoundShape compound, Matrix4 transform, Entry entry) {
+        if (triangles.size == 0) return;
+        final IntSet added = new IntSet(triangles.size * 2);
+        final FloatBuffer points = BufferUtils.newFloatBuffer(triangles.size * 9);
+        final Vector3 v = new Vector3();
+        for (int t = 0; t < triangles.size; t++) {
+            for (int k = 0; k < 3; k++) {
+                final int vertex = welded[meshData.indices[triangles.get(t) + k]];
+                if (!added.add(vertex)) continue;
+                getPosition(meshData, vertex, v).scl(scale);
+                points.put(v.x).put(v.y).put(v.z);
+            }
+        }
+        points.flip();
+        btConvexHullShape hullShape = new btConvexHullShape(points, added.size, 12);
+        // query hulls keep every point, a simplified hull only has support points and lies inside the mesh
+        if (entry.kind == Kind.DYNAMIC_HULLS && added.size > MAX_HULL_VERTICES) {
+            final btShapeHull shapeHull = new btShapeHull(hullShape);
+            shapeHull.buildHull(hullShape.getMargin());
+            final btConvexHullShape simplified = new btConvexHullShape(shapeHull);
+            shapeHull.dispose();
+            hullShape.dispose();
+            hullShape = simplified;
+        }
+        compound.addChildShape(transform, hullShape);
+        entry.natives.add(hullShape);
+    }
+
+    /**
+     * CSG meshes repeat positions for every face with its own normal, faces sharing a position are connected
+     *
+     * @return for every vertex the lowest vertex index with the same position
+     */
+    private static int[] weldPositions(final MeshData meshData) {
+        final int n = meshData.getNumVertices();
+        final Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        final float[] vertices = meshData.vertices;
+        final int stride = meshData.vertexSize;
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                for (int k = 0; k < 3; k++) {
+                    final int c = Float.compare(vertices[a * stride + k], vertices[b * stride + k]);
+                    if (c != 0) return c;
+                }
+                return a - b;
+            }
+        });
+        final int[] welded = new int[n];
+        int representative = -1;
+        for (int i = 0; i < n; i++) {
+            final int vertex = order[i];
+            if (representative < 0 || !samePosition(vertices, representative * stride, vertex * stride))
+                representative = vertex;
+            welded[vertex] = representative;
+        }
+        return welded;
+    }
+
+    private static boolean samePosition(float[] vertices, int a, int b) {
+        return vertices[a] == vertices[b] && vertices[a + 1] == vertices[b + 1] && vertices[a + 2] == vertices[b + 2];
+    }
+
+    /**
+     * @return the triangles of every connected part, as the index of their first index
+     */
+    private static Array<IntArray> connectedParts(MeshData meshData, int[] welded) {
+        final int[] parent = new int[welded.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        final int[] indices = meshData.indices;
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            final int a = find(parent, welded[indices[i]]);
+            union(parent, a, welded[indices[i + 1]]);
+            union(parent, a, welded[indices[i + 2]]);
+        }
+        final Array<IntArray> parts = new Array<>();
+        final int[] partOfRoot = new int[welded.length];
+        Arrays.fill(partOfRoot, -1);
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            final int root = find(parent, welded[indices[i]]);
+            if (partOfRoot[root] < 0) {
+                partOfRoot[root] = parts.size;
+                parts.add(new IntArray());
+            }
+            parts.get(partOfRoot[root]).add(i);
+        }
+        return parts;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int rootA, int b) {
+        final int rootB = find(parent, b);
+        if (rootB != rootA)
+            parent[rootB] = find(parent, rootA);
+    }
+
+    /**
+     * @return the enclosed volume of a closed part over the volume of its bounds
+     */
+    private static float fill(MeshData meshData, IntArray triangles) {
+        final Vector3 v0 = new Vector3(), v1 = new Vector3(), v2 = new Vector3();
+        final Vector3 min = new Vector3(Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY);
+        final Vector3 max = new Vector3(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY);
+        double volume = 0;
+        for (int t = 0; t < triangles.size; t++) {
+            final int i = triangles.get(t);
+            getPosition(meshData, meshData.indices[i], v0);
+            getPosition(meshData, meshData.indices[i + 1], v1);
+            getPosition(meshData, meshData.indices[i + 2], v2);
+            extend(min, max, v0);
+            extend(min, max, v1);
+            extend(min, max, v2);
+            // signed volume of the tetrahedron with the origin
+            volume += v0.dot(v1.crs(v2)) / 6.0;
+        }
+        final double boundsVolume = (double) (max.x - min.x) * (max.y - min.y) * (max.z - min.z);
+        return boundsVolume <= 0 ? 1f : (float) (Math.abs(volume) / boundsVolume);
+    }
+
+    private static void extend(Vector3 min, Vector3 max, Vector3 v) {
+        min.set(Math.min(min.x, v.x), Math.min(min.y, v.y), Math.min(min.z, v.z));
+        max.set(Math.max(max.x, v.x), Math.max(max.y, v.y), Math.max(max.z, v.z));
+    }
+
+    private static Array<IntArray> splitIntoOctants(MeshData meshData, IntArray triangles) {
+        final Vector3 v = new Vector3();
+        final Vector3 center = new Vector3();
+        for (int t = 0; t < triangles.size; t++) {
+            for (int k = 0; k < 3; k++) {
+                center.add(getPosition(meshData, meshData.indices[triangles.get(t) + k], v));
+            }
+        }
+        center.scl(1f / (triangles.size * 3));
+        final Array<IntArray> octants = new Array<>(8);
+        for (int i = 0; i < 8; i++) {
+            octants.add(new IntArray());
+        }
+        final Vector3 centroid = new Vector3();
+        for (int t = 0; t < triangles.size; t++) {
+            centroid.setZero();
+            for (int k = 0; k < 3; k++) {
+                centroid.add(getPosition(meshData, meshData.indices[triangles.get(t) + k], v));
+            }
+            centroid.scl(1f / 3f);
+            final int octant = (centroid.x > center.x ? 1 : 0) | (centroid.y > center.y ? 2 : 0) | (centroid.z > center.z ? 4 : 0);
+            octants.get(octant).add(triangles.get(t));
+        }
+        return octants;
+    }
+
+    private static Vector3 getPosition(MeshData meshData, int vertex, Vector3 out) {
+        final int i = vertex * meshData.vertexSize;
+        return out.set(meshData.vertices[i], meshData.vertices[i + 1], meshData.vertices[i + 2]);
+    }
+
+    private static class Entry implements Disposable {
+        final Kind kind;
+        final MeshData meshData;
+        final Vector3 scale = new Vector3();
+        final btCollisionShape shape;
+        // child shapes and mesh interfaces the shape references but does not own
+        final Array<Disposable> natives = new Array<>();
+        long hash;
+        int refCount;
+
+        Entry(Kind kind, MeshData meshData, Vector3 scale, btCollisionShape shape) {
+            this.kind = kind;
+            this.meshData = meshData;
+            this.scale.set(scale);
+            this.shape = shape;
+        }
+
+        @Override
+        public void dispose() {
+            shape.dispose();
+            for (int i = natives.size - 1; i >= 0; i--) {
+                natives.get(i).dispose();
+            }
+            natives.clear();
+        }
+    }
+}
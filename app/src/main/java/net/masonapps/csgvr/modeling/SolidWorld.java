@@ -4,10 +4,16 @@ import android.support.annotation.Nullable;
 
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
 
+import net.masonapps.csgvr.utils.MeshData;
+
+import org.masonapps.libgdxgooglevr.gfx.DynamicAabbTree;
 import org.masonapps.libgdxgooglevr.gfx.Entity;
 import org.masonapps.libgdxgooglevr.gfx.World;
 
+import java.util.concurrent.Executor;
+
 /**
  * Created by Bob on 6/23/2017.
  */
@@ -15,8 +21,38 @@ import org.masonapps.libgdxgooglevr.gfx.World;
 public class SolidWorld extends World {
 
     private final Vector3 tempV = new Vector3();
+    private final Vector3 closestHitPoint = new Vector3();
+    private float closestDst = Float.POSITIVE_INFINITY;
+    private final StaticBatcher staticBatcher;
+    @Nullable
+    private Solid selectedSolid = null;
+    private final Array<Solid> uploadingSolids = new Array<>();
+    @Nullable
+    private SolidCollisionWorld collisionWorld = null;
+    private final DynamicAabbTree.RayCastCallback<Entity> solidRayCastCallback = new DynamicAabbTree.RayCastCallback<Entity>() {
+        @Override
+        public float rayCast(Entity entity, Ray ray) {
+            if (entity instanceof Solid && ((Solid) entity).castRay(ray, tempV)) {
+                final float dst = ray.origin.dst(tempV);
+                if (dst < closestDst) {
+                    closestDst = dst;
+                    closestHitPoint.set(tempV);
+                }
+                return dst;
+            }
+            return Float.POSITIVE_INFINITY;
+        }
+    };
 
     public SolidWorld() {
+        staticBatcher = new StaticBatcher(this);
+    }
+
+    /**
+     * @param bakeExecutor runs the static batch bakes, see {@link StaticBatcher#StaticBatcher(World, Executor)}
+     */
+    SolidWorld(Executor bakeExecutor) {
+        staticBatcher = new StaticBatcher(this, bakeExecutor);
     }
 
     @Nullable
@@ -24,34 +60,124 @@ public class SolidWorld extends World {
         return getClosestSolid(ray, null);
     }
 
+    /**
+     * uses the bullet broadphase when {@link #enableCollisionQueries(SolidShapeCache)} was called
+     */
     @Nullable
     public Solid getClosestSolid(Ray ray, @Nullable Vector3 hitPoint) {
-        float closestDst2 = Float.POSITIVE_INFINITY;
-        Solid selected = null;
-        for (Entity entity : entities) {
-            if (entity instanceof Solid) {
-                final Solid solid = (Solid) entity;
-                if (solid.castRay(ray, tempV)) {
-                    final float dst2 = ray.origin.dst2(tempV);
-                    if (dst2 < closestDst2) {
-                        closestDst2 = dst2;
-                        if (hitPoint != null)
-                            hitPoint.set(tempV);
-                        selected = solid;
-                    }
-                }
+        if (collisionWorld != null)
+            return collisionWorld.getClosestSolid(ray, hitPoint);
+        closestDst = Float.POSITIVE_INFINITY;
+        final Solid selected = (Solid) rayCast(ray, solidRayCastCallback);
+        if (selected != null && hitPoint != null)
+            hitPoint.set(closestHitPoint);
+        return selected;
+    }
+
+    /**
+     * mirrors every solid into a {@link SolidCollisionWorld} so ray and overlap queries go through the bullet broadphase
+     */
+    public SolidCollisionWorld enableCollisionQueries(SolidShapeCache shapeCache) {
+        if (collisionWorld == null) {
+            collisionWorld = new SolidCollisionWorld(shapeCache);
+            for (int i = 0; i < entities.size; i++) {
+                if (entities.get(i) instanceof Solid)
+                    collisionWorld.add((Solid) entities.get(i));
             }
         }
-        return selected;
+        return collisionWorld;
+    }
+
+    public void disableCollisionQueries() {
+        if (collisionWorld != null)
+            collisionWorld.dispose();
+        collisionWorld = null;
+    }
+
+    @Nullable
+    public SolidCollisionWorld getCollisionWorld() {
+        return collisionWorld;
+    }
+
+    @Override
+    public Entity add(Entity entity) {
+        super.add(entity);
+        if (collisionWorld != null && entity instanceof Solid)
+            collisionWorld.add((Solid) entity);
+        return entity;
     }
 
     @Override
     public void update() {
+        // swaps happen before the transform pass so a finished mesh is placed this frame
+        for (int i = uploadingSolids.size - 1; i >= 0; i--) {
+            if (uploadingSolids.get(i).stepMeshUpload())
+                uploadingSolids.removeIndex(i);
+        }
         super.update();
-        for (Entity solid : entities) {
-            if (solid instanceof Solid) {
-                ((Solid) solid).updateTransform();
+        staticBatcher.update(selectedSolid);
+    }
+
+    /**
+     * replaces the mesh of a solid over the next frames, see {@link Solid#setMeshData(MeshData)}
+     */
+    public void updateMesh(Solid solid, MeshData meshData) {
+        solid.setMeshData(meshData);
+        if (!uploadingSolids.contains(solid, true))
+            uploadingSolids.add(solid);
+    }
+
+    @Nullable
+    public Solid getSelectedSolid() {
+        return selectedSolid;
+    }
+
+    /**
+     * the selected solid is never merged into a static batch
+     */
+    public void setSelectedSolid(@Nullable Solid selectedSolid) {
+        this.selectedSolid = selectedSolid;
+        if (selectedSolid != null)
+            staticBatcher.release(selectedSolid);
+    }
+
+    public StaticBatcher getStaticBatcher() {
+        return staticBatcher;
+    }
+
+    @Override
+    public void remove(Entity entity) {
+        if (entity instanceof Solid) {
+            staticBatcher.remove((Solid) entity);
+            uploadingSolids.removeValue((Solid) entity, true);
+            if (entity == selectedSolid)
+                selectedSolid = null;
+            if (collisionWorld != null)
+                collisionWorld.remove((Solid) entity);
+        }
+        super.remove(entity);
+    }
+
+    @Override
+    public void clearEntities() {
+        staticBatcher.dispose();
+        if (collisionWorld != null) {
+            for (int i = 0; i < entities.size; i++) {
+                if (entities.get(i) instanceof Solid)
+                    collisionWorld.remove((Solid) entities.get(i));
             }
         }
+        uploadingSolids.clear();
+        selectedSolid = null;
+        super.clearEntities();
+    }
+
+    @Override
+    public void dispose() {
+        staticBatcher.dispose();
+        disableCollisionQueries();
+        uploadingSolids.clear();
+        selectedSolid = null;
+        super.dispose();
     }
 }
@@ -0,0 +1,185 @@
+package net.masonapps.csgvr.modeling;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import net.masonapps.csgvr.utils.MeshData;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * CPU side geometry of solids sharing a material, baked into one world space vertex and index buffer.
+ * Does not touch GL, {@link StaticBatcher} bakes it in the background and uploads the result.
+ */
+public class StaticBatch {
+
+    /**
+     * position and normal
+     */
+    public static final int VERTEX_SIZE = 6;
+
+    public final Material material;
+    private final Array<Solid> solids = new Array<>();
+    private boolean dirty = false;
+    @Nullable
+    private Bake uploaded = null;
+
+    public StaticBatch(Material material) {
+        this.material = material;
+    }
+
+    public void add(Solid solid) {
+        solids.add(solid);
+        dirty = true;
+    }
+
+    public boolean remove(Solid solid) {
+        final boolean removed = solids.removeValue(solid, true);
+        dirty |= removed;
+        return removed;
+    }
+
+    public boolean contains(Solid solid) {
+        return solids.contains(solid, true);
+    }
+
+    public Array<Solid> getSolids() {
+        return solids;
+    }
+
+    public boolean isEmpty() {
+        return solids.size == 0;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * copies the mesh and transform of every solid, call on the GL thread and run the returned bake on any thread
+     */
+    public Bake prepare() {
+        dirty = false;
+        return new Bake(solids);
+    }
+
+    /**
+     * @return the bake the batch is currently drawn from, null before the first upload
+     */
+    @Nullable
+    public Bake getUploaded() {
+        return uploaded;
+    }
+
+    void setUploaded(@Nullable Bake uploaded) {
+        this.uploaded = uploaded;
+    }
+
+    public void clear() {
+        solids.clear();
+        uploaded = null;
+        dirty = true;
+    }
+
+    /**
+     * a snapshot of the solids of a batch, {@link #call()} merges it into one {@link MeshData} without touching the solids
+     */
+    public static class Bake implements Callable<Bake> {
+        private final Solid[] solids;
+        private final int[] modificationCounts;
+        private final MeshData[] meshData;
+        private final Matrix4[] transforms;
+        private final int[] indexOffsets;
+        @Nullable
+        private MeshData result = null;
+
+        private Bake(Array<Solid> solids) {
+            final int count = solids.size;
+            this.solids = new Solid[count];
+            modificationCounts = new int[count];
+            meshData = new MeshData[count];
+            transforms = new Matrix4[count];
+            indexOffsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                final Solid solid = solids.get(i);
+                this.solids[i] = solid;
+                modificationCounts[i] = solid.getModificationCount();
+                meshData[i] = solid.getMeshData();
+                transforms[i] = solid.getTransform();
+                indexOffsets[i + 1] = indexOffsets[i] + meshData[i].indices.length;
+            }
+        }
+
+        @Override
+        public Bake call() {
+            int vertexCount = 0;
+            for (MeshData data : meshData) {
+                vertexCount += data.getNumVertices();
+            }
+            final float[] vertices = new float[vertexCount * VERTEX_SIZE];
+            final int[] indices = new int[indexOffsets[solids.length]];
+            final Matrix4 normalMatrix = new Matrix4();
+            final Vector3 tmp = new Vector3();
+            int v = 0;
+            for (int i = 0; i < solids.length; i++) {
+                final MeshData data = meshData[i];
+                final Matrix4 transform = transforms[i];
+                normalMatrix.set(transform).inv().tra();
+                final int startIndex = v / VERTEX_SIZE;
+                final float[] src = data.vertices;
+                for (int j = 0; j < src.length; j += data.vertexSize) {
+                    tmp.set(src[j], src[j + 1], src[j + 2]).mul(transform);
+                    vertices[v++] = tmp.x;
+                    vertices[v++] = tmp.y;
+                    vertices[v++] = tmp.z;
+                    tmp.set(src[j + 3], src[j + 4], src[j + 5]).rot(normalMatrix).nor();
+                    vertices[v++] = tmp.x;
+                    vertices[v++] = tmp.y;
+                    vertices[v++] = tmp.z;
+                }
+                final int offset = indexOffsets[i];
+                for (int j = 0; j < data.indices.length; j++) {
+                    indices[offset + j] = startIndex + data.indices[j];
+                }
+            }
+            result = new MeshData(vertices, indices, VERTEX_SIZE, Vector3.Zero);
+            return this;
+        }
+
+        public int getSolidCount() {
+            return solids.length;
+        }
+
+        public Solid getSolid(int i) {
+            return solids[i];
+        }
+
+        /**
+         * @return true if the solid was not modified since the snapshot was taken
+         */
+        public boolean isCurrent(int i) {
+            return solids[i].getModificationCount() == modificationCounts[i];
+        }
+
+        /**
+         * @return the first index of solid i in the merged index buffer, i == {@link #getSolidCount()} gives the total
+         */
+        public int getIndexOffset(int i) {
+            return indexOffsets[i];
+        }
+
+        /**
+         * @return world space position/normal pairs, valid after {@link #call()}
+         */
+        public MeshData getMeshData() {
+            if (result == null)
+                throw new IllegalStateException("not baked yet");
+            return result;
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package net.masonapps.csgvr.modeling;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import net.masonapps.csgvr.utils.StagedMeshUpload;
+
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+import org.masonapps.libgdxgooglevr.gfx.World;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Merges solids that have not been invalidated for a number of frames into one {@link StaticBatch} per material,
+ * so a mostly static scene costs one draw call per material. A solid that is invalidated or selected is pulled back
+ * out and draws itself again right away, its triangles are skipped by the parts of the uploaded batch until the
+ * batch is baked again on a background thread and uploaded in chunks by a {@link StagedMeshUpload}.
+ * The merged solids stay in the world for picking with rendering disabled.
+ */
+public class StaticBatcher implements Disposable {
+
+    public static final int DEFAULT_STATIC_FRAMES = 30;
+
+    private static final ExecutorService BAKE_EXECUTOR = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "static-batch-bake");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final World world;
+    private final Executor executor;
+    private final ObjectMap<Solid, Record> records = new ObjectMap<>();
+    private final Array<StaticBatch> batches = new Array<>();
+    private final ObjectMap<StaticBatch, BatchState> states = new ObjectMap<>();
+    private int staticFrames = DEFAULT_STATIC_FRAMES;
+    private int chunkVertices = StagedMeshUpload.DEFAULT_CHUNK_VERTICES;
+    private boolean enabled = true;
+
+    public StaticBatcher(World world) {
+        this(world, BAKE_EXECUTOR);
+    }
+
+    /**
+     * @param executor runs the bakes, everything else happens on the thread calling {@link #update(Solid)}
+     */
+    public StaticBatcher(World world, Executor executor) {
+        this.world = world;
+        this.executor = executor;
+    }
+
+    /**
+     * call once per frame after the transforms have been updated, uploads at most one chunk per batch
+     */
+    public void update(@Nullable Solid selected) {
+        updateMembership(world.entities, selected);
+        for (int i = batches.size - 1; i >= 0; i--) {
+            final StaticBatch batch = batches.get(i);
+            if (batch.isEmpty()) {
+                batches.removeIndex(i);
+                disposeState(states.remove(batch));
+                continue;
+            }
+            final BatchState state = getState(batch);
+            if (state.baking == null && batch.isDirty()) {
+                state.baking = new FutureTask<>(batch.prepare());
+                executor.execute(state.baking);
+            }
+            if (state.baking != null && state.baking.isDone()) {
+                // a stale bake is still uploaded, the ranges of solids that changed since are skipped
+                if (state.upload != null)
+                    state.upload.cancel();
+                state.uploading = getBake(state.baking);
+                state.upload = new StagedMeshUpload(state.uploading.getMeshData(), StagedMeshUpload.DEFAULT_FACTORY, chunkVertices);
+                state.baking = null;
+            }
+            if (state.upload != null && state.upload.step() == StagedMeshUpload.State.READY)
+                swap(batch, state);
+        }
+    }
+
+    private static StaticBatch.Bake getBake(FutureTask<StaticBatch.Bake> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GdxRuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("baking a static batch failed", e.getCause());
+        }
+    }
+
+    private BatchState getState(StaticBatch batch) {
+        BatchState state = states.get(batch);
+        if (state == null) {
+            state = new BatchState();
+            states.put(batch, state);
+        }
+        return state;
+    }
+
+    /**
+     * moves solids into and out of batches, does not touch GL
+     *
+     * @return true if any batch changed
+     */
+    public boolean updateMembership(Array<Entity> entities, @Nullable Solid selected) {
+        boolean changed = false;
+        for (int i = 0; i < entities.size; i++) {
+            final Entity entity = entities.get(i);
+            if (!(entity instanceof Solid)) continue;
+            final Solid solid = (Solid) entity;
+            Record record = records.get(solid);
+            if (record == null) {
+                record = new Record(solid.getModificationCount());
+                records.put(solid, record);
+            }
+            if (!enabled || solid == selected || record.modificationCount != solid.getModificationCount()) {
+                record.modificationCount = solid.getModificationCount();
+                record.stableFrames = 0;
+                changed |= split(solid, record);
+            } else if (record.batch == null && solid.isRenderingEnabled() && ++record.stableFrames >= staticFrames) {
+                merge(solid, record);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * the solid keeps drawing itself until an upload that contains it is swapped in
+     */
+    private void merge(Solid solid, Record record) {
+        final Material material = solid.modelInstance.materials.first();
+        StaticBatch batch = findBatch(material);
+        if (batch == null) {
+            batch = new StaticBatch(material);
+            batches.add(batch);
+        }
+        batch.add(solid);
+        record.batch = batch;
+    }
+
+    /**
+     * every solid creates its own material instance, so batches are matched by attribute values rather than by id
+     */
+    @Nullable
+    private StaticBatch findBatch(Material material) {
+        for (int i = 0; i < batches.size; i++) {
+            if (batches.get(i).material.same(material, true))
+                return batches.get(i);
+        }
+        return null;
+    }
+
+    private boolean split(Solid solid, Record record) {
+        final StaticBatch batch = record.batch;
+        if (batch == null) return false;
+        batch.remove(solid);
+        record.batch = null;
+        solid.setRenderingEnabled(true);
+        final BatchState state = states.get(batch);
+        if (state != null && state.entity != null)
+            updateParts(batch, state);
+        return true;
+    }
+
+    /**
+     * pulls the solid out of its batch immediately, call before editing a solid outside of {@link #update(Solid)}
+     */
+    public void release(Solid solid) {
+        final Record record = records.get(solid);
+        if (record == null) return;
+        record.stableFrames = 0;
+        split(solid, record);
+    }
+
+    /**
+     * stops tracking a solid that was removed from the world
+     */
+    public void remove(Solid solid) {
+        final Record record = records.get(solid);
+        if (record == null) return;
+        split(solid, record);
+        records.remove(solid);
+    }
+
+    private void swap(StaticBatch batch, BatchState state) {
+        final Array<Mesh> meshes = state.upload.takeMeshes();
+        final StaticBatch.Bake bake = state.uploading;
+        state.upload = null;
+        state.uploading = null;
+        if (state.entity != null) {
+            world.remove(state.entity);
+            state.entity.modelInstance.model.dispose();
+        }
+        final ModelBuilder modelBuilder = new ModelBuilder();
+        modelBuilder.begin();
+        for (int i = 0; i < meshes.size; i++) {
+            modelBuilder.part("batch" + i, meshes.get(i), GL20.GL_TRIANGLES, batch.material);
+        }
+        final Model model = modelBuilder.end();
+        state.entity = new Entity(new ModelInstance(model));
+        state.meshes.clear();
+        state.meshes.addAll(meshes);
+        batch.setUploaded(bake);
+        for (int i = 0; i < bake.getSolidCount(); i++) {
+            if (isShown(batch, bake, i))
+                bake.getSolid(i).setRenderingEnabled(false);
+        }
+        updateParts(batch, state);
+        world.add(state.entity);
+    }
+
+    private boolean isShown(StaticBatch batch, StaticBatch.Bake bake, int i) {
+        final Record record = records.get(bake.getSolid(i));
+        return record != null && record.batch == batch && bake.isCurrent(i);
+    }
+
+    /**
+     * rebuilds the parts of the batch entity so they cover only the index ranges of solids that are still batched,
+     * the meshes hold the triangles of the bake in order so a range may continue into the next mesh
+     */
+    private void updateParts(StaticBatch batch, BatchState state) {
+        final StaticBatch.Bake bake = batch.getUploaded();
+        final ModelInstance modelInstance = state.entity.modelInstance;
+        final Array<Mesh> meshes = state.meshes;
+        final Array<NodePart> parts = modelInstance.nodes.first().parts;
+        final Material material = modelInstance.materials.first();
+        parts.clear();
+        int mesh = 0;
+        int meshStart = 0;
+        int i = 0;
+        while (i < bake.getSolidCount()) {
+            if (!isShown(batch, bake, i)) {
+                i++;
+                continue;
+            }
+            final int start = bake.getIndexOffset(i);
+            while (i < bake.getSolidCount() && isShown(batch, bake, i)) {
+                i++;
+            }
+            final int end = bake.getIndexOffset(i);
+            if (start == end) continue;
+            while (meshStart + meshes.get(mesh).getNumIndices() <= start) {
+                meshStart += meshes.get(mesh++).getNumIndices();
+            }
+            int offset = start;
+            while (offset < end) {
+                final int meshEnd = meshStart + meshes.get(mesh).getNumIndices();
+                final int size = Math.min(end, meshEnd) - offset;
+                final MeshPart meshPart = new MeshPart("batch" + parts.size, meshes.get(mesh), offset - meshStart, size, GL20.GL_TRIANGLES);
+                parts.add(new NodePart(meshPart, material));
+                offset += size;
+                if (offset == meshEnd) {
+                    meshStart = meshEnd;
+                    mesh++;
+                }
+            }
+        }
+    }
+
+    private void disposeState(@Nullable BatchState state) {
+        if (state == null) return;
+        if (state.baking != null)
+            state.baking.cancel(false);
+        if (state.upload != null)
+            state.upload.cancel();
+        if (state.entity != null) {
+            world.remove(state.entity);
+            state.entity.modelInstance.model.dispose();
+            state.entity = null;
+        }
+        state.meshes.clear();
+    }
+
+    public int getStaticFrames() {
+        return staticFrames;
+    }
+
+    public void setStaticFrames(int staticFrames) {
+        this.staticFrames = staticFrames;
+    }
+
+    /**
+     * limits the vertices uploaded per batch and frame
+     */
+    public void setChunkVertices(int chunkVertices) {
+        this.chunkVertices = chunkVertices;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * a disabled batcher splits every batch on the next update
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Array<StaticBatch> getBatches() {
+        return batches;
+    }
+
+    /**
+     * @return the entity drawing the uploaded part of the batch, null until the first upload is swapped in
+     */
+    @Nullable
+    public Entity getBatchEntity(StaticBatch batch) {
+        final BatchState state = states.get(batch);
+        return state == null ? null : state.entity;
+    }
+
+    /**
+     * @return true if the solid belongs to a batch, it draws itself until an upload containing it is swapped in
+     */
+    public boolean isBatched(Solid solid) {
+        final Record record = records.get(solid);
+        return record != null && record.batch != null;
+    }
+
+    @Override
+    public void dispose() {
+        for (BatchState state : states.values()) {
+            disposeState(state);
+        }
+        states.clear();
+        for (ObjectMap.Entry<Solid, Record> entry : records.entries()) {
+            if (entry.value.batch != null)
+                entry.key.setRenderingEnabled(true);
+        }
+        records.clear();
+        for (int i = 0; i < batches.size; i++) {
+            batches.get(i).clear();
+        }
+        batches.clear();
+    }
+
+    private static class Record {
+        int modificationCount;
+        int stableFrames = 0;
+        @Nullable
+        StaticBatch batch = null;
+
+        Record(int modificationCount) {
+            this.modificationCount = modificationCount;
+        }
+    }
+
+    private static class BatchState {
+        @Nullable
+        Entity entity = null;
+        final Array<Mesh> meshes = new Array<>();
+        @Nullable
+        FutureTask<StaticBatch.Bake> baking = null;
+        @Nullable
+        StaticBatch.Bake uploading = null;
+        @Nullable
+        StagedMeshUpload upload = null;
+    }
+}
@@ -7,7 +7,6 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.math.Vector3;
 
-import net.masonapps.csgvr.modeling.Solid;
 import net.masonapps.csgvr.utils.ConversionUtils;
 
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
@@ -34,7 +33,8 @@ public class Box extends Primitive {
     }
 
     @Override
-    public Solid createSolid() {
+    public PolyhedronsSet createPolyhedronsSet() {
+        updateTransform();
         List<Vector3D> vertices = new ArrayList<>();
         List<int[]> facets = new ArrayList<>();
 
@@ -80,7 +80,7 @@ public class Box extends Primitive {
         //right
         facets.add(new int[]{6, 5, 2, 1});
 
-        return new Solid(new PolyhedronsSet(vertices, facets, 1e-10));
+        return new PolyhedronsSet(vertices, facets, 1e-10);
     }
 
     public void setDimensions(float width, float height, float depth) {
@@ -8,7 +8,6 @@ import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
 
-import net.masonapps.csgvr.modeling.Solid;
 import net.masonapps.csgvr.utils.ConversionUtils;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
@@ -23,7 +22,8 @@ import org.apache.commons.math3.geometry.partitioning.RegionFactory;
 
 public class Cylinder extends Primitive {
 
-    private int divisions;
+    private static final int DEFAULT_DIVISIONS = 16;
+    private int divisions = DEFAULT_DIVISIONS;
 
     public Cylinder() {
         this(1, 1);
@@ -32,18 +32,21 @@ public class Cylinder extends Primitive {
     public Cylinder(float radius, float height) {
         setRadius(radius);
         setHeight(height);
-        this.divisions = 16;
     }
 
+    /**
+     * called from the super constructor before the fields are set, so the preview uses the default divisions
+     */
     @Override
     protected ModelInstance createModelInstance() {
         final ModelBuilder modelBuilder = new ModelBuilder();
-        final Model model = modelBuilder.createCylinder(1f, 1f, 1f, divisions, new Material(), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        final Model model = modelBuilder.createCylinder(1f, 1f, 1f, DEFAULT_DIVISIONS, new Material(), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
         return new ModelInstance(model);
     }
 
     @Override
-    public Solid createSolid() {
+    public PolyhedronsSet createPolyhedronsSet() {
+        updateTransform();
         double height = 1f;
         double radius = 1f;
         final Plane[] planes = new Plane[divisions + 2];
@@ -57,7 +60,7 @@ public class Cylinder extends Primitive {
             double z = radius * Math.sin(a);
             planes[i + 2] = new Plane(ConversionUtils.mulVector3D(modelInstance.transform, new Vector3D(x, y, z)), ConversionUtils.mulVector3D(rotMatrix, new Vector3D(x, y, z)), tolerance);
         }
-        return new Solid((PolyhedronsSet) new RegionFactory<Euclidean3D>().buildConvex(planes));
+        return (PolyhedronsSet) new RegionFactory<Euclidean3D>().buildConvex(planes);
     }
 
     public int getDivisions() {
@@ -66,6 +69,7 @@ public class Cylinder extends Primitive {
 
     public void setDivisions(int divisions) {
         this.divisions = divisions;
+        invalidate();
     }
 
     public void setRadius(float radius) {
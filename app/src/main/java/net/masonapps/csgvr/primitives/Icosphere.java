@@ -4,14 +4,15 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 
-import net.masonapps.csgvr.modeling.Solid;
 import net.masonapps.csgvr.utils.ConversionUtils;
 
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Bob on 6/13/2017.
@@ -19,8 +20,6 @@ import java.util.List;
 
 public class Icosphere extends Primitive {
 
-
-    List<int[]> facets = new ArrayList<>();
     private float radius = 1f;
     private int subdivisions = 3;
     private Matrix4 transform = new Matrix4();
@@ -34,13 +33,16 @@ public class Icosphere extends Primitive {
         return null;
     }
 
+    /**
+     * builds the sphere from scratch every call, so it can be evaluated again after an edit
+     */
     @Override
-    public Solid createSolid() {
-        List<Vector3> tempVerts = new ArrayList<>();
-        List<Vector3D> vertices = new ArrayList<>();
+    public PolyhedronsSet createPolyhedronsSet() {
+        final List<Vector3> tempVerts = new ArrayList<>();
+        List<int[]> facets = new ArrayList<>();
 
         float t = (float) (0.5 + Math.sqrt(5.0) / 2.0);
-        transform.scale(radius, radius, radius);
+        transform.idt().translate(position).rotate(rotation).scale(radius, radius, radius);
 
         tempVerts.add(new Vector3(-1, t, 0).nor());
         tempVerts.add(new Vector3(1, t, 0).nor());
@@ -82,69 +84,57 @@ public class Icosphere extends Primitive {
         facets.add(new int[]{9, 8, 1});
 
         for (int i = 0; i < subdivisions; i++) {
-            final ArrayList<int[]> list = new ArrayList<>();
-            list.addAll(facets);
-            subdivide(tempVerts, list);
+            facets = subdivide(tempVerts, facets);
         }
 
+        final List<Vector3D> vertices = new ArrayList<>(tempVerts.size());
         for (int i = 0; i < tempVerts.size(); i++) {
             vertices.add(ConversionUtils.convertVector(tempVerts.get(i).mul(transform)));
         }
-        tempVerts.clear();
-        return new Solid(new PolyhedronsSet(vertices, facets, tolerance));
+        return new PolyhedronsSet(vertices, facets, tolerance);
     }
 
-    private void subdivide(List<Vector3> vertices, List<int[]> faces) {
-        int i = 0;
+    /**
+     * splits every face into four, the midpoint of an edge is shared by both faces that use it
+     */
+    private static List<int[]> subdivide(List<Vector3> vertices, List<int[]> faces) {
+        final List<int[]> result = new ArrayList<>(faces.size() * 4);
+        final Map<Long, Integer> midpoints = new HashMap<>();
         for (int[] facet : faces) {
-            final Vector3 a = vertices.get(facet[0]);
-            final Vector3 b = vertices.get(facet[1]);
-            final Vector3 c = vertices.get(facet[2]);
-
-            final Vector3 ab = new Vector3(a).lerp(b, 0.5f).nor();
-            final Vector3 bc = new Vector3(b).lerp(c, 0.5f).nor();
-            final Vector3 ca = new Vector3(c).lerp(a, 0.5f).nor();
-
-            int iab = vertices.indexOf(ab);
-            if (iab == -1) {
-                iab = i++;
-                vertices.add(ab);
-            }
-
-            int ibc = vertices.indexOf(bc);
-            if (ibc == -1) {
-                ibc = i++;
-                vertices.add(bc);
-            }
-
-            int ica = vertices.indexOf(ca);
-            if (ica == -1) {
-                ica = i++;
-                vertices.add(ca);
-            }
-
-            int ia = vertices.indexOf(a);
-            if (ia == -1) {
-                ia = i++;
-                vertices.add(a);
-            }
-
-            int ib = vertices.indexOf(b);
-            if (ib == -1) {
-                ib = i++;
-                vertices.add(b);
-            }
-
-            int ic = vertices.indexOf(c);
-            if (ic == -1) {
-                ic = i++;
-                vertices.add(c);
-            }
-
-            facets.add(new int[]{ia, iab, ica});
-            facets.add(new int[]{ib, ibc, iab});
-            facets.add(new int[]{ic, ica, ibc});
-            facets.add(new int[]{iab, ibc, ica});
+            final int ia = facet[0];
+            final int ib = facet[1];
+            final int ic = facet[2];
+            final int iab = midpoint(vertices, midpoints, ia, ib);
+            final int ibc = midpoint(vertices, midpoints, ib, ic);
+            final int ica = midpoint(vertices, midpoints, ic, ia);
+
+            result.add(new int[]{ia, iab, ica});
+            result.add(new int[]{ib, ibc, iab});
+            result.add(new int[]{ic, ica, ibc});
+            result.add(new int[]{iab, ibc, ica});
         }
+        return result;
+    }
+
+    private static int midpoint(List<Vector3> vertices, Map<Long, Integer> midpoints, int a, int b) {
+        final long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+        final Integer index = midpoints.get(key);
+        if (index != null) return index;
+        vertices.add(new Vector3(vertices.get(a)).lerp(vertices.get(b), 0.5f).nor());
+        midpoints.put(key, vertices.size() - 1);
+        return vertices.size() - 1;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public int getSubdivisions() {
+        return subdivisions;
+    }
+
+    public void setSubdivisions(int subdivisions) {
+        this.subdivisions = subdivisions;
+        invalidate();
     }
 }
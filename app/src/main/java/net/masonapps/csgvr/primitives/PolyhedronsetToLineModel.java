@@ -8,8 +8,11 @@ import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import net.masonapps.csgvr.utils.MeshData;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
 import org.apache.commons.math3.geometry.euclidean.threed.Plane;
@@ -31,28 +34,29 @@ public class PolyhedronsetToLineModel {
 
     public static ModelInstance convert(PolyhedronsSet polyhedronsSet) {
         final FloatArray vertices = new FloatArray();
-        final ShortArray indices = new ShortArray();
+        final IntArray indices = new IntArray();
 
         polyhedronsSet.getTree(true).visit(new LineVisitor(vertices, indices));
 
-        final Mesh mesh = new Mesh(false, vertices.size, indices.size, VertexAttribute.Position(), VertexAttribute.ColorPacked());
-        mesh.setVertices(vertices.toArray());
-        mesh.setIndices(indices.toArray());
+        final Array<Mesh> meshes = MeshData.createMeshes(vertices.toArray(), indices.toArray(), 4, 2, VertexAttribute.Position(), VertexAttribute.ColorPacked());
 
         final ModelBuilder modelBuilder = new ModelBuilder();
         modelBuilder.begin();
-        modelBuilder.part("", mesh, GL20.GL_LINES, new Material(ColorAttribute.createDiffuse(Color.WHITE)));
+        final Material material = new Material(ColorAttribute.createDiffuse(Color.WHITE));
+        for (Mesh mesh : meshes) {
+            modelBuilder.part("", mesh, GL20.GL_LINES, material);
+        }
 
         return new ModelInstance(modelBuilder.end());
     }
 
     private static class LineVisitor implements BSPTreeVisitor<Euclidean3D> {
         private final FloatArray vertices;
-        private final ShortArray indices;
+        private final IntArray indices;
         private int index = 0;
         private float c = 0;
 
-        public LineVisitor(FloatArray vertices, ShortArray indices) {
+        public LineVisitor(FloatArray vertices, IntArray indices) {
 
             this.vertices = vertices;
             this.indices = indices;
@@ -120,14 +124,14 @@ public class PolyhedronsetToLineModel {
                 vertices.add((float) (start.getZ() + nor.getZ()));
                 c += 0.125f;
                 c %= 1f;
-                vertices.add(new Color(1f - c, 0f, c, 1).toFloatBits());
+                vertices.add(Color.toFloatBits(1f - c, 0f, c, 1f));
                 indices.add(index++);
 
                 vertices.add((float) (end.getX() + nor.getX()));
                 vertices.add((float) (end.getY() + nor.getY()));
                 vertices.add((float) (end.getZ() + nor.getZ()));
 //                final float c2 = (index * 0.1f) % 1f;
-                vertices.add(new Color(1f - c, 0f, c, 1).toFloatBits());
+                vertices.add(Color.toFloatBits(1f - c, 0f, c, 1f));
                 indices.add(index++);
             }
         }
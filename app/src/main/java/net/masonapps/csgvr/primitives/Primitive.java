@@ -1,13 +1,18 @@
 package net.masonapps.csgvr.primitives;
 
+import android.support.annotation.Nullable;
+
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
 
+import net.masonapps.csgvr.modeling.CsgNode;
 import net.masonapps.csgvr.modeling.Solid;
 
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+
 /**
  * Created by Bob on 5/16/2017.
  */
@@ -25,16 +30,19 @@ public abstract class Primitive {
     protected ModelInstance modelInstance;
     private BoundingBox boundingBox = new BoundingBox();
     private Ray tempRay = new Ray();
+    @Nullable
+    private CsgNode csgNode = null;
 
     public Primitive() {
         modelInstance = createModelInstance();
-        modelInstance.calculateBoundingBox(boundingBox);
+        if (modelInstance != null)
+            modelInstance.calculateBoundingBox(boundingBox);
     }
 
     protected abstract ModelInstance createModelInstance();
 
     protected void updateTransform() {
-        if (isTransformUpdated) return;
+        if (isTransformUpdated || modelInstance == null) return;
 
         modelInstance.transform.set(position, rotation, scale);
 
@@ -167,6 +175,10 @@ public abstract class Primitive {
         invalidate();
     }
 
+    public Vector3 getScale() {
+        return scale;
+    }
+
     public void setScale(Vector3 scale) {
         this.scale.set(scale);
         invalidate();
@@ -214,13 +226,34 @@ public abstract class Primitive {
 
     protected void invalidate() {
         isTransformUpdated = false;
+        if (csgNode != null)
+            csgNode.invalidate();
+    }
+
+    @Nullable
+    public CsgNode getCsgNode() {
+        return csgNode;
+    }
+
+    /**
+     * edits of the primitive clear the cached results of this node, set by the {@link CsgNode} constructor
+     */
+    public void setCsgNode(@Nullable CsgNode csgNode) {
+        this.csgNode = csgNode;
     }
 
     public BoundingBox getBoundingBox() {
         return boundingBox;
     }
 
-    public abstract Solid createSolid();
+    public abstract PolyhedronsSet createPolyhedronsSet();
+
+    /**
+     * the solid keeps a leaf node for this primitive, so it can be saved and re-evaluated after edits
+     */
+    public Solid createSolid() {
+        return new Solid(new CsgNode(null, this));
+    }
 
     public double getTolerance() {
         return tolerance;
@@ -2,8 +2,8 @@ package net.masonapps.csgvr.ui;
 
 import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.math.Vector3;
-import com.google.vr.sdk.controller.Controller;
 
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
 import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
@@ -55,17 +55,17 @@ public class DaydreamCameraController implements DaydreamControllerInputListener
 //    }
 
     @Override
-    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+    public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
         
     }
 
     @Override
-    public void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event) {
+    public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
 
     }
 
     @Override
-    public void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event) {
+    public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
 
     }
 
@@ -5,15 +5,15 @@ import android.util.SparseIntArray;
 
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Mesh;
-import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.g3d.Material;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.IntArray;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Plane;
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
@@ -55,24 +55,39 @@ public class ConversionUtils {
                 * l_mat[Matrix4.M21] + z * l_mat[Matrix4.M22] + l_mat[Matrix4.M23]);
     }
 
-    public static Mesh polyhedronsSetToMesh(PolyhedronsSet polyhedronsSet) {
+    public static Array<Mesh> polyhedronsSetToMeshes(PolyhedronsSet polyhedronsSet) {
+        return polyhedronsSetToMeshData(polyhedronsSet).createMeshes();
+    }
+
+    public static MeshData polyhedronsSetToMeshData(PolyhedronsSet polyhedronsSet) {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.POLYHEDRONS_TO_MESH);
         final FloatArray vertices = new FloatArray();
-        final ShortArray indices = new ShortArray();
-
-        polyhedronsSet.getTree(true).visit(new MeshCreationTreeVisitor(vertices, indices, (Vector3D) polyhedronsSet.getBarycenter()));
-        final Mesh mesh = new Mesh(false, vertices.size, indices.size, VertexAttribute.Position(), VertexAttribute.Normal());
-        mesh.setIndices(indices.toArray());
-        final float[] vertArray = vertices.toArray();
-        mesh.setVertices(vertArray);
-        return mesh;
+        final IntArray indices = new IntArray();
+        final Vector3D center = (Vector3D) polyhedronsSet.getBarycenter();
+
+        final MeshCreationTreeVisitor visitor = new MeshCreationTreeVisitor(center);
+        polyhedronsSet.getTree(true).visit(visitor);
+        visitor.triangulate(vertices, indices);
+        if (event != null)
+            GeometryEvents.end(event, GeometryEvents.countNodes(polyhedronsSet.getTree(false)), indices.size / 3);
+        return new MeshData(vertices.toArray(), indices.toArray(), MeshCreationTreeVisitor.VERTEX_SIZE, convertVector(center));
     }
 
     public static ModelInstance polyhedronsSetToModelInstance(PolyhedronsSet polyhedronsSet, Material material) {
-        final Mesh mesh = ConversionUtils.polyhedronsSetToMesh(polyhedronsSet);
+        return meshDataToModelInstance(polyhedronsSetToMeshData(polyhedronsSet), material);
+    }
+
+    public static ModelInstance meshDataToModelInstance(MeshData meshData, Material material) {
+        return meshesToModelInstance(meshData.createMeshes(), material, new Matrix4().setToTranslation(meshData.center));
+    }
+
+    public static ModelInstance meshesToModelInstance(Array<Mesh> meshes, Material material, Matrix4 transform) {
         final ModelBuilder modelBuilder = new ModelBuilder();
         modelBuilder.begin();
-        modelBuilder.part("mesh", mesh, GL20.GL_TRIANGLES, material);
-        return new ModelInstance(modelBuilder.end(), new Matrix4().setToTranslation(convertVector((Vector3D) polyhedronsSet.getBarycenter())));
+        for (int i = 0; i < meshes.size; i++) {
+            modelBuilder.part("mesh" + i, meshes.get(i), GL20.GL_TRIANGLES, material);
+        }
+        return new ModelInstance(modelBuilder.end(), transform);
     }
 
     public static PolyhedronsSet meshToPolyhedronSet(Mesh mesh) {
@@ -116,7 +131,7 @@ public class ConversionUtils {
         }
 
         for (int i = 0; i < indices.length; i++) {
-            int index = indices[i];
+            int index = indices[i] & 0xFFFF;
             outIndices.add(indexMap.get(index, index));
         }
     }
@@ -0,0 +1,348 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.model.MeshPart;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import net.masonapps.csgvr.modeling.SolidWorld;
+
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Exports the entities of a {@link SolidWorld} as binary glTF 2.0.
+ * Every mesh is written once as an interleaved buffer view. Meshes are matched by their vertex and index data, so
+ * entities with equal geometry reference the same glTF mesh even though every solid builds its own {@link Model}.
+ * Entities that are not rendering, like solids merged into a static batch, are skipped.
+ * Call {@link SolidWorld#update()} before exporting so the entity transforms are current.
+ */
+
+public class GLBExporter {
+
+    private static final int GLB_MAGIC = 0x46546C67; // glTF
+    private static final int GLB_VERSION = 2;
+    private static final int CHUNK_JSON = 0x4E4F534A;
+    private static final int CHUNK_BIN = 0x004E4942;
+
+    private static final int ARRAY_BUFFER = 34962;
+    private static final int ELEMENT_ARRAY_BUFFER = 34963;
+    private static final int FLOAT = 5126;
+    private static final int UNSIGNED_SHORT = 5123;
+
+    // one representative model per glTF mesh
+    private final Array<Model> models = new Array<>();
+    private final ObjectIntMap<Model> modelIndices = new ObjectIntMap<>();
+    private final ObjectIntMap<String> modelKeys = new ObjectIntMap<>();
+    private final Array<MeshEntry> meshEntries = new Array<>();
+    private final ObjectIntMap<Mesh> meshIndices = new ObjectIntMap<>();
+    private final ObjectIntMap<MeshEntry> meshKeys = new ObjectIntMap<>();
+    private final StringBuilder keyBuilder = new StringBuilder();
+    private final Array<Entity> entities = new Array<>();
+    private int binLength = 0;
+
+    public GLBExporter(SolidWorld world) {
+        for (Entity entity : world.entities) {
+            if (entity.modelInstance == null || !entity.isRenderingEnabled()) continue;
+            final Model model = entity.modelInstance.model;
+            if (!modelIndices.containsKey(model))
+                addModel(model);
+            entities.add(entity);
+        }
+    }
+
+    private void addModel(Model model) {
+        // the parts of two models with equal meshes only differ in their mesh objects
+        keyBuilder.setLength(0);
+        for (MeshPart meshPart : model.meshParts) {
+            keyBuilder.append(addMesh(meshPart.mesh)).append(':')
+                    .append(meshPart.offset).append(':')
+                    .append(meshPart.size).append(':')
+                    .append(meshPart.primitiveType).append(';');
+        }
+        final String key = keyBuilder.toString();
+        int index = modelKeys.get(key, -1);
+        if (index == -1) {
+            index = models.size;
+            modelKeys.put(key, index);
+            models.add(model);
+        }
+        modelIndices.put(model, index);
+    }
+
+    /**
+     * @return the index of the entry holding the data of the mesh
+     */
+    private int addMesh(Mesh mesh) {
+        int index = meshIndices.get(mesh, -1);
+        if (index != -1) return index;
+        final MeshEntry entry = new MeshEntry(mesh);
+        index = meshKeys.get(entry, -1);
+        if (index != -1) {
+            meshIndices.put(mesh, index);
+            return index;
+        }
+        index = meshEntries.size;
+        entry.vertexOffset = binLength;
+        binLength += align4(entry.vertices.length * 4);
+        entry.indexOffset = binLength;
+        binLength += align4(entry.indices.length * 2);
+        meshIndices.put(mesh, index);
+        meshKeys.put(entry, index);
+        meshEntries.add(entry);
+        return index;
+    }
+
+    private static int align4(int length) {
+        return (length + 3) & ~3;
+    }
+
+    public void writeToFile(File file) throws IOException {
+        final ByteBuffer buffer = write();
+        final FileChannel channel = new FileOutputStream(file).getChannel();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * @return a little-endian buffer holding the whole .glb file, positioned at 0
+     */
+    public ByteBuffer write() {
+        final byte[] json = createJson().getBytes(Charset.forName("UTF-8"));
+        final int jsonLength = align4(json.length);
+        final int totalLength = 12 + 8 + jsonLength + (binLength > 0 ? 8 + binLength : 0);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(totalLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(GLB_MAGIC);
+        buffer.putInt(GLB_VERSION);
+        buffer.putInt(totalLength);
+
+        buffer.putInt(jsonLength);
+        buffer.putInt(CHUNK_JSON);
+        buffer.put(json);
+        for (int i = json.length; i < jsonLength; i++) {
+            buffer.put((byte) ' ');
+        }
+
+        if (binLength > 0) {
+            buffer.putInt(binLength);
+            buffer.putInt(CHUNK_BIN);
+            final int binStart = buffer.position();
+            for (MeshEntry entry : meshEntries) {
+                buffer.position(binStart + entry.vertexOffset);
+                buffer.asFloatBuffer().put(entry.vertices);
+                buffer.position(binStart + entry.indexOffset);
+                buffer.asShortBuffer().put(entry.indices);
+            }
+            // padding bytes are already zero
+            buffer.position(totalLength);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private String createJson() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"asset\":{\"version\":\"2.0\",\"generator\":\"csgvr\"}");
+        sb.append(",\"scene\":0,\"scenes\":[{\"nodes\":[");
+        for (int i = 0; i < entities.size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(i);
+        }
+        sb.append("]}]");
+
+        sb.append(",\"nodes\":[");
+        for (int i = 0; i < entities.size; i++) {
+            if (i > 0) sb.append(',');
+            final Entity entity = entities.get(i);
+            sb.append("{\"mesh\":").append(modelIndices.get(entity.modelInstance.model, 0));
+            final Matrix4 transform = entity.modelInstance.transform;
+            if (!isIdentity(transform)) {
+                // both libgdx and glTF store matrices column-major
+                sb.append(",\"matrix\":[");
+                for (int j = 0; j < 16; j++) {
+                    if (j > 0) sb.append(',');
+                    sb.append(transform.val[j]);
+                }
+                sb.append(']');
+            }
+            sb.append('}');
+        }
+        sb.append(']');
+
+        // vertex accessors of every mesh entry first, the index accessors of the mesh parts are appended while writing the meshes
+        final Array<StringBuilder> accessors = new Array<>();
+        final StringBuilder bufferViews = new StringBuilder();
+        int bufferViewCount = 0;
+        for (int i = 0; i < meshEntries.size; i++) {
+            final MeshEntry entry = meshEntries.get(i);
+            entry.vertexView = bufferViewCount++;
+            if (i > 0) bufferViews.append(',');
+            bufferViews.append("{\"buffer\":0,\"byteOffset\":").append(entry.vertexOffset)
+                    .append(",\"byteLength\":").append(entry.vertices.length * 4)
+                    .append(",\"byteStride\":").append(entry.vertexSize * 4)
+                    .append(",\"target\":").append(ARRAY_BUFFER).append('}');
+            if (entry.indices.length > 0) {
+                entry.indexView = bufferViewCount++;
+                bufferViews.append(",{\"buffer\":0,\"byteOffset\":").append(entry.indexOffset)
+                        .append(",\"byteLength\":").append(entry.indices.length * 2)
+                        .append(",\"target\":").append(ELEMENT_ARRAY_BUFFER).append('}');
+            }
+
+            entry.positionAccessor = accessors.size;
+            final StringBuilder position = new StringBuilder();
+            position.append("{\"bufferView\":").append(entry.vertexView)
+                    .append(",\"byteOffset\":").append(entry.positionOffset * 4)
+                    .append(",\"componentType\":").append(FLOAT)
+                    .append(",\"count\":").append(entry.getNumVertices())
+                    .append(",\"type\":\"VEC3\",\"min\":[").append(entry.min[0]).append(',').append(entry.min[1]).append(',').append(entry.min[2])
+                    .append("],\"max\":[").append(entry.max[0]).append(',').append(entry.max[1]).append(',').append(entry.max[2]).append("]}");
+            accessors.add(position);
+
+            if (entry.normalOffset >= 0) {
+                entry.normalAccessor = accessors.size;
+                final StringBuilder normal = new StringBuilder();
+                normal.append("{\"bufferView\":").append(entry.vertexView)
+                        .append(",\"byteOffset\":").append(entry.normalOffset * 4)
+                        .append(",\"componentType\":").append(FLOAT)
+                        .append(",\"count\":").append(entry.getNumVertices())
+                        .append(",\"type\":\"VEC3\"}");
+                accessors.add(normal);
+            }
+        }
+
+        final StringBuilder meshes = new StringBuilder();
+        for (int i = 0; i < models.size; i++) {
+            if (i > 0) meshes.append(',');
+            meshes.append("{\"primitives\":[");
+            final Array<MeshPart> meshParts = models.get(i).meshParts;
+            for (int j = 0; j < meshParts.size; j++) {
+                final MeshPart meshPart = meshParts.get(j);
+                final int entryIndex = meshIndices.get(meshPart.mesh, 0);
+                final MeshEntry entry = meshEntries.get(entryIndex);
+                if (j > 0) meshes.append(',');
+                meshes.append("{\"attributes\":{\"POSITION\":").append(entry.positionAccessor);
+                if (entry.normalAccessor >= 0)
+                    meshes.append(",\"NORMAL\":").append(entry.normalAccessor);
+                meshes.append('}');
+                if (entry.indices.length > 0) {
+                    meshes.append(",\"indices\":").append(accessors.size);
+                    final StringBuilder indices = new StringBuilder();
+                    indices.append("{\"bufferView\":").append(entry.indexView)
+                            .append(",\"byteOffset\":").append(meshPart.offset * 2)
+                            .append(",\"componentType\":").append(UNSIGNED_SHORT)
+                            .append(",\"count\":").append(meshPart.size)
+                            .append(",\"type\":\"SCALAR\"}");
+                    accessors.add(indices);
+                }
+                // GL primitive types have the same values as glTF modes
+                meshes.append(",\"mode\":").append(meshPart.primitiveType).append('}');
+            }
+            meshes.append("]}");
+        }
+
+        sb.append(",\"meshes\":[").append(meshes).append(']');
+        sb.append(",\"accessors\":[");
+        for (int i = 0; i < accessors.size; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(accessors.get(i));
+        }
+        sb.append(']');
+        if (meshEntries.size > 0) {
+            sb.append(",\"bufferViews\":[").append(bufferViews).append(']');
+            sb.append(",\"buffers\":[{\"byteLength\":").append(binLength).append("}]");
+        }
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static boolean isIdentity(Matrix4 matrix) {
+        for (int i = 0; i < 16; i++) {
+            if (matrix.val[i] != (i % 5 == 0 ? 1f : 0f)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * equal when the vertex layout and data match, used to share the written data between meshes
+     */
+    private static class MeshEntry {
+        final float[] vertices;
+        final short[] indices;
+        final int vertexSize;
+        final int positionOffset;
+        final int normalOffset;
+        final float[] min = new float[]{Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY};
+        final float[] max = new float[]{Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY};
+        int vertexOffset;
+        int indexOffset;
+        int vertexView = -1;
+        int indexView = -1;
+        int positionAccessor = -1;
+        int normalAccessor = -1;
+
+        MeshEntry(Mesh mesh) {
+            vertexSize = mesh.getVertexSize() / 4;
+            vertices = new float[mesh.getNumVertices() * vertexSize];
+            mesh.getVertices(vertices);
+            indices = new short[mesh.getNumIndices()];
+            if (indices.length > 0)
+                mesh.getIndices(indices);
+            final VertexAttribute position = mesh.getVertexAttribute(VertexAttributes.Usage.Position);
+            if (position == null)
+                throw new IllegalArgumentException("mesh does not have a position attribute");
+            positionOffset = position.offset / 4;
+            final VertexAttribute normal = mesh.getVertexAttribute(VertexAttributes.Usage.Normal);
+            normalOffset = normal != null ? normal.offset / 4 : -1;
+
+            for (int i = positionOffset; i < vertices.length; i += vertexSize) {
+                for (int j = 0; j < 3; j++) {
+                    min[j] = Math.min(min[j], vertices[i + j]);
+                    max[j] = Math.max(max[j], vertices[i + j]);
+                }
+            }
+            if (vertices.length == 0) {
+                for (int j = 0; j < 3; j++) {
+                    min[j] = 0f;
+                    max[j] = 0f;
+                }
+            }
+        }
+
+        int getNumVertices() {
+            return vertices.length / vertexSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MeshEntry)) return false;
+            final MeshEntry other = (MeshEntry) o;
+            return vertexSize == other.vertexSize && positionOffset == other.positionOffset && normalOffset == other.normalOffset
+                    && Arrays.equals(vertices, other.vertices) && Arrays.equals(indices, other.indices);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(vertices) + Arrays.hashCode(indices);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package net.masonapps.csgvr.utils;
+
+import android.support.annotation.Nullable;
+
+import org.apache.commons.math3.geometry.partitioning.BSPTree;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Timed events with a payload for the expensive geometry operations: CSG booleans, BSP builds, region booleans,
+ * mesh conversion and STL writes. Nothing is recorded until a {@link Recorder} is installed, so on Android every
+ * call site costs a single null check.
+ * <p>
+ * These are not jdk.jfr events: this module compiles against android.jar, which has no jdk.jfr and no flight
+ * recorder at runtime. A desktop build that wants the events in a JFR recording installs a recorder that copies each
+ * {@link Event} into its own jdk.jfr.Event subclass and commits it.
+ */
+public class GeometryEvents {
+
+    public enum Type {
+        CSG_UNION,
+        CSG_SUBTRACT,
+        CSG_INTERSECT,
+        BSP_BUILD,
+        REGION_UNION,
+        REGION_DIFFERENCE,
+        REGION_INTERSECTION,
+        POLYHEDRONS_TO_MESH,
+        STL_WRITE
+    }
+
+    public interface Recorder {
+        /**
+         * called on the thread that ran the operation, the event is not reused afterwards
+         */
+        void record(Event event);
+    }
+
+    @Nullable
+    private static volatile Recorder recorder = null;
+
+    private static final ThreadLocal<int[]> splitCounters = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[1];
+        }
+    };
+
+    private GeometryEvents() {
+    }
+
+    public static void setRecorder(@Nullable Recorder recorder) {
+        GeometryEvents.recorder = recorder;
+    }
+
+    public static boolean isEnabled() {
+        return recorder != null;
+    }
+
+    /**
+     * @return a started event or null if nothing is recording, pass the result to {@link #end(Event, int, int)}
+     */
+    @Nullable
+    public static Event begin(Type type) {
+        if (recorder == null) return null;
+        final Event event = new Event(type);
+        event.splitsAtStart = splitCounters.get()[0];
+        event.threadName = Thread.currentThread().getName();
+        event.startNanos = System.nanoTime();
+        return event;
+    }
+
+    /**
+     * completes the event and hands it to the recorder, does nothing for a null event
+     */
+    public static void end(@Nullable Event event, int polygonsIn, int polygonsOut) {
+        if (event == null) return;
+        event.durationNanos = System.nanoTime() - event.startNanos;
+        event.polygonsIn = polygonsIn;
+        event.polygonsOut = polygonsOut;
+        event.splits = splitCounters.get()[0] - event.splitsAtStart;
+        final Recorder r = recorder;
+        if (r != null)
+            r.record(event);
+    }
+
+    /**
+     * called for every polygon split by a plane so the enclosing operation can report the number of splits
+     */
+    public static void countSplit() {
+        if (recorder == null) return;
+        splitCounters.get()[0]++;
+    }
+
+    /**
+     * @return the number of nodes of a region tree, used as the size of region booleans which have no polygon list
+     */
+    public static int countNodes(@Nullable BSPTree<?> tree) {
+        if (tree == null) return 0;
+        if (tree.getCut() == null) return 1;
+        return 1 + countNodes(tree.getPlus()) + countNodes(tree.getMinus());
+    }
+
+    public static class Event {
+        public final Type type;
+        public String threadName;
+        public long startNanos;
+        public long durationNanos;
+        public int polygonsIn;
+        public int polygonsOut;
+        public int splits;
+        public long bytesWritten;
+        private int splitsAtStart;
+
+        Event(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public String toString() {
+            return type + " on " + threadName + ": " + (durationNanos / 1000) + " us, polygons " + polygonsIn + " -> " +
+                    polygonsOut + ", splits " + splits + ", bytes " + bytesWritten;
+        }
+    }
+}
@@ -1,10 +1,8 @@
 package net.masonapps.csgvr.utils;
 
-import android.util.Log;
-
-import com.badlogic.gdx.math.DelaunayTriangulator;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.IntArray;
 
 import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
 import org.apache.commons.math3.geometry.euclidean.threed.Plane;
@@ -15,42 +13,29 @@ import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.apache.commons.math3.geometry.partitioning.BSPTree;
 import org.apache.commons.math3.geometry.partitioning.BSPTreeVisitor;
 import org.apache.commons.math3.geometry.partitioning.BoundaryAttribute;
-import org.apache.commons.math3.geometry.partitioning.Region;
+
+import java.util.stream.IntStream;
 
 /**
  * Created by Bob on 6/28/2017.
+ * Visiting the tree only gathers the boundary faces, {@link #triangulate(FloatArray, IntArray)} then triangulates them
+ * in parallel into per face buffers and appends those in visiting order, so the output does not depend on thread scheduling.
  */
 class MeshCreationTreeVisitor implements BSPTreeVisitor<Euclidean3D> {
 
     public static final int VERTEX_SIZE = 6;
-    private final FloatArray vertices;
-    private final ShortArray indices;
-    private final DelaunayTriangulator triangulator;
+    private static final int MIN_PARALLEL_FACES = 16;
+    private static final ThreadLocal<PolygonTriangulator> triangulators = new ThreadLocal<PolygonTriangulator>() {
+        @Override
+        protected PolygonTriangulator initialValue() {
+            return new PolygonTriangulator();
+        }
+    };
+    private final Array<Face> faces = new Array<>();
     private final Vector3D center;
-    private int startIndex;
 
-    public MeshCreationTreeVisitor(FloatArray vertices, ShortArray indices, Vector3D center) {
-        this.vertices = vertices;
-        this.indices = indices;
+    public MeshCreationTreeVisitor(Vector3D center) {
         this.center = center;
-        triangulator = new DelaunayTriangulator();
-        startIndex = 0;
-    }
-
-    private static void addVertex(Vector3D position, Vector3D normal, FloatArray vertices) {
-        vertices.add((float) position.getX());
-        vertices.add((float) position.getY());
-        vertices.add((float) position.getZ());
-        vertices.add((float) normal.getX());
-        vertices.add((float) normal.getY());
-        vertices.add((float) normal.getZ());
-    }
-
-    private static Vector3D computeCentroid(FloatArray vertices, int ia, int ib, int ic) {
-        double x = (vertices.get(ia) + vertices.get(ib) + vertices.get(ic)) / 3.0;
-        double y = (vertices.get(ia + 1) + vertices.get(ib + 1) + vertices.get(ic + 1)) / 3.0;
-        double z = (vertices.get(ia + 2) + vertices.get(ib + 2) + vertices.get(ic + 2)) / 3.0;
-        return new Vector3D(x, y, z);
     }
 
     @Override
@@ -61,82 +46,119 @@ class MeshCreationTreeVisitor implements BSPTreeVisitor<Euclidean3D> {
     @Override
     @SuppressWarnings("unchecked")
     public void visitInternalNode(BSPTree<Euclidean3D> node) {
-//            if (startIndex > 12) return;
         BoundaryAttribute<Euclidean3D> attribute =
                 (BoundaryAttribute<Euclidean3D>) node.getAttribute();
         if (attribute.getPlusOutside() != null) {
-            final SubPlane plusOutside = (SubPlane) attribute.getPlusOutside();
-            Log.i(MeshCreationTreeVisitor.class.getSimpleName(), "handing plusOutside SubPlane");
-            handleSubPlane(plusOutside, false);
+            faces.add(new Face((SubPlane) attribute.getPlusOutside(), false));
         }
         if (attribute.getPlusInside() != null) {
-            final SubPlane plusInside = (SubPlane) attribute.getPlusInside();
-            Log.i(MeshCreationTreeVisitor.class.getSimpleName(), "handing plusInside SubPlane");
-            handleSubPlane(plusInside, true);
+            faces.add(new Face((SubPlane) attribute.getPlusInside(), true));
         }
     }
 
-    private void handleSubPlane(SubPlane subPlane, boolean reverse) {
-        final Plane plane = (Plane) subPlane.getHyperplane();
-        final PolygonsSet remainingRegion = (PolygonsSet) subPlane.getRemainingRegion();
-        final Vector2D[][] loops = remainingRegion.getVertices();
-
-        Log.i(MeshCreationTreeVisitor.class.getSimpleName() + "->handleSubPlane", "loop count " + loops.length);
+    @Override
+    public void visitLeafNode(BSPTree<Euclidean3D> node) {
+    }
 
-        final FloatArray tempVerts = new FloatArray();
-        for (Vector2D[] loop : loops) {
+    /**
+     * triangulates the gathered faces and appends them to the arrays, call after visiting the tree
+     */
+    public void triangulate(FloatArray vertices, IntArray indices) {
+        triangulate(vertices, indices, faces.size >= MIN_PARALLEL_FACES && Runtime.getRuntime().availableProcessors() > 1);
+    }
 
-            for (Vector2D v : loop) {
-                addVertex(plane.toSpace(v).subtract(center), plane.getNormal().scalarMultiply(reverse ? -1 : 1), this.vertices);
-                tempVerts.add((float) v.getX());
-                tempVerts.add((float) v.getY());
+    /**
+     * @param parallel forces one of the two paths, the output is the same either way
+     */
+    void triangulate(FloatArray vertices, IntArray indices, boolean parallel) {
+        if (parallel) {
+            IntStream.range(0, faces.size).parallel().forEach(i -> faces.get(i).triangulate(center, triangulators.get()));
+        } else {
+            final PolygonTriangulator triangulator = triangulators.get();
+            for (Face face : faces) {
+                face.triangulate(center, triangulator);
             }
         }
 
-
-        Log.i(MeshCreationTreeVisitor.class.getSimpleName() + "->handleSubPlane", "vertex count " + tempVerts.size / 2);
-
-        final ShortArray tempIndices = triangulator.computeTriangles(tempVerts, false);
-        if (!reverse) {
-            tempIndices.reverse();
+        int vertexCount = 0;
+        int indexCount = 0;
+        for (Face face : faces) {
+            vertexCount += face.vertices.size;
+            indexCount += face.indices.size;
         }
-        for (int j = 0; j < tempIndices.size; j += 3) {
-            final int ia = startIndex + tempIndices.get(j);
-            final int ib = startIndex + tempIndices.get(j + 1);
-            final int ic = startIndex + tempIndices.get(j + 2);
-            Vector3D centroid = computeCentroid(vertices, ia * VERTEX_SIZE, ib * VERTEX_SIZE, ic * VERTEX_SIZE);
-            if (remainingRegion.checkPoint(plane.toSubSpace(centroid)) == Region.Location.INSIDE) {
-                indices.add(ia);
-                indices.add(ib);
-                indices.add(ic);
+        vertices.ensureCapacity(vertexCount);
+        indices.ensureCapacity(indexCount);
+        for (Face face : faces) {
+            final int startIndex = vertices.size / VERTEX_SIZE;
+            vertices.addAll(face.vertices);
+            for (int i = 0; i < face.indices.size; i++) {
+                indices.add(startIndex + face.indices.items[i]);
             }
         }
-        startIndex = this.vertices.size / VERTEX_SIZE;
+        faces.clear();
     }
 
-    private void addLoopVertices(Plane plane, Vector2D[] loop, boolean reverse) {
-        final FloatArray tempVerts = new FloatArray();
-        for (Vector2D v : loop) {
-            addVertex(plane.toSpace(v), plane.getNormal().scalarMultiply(reverse ? -1 : 1), this.vertices);
-            tempVerts.add((float) v.getX());
-            tempVerts.add((float) v.getY());
-        }
-
+    int getFaceCount() {
+        return faces.size;
+    }
 
-        Log.i(MeshCreationTreeVisitor.class.getSimpleName() + "->handleSubPlane", "vertex count " + tempVerts.size / 2);
+    private static class Face {
+        final SubPlane subPlane;
+        final boolean reverse;
+        final FloatArray vertices = new FloatArray();
+        final IntArray indices = new IntArray();
 
-        final ShortArray tempIndices = triangulator.computeTriangles(tempVerts, false);
-        if (!reverse) {
-            tempIndices.reverse();
-        }
-        for (int j = 0; j < tempIndices.size; j++) {
-            final int index = startIndex + tempIndices.get(j);
-            indices.add(index);
+        Face(SubPlane subPlane, boolean reverse) {
+            this.subPlane = subPlane;
+            this.reverse = reverse;
         }
-        startIndex = this.vertices.size / 6;
-    }
 
-    @Override
-    public void visitLeafNode(BSPTree<Euclidean3D> node) {
+        void triangulate(Vector3D center, PolygonTriangulator triangulator) {
+            final Plane plane = (Plane) subPlane.getHyperplane();
+            final Vector2D[][] loops = ((PolygonsSet) subPlane.getRemainingRegion()).getVertices();
+            final Vector3D origin = plane.getOrigin();
+            final Vector3D u = plane.getU();
+            final Vector3D v = plane.getV();
+            final Vector3D normal = plane.getNormal();
+            final float sign = reverse ? -1f : 1f;
+            final float nx = (float) normal.getX() * sign;
+            final float ny = (float) normal.getY() * sign;
+            final float nz = (float) normal.getZ() * sign;
+            final double ox = origin.getX() - center.getX();
+            final double oy = origin.getY() - center.getY();
+            final double oz = origin.getZ() - center.getZ();
+
+            triangulator.begin();
+            for (Vector2D[] loop : loops) {
+                // open loops start with a null vertex, they only occur for unbounded regions
+                if (loop.length < 3 || loop[0] == null) continue;
+                triangulator.beginLoop();
+                for (Vector2D p : loop) {
+                    final double x = p.getX();
+                    final double y = p.getY();
+                    vertices.add((float) (ox + x * u.getX() + y * v.getX()));
+                    vertices.add((float) (oy + x * u.getY() + y * v.getY()));
+                    vertices.add((float) (oz + x * u.getZ() + y * v.getZ()));
+                    vertices.add(nx);
+                    vertices.add(ny);
+                    vertices.add(nz);
+                    triangulator.addPoint((float) x, (float) y);
+                }
+            }
+
+            // triangles are counter clockwise in the plane's frame, which faces along the plane normal
+            final IntArray triangles = triangulator.computeTriangles();
+            indices.ensureCapacity(triangles.size);
+            for (int j = 0; j < triangles.size; j += 3) {
+                indices.add(triangles.get(j));
+                if (reverse) {
+                    indices.add(triangles.get(j + 2));
+                    indices.add(triangles.get(j + 1));
+                } else {
+                    indices.add(triangles.get(j + 1));
+                    indices.add(triangles.get(j + 2));
+                }
+            }
+        }
     }
 }
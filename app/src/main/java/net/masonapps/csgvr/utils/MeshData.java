@@ -0,0 +1,95 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * CPU side copy of an evaluated solid's vertex and index buffers. Vertices are position/normal pairs relative to {@link #center}.
+ */
+
+public class MeshData {
+
+    /**
+     * the most vertices a single {@link Mesh} can address with unsigned short indices
+     */
+    public static final int MAX_MESH_VERTICES = 1 << 16;
+
+    public final float[] vertices;
+    public final int[] indices;
+    public final int vertexSize;
+    public final Vector3 center = new Vector3();
+
+    public MeshData(float[] vertices, int[] indices, int vertexSize, Vector3 center) {
+        this.vertices = vertices;
+        this.indices = indices;
+        this.vertexSize = vertexSize;
+        this.center.set(center);
+    }
+
+    public int getNumVertices() {
+        return vertices.length / vertexSize;
+    }
+
+    /**
+     * @return one mesh, or several if the vertex count does not fit in 16 bit indices
+     */
+    public Array<Mesh> createMeshes() {
+        return createMeshes(vertices, indices, vertexSize, 3, VertexAttribute.Position(), VertexAttribute.Normal());
+    }
+
+    /**
+     * uploads the vertices and indices as meshes, splitting them into multiple meshes of at most {@link #MAX_MESH_VERTICES} vertices
+     *
+     * @param primitiveSize number of indices per primitive, 3 for triangles, 2 for lines, primitives are never split across meshes
+     */
+    public static Array<Mesh> createMeshes(float[] vertices, int[] indices, int vertexSize, int primitiveSize, VertexAttribute... attributes) {
+        final Array<Mesh> meshes = new Array<>();
+        final int numVertices = vertices.length / vertexSize;
+        if (numVertices <= MAX_MESH_VERTICES) {
+            final short[] shortIndices = new short[indices.length];
+            for (int i = 0; i < indices.length; i++) {
+                shortIndices[i] = (short) indices[i];
+            }
+            meshes.add(createMesh(vertices, shortIndices, numVertices, attributes));
+            return meshes;
+        }
+
+        final IntIntMap indexMap = new IntIntMap();
+        final FloatArray partVertices = new FloatArray();
+        final ShortArray partIndices = new ShortArray();
+        for (int i = 0; i + primitiveSize <= indices.length; i += primitiveSize) {
+            if (indexMap.size + primitiveSize > MAX_MESH_VERTICES) {
+                meshes.add(createMesh(partVertices.toArray(), partIndices.toArray(), indexMap.size, attributes));
+                indexMap.clear();
+                partVertices.clear();
+                partIndices.clear();
+            }
+            for (int j = 0; j < primitiveSize; j++) {
+                final int index = indices[i + j];
+                int localIndex = indexMap.get(index, -1);
+                if (localIndex == -1) {
+                    localIndex = indexMap.size;
+                    indexMap.put(index, localIndex);
+                    partVertices.addAll(vertices, index * vertexSize, vertexSize);
+                }
+                partIndices.add(localIndex);
+            }
+        }
+        if (partIndices.size > 0)
+            meshes.add(createMesh(partVertices.toArray(), partIndices.toArray(), indexMap.size, attributes));
+        return meshes;
+    }
+
+    private static Mesh createMesh(float[] vertices, short[] indices, int numVertices, VertexAttribute... attributes) {
+        final Mesh mesh = new Mesh(false, numVertices, indices.length, attributes);
+        mesh.setVertices(vertices);
+        mesh.setIndices(indices);
+        return mesh;
+    }
+}
@@ -0,0 +1,341 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Ear clipping triangulator for planar faces made of several closed loops.
+ * Loops wound counter clockwise are outer boundaries, clockwise loops are holes, which is the winding
+ * {@link org.apache.commons.math3.geometry.euclidean.twod.PolygonsSet#getVertices()} produces.
+ * Each hole is bridged into the outer loop that contains it, so the output never needs a point in region test.
+ * A hole that no outer loop contains covers nothing and is skipped, {@link #getOrphanHoleCount()} reports it.
+ * All scratch arrays are kept between calls, reuse one instance per thread.
+ */
+class PolygonTriangulator {
+
+    private static final float EPSILON = 1e-12f;
+
+    private final FloatArray points = new FloatArray();
+    private final IntArray loopStarts = new IntArray();
+    private final IntArray loopSizes = new IntArray();
+    private final FloatArray loopAreas = new FloatArray();
+    private final IntArray holes = new IntArray();
+    private final IntArray polygon = new IntArray();
+    private final IntArray prev = new IntArray();
+    private final IntArray next = new IntArray();
+    private final IntArray triangles = new IntArray();
+    private final IntArray holeOwners = new IntArray();
+    private int orphanHoleCount = 0;
+
+    public void begin() {
+        points.clear();
+        loopStarts.clear();
+        loopSizes.clear();
+    }
+
+    public void beginLoop() {
+        loopStarts.add(points.size / 2);
+        loopSizes.add(0);
+    }
+
+    public void addPoint(float x, float y) {
+        points.add(x);
+        points.add(y);
+        loopSizes.incr(loopSizes.size - 1, 1);
+    }
+
+    /**
+     * @return triples of indices into the added points in counter clockwise order, the array is reused by the next call
+     */
+    public IntArray computeTriangles() {
+        triangles.clear();
+        final int loopCount = loopStarts.size;
+        loopAreas.clear();
+        for (int i = 0; i < loopCount; i++) {
+            loopAreas.add(loopSizes.get(i) >= 3 ? signedArea(loopStarts.get(i), loopSizes.get(i)) : 0f);
+        }
+        holeOwners.clear();
+        orphanHoleCount = 0;
+        for (int i = 0; i < loopCount; i++) {
+            final int owner = loopAreas.get(i) < -EPSILON ? findOwner(i) : -1;
+            if (loopAreas.get(i) < -EPSILON && owner == -1)
+                orphanHoleCount++;
+            holeOwners.add(owner);
+        }
+
+        for (int outer = 0; outer < loopCount; outer++) {
+            if (loopAreas.get(outer) <= EPSILON) continue;
+
+            polygon.clear();
+            final int start = loopStarts.get(outer);
+            for (int i = 0; i < loopSizes.get(outer); i++) {
+                polygon.add(start + i);
+            }
+
+            // a hole belongs to the smallest outer loop containing it
+            holes.clear();
+            for (int hole = 0; hole < loopCount; hole++) {
+                if (holeOwners.get(hole) == outer)
+                    holes.add(hole);
+            }
+            sortHolesByMinX();
+            for (int i = 0; i < holes.size; i++) {
+                bridgeHole(holes.get(i));
+            }
+
+            earClip();
+        }
+        return triangles;
+    }
+
+    /**
+     * @return holes skipped by the last {@link #computeTriangles()} because no outer loop contains them or no bridge was found
+     */
+    public int getOrphanHoleCount() {
+        return orphanHoleCount;
+    }
+
+    /**
+     * a vertex lying on the boundary of an outer loop may test either way, so every vertex of the hole gets a try
+     */
+    private int findOwner(int hole) {
+        final int start = loopStarts.get(hole);
+        for (int i = 0; i < loopSizes.get(hole); i++) {
+            final int owner = findContainingOuterLoop(px(start + i), py(start + i));
+            if (owner != -1) return owner;
+        }
+        return -1;
+    }
+
+    private float px(int index) {
+        return points.items[index * 2];
+    }
+
+    private float py(int index) {
+        return points.items[index * 2 + 1];
+    }
+
+    private float signedArea(int start, int size) {
+        float area = 0f;
+        for (int i = 0, j = size - 1; i < size; j = i++) {
+            area += (px(start + j) - px(start + i)) * (py(start + j) + py(start + i));
+        }
+        return area * 0.5f;
+    }
+
+    private int findContainingOuterLoop(float x, float y) {
+        int result = -1;
+        float smallestArea = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < loopStarts.size; i++) {
+            final float area = loopAreas.get(i);
+            if (area <= EPSILON || area >= smallestArea) continue;
+            if (isInsideLoop(loopStarts.get(i), loopSizes.get(i), x, y)) {
+                result = i;
+                smallestArea = area;
+            }
+        }
+        return result;
+    }
+
+    private boolean isInsideLoop(int start, int size, float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = size - 1; i < size; j = i++) {
+            final float xi = px(start + i), yi = py(start + i);
+            final float xj = px(start + j), yj = py(start + j);
+            if ((yi > y) != (yj > y) && x < (xj - xi) * (y - yi) / (yj - yi) + xi)
+                inside = !inside;
+        }
+        return inside;
+    }
+
+    private float minX(int loop) {
+        final int start = loopStarts.get(loop);
+        float min = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < loopSizes.get(loop); i++) {
+            min = Math.min(min, px(start + i));
+        }
+        return min;
+    }
+
+    private void sortHolesByMinX() {
+        // insertion sort, faces rarely have more than a few holes
+        for (int i = 1; i < holes.size; i++) {
+            final int hole = holes.get(i);
+            final float x = minX(hole);
+            int j = i - 1;
+            while (j >= 0 && minX(holes.get(j)) > x) {
+                holes.set(j + 1, holes.get(j));
+                j--;
+            }
+            holes.set(j + 1, hole);
+        }
+    }
+
+    /**
+     * connects the leftmost vertex of the hole to a visible vertex of the polygon to its left and splices the hole in
+     */
+    private void bridgeHole(int hole) {
+        final int start = loopStarts.get(hole);
+        final int size = loopSizes.get(hole);
+        int m = 0;
+        for (int i = 1; i < size; i++) {
+            if (px(start + i) < px(start + m)) m = i;
+        }
+        final float mx = px(start + m);
+        final float my = py(start + m);
+
+        // closest edge crossed by a ray cast from m in the -x direction
+        float qx = Float.NEGATIVE_INFINITY;
+        int bridge = -1;
+        final int n = polygon.size;
+        for (int i = 0; i < n; i++) {
+            final int a = polygon.get(i);
+            final int b = polygon.get((i + 1) % n);
+            final float ay = py(a), by = py(b);
+            if (ay == by || my < Math.min(ay, by) || my > Math.max(ay, by)) continue;
+            // from the lower end, so both copies of a bridge edge give the exact same x
+            final int lo = ay < by ? a : b;
+            final int hi = ay < by ? b : a;
+            final float x = px(lo) + (my - py(lo)) * (px(hi) - px(lo)) / (py(hi) - py(lo));
+            final int candidate = px(a) < px(b) ? i : (i + 1) % n;
+            // earlier bridges appear twice with opposite directions, only one copy has the hole on its inner side
+            if (x <= mx && (x > qx || (x == qx && !isLocallyInside(bridge, mx, my) && isLocallyInside(candidate, mx, my)))) {
+                qx = x;
+                bridge = candidate;
+            }
+        }
+        if (bridge == -1) {
+            orphanHoleCount++;
+            return;
+        }
+
+        // a polygon vertex inside the triangle m, q, bridge would block the bridge, use the one closest in angle instead
+        if (qx != mx) {
+            final int p = polygon.get(bridge);
+            final float bx = px(p), by = py(p);
+            float bestTan = Float.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                final int v = polygon.get(i);
+                final float vx = px(v), vy = py(v);
+                if (vx >= mx || vx < bx || (vx == bx && vy == by)) continue;
+                // a reflex vertex can be in the triangle while the bridge would leave the polygon right at it
+                if (!isLocallyInside(i, mx, my)) continue;
+                if (pointInTriangle(my < by ? mx : qx, my, bx, by, my < by ? qx : mx, my, vx, vy)) {
+                    final float tan = Math.abs(my - vy) / (mx - vx);
+                    if (tan < bestTan || (tan == bestTan && vx > px(polygon.get(bridge)))) {
+                        bestTan = tan;
+                        bridge = i;
+                    }
+                }
+            }
+        }
+
+        // polygon: ..., bridge, m, hole..., m, bridge, ...
+        final int bridgeIndex = polygon.get(bridge);
+        polygon.ensureCapacity(size + 2);
+        int insertAt = bridge + 1;
+        for (int i = 0; i <= size; i++) {
+            polygon.insert(insertAt++, start + (m + i) % size);
+        }
+        polygon.insert(insertAt, bridgeIndex);
+    }
+
+    /**
+     * @return true when the segment from polygon vertex i towards x, y starts inside the polygon
+     */
+    private boolean isLocallyInside(int i, float x, float y) {
+        final int n = polygon.size;
+        final int a = polygon.get(i);
+        final int p = polygon.get((i + n - 1) % n);
+        final int q = polygon.get((i + 1) % n);
+        final float ax = px(a), ay = py(a);
+        // the interior at a runs counter clockwise from the edge to q to the edge to p
+        final float toNext = cross(px(q) - ax, py(q) - ay, x - ax, y - ay);
+        final float toPrev = cross(x - ax, y - ay, px(p) - ax, py(p) - ay);
+        if (area(p, a, q) >= 0)
+            return toNext >= 0 && toPrev >= 0;
+        return toNext >= 0 || toPrev >= 0;
+    }
+
+    private static float cross(float ax, float ay, float bx, float by) {
+        return ax * by - ay * bx;
+    }
+
+    private static boolean pointInTriangle(float ax, float ay, float bx, float by, float cx, float cy, float px, float py) {
+        return (cx - px) * (ay - py) - (ax - px) * (cy - py) >= 0 &&
+                (ax - px) * (by - py) - (bx - px) * (ay - py) >= 0 &&
+                (bx - px) * (cy - py) - (cx - px) * (by - py) >= 0;
+    }
+
+    private float area(int a, int b, int c) {
+        return (px(b) - px(a)) * (py(c) - py(a)) - (py(b) - py(a)) * (px(c) - px(a));
+    }
+
+    private boolean sameCoordinates(int a, int b) {
+        return px(a) == px(b) && py(a) == py(b);
+    }
+
+    private void earClip() {
+        final int n = polygon.size;
+        if (n < 3) return;
+        prev.clear();
+        next.clear();
+        for (int i = 0; i < n; i++) {
+            prev.add((i + n - 1) % n);
+            next.add((i + 1) % n);
+        }
+
+        int remaining = n;
+        int ear = 0;
+        int attempts = 0;
+        while (remaining > 3) {
+            final int p = prev.get(ear);
+            final int q = next.get(ear);
+            final int a = polygon.get(p), b = polygon.get(ear), c = polygon.get(q);
+            final float area = area(a, b, c);
+            final boolean degenerate = Math.abs(area) <= EPSILON;
+            // after a full lap without an ear take any convex corner, after a second lap malformed input has only
+            // reflex corners left and they are dropped without a triangle, so it still terminates and never flips
+            final boolean forced = attempts > 2 * remaining;
+            if (degenerate || forced || (area > 0 && (attempts > remaining || isEar(p, ear, q)))) {
+                if (!degenerate && area > 0) {
+                    addTriangle(a, b, c);
+                }
+                next.set(p, q);
+                prev.set(q, p);
+                remaining--;
+                ear = q;
+                attempts = 0;
+            } else {
+                ear = q;
+                attempts++;
+            }
+        }
+        final int p = prev.get(ear);
+        final int q = next.get(ear);
+        final int a = polygon.get(p), b = polygon.get(ear), c = polygon.get(q);
+        if (area(a, b, c) > EPSILON)
+            addTriangle(a, b, c);
+    }
+
+    private void addTriangle(int a, int b, int c) {
+        triangles.add(a);
+        triangles.add(b);
+        triangles.add(c);
+    }
+
+    private boolean isEar(int p, int ear, int q) {
+        final int a = polygon.get(p), b = polygon.get(ear), c = polygon.get(q);
+        final float ax = px(a), ay = py(a), bx = px(b), by = py(b), cx = px(c), cy = py(c);
+        for (int i = next.get(q); i != p; i = next.get(i)) {
+            final int v = polygon.get(i);
+            if (sameCoordinates(v, a) || sameCoordinates(v, b) || sameCoordinates(v, c)) continue;
+            // only reflex vertices can be inside a convex corner
+            if (area(polygon.get(prev.get(i)), v, polygon.get(next.get(i))) > 0) continue;
+            if (pointInTriangle(ax, ay, bx, by, cx, cy, px(v), py(v)))
+                return false;
+        }
+        return true;
+    }
+}
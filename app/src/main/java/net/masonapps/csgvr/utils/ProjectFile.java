@@ -0,0 +1,325 @@
+package net.masonapps.csgvr.utils;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import net.masonapps.csgvr.modeling.CsgNode;
+import net.masonapps.csgvr.modeling.Solid;
+import net.masonapps.csgvr.modeling.SolidWorld;
+import net.masonapps.csgvr.primitives.Box;
+import net.masonapps.csgvr.primitives.Cylinder;
+import net.masonapps.csgvr.primitives.Icosphere;
+import net.masonapps.csgvr.primitives.Primitive;
+
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Versioned binary project format. Stores each {@link CsgNode} tree in pre-order with its operator or primitive parameters and transform,
+ * followed by the evaluated vertex and index buffers of the node if they have been computed, and then the transform of the
+ * solid showing the tree.
+ * Loaded nodes get the cached buffers so they can be displayed right away, the booleans are evaluated on demand.
+ */
+
+public class ProjectFile {
+
+    public static final int MAGIC = 0x43534750; // CSGP
+    public static final int VERSION = 1;
+
+    // guards the recursion against corrupt files
+    private static final int MAX_DEPTH = 256;
+    private static final CsgNode.Operator[] OPERATORS = CsgNode.Operator.values();
+
+    private static final byte NODE_OPERATOR = 0;
+    private static final byte NODE_PRIMITIVE = 1;
+
+    private static final byte PRIMITIVE_BOX = 0;
+    private static final byte PRIMITIVE_CYLINDER = 1;
+    private static final byte PRIMITIVE_ICOSPHERE = 2;
+
+    /**
+     * saves every solid of the world that has a csg tree, including solids merged into static batches
+     *
+     * @throws IOException also when a solid was created without a {@link CsgNode}
+     */
+    public static void write(File file, SolidWorld world) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < world.entities.size; i++) {
+            final Entity entity = world.entities.get(i);
+            if (!(entity instanceof Solid)) continue;
+            final Solid solid = (Solid) entity;
+            if (solid.getCsgNode() == null)
+                throw new IOException("solid " + i + " has no csg tree");
+            entries.add(new Entry(solid.getCsgNode(), solid.getPosition(), solid.getRotation(), solid.getScale()));
+        }
+        write(file, entries);
+    }
+
+    public static void write(File file, List<Entry> entries) throws IOException {
+        final DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            stream.writeInt(MAGIC);
+            stream.writeInt(VERSION);
+            stream.writeInt(entries.size());
+            for (Entry entry : entries) {
+                writeNode(stream, entry.node);
+                writeTransform(stream, entry.position, entry.rotation, entry.scale);
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static void writeNode(DataOutputStream stream, CsgNode node) throws IOException {
+        if (node.isLeaf()) {
+            stream.writeByte(NODE_PRIMITIVE);
+            writePrimitive(stream, node.getPrimitive());
+        } else {
+            stream.writeByte(NODE_OPERATOR);
+            stream.writeByte(node.getOperator().ordinal());
+        }
+        writeMeshData(stream, node.hasMeshData() ? node.getMeshData() : null);
+        if (!node.isLeaf()) {
+            writeNode(stream, node.getLeft());
+            writeNode(stream, node.getRight());
+        }
+    }
+
+    private static void writePrimitive(DataOutputStream stream, Primitive primitive) throws IOException {
+        if (primitive instanceof Box) {
+            stream.writeByte(PRIMITIVE_BOX);
+        } else if (primitive instanceof Cylinder) {
+            stream.writeByte(PRIMITIVE_CYLINDER);
+        } else if (primitive instanceof Icosphere) {
+            stream.writeByte(PRIMITIVE_ICOSPHERE);
+        } else {
+            throw new IOException("unsupported primitive type " + primitive.getClass().getSimpleName());
+        }
+
+        writeTransform(stream, primitive.getPosition(), primitive.getRotation(), primitive.getScale());
+
+        if (primitive instanceof Cylinder) {
+            stream.writeInt(((Cylinder) primitive).getDivisions());
+        } else if (primitive instanceof Icosphere) {
+            stream.writeFloat(((Icosphere) primitive).getRadius());
+            stream.writeInt(((Icosphere) primitive).getSubdivisions());
+        }
+    }
+
+    private static void writeTransform(DataOutputStream stream, Vector3 position, Quaternion rotation, Vector3 scale) throws IOException {
+        stream.writeFloat(position.x);
+        stream.writeFloat(position.y);
+        stream.writeFloat(position.z);
+        stream.writeFloat(rotation.x);
+        stream.writeFloat(rotation.y);
+        stream.writeFloat(rotation.z);
+        stream.writeFloat(rotation.w);
+        stream.writeFloat(scale.x);
+        stream.writeFloat(scale.y);
+        stream.writeFloat(scale.z);
+    }
+
+    private static void writeMeshData(DataOutputStream stream, @Nullable MeshData meshData) throws IOException {
+        if (meshData == null) {
+            stream.writeByte(0);
+            return;
+        }
+        stream.writeByte(1);
+        stream.writeFloat(meshData.center.x);
+        stream.writeFloat(meshData.center.y);
+        stream.writeFloat(meshData.center.z);
+        stream.writeInt(meshData.vertexSize);
+        stream.writeInt(meshData.vertices.length);
+        stream.writeInt(meshData.indices.length);
+        for (float v : meshData.vertices) {
+            stream.writeFloat(v);
+        }
+        for (int i : meshData.indices) {
+            stream.writeInt(i);
+        }
+    }
+
+    /**
+     * adds a solid for every tree in the file to the world
+     *
+     * @return the added solids
+     */
+    public static List<Solid> load(File file, SolidWorld world) throws IOException {
+        final List<Entry> entries = read(file);
+        final List<Solid> solids = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            final Solid solid = entry.createSolid();
+            world.add(solid);
+            solids.add(solid);
+        }
+        return solids;
+    }
+
+    /**
+     * @throws IOException when the file is not a project file or is truncated or corrupt
+     */
+    public static List<Entry> read(File file) throws IOException {
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+                throw new IOException(file.getName() + " is not a project file");
+            final int version = buffer.getInt();
+            if (version != VERSION)
+                throw new IOException("unsupported project file version " + version);
+            final int rootCount = buffer.getInt();
+            checkCount(buffer, rootCount, 1);
+            final List<Entry> entries = new ArrayList<>(rootCount);
+            for (int i = 0; i < rootCount; i++) {
+                final CsgNode node = readNode(buffer, 0);
+                entries.add(new Entry(node, readVector3(buffer), readQuaternion(buffer), readVector3(buffer)));
+            }
+            return entries;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException(file.getName() + " is truncated or corrupt", e);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    /**
+     * a count read from the file can not ask for more elements than there are bytes left
+     */
+    private static void checkCount(ByteBuffer buffer, int count, int elementSize) throws IOException {
+        if (count < 0 || (long) count * elementSize > buffer.remaining())
+            throw new IOException("invalid count " + count + " at offset " + buffer.position());
+    }
+
+    private static Vector3 readVector3(ByteBuffer buffer) {
+        return new Vector3(buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    private static Quaternion readQuaternion(ByteBuffer buffer) {
+        return new Quaternion(buffer.getFloat(), buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+    }
+
+    private static CsgNode readNode(ByteBuffer buffer, int depth) throws IOException {
+        if (depth > MAX_DEPTH)
+            throw new IOException("csg tree is deeper than " + MAX_DEPTH);
+        final byte type = buffer.get();
+        final CsgNode node;
+        if (type == NODE_PRIMITIVE) {
+            final Primitive primitive = readPrimitive(buffer);
+            final MeshData meshData = readMeshData(buffer);
+            node = new CsgNode(null, primitive);
+            node.setMeshData(meshData);
+        } else if (type == NODE_OPERATOR) {
+            final byte ordinal = buffer.get();
+            if (ordinal < 0 || ordinal >= OPERATORS.length)
+                throw new IOException("unknown operator " + ordinal);
+            final CsgNode.Operator operator = OPERATORS[ordinal];
+            final MeshData meshData = readMeshData(buffer);
+            final CsgNode left = readNode(buffer, depth + 1);
+            final CsgNode right = readNode(buffer, depth + 1);
+            node = new CsgNode(null, left, right, operator);
+            node.setMeshData(meshData);
+        } else {
+            throw new IOException("unknown node type " + type);
+        }
+        return node;
+    }
+
+    private static Primitive readPrimitive(ByteBuffer buffer) throws IOException {
+        final byte type = buffer.get();
+        final Vector3 position = readVector3(buffer);
+        final Quaternion rotation = readQuaternion(buffer);
+        final Vector3 scale = readVector3(buffer);
+        final Primitive primitive;
+        switch (type) {
+            case PRIMITIVE_BOX:
+                primitive = new Box(1f, 1f, 1f);
+                break;
+            case PRIMITIVE_CYLINDER:
+                final Cylinder cylinder = new Cylinder();
+                cylinder.setDivisions(buffer.getInt());
+                primitive = cylinder;
+                break;
+            case PRIMITIVE_ICOSPHERE:
+                final Icosphere icosphere = new Icosphere(buffer.getFloat());
+                icosphere.setSubdivisions(buffer.getInt());
+                primitive = icosphere;
+                break;
+            default:
+                throw new IOException("unknown primitive type " + type);
+        }
+        primitive.setPosition(position);
+        primitive.setRotation(rotation);
+        primitive.setScale(scale);
+        return primitive;
+    }
+
+    @Nullable
+    private static MeshData readMeshData(ByteBuffer buffer) throws IOException {
+        if (buffer.get() == 0) return null;
+        final Vector3 center = readVector3(buffer);
+        final int vertexSize = buffer.getInt();
+        final int vertexCount = buffer.getInt();
+        final int indexCount = buffer.getInt();
+        checkCount(buffer, vertexCount, 4);
+        checkCount(buffer, indexCount, 4);
+        if (vertexSize <= 0 || vertexCount % vertexSize != 0)
+            throw new IOException("invalid vertex size " + vertexSize);
+        final float[] vertices = new float[vertexCount];
+        final int[] indices = new int[indexCount];
+        // bulk copies straight out of the mapped file
+        buffer.asFloatBuffer().get(vertices);
+        buffer.position(buffer.position() + vertices.length * 4);
+        buffer.asIntBuffer().get(indices);
+        buffer.position(buffer.position() + indices.length * 4);
+        final int count = vertexCount / vertexSize;
+        for (int index : indices) {
+            if (index < 0 || index >= count)
+                throw new IOException("index " + index + " is out of range of " + count + " vertices");
+        }
+        return new MeshData(vertices, indices, vertexSize, center);
+    }
+
+    /**
+     * a tree and the transform of the solid it belongs to
+     */
+    public static class Entry {
+        public final CsgNode node;
+        public final Vector3 position = new Vector3();
+        public final Quaternion rotation = new Quaternion();
+        public final Vector3 scale = new Vector3();
+
+        public Entry(CsgNode node, Vector3 position, Quaternion rotation, Vector3 scale) {
+            this.node = node;
+            this.position.set(position);
+            this.rotation.set(rotation);
+            this.scale.set(scale);
+        }
+
+        /**
+         * creates the model of the tree, needs the GL thread
+         */
+        public Solid createSolid() {
+            final Solid solid = new Solid(node);
+            solid.setPosition(position);
+            solid.setRotation(rotation);
+            solid.setScale(scale.x, scale.y, scale.z);
+            return solid;
+        }
+    }
+}
@@ -3,17 +3,18 @@ package net.masonapps.csgvr.utils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.utils.FloatArray;
-import com.badlogic.gdx.utils.ShortArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import net.masonapps.csgvr.modeling.CsgNode;
 
-import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
 import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
-import org.apache.commons.math3.geometry.partitioning.RegionFactory;
 
 import java.io.BufferedWriter;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
@@ -26,11 +27,11 @@ import java.util.Locale;
 public class STLExporter {
 
     private final float[] vertices;
-    private final short[] indices;
+    private final int[] indices;
     private final int vertexSize;
     public Matrix4 transform = new Matrix4();
 
-    public STLExporter(float[] vertices, short[] indices, int vertexSize) {
+    public STLExporter(float[] vertices, int[] indices, int vertexSize) {
         this.vertices = vertices;
         this.indices = indices;
         this.vertexSize = vertexSize;
@@ -38,15 +39,23 @@ public class STLExporter {
 
     public static STLExporter fromPolyhedronsSets(FileType fileType, PolyhedronsSet... polyhedronsSets) {
         final FloatArray vertices = new FloatArray();
-        final ShortArray indices = new ShortArray();
+        final IntArray indices = new IntArray();
         PolyhedronsSet polyhedronsSet = polyhedronsSets[0];
         if (polyhedronsSets.length > 1) {
             for (int i = 1; i < polyhedronsSets.length; i++) {
-                polyhedronsSet = (PolyhedronsSet) new RegionFactory<Euclidean3D>().union(polyhedronsSet, polyhedronsSets[i]);
+                polyhedronsSet = CsgNode.apply(CsgNode.Operator.UNION, polyhedronsSet, polyhedronsSets[i]);
             }
         }
-        polyhedronsSet.getTree(true).visit(new MeshCreationTreeVisitor(vertices, indices, (Vector3D) polyhedronsSet.getBarycenter()));
-        return new STLExporter(vertices.toArray(), indices.toArray(), 6);
+        final MeshCreationTreeVisitor visitor = new MeshCreationTreeVisitor((Vector3D) polyhedronsSet.getBarycenter());
+        polyhedronsSet.getTree(true).visit(visitor);
+        visitor.triangulate(vertices, indices);
+        return new STLExporter(vertices.toArray(), indices.toArray(), MeshCreationTreeVisitor.VERTEX_SIZE);
+    }
+
+    public static STLExporter fromMeshData(MeshData meshData) {
+        final STLExporter exporter = new STLExporter(meshData.vertices, meshData.indices, meshData.vertexSize);
+        exporter.transform.setToTranslation(meshData.center);
+        return exporter;
     }
 
     public void writeToFile(File file) throws IOException {
@@ -62,14 +71,21 @@ public class STLExporter {
     }
 
     public void writeToOutputStream(OutputStream outputStream, FileType fileType) throws IOException {
+        final GeometryEvents.Event event = GeometryEvents.begin(GeometryEvents.Type.STL_WRITE);
+        final CountingOutputStream countingStream = event != null ? new CountingOutputStream(outputStream) : null;
+        final OutputStream out = countingStream != null ? countingStream : outputStream;
         switch (fileType) {
             case ASCII:
-                writeASCII(outputStream);
+                writeASCII(out);
                 break;
             case BINARY:
-                writeBinary(outputStream);
+                writeBinary(out);
                 break;
         }
+        if (event != null) {
+            event.bytesWritten = countingStream.count;
+            GeometryEvents.end(event, indices.length / 3, indices.length / 3);
+        }
     }
 
     private void writeASCII(OutputStream outputStream) throws IOException {
@@ -164,4 +180,24 @@ public class STLExporter {
     public enum FileType {
         ASCII, BINARY
     }
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Uploads a {@link MeshData} as several meshes of at most {@link #getChunkVertices()} vertices, one per {@link #step()},
+ * so a large boolean result is spread over several frames while the previous mesh keeps rendering.
+ * All GL work goes through the {@link MeshFactory}, pass a fake one to run the state machine without a GL context.
+ */
+public class StagedMeshUpload implements Disposable {
+
+    public static final int DEFAULT_CHUNK_VERTICES = 8192;
+
+    public enum State {
+        UPLOADING,
+        /**
+         * every chunk is uploaded, the meshes can be taken with {@link #takeMeshes()}
+         */
+        READY,
+        /**
+         * the meshes were handed over, the upload no longer owns them
+         */
+        SWAPPED,
+        CANCELLED
+    }
+
+    public interface MeshFactory {
+        Mesh createMesh(float[] vertices, short[] indices, int numVertices);
+    }
+
+    public static final MeshFactory DEFAULT_FACTORY = new MeshFactory() {
+        @Override
+        public Mesh createMesh(float[] vertices, short[] indices, int numVertices) {
+            final Mesh mesh = new Mesh(true, numVertices, indices.length, VertexAttribute.Position(), VertexAttribute.Normal());
+            mesh.setVertices(vertices);
+            mesh.setIndices(indices);
+            return mesh;
+        }
+    };
+
+    private final MeshData meshData;
+    private final MeshFactory factory;
+    private final int chunkVertices;
+    private final Array<Mesh> meshes = new Array<>();
+    private final IntIntMap indexMap = new IntIntMap();
+    private final FloatArray chunkVerticesBuffer = new FloatArray();
+    private final ShortArray chunkIndicesBuffer = new ShortArray();
+    private State state = State.UPLOADING;
+    private int indexCursor = 0;
+
+    public StagedMeshUpload(MeshData meshData) {
+        this(meshData, DEFAULT_FACTORY, DEFAULT_CHUNK_VERTICES);
+    }
+
+    public StagedMeshUpload(MeshData meshData, MeshFactory factory, int chunkVertices) {
+        if (chunkVertices < 3 || chunkVertices > MeshData.MAX_MESH_VERTICES)
+            throw new IllegalArgumentException("chunkVertices must be between 3 and " + MeshData.MAX_MESH_VERTICES);
+        this.meshData = meshData;
+        this.factory = factory;
+        this.chunkVertices = chunkVertices;
+        if (meshData.indices.length < 3)
+            state = State.READY;
+    }
+
+    /**
+     * builds and uploads the next chunk, call once per frame on the GL thread
+     *
+     * @return the state after the step
+     */
+    public State step() {
+        if (state != State.UPLOADING) return state;
+
+        final int[] indices = meshData.indices;
+        final float[] vertices = meshData.vertices;
+        final int vertexSize = meshData.vertexSize;
+        indexMap.clear();
+        chunkVerticesBuffer.clear();
+        chunkIndicesBuffer.clear();
+        // whole triangles only, so a chunk may end up to two vertices short of the limit
+        while (indexCursor + 3 <= indices.length && indexMap.size + 3 <= chunkVertices) {
+            for (int j = 0; j < 3; j++) {
+                final int index = indices[indexCursor + j];
+                int localIndex = indexMap.get(index, -1);
+                if (localIndex == -1) {
+                    localIndex = indexMap.size;
+                    indexMap.put(index, localIndex);
+                    chunkVerticesBuffer.addAll(vertices, index * vertexSize, vertexSize);
+                }
+                chunkIndicesBuffer.add(localIndex);
+            }
+            indexCursor += 3;
+        }
+        if (chunkIndicesBuffer.size > 0)
+            meshes.add(factory.createMesh(chunkVerticesBuffer.toArray(), chunkIndicesBuffer.toArray(), indexMap.size));
+
+        if (indexCursor + 3 > indices.length)
+            state = State.READY;
+        return state;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * @return fraction of the indices uploaded so far
+     */
+    public float getProgress() {
+        return meshData.indices.length == 0 ? 1f : (float) indexCursor / meshData.indices.length;
+    }
+
+    public MeshData getMeshData() {
+        return meshData;
+    }
+
+    public int getChunkVertices() {
+        return chunkVertices;
+    }
+
+    /**
+     * hands the uploaded meshes over to the caller, who becomes responsible for disposing them
+     */
+    public Array<Mesh> takeMeshes() {
+        if (state != State.READY)
+            throw new IllegalStateException("upload is " + state);
+        state = State.SWAPPED;
+        final Array<Mesh> result = new Array<>(meshes);
+        meshes.clear();
+        return result;
+    }
+
+    /**
+     * stops the upload and disposes the chunks uploaded so far
+     */
+    public void cancel() {
+        if (state == State.SWAPPED || state == State.CANCELLED) return;
+        state = State.CANCELLED;
+        for (int i = 0; i < meshes.size; i++) {
+            meshes.get(i).dispose();
+        }
+        meshes.clear();
+    }
+
+    @Override
+    public void dispose() {
+        cancel();
+    }
+}
@@ -0,0 +1,357 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Bounding volume hierarchy over the triangles of a {@link MeshData}, built with a binned surface area heuristic
+ * and flattened into arrays in depth first order. Ray queries do not allocate, but share a traversal stack so an
+ * instance must only be queried from one thread at a time.
+ */
+
+public class TriangleBVH {
+
+    private static final int MAX_LEAF_SIZE = 4;
+    private static final int BIN_COUNT = 12;
+    private static final float TRAVERSAL_COST = 1f;
+    private static final float INTERSECTION_COST = 1f;
+    private static final float EPSILON = 1e-7f;
+
+    // min xyz, max xyz per node
+    private float[] nodeBounds;
+    // internal nodes: index of the right child, the left child directly follows its parent; leaves: first triangle
+    private int[] nodeOffsets;
+    // number of triangles in a leaf, 0 for internal nodes
+    private int[] nodeCounts;
+    private int nodeCount = 0;
+    // triangle corners in leaf order, 9 floats per triangle
+    private final float[] triangles;
+    // index of each reordered triangle in the source index array divided by 3
+    private final int[] triangleIds;
+    private int[] stack = new int[64];
+
+    // build scratch
+    private float[] triBounds;
+    private float[] centroids;
+    private int[] order;
+    private final int[] binCounts = new int[BIN_COUNT];
+    private final float[] binBounds = new float[BIN_COUNT * 6];
+    private final float[] rightAreas = new float[BIN_COUNT];
+    private final int[] rightCounts = new int[BIN_COUNT];
+
+    public TriangleBVH(MeshData meshData) {
+        this(meshData.vertices, meshData.indices, meshData.vertexSize);
+    }
+
+    public TriangleBVH(float[] vertices, int[] indices, int vertexSize) {
+        final int triCount = indices.length / 3;
+        triBounds = new float[triCount * 6];
+        centroids = new float[triCount * 3];
+        order = new int[triCount];
+        for (int t = 0; t < triCount; t++) {
+            order[t] = t;
+            for (int axis = 0; axis < 3; axis++) {
+                final float a = vertices[indices[t * 3] * vertexSize + axis];
+                final float b = vertices[indices[t * 3 + 1] * vertexSize + axis];
+                final float c = vertices[indices[t * 3 + 2] * vertexSize + axis];
+                final float min = Math.min(a, Math.min(b, c));
+                final float max = Math.max(a, Math.max(b, c));
+                triBounds[t * 6 + axis] = min;
+                triBounds[t * 6 + 3 + axis] = max;
+                centroids[t * 3 + axis] = (min + max) * 0.5f;
+            }
+        }
+
+        final int maxNodes = Math.max(1, triCount * 2 - 1);
+        nodeBounds = new float[maxNodes * 6];
+        nodeOffsets = new int[maxNodes];
+        nodeCounts = new int[maxNodes];
+        if (triCount > 0) {
+            nodeCount = 1;
+            build(0, 0, triCount, 1);
+        }
+
+        triangles = new float[triCount * 9];
+        triangleIds = new int[triCount];
+        for (int i = 0; i < triCount; i++) {
+            final int t = order[i];
+            triangleIds[i] = t;
+            for (int corner = 0; corner < 3; corner++) {
+                final int v = indices[t * 3 + corner] * vertexSize;
+                triangles[i * 9 + corner * 3] = vertices[v];
+                triangles[i * 9 + corner * 3 + 1] = vertices[v + 1];
+                triangles[i * 9 + corner * 3 + 2] = vertices[v + 2];
+            }
+        }
+
+        triBounds = null;
+        centroids = null;
+        order = null;
+    }
+
+    private static float surfaceArea(float[] bounds, int offset) {
+        final float dx = bounds[offset + 3] - bounds[offset];
+        final float dy = bounds[offset + 4] - bounds[offset + 1];
+        final float dz = bounds[offset + 5] - bounds[offset + 2];
+        if (dx < 0f || dy < 0f || dz < 0f) return 0f;
+        return 2f * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private static void resetBounds(float[] bounds, int offset) {
+        bounds[offset] = bounds[offset + 1] = bounds[offset + 2] = Float.POSITIVE_INFINITY;
+        bounds[offset + 3] = bounds[offset + 4] = bounds[offset + 5] = Float.NEGATIVE_INFINITY;
+    }
+
+    private static void extendBounds(float[] bounds, int offset, float[] other, int otherOffset) {
+        for (int i = 0; i < 3; i++) {
+            bounds[offset + i] = Math.min(bounds[offset + i], other[otherOffset + i]);
+            bounds[offset + 3 + i] = Math.max(bounds[offset + 3 + i], other[otherOffset + 3 + i]);
+        }
+    }
+
+    private void build(int node, int start, int end, int depth) {
+        final int count = end - start;
+        resetBounds(nodeBounds, node * 6);
+        float cMinX = Float.POSITIVE_INFINITY, cMinY = Float.POSITIVE_INFINITY, cMinZ = Float.POSITIVE_INFINITY;
+        float cMaxX = Float.NEGATIVE_INFINITY, cMaxY = Float.NEGATIVE_INFINITY, cMaxZ = Float.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            final int t = order[i];
+            extendBounds(nodeBounds, node * 6, triBounds, t * 6);
+            cMinX = Math.min(cMinX, centroids[t * 3]);
+            cMinY = Math.min(cMinY, centroids[t * 3 + 1]);
+            cMinZ = Math.min(cMinZ, centroids[t * 3 + 2]);
+            cMaxX = Math.max(cMaxX, centroids[t * 3]);
+            cMaxY = Math.max(cMaxY, centroids[t * 3 + 1]);
+            cMaxZ = Math.max(cMaxZ, centroids[t * 3 + 2]);
+        }
+
+        if (count <= MAX_LEAF_SIZE) {
+            makeLeaf(node, start, count);
+            return;
+        }
+
+        int bestAxis = -1;
+        int bestSplit = -1;
+        float bestCost = Float.POSITIVE_INFINITY;
+        final float parentArea = surfaceArea(nodeBounds, node * 6);
+        for (int axis = 0; axis < 3; axis++) {
+            final float cMin = axis == 0 ? cMinX : axis == 1 ? cMinY : cMinZ;
+            final float cMax = axis == 0 ? cMaxX : axis == 1 ? cMaxY : cMaxZ;
+            final float extent = cMax - cMin;
+            if (extent <= 0f) continue;
+            final float scale = BIN_COUNT / extent;
+
+            for (int b = 0; b < BIN_COUNT; b++) {
+                binCounts[b] = 0;
+                resetBounds(binBounds, b * 6);
+            }
+            for (int i = start; i < end; i++) {
+                final int t = order[i];
+                final int b = Math.min(BIN_COUNT - 1, (int) ((centroids[t * 3 + axis] - cMin) * scale));
+                binCounts[b]++;
+                extendBounds(binBounds, b * 6, triBounds, t * 6);
+            }
+
+            // sweep from the right to get the area and count right of each split
+            float rMinX = Float.POSITIVE_INFINITY, rMinY = Float.POSITIVE_INFINITY, rMinZ = Float.POSITIVE_INFINITY;
+            float rMaxX = Float.NEGATIVE_INFINITY, rMaxY = Float.NEGATIVE_INFINITY, rMaxZ = Float.NEGATIVE_INFINITY;
+            int rCount = 0;
+            for (int b = BIN_COUNT - 1; b > 0; b--) {
+                if (binCounts[b] > 0) {
+                    rMinX = Math.min(rMinX, binBounds[b * 6]);
+                    rMinY = Math.min(rMinY, binBounds[b * 6 + 1]);
+                    rMinZ = Math.min(rMinZ, binBounds[b * 6 + 2]);
+                    rMaxX = Math.max(rMaxX, binBounds[b * 6 + 3]);
+                    rMaxY = Math.max(rMaxY, binBounds[b * 6 + 4]);
+                    rMaxZ = Math.max(rMaxZ, binBounds[b * 6 + 5]);
+                }
+                rCount += binCounts[b];
+                rightCounts[b] = rCount;
+                rightAreas[b] = rCount > 0 ? 2f * ((rMaxX - rMinX) * (rMaxY - rMinY) + (rMaxY - rMinY) * (rMaxZ - rMinZ) + (rMaxZ - rMinZ) * (rMaxX - rMinX)) : 0f;
+            }
+
+            float lMinX = Float.POSITIVE_INFINITY, lMinY = Float.POSITIVE_INFINITY, lMinZ = Float.POSITIVE_INFINITY;
+            float lMaxX = Float.NEGATIVE_INFINITY, lMaxY = Float.NEGATIVE_INFINITY, lMaxZ = Float.NEGATIVE_INFINITY;
+            int lCount = 0;
+            for (int b = 0; b < BIN_COUNT - 1; b++) {
+                if (binCounts[b] > 0) {
+                    lMinX = Math.min(lMinX, binBounds[b * 6]);
+                    lMinY = Math.min(lMinY, binBounds[b * 6 + 1]);
+                    lMinZ = Math.min(lMinZ, binBounds[b * 6 + 2]);
+                    lMaxX = Math.max(lMaxX, binBounds[b * 6 + 3]);
+                    lMaxY = Math.max(lMaxY, binBounds[b * 6 + 4]);
+                    lMaxZ = Math.max(lMaxZ, binBounds[b * 6 + 5]);
+                }
+                lCount += binCounts[b];
+                if (lCount == 0 || rightCounts[b + 1] == 0) continue;
+                final float leftArea = 2f * ((lMaxX - lMinX) * (lMaxY - lMinY) + (lMaxY - lMinY) * (lMaxZ - lMinZ) + (lMaxZ - lMinZ) * (lMaxX - lMinX));
+                final float cost = leftArea * lCount + rightAreas[b + 1] * rightCounts[b + 1];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestAxis = axis;
+                    bestSplit = b;
+                }
+            }
+        }
+
+        int mid;
+        if (bestAxis == -1) {
+            // all centroids coincide, split by count so the tree stays balanced
+            mid = start + count / 2;
+        } else {
+            final float leafCost = INTERSECTION_COST * count;
+            final float splitCost = TRAVERSAL_COST + INTERSECTION_COST * bestCost / Math.max(parentArea, EPSILON);
+            if (splitCost >= leafCost && count <= MAX_LEAF_SIZE * 4) {
+                makeLeaf(node, start, count);
+                return;
+            }
+            final float cMin = bestAxis == 0 ? cMinX : bestAxis == 1 ? cMinY : cMinZ;
+            final float cMax = bestAxis == 0 ? cMaxX : bestAxis == 1 ? cMaxY : cMaxZ;
+            final float scale = BIN_COUNT / (cMax - cMin);
+            int i = start;
+            int j = end - 1;
+            while (i <= j) {
+                final int t = order[i];
+                final int b = Math.min(BIN_COUNT - 1, (int) ((centroids[t * 3 + bestAxis] - cMin) * scale));
+                if (b <= bestSplit) {
+                    i++;
+                } else {
+                    order[i] = order[j];
+                    order[j] = t;
+                    j--;
+                }
+            }
+            mid = i;
+            if (mid == start || mid == end)
+                mid = start + count / 2;
+        }
+
+        final int left = nodeCount++;
+        build(left, start, mid, depth + 1);
+        final int right = nodeCount++;
+        build(right, mid, end, depth + 1);
+        nodeOffsets[node] = right;
+        nodeCounts[node] = 0;
+        if (depth + 1 >= stack.length)
+            stack = new int[stack.length * 2];
+    }
+
+    private void makeLeaf(int node, int start, int count) {
+        nodeOffsets[node] = start;
+        nodeCounts[node] = count;
+    }
+
+    public int getTriangleCount() {
+        return triangleIds.length;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the distance along the ray to the entry of the node's box, or infinity if the ray misses it
+     */
+    private float intersectNode(int node, float ox, float oy, float oz, float idx, float idy, float idz, float maxT) {
+        final int b = node * 6;
+        float t1 = (nodeBounds[b] - ox) * idx;
+        float t2 = (nodeBounds[b + 3] - ox) * idx;
+        float tMin = Math.min(t1, t2);
+        float tMax = Math.max(t1, t2);
+        t1 = (nodeBounds[b + 1] - oy) * idy;
+        t2 = (nodeBounds[b + 4] - oy) * idy;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        t1 = (nodeBounds[b + 2] - oz) * idz;
+        t2 = (nodeBounds[b + 5] - oz) * idz;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        if (tMax < Math.max(tMin, 0f) || tMin > maxT) return Float.POSITIVE_INFINITY;
+        return tMin;
+    }
+
+    /**
+     * finds the closest triangle hit by the ray, the ray must be in the same space as the mesh vertices
+     *
+     * @return true if a triangle was hit, the hit is only written in that case
+     */
+    public boolean intersect(Ray ray, Hit hit) {
+        if (nodeCount == 0) return false;
+        final float ox = ray.origin.x, oy = ray.origin.y, oz = ray.origin.z;
+        final float dx = ray.direction.x, dy = ray.direction.y, dz = ray.direction.z;
+        final float idx = 1f / dx, idy = 1f / dy, idz = 1f / dz;
+
+        float closestT = Float.POSITIVE_INFINITY;
+        int closestTri = -1;
+        int sp = 0;
+        if (intersectNode(0, ox, oy, oz, idx, idy, idz, closestT) == Float.POSITIVE_INFINITY) return false;
+        stack[sp++] = 0;
+        while (sp > 0) {
+            final int node = stack[--sp];
+            final int count = nodeCounts[node];
+            if (count > 0) {
+                final int first = nodeOffsets[node];
+                for (int i = first; i < first + count; i++) {
+                    final float t = intersectTriangle(i, ox, oy, oz, dx, dy, dz);
+                    if (t < closestT) {
+                        closestT = t;
+                        closestTri = i;
+                    }
+                }
+            } else {
+                final int left = node + 1;
+                final int right = nodeOffsets[node];
+                final float tLeft = intersectNode(left, ox, oy, oz, idx, idy, idz, closestT);
+                final float tRight = intersectNode(right, ox, oy, oz, idx, idy, idz, closestT);
+                // push the far child first so the near one is visited first
+                if (tLeft <= tRight) {
+                    if (tRight != Float.POSITIVE_INFINITY) stack[sp++] = right;
+                    if (tLeft != Float.POSITIVE_INFINITY) stack[sp++] = left;
+                } else {
+                    if (tLeft != Float.POSITIVE_INFINITY) stack[sp++] = left;
+                    stack[sp++] = right;
+                }
+            }
+        }
+        if (closestTri == -1) return false;
+
+        final int v = closestTri * 9;
+        final float e1x = triangles[v + 3] - triangles[v], e1y = triangles[v + 4] - triangles[v + 1], e1z = triangles[v + 5] - triangles[v + 2];
+        final float e2x = triangles[v + 6] - triangles[v], e2y = triangles[v + 7] - triangles[v + 1], e2z = triangles[v + 8] - triangles[v + 2];
+        hit.normal.set(e1y * e2z - e1z * e2y, e1z * e2x - e1x * e2z, e1x * e2y - e1y * e2x).nor();
+        hit.point.set(dx, dy, dz).scl(closestT).add(ox, oy, oz);
+        hit.distance = closestT;
+        hit.triangle = triangleIds[closestTri];
+        return true;
+    }
+
+    /**
+     * Moller-Trumbore, returns infinity on a miss
+     */
+    private float intersectTriangle(int tri, float ox, float oy, float oz, float dx, float dy, float dz) {
+        final int v = tri * 9;
+        final float v0x = triangles[v], v0y = triangles[v + 1], v0z = triangles[v + 2];
+        final float e1x = triangles[v + 3] - v0x, e1y = triangles[v + 4] - v0y, e1z = triangles[v + 5] - v0z;
+        final float e2x = triangles[v + 6] - v0x, e2y = triangles[v + 7] - v0y, e2z = triangles[v + 8] - v0z;
+        final float px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        final float det = e1x * px + e1y * py + e1z * pz;
+        if (det > -EPSILON && det < EPSILON) return Float.POSITIVE_INFINITY;
+        final float invDet = 1f / det;
+        final float tx = ox - v0x, ty = oy - v0y, tz = oz - v0z;
+        final float u = (tx * px + ty * py + tz * pz) * invDet;
+        if (u < 0f || u > 1f) return Float.POSITIVE_INFINITY;
+        final float qx = ty * e1z - tz * e1y, qy = tz * e1x - tx * e1z, qz = tx * e1y - ty * e1x;
+        final float w = (dx * qx + dy * qy + dz * qz) * invDet;
+        if (w < 0f || u + w > 1f) return Float.POSITIVE_INFINITY;
+        final float t = (e2x * qx + e2y * qy + e2z * qz) * invDet;
+        return t >= 0f ? t : Float.POSITIVE_INFINITY;
+    }
+
+    public static class Hit {
+        public final Vector3 point = new Vector3();
+        public final Vector3 normal = new Vector3();
+        public float distance = 0f;
+        public int triangle = -1;
+    }
+}
@@ -10,12 +10,12 @@ import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
 import com.badlogic.gdx.graphics.g3d.attributes.TextureAttribute;
 import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
-import com.google.vr.sdk.controller.Controller;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.gfx.Entity;
 import org.masonapps.libgdxgooglevr.gfx.VrGame;
 import org.masonapps.libgdxgooglevr.gfx.VrWorldScreen;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
 import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
 
@@ -89,17 +89,17 @@ public class LoadingScreen extends VrWorldScreen {
     }
 
     @Override
-    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+    public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
 
     }
 
     @Override
-    public void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event) {
+    public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
 
     }
 
     @Override
-    public void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event) {
+    public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
 
     }
 
@@ -0,0 +1,232 @@
+package net.masonapps.csgvr.modeling;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.utils.Array;
+
+import net.masonapps.csgvr.primitives.Box;
+import net.masonapps.csgvr.primitives.Icosphere;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class SolidCollisionWorldTest {
+
+    private static boolean bulletLoaded = false;
+
+    private SolidShapeCache shapeCache;
+    private SolidCollisionWorld collisionWorld;
+    private final Array<Solid> solids = new Array<>();
+    private final Array<Solid> out = new Array<>();
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        if (!bulletLoaded) {
+            Bullet.init();
+            bulletLoaded = true;
+        }
+        shapeCache = new SolidShapeCache();
+        collisionWorld = new SolidCollisionWorld(shapeCache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        collisionWorld.dispose();
+        shapeCache.dispose();
+        for (Solid solid : solids) {
+            solid.dispose();
+        }
+        solids.clear();
+    }
+
+    private Solid box(float x, float y, float z) {
+        final Solid solid = new Solid(new Box(1f, 1f, 1f).createPolyhedronsSet());
+        solid.setPosition(x, y, z);
+        solids.add(solid);
+        return solid;
+    }
+
+    /**
+     * a ray coming up from below the solid
+     */
+    private static Ray rayUpThrough(Solid solid) {
+        final Vector3 position = solid.getPosition();
+        return new Ray(new Vector3(position.x, position.y - 10f, position.z), new Vector3(0f, 1f, 0f));
+    }
+
+    @Test
+    public void closestSolidAlongTheRay() throws Exception {
+        final Solid near = box(0f, 0f, 0f);
+        final Solid middle = box(3f, 0f, 0f);
+        final Solid far = box(6f, 0f, 0f);
+        collisionWorld.add(far);
+        collisionWorld.add(near);
+        collisionWorld.add(middle);
+
+        final Vector3 hitPoint = new Vector3();
+        assertSame(near, collisionWorld.getClosestSolid(new Ray(new Vector3(-5f, 0.1f, 0.2f), new Vector3(1f, 0f, 0f)), hitPoint));
+        assertEquals(-0.5f, hitPoint.x, 1e-4f);
+        assertSame(far, collisionWorld.getClosestSolid(new Ray(new Vector3(10f, 0.1f, 0.2f), new Vector3(-1f, 0f, 0f)), hitPoint));
+        assertEquals(6.5f, hitPoint.x, 1e-4f);
+        assertNull(collisionWorld.getClosestSolid(new Ray(new Vector3(-5f, 2f, 0f), new Vector3(1f, 0f, 0f))));
+    }
+
+    @Test
+    public void removeThenRaycast() throws Exception {
+        final Solid a = box(0f, 0f, 0f);
+        final Solid b = box(3f, 0f, 0f);
+        final Solid c = box(6f, 0f, 0f);
+        final Solid d = box(9f, 0f, 0f);
+        collisionWorld.add(a);
+        collisionWorld.add(b);
+        collisionWorld.add(c);
+        collisionWorld.add(d);
+
+        collisionWorld.remove(a);
+        assertEquals(3, collisionWorld.size());
+        assertFalse(collisionWorld.contains(a));
+        assertNull(collisionWorld.getClosestSolid(rayUpThrough(a)));
+        assertSame(b, collisionWorld.getClosestSolid(rayUpThrough(b)));
+        assertSame(c, collisionWorld.getClosestSolid(rayUpThrough(c)));
+        assertSame(d, collisionWorld.getClosestSolid(rayUpThrough(d)));
+
+        collisionWorld.remove(c);
+        assertSame(b, collisionWorld.getClosestSolid(rayUpThrough(b)));
+        assertNull(collisionWorld.getClosestSolid(rayUpThrough(c)));
+        assertSame(d, collisionWorld.getClosestSolid(rayUpThrough(d)));
+
+        // the overlap queries read the same indices
+        final BoundingBox bounds = new BoundingBox(new Vector3(-1f, -1f, -1f), new Vector3(10f, 1f, 1f));
+        collisionWorld.getSolidsInBounds(bounds, out);
+        assertEquals(2, out.size);
+        assertTrue(out.contains(b, true));
+        assertTrue(out.contains(d, true));
+    }
+
+    @Test
+    public void onlyMovedSolidsAreSynced() throws Exception {
+        final Solid a = box(0f, 0f, 0f);
+        final Solid b = box(3f, 0f, 0f);
+        collisionWorld.add(a);
+        collisionWorld.add(b);
+        collisionWorld.sync();
+        assertEquals(2, collisionWorld.getSyncedCount());
+        collisionWorld.sync();
+        assertEquals(0, collisionWorld.getSyncedCount());
+
+        b.setPosition(3f, 0f, 5f);
+        assertNull(collisionWorld.getClosestSolid(new Ray(new Vector3(3f, -10f, 0f), new Vector3(0f, 1f, 0f))));
+        assertEquals(1, collisionWorld.getSyncedCount());
+        assertSame(b, collisionWorld.getClosestSolid(rayUpThrough(b)));
+    }
+
+    @Test
+    public void overlapQueries() throws Exception {
+        final Solid a = box(0f, 0f, 0f);
+        final Solid overlapping = box(0.75f, 0f, 0f);
+        // hulls are only approximately the mesh, so a neighbour is kept a little apart
+        final Solid near = box(-1.1f, 0f, 0f);
+        final Solid apart = box(5f, 0f, 0f);
+        collisionWorld.add(a);
+        collisionWorld.add(overlapping);
+        collisionWorld.add(near);
+        collisionWorld.add(apart);
+
+        collisionWorld.getOverlappingSolids(a, out);
+        assertEquals(1, out.size);
+        assertSame(overlapping, out.first());
+        assertTrue(collisionWorld.isOverlapping(a, overlapping));
+        assertFalse(collisionWorld.isOverlapping(a, near));
+        assertFalse(collisionWorld.isOverlapping(a, apart));
+        assertFalse(collisionWorld.isOverlapping(a, a));
+
+        out.clear();
+        collisionWorld.getSolidsInBounds(new BoundingBox(new Vector3(4f, -1f, -1f), new Vector3(6f, 1f, 1f)), out);
+        assertEquals(1, out.size);
+        assertSame(apart, out.first());
+    }
+
+    @Test
+    public void solidWorldUsesTheCollisionWorld() throws Exception {
+        final SolidWorld world = new SolidWorld();
+        final Solid a = box(0f, 0f, 0f);
+        final Solid b = box(3f, 0f, 0f);
+        world.add(a);
+        final SolidCollisionWorld queries = world.enableCollisionQueries(shapeCache);
+        world.add(b);
+        assertEquals(2, queries.size());
+
+        world.remove(a);
+        assertEquals(1, queries.size());
+        assertNull(world.getClosestSolid(rayUpThrough(a)));
+        assertSame(b, world.getClosestSolid(rayUpThrough(b)));
+
+        // every shape is released with the collision world
+        world.disableCollisionQueries();
+        assertEquals(0, shapeCache.getShapeCount());
+    }
+
+    /**
+     * rays grazing the silhouette of a sphere whose hull has far more than {@link SolidShapeCache#MAX_HULL_VERTICES}
+     * points, a simplified hull lies inside the facets and would miss some of the hits. The sphere is large enough for
+     * the gap to exceed the collision margin of the hull.
+     */
+    @Test
+    public void raysAtTheSilhouetteMatchTheTriangles() throws Exception {
+        final float sphereRadius = 10f;
+        final Solid sphere = new Solid(new Icosphere(sphereRadius).createPolyhedronsSet());
+        sphere.setPosition(1f, 2f, -3f);
+        sphere.setRotation(20f, 35f, 10f);
+        solids.add(sphere);
+        collisionWorld.add(sphere);
+        assertTrue(sphere.getMeshData().getNumVertices() > SolidShapeCache.MAX_HULL_VERTICES);
+
+        final Vector3 expectedHit = new Vector3();
+        final Vector3 hit = new Vector3();
+        final Vector3 side = new Vector3();
+        final Vector3 up = new Vector3();
+        final Ray ray = new Ray();
+        int hits = 0;
+        int misses = 0;
+        for (int d = 0; d < 6; d++) {
+            // a few view directions, each with rays on rings just inside and outside the radius
+            final Vector3 direction = new Vector3(MathUtils.cosDeg(d * 60f), 0.4f * d - 1f, MathUtils.sinDeg(d * 60f)).nor();
+            side.set(direction).crs(Vector3.Y).nor();
+            up.set(side).crs(direction).nor();
+            for (int a = 0; a < 90; a++) {
+                final float angle = a * 4f;
+                for (float radius = 0.95f * sphereRadius; radius < 1.01f * sphereRadius; radius += 0.005f * sphereRadius) {
+                    ray.origin.set(sphere.getPosition())
+                            .mulAdd(side, MathUtils.cosDeg(angle) * radius)
+                            .mulAdd(up, MathUtils.sinDeg(angle) * radius)
+                            .mulAdd(direction, -2f * sphereRadius);
+                    ray.direction.set(direction);
+                    final boolean expected = sphere.castRay(ray, expectedHit);
+                    final Solid closest = collisionWorld.getClosestSolid(ray, hit);
+                    assertEquals("ray at " + angle + " degrees, radius " + radius, expected, closest == sphere);
+                    if (expected) {
+                        assertEquals(expectedHit.x, hit.x, 1e-4f);
+                        assertEquals(expectedHit.y, hit.y, 1e-4f);
+                        assertEquals(expectedHit.z, hit.z, 1e-4f);
+                        hits++;
+                    } else {
+                        misses++;
+                    }
+                }
+            }
+        }
+        assertTrue(hits > 0);
+        assertTrue(misses > 0);
+    }
+}
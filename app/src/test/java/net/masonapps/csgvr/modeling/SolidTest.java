@@ -0,0 +1,43 @@
+package net.masonapps.csgvr.modeling;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+import net.masonapps.csgvr.primitives.Box;
+import net.masonapps.csgvr.utils.TriangleBVH;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class SolidTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+    }
+
+    @Test
+    public void hitNormalIsPerpendicularToTheScaledFace() throws Exception {
+        // a diamond in the xy plane, stretched along y by the solid
+        final Box box = new Box(1f, 1f, 1f);
+        box.setRotationZ(45f);
+        final Solid solid = new Solid(box.createPolyhedronsSet());
+        solid.setScale(1f, 3f, 1f);
+
+        final TriangleBVH.Hit hit = new TriangleBVH.Hit();
+        final Ray ray = new Ray(new Vector3(5f, 0.5f, 0f), new Vector3(-1f, 0f, 0f));
+        assertTrue(solid.castRay(ray, hit));
+
+        // the upper right face runs from (0.707, 0) to (0, 2.121)
+        final Vector3 expected = new Vector3(3f, 1f, 0f).nor();
+        assertTrue(hit.normal + " != " + expected, hit.normal.epsilonEquals(expected, 1e-4f));
+        assertEquals(5f - hit.point.x, hit.distance, 1e-4f);
+        assertEquals(0.5f, hit.point.y, 1e-4f);
+    }
+}
@@ -0,0 +1,260 @@
+package net.masonapps.csgvr.modeling;
+
+import com.badlogic.gdx.graphics.g3d.model.NodePart;
+import com.badlogic.gdx.utils.Array;
+
+import net.masonapps.csgvr.primitives.Box;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class StaticBatcherTest {
+
+    private static final int STATIC_FRAMES = 3;
+
+    private final QueuedExecutor executor = new QueuedExecutor();
+    private SolidWorld world;
+    private StaticBatcher batcher;
+    private Solid a;
+    private Solid b;
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        world = new SolidWorld(executor);
+        batcher = world.getStaticBatcher();
+        batcher.setStaticFrames(STATIC_FRAMES);
+        a = (Solid) world.add(new Box(1f, 1f, 1f).createSolid());
+        b = (Solid) world.add(new Box(1f, 2f, 1f).createSolid());
+        b.setPosition(3f, 0f, 0f);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        world.dispose();
+    }
+
+    private void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            world.update();
+        }
+    }
+
+    private static Array<NodePart> parts(Entity entity) {
+        return entity.modelInstance.nodes.first().parts;
+    }
+
+    private static int drawnIndices(Entity entity) {
+        int count = 0;
+        for (NodePart part : parts(entity)) {
+            count += part.meshPart.size;
+        }
+        return count;
+    }
+
+    @Test
+    public void solidsMergeAfterStayingStill() throws Exception {
+        frames(STATIC_FRAMES - 1);
+        assertFalse(batcher.isBatched(a));
+        assertEquals(0, batcher.getBatches().size);
+
+        frames(1);
+        assertTrue(batcher.isBatched(a));
+        assertTrue(batcher.isBatched(b));
+        assertFalse(a.isRenderingEnabled());
+        assertFalse(b.isRenderingEnabled());
+        // both solids share a material, so one batch and one extra entity
+        assertEquals(1, batcher.getBatches().size);
+        assertEquals(3, world.entities.size);
+        final StaticBatch batch = batcher.getBatches().first();
+        assertEquals(a.getMeshData().getNumVertices() + b.getMeshData().getNumVertices(), batch.getUploaded().getMeshData().getNumVertices());
+    }
+
+    @Test
+    public void editingASolidReleasesIt() throws Exception {
+        frames(STATIC_FRAMES);
+        assertTrue(batcher.isBatched(a));
+
+        a.setPosition(0f, 1f, 0f);
+        frames(1);
+
+        assertFalse(batcher.isBatched(a));
+        assertTrue(a.isRenderingEnabled());
+        assertTrue(batcher.isBatched(b));
+        final StaticBatch batch = batcher.getBatches().first();
+        assertFalse(batch.contains(a));
+        assertEquals(b.getMeshData().getNumVertices(), batch.getUploaded().getMeshData().getNumVertices());
+
+        frames(STATIC_FRAMES);
+        assertTrue(batcher.isBatched(a));
+    }
+
+    @Test
+    public void selectedSolidIsReleasedAndNeverMerged() throws Exception {
+        frames(STATIC_FRAMES);
+        world.setSelectedSolid(a);
+        assertFalse(batcher.isBatched(a));
+        assertTrue(a.isRenderingEnabled());
+
+        frames(STATIC_FRAMES * 2);
+        assertFalse(batcher.isBatched(a));
+
+        world.setSelectedSolid(null);
+        frames(STATIC_FRAMES);
+        assertTrue(batcher.isBatched(a));
+    }
+
+    @Test
+    public void removedSolidsLeaveTheirBatch() throws Exception {
+        frames(STATIC_FRAMES);
+        world.remove(a);
+        frames(1);
+
+        assertFalse(batcher.isBatched(a));
+        assertTrue(a.isRenderingEnabled());
+        assertFalse(batcher.getBatches().first().contains(a));
+
+        world.remove(b);
+        frames(1);
+        assertEquals(0, batcher.getBatches().size);
+        assertEquals(0, world.entities.size);
+        a.dispose();
+        b.dispose();
+    }
+
+    @Test
+    public void clearEntitiesDropsBatches() throws Exception {
+        frames(STATIC_FRAMES);
+        world.clearEntities();
+
+        assertEquals(0, batcher.getBatches().size);
+        assertEquals(0, world.entities.size);
+        assertEquals(0, world.getTransforms().getCount());
+    }
+
+    @Test
+    public void releasedSolidIsSkippedUntilTheBackgroundBakeIsUploaded() throws Exception {
+        frames(STATIC_FRAMES);
+        final StaticBatch batch = batcher.getBatches().first();
+        final Entity entity = batcher.getBatchEntity(batch);
+        assertNotNull(entity);
+        final int aIndices = a.getMeshData().indices.length;
+        final int bIndices = b.getMeshData().indices.length;
+        assertEquals(aIndices + bIndices, drawnIndices(entity));
+
+        executor.queue = true;
+        world.setSelectedSolid(a);
+        // the solid draws itself in the same frame and the batch no longer draws its triangles
+        assertTrue(a.isRenderingEnabled());
+        assertFalse(b.isRenderingEnabled());
+        assertEquals(bIndices, drawnIndices(entity));
+        assertEquals(aIndices, parts(entity).first().meshPart.offset);
+
+        // nothing is uploaded while the bake is still queued
+        frames(STATIC_FRAMES);
+        assertSame(entity, batcher.getBatchEntity(batch));
+        assertEquals(1, executor.pending.size);
+
+        executor.runAll();
+        frames(1);
+        final Entity rebuilt = batcher.getBatchEntity(batch);
+        assertNotSame(entity, rebuilt);
+        assertFalse(world.entities.contains(entity, true));
+        assertEquals(1, batch.getUploaded().getSolidCount());
+        assertEquals(bIndices, drawnIndices(rebuilt));
+        assertEquals(0, parts(rebuilt).first().meshPart.offset);
+    }
+
+    @Test
+    public void solidsKeepDrawingThemselvesUntilTheUploadCompletes() throws Exception {
+        // a fits in the first chunk with two triangles of b, the rest of b goes into the second
+        batcher.setChunkVertices(a.getMeshData().getNumVertices() + 6);
+        frames(STATIC_FRAMES);
+        final StaticBatch batch = batcher.getBatches().first();
+        assertTrue(batcher.isBatched(a));
+        assertNull(batcher.getBatchEntity(batch));
+        assertTrue(a.isRenderingEnabled());
+        assertTrue(b.isRenderingEnabled());
+
+        frames(1);
+        final Entity entity = batcher.getBatchEntity(batch);
+        assertNotNull(entity);
+        assertFalse(a.isRenderingEnabled());
+        assertFalse(b.isRenderingEnabled());
+        assertEquals(2, parts(entity).size);
+
+        // the range of b starts in the first mesh and continues in the second
+        final int aIndices = a.getMeshData().indices.length;
+        batcher.release(a);
+        assertTrue(a.isRenderingEnabled());
+        final Array<NodePart> parts = parts(entity);
+        assertEquals(2, parts.size);
+        assertEquals(aIndices, parts.get(0).meshPart.offset);
+        assertEquals(6, parts.get(0).meshPart.size);
+        assertNotSame(parts.get(0).meshPart.mesh, parts.get(1).meshPart.mesh);
+        assertEquals(0, parts.get(1).meshPart.offset);
+        assertEquals(b.getMeshData().indices.length, drawnIndices(entity));
+    }
+
+    @Test
+    public void solidsChangedDuringTheBakeAreSkipped() throws Exception {
+        executor.queue = true;
+        frames(STATIC_FRAMES);
+        final StaticBatch batch = batcher.getBatches().first();
+
+        // a leaves and joins again with a new transform before the bake holding its old one is uploaded
+        a.setPosition(0f, 2f, 0f);
+        frames(STATIC_FRAMES + 1);
+        assertTrue(batcher.isBatched(a));
+        executor.runAll();
+        frames(1);
+
+        final Entity entity = batcher.getBatchEntity(batch);
+        assertNotNull(entity);
+        assertTrue(a.isRenderingEnabled());
+        assertFalse(b.isRenderingEnabled());
+        assertEquals(b.getMeshData().indices.length, drawnIndices(entity));
+
+        // the next bake starts once the previous one was picked up
+        frames(1);
+        assertEquals(1, executor.pending.size);
+        executor.runAll();
+        frames(1);
+        assertFalse(a.isRenderingEnabled());
+        assertEquals(a.getMeshData().indices.length + b.getMeshData().indices.length, drawnIndices(batcher.getBatchEntity(batch)));
+    }
+
+    /**
+     * runs bakes on the calling thread, either right away or when the test calls {@link #runAll()}
+     */
+    private static class QueuedExecutor implements Executor {
+        boolean queue = false;
+        final Array<Runnable> pending = new Array<>();
+
+        @Override
+        public void execute(Runnable command) {
+            if (queue)
+                pending.add(command);
+            else
+                command.run();
+        }
+
+        void runAll() {
+            final Array<Runnable> commands = new Array<>(pending);
+            pending.clear();
+            for (Runnable command : commands) {
+                command.run();
+            }
+        }
+    }
+}
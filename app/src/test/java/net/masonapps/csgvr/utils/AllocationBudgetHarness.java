@@ -0,0 +1,181 @@
+package net.masonapps.csgvr.utils;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.math.collision.Ray;
+
+import net.masonapps.csgvr.modeling.SolidWorld;
+
+import org.masonapps.libgdxgooglevr.input.VrUiContainer;
+import org.masonapps.libgdxgooglevr.utils.AllocationMeter;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler.Phase;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Drives a {@link SolidWorld} and an optional {@link VrUiContainer} for a number of frames without rendering and measures
+ * the bytes each phase allocates per frame. Edits made by the {@link Script} are not counted against any phase.
+ * Budgets are bytes per frame, {@link Report#check()} fails when a phase goes over its budget in more frames than the
+ * tolerance allows. Under -Xint every run allocates the same bytes in the same frames and no frame is tolerated, with the
+ * jit a few frames pay for compiling and deoptimizing the loop and a phase that really allocates still does in every frame.
+ */
+public class AllocationBudgetHarness {
+
+    public static final int DEFAULT_WARMUP_FRAMES = 30;
+    public static final boolean INTERPRETED = System.getProperty("java.vm.info", "").contains("interpreted");
+    private static final Phase[] MEASURED_PHASES = {Phase.UPDATE, Phase.INPUT, Phase.UI_ACT};
+
+    public interface Script {
+        /**
+         * called at the start of every frame, move solids or the pointer ray here
+         */
+        void onFrame(int frame, SolidWorld world, Ray ray);
+    }
+
+    private final SolidWorld world;
+    @Nullable
+    private final VrUiContainer container;
+    private final Ray ray = new Ray();
+    private final long[] budgets = new long[Phase.values().length];
+    private int warmupFrames = DEFAULT_WARMUP_FRAMES;
+    private int jitTolerance = 0;
+
+    public AllocationBudgetHarness(SolidWorld world, @Nullable VrUiContainer container) {
+        this.world = world;
+        this.container = container;
+        for (int i = 0; i < budgets.length; i++) {
+            budgets[i] = Long.MAX_VALUE;
+        }
+        ray.set(0f, 0f, 0f, 0f, 0f, -1f);
+    }
+
+    public AllocationBudgetHarness setBudget(Phase phase, long bytesPerFrame) {
+        budgets[phase.ordinal()] = bytesPerFrame;
+        return this;
+    }
+
+    public AllocationBudgetHarness setWarmupFrames(int warmupFrames) {
+        this.warmupFrames = warmupFrames;
+        return this;
+    }
+
+    /**
+     * @param frames how many measured frames of a phase may go over its budget while the jit is running, ignored under -Xint
+     */
+    public AllocationBudgetHarness setJitTolerance(int frames) {
+        this.jitTolerance = frames;
+        return this;
+    }
+
+    /**
+     * runs the warmup frames unmeasured followed by the measured frames, on the thread that owns the world, the calling
+     * test is skipped on a runtime without a thread allocation counter
+     */
+    public Report run(int frames, @Nullable Script script) {
+        assumeTrue("no thread allocation counter on this runtime", AllocationMeter.isSupported());
+        final Report report = new Report(budgets, INTERPRETED ? 0 : jitTolerance);
+        for (int frame = 0; frame < warmupFrames + frames; frame++) {
+            if (script != null)
+                script.onFrame(frame, world, ray);
+            final boolean measured = frame >= warmupFrames;
+            for (Phase phase : MEASURED_PHASES) {
+                // an empty measurement right before the phase, the cost of the counter call changes as it gets compiled
+                final long before = AllocationMeter.getThreadAllocatedBytes();
+                final long start = AllocationMeter.getThreadAllocatedBytes();
+                runPhase(phase);
+                final long end = AllocationMeter.getThreadAllocatedBytes();
+                final long bytes = Math.max(end - start - (start - before), 0);
+                if (measured)
+                    report.add(phase, bytes);
+            }
+        }
+        return report;
+    }
+
+    private void runPhase(Phase phase) {
+        switch (phase) {
+            case UPDATE:
+                world.update();
+                break;
+            case INPUT:
+                world.getClosestSolid(ray);
+                if (container != null)
+                    container.performRayTest(ray);
+                break;
+            case UI_ACT:
+                if (container != null)
+                    container.act();
+                break;
+        }
+    }
+
+    public static class Report {
+        private final long[] budgets;
+        private final int tolerance;
+        private final long[] totalBytes = new long[Phase.values().length];
+        private final long[] maxBytes = new long[Phase.values().length];
+        private final int[] frameCounts = new int[Phase.values().length];
+        private final int[] overBudgetCounts = new int[Phase.values().length];
+
+        Report(long[] budgets, int tolerance) {
+            this.budgets = budgets.clone();
+            this.tolerance = tolerance;
+        }
+
+        void add(Phase phase, long bytes) {
+            final int i = phase.ordinal();
+            totalBytes[i] += bytes;
+            maxBytes[i] = Math.max(maxBytes[i], bytes);
+            frameCounts[i]++;
+            if (bytes > budgets[i])
+                overBudgetCounts[i]++;
+        }
+
+        public long getMaxBytesPerFrame(Phase phase) {
+            return maxBytes[phase.ordinal()];
+        }
+
+        public long getAverageBytesPerFrame(Phase phase) {
+            final int i = phase.ordinal();
+            return frameCounts[i] == 0 ? 0 : totalBytes[i] / frameCounts[i];
+        }
+
+        /**
+         * @return the number of measured frames in which the phase went over its budget
+         */
+        public int getOverBudgetFrames(Phase phase) {
+            return overBudgetCounts[phase.ordinal()];
+        }
+
+        public boolean isWithinBudget(Phase phase) {
+            return overBudgetCounts[phase.ordinal()] <= tolerance;
+        }
+
+        /**
+         * @throws AssertionError listing every phase that went over its budget
+         */
+        public void check() {
+            final StringBuilder sb = new StringBuilder();
+            for (Phase phase : MEASURED_PHASES) {
+                if (isWithinBudget(phase)) continue;
+                sb.append(phase.name()).append(" went over its budget of ").append(budgets[phase.ordinal()])
+                        .append(" bytes in ").append(getOverBudgetFrames(phase)).append(" of ").append(frameCounts[phase.ordinal()])
+                        .append(" frames, up to ").append(getMaxBytesPerFrame(phase)).append(" bytes, ")
+                        .append(tolerance).append(" frames are tolerated\n");
+            }
+            if (sb.length() > 0)
+                throw new AssertionError(sb.toString());
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder();
+            for (Phase phase : MEASURED_PHASES) {
+                sb.append(phase.name()).append(" avg ").append(getAverageBytesPerFrame(phase))
+                        .append(" max ").append(getMaxBytesPerFrame(phase)).append(" bytes/frame\n");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+import net.masonapps.csgvr.modeling.Solid;
+import net.masonapps.csgvr.modeling.SolidWorld;
+import net.masonapps.csgvr.primitives.Box;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+import org.masonapps.libgdxgooglevr.input.VrUiContainer;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler.Phase;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class AllocationBudgetTest {
+
+    // keeps the allocation from being optimized away
+    static Object garbage;
+
+    // two sweeps of the pointer and two passes over the solids, so everything built lazily on the first hit exists
+    private static final int WARMUP_FRAMES = 120;
+    // the allocationBudgetTest task runs this class under -Xint, this only covers runs from the ide with the jit
+    private static final int JIT_TOLERANCE_FRAMES = 6;
+    private SolidWorld world;
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        world = new SolidWorld();
+        for (int i = 0; i < 20; i++) {
+            final Solid solid = (Solid) world.add(new Box(1f, 1f, 1f).createSolid());
+            solid.setPosition(i % 5 * 2f, 0f, -2f - i / 5 * 2f);
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        world.dispose();
+    }
+
+    @Test
+    public void staticSceneAllocatesNothingPerFrame() throws Exception {
+        final AllocationBudgetHarness.Report report = new AllocationBudgetHarness(world, new VrUiContainer())
+                .setWarmupFrames(WARMUP_FRAMES)
+                .setJitTolerance(JIT_TOLERANCE_FRAMES)
+                .setBudget(Phase.UPDATE, 0)
+                .setBudget(Phase.INPUT, 0)
+                .setBudget(Phase.UI_ACT, 0)
+                .run(120, new AllocationBudgetHarness.Script() {
+                    @Override
+                    public void onFrame(int frame, SolidWorld world, Ray ray) {
+                        // sweep the pointer across the solids
+                        ray.direction.set(-0.5f + (frame % 60) / 60f, 0f, -1f).nor();
+                    }
+                });
+        report.check();
+    }
+
+    @Test
+    public void movingSolidsStayWithinBudget() throws Exception {
+        final Vector3 offset = new Vector3();
+        final AllocationBudgetHarness.Report report = new AllocationBudgetHarness(world, null)
+                .setWarmupFrames(WARMUP_FRAMES)
+                .setJitTolerance(JIT_TOLERANCE_FRAMES)
+                .setBudget(Phase.UPDATE, 0)
+                .setBudget(Phase.INPUT, 0)
+                .run(120, new AllocationBudgetHarness.Script() {
+                    @Override
+                    public void onFrame(int frame, SolidWorld world, Ray ray) {
+                        final Solid solid = (Solid) world.entities.get(frame % world.entities.size);
+                        // every solid moves up on one pass over the list and back down on the next
+                        solid.translate(offset.set(0f, (frame / world.entities.size & 1) == 0 ? 0.1f : -0.1f, 0f));
+                    }
+                });
+        report.check();
+    }
+
+    @Test
+    public void allocatingInEveryFrameFailsDespiteTheTolerance() throws Exception {
+        final SolidWorld allocatingWorld = new SolidWorld() {
+            @Override
+            public void update() {
+                super.update();
+                garbage = new float[16];
+            }
+        };
+        final AllocationBudgetHarness.Report report = new AllocationBudgetHarness(allocatingWorld, null)
+                .setWarmupFrames(WARMUP_FRAMES)
+                .setJitTolerance(JIT_TOLERANCE_FRAMES)
+                .setBudget(Phase.UPDATE, 0)
+                .run(120, null);
+        allocatingWorld.dispose();
+        assertFalse(report.toString(), report.isWithinBudget(Phase.UPDATE));
+        assertTrue(report.getOverBudgetFrames(Phase.UPDATE) > 100);
+    }
+}
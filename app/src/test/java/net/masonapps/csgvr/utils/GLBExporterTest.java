@@ -0,0 +1,131 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+
+import net.masonapps.csgvr.modeling.Solid;
+import net.masonapps.csgvr.modeling.SolidWorld;
+import net.masonapps.csgvr.primitives.Box;
+
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class GLBExporterTest {
+
+    private SolidWorld world;
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        world = new SolidWorld();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        world.dispose();
+    }
+
+    @Test
+    public void solidsWithEqualGeometryShareOneMesh() throws Exception {
+        final PolyhedronsSet box = new Box(1f, 1f, 1f).createPolyhedronsSet();
+        final Solid a = (Solid) world.add(new Solid(box));
+        final Solid b = (Solid) world.add(new Solid(box));
+        b.setPosition(2f, 0f, 0f);
+        world.add(new Solid(new Box(1f, 2f, 3f).createPolyhedronsSet()));
+        world.update();
+        assertNotSame(a.modelInstance.model, b.modelInstance.model);
+
+        final JsonValue json = validate(new GLBExporter(world).write());
+
+        assertEquals(3, json.get("nodes").size);
+        assertEquals(2, json.get("meshes").size);
+        assertEquals(json.get("nodes").get(0).getInt("mesh"), json.get("nodes").get(1).getInt("mesh"));
+        assertNotEquals(json.get("nodes").get(0).getInt("mesh"), json.get("nodes").get(2).getInt("mesh"));
+    }
+
+    @Test
+    public void entitiesThatAreNotRenderingAreSkipped() throws Exception {
+        final Solid visible = (Solid) world.add(new Solid(new Box(1f, 1f, 1f).createPolyhedronsSet()));
+        final Solid hidden = (Solid) world.add(new Solid(new Box(1f, 2f, 1f).createPolyhedronsSet()));
+        hidden.setRenderingEnabled(false);
+        world.update();
+
+        final JsonValue json = validate(new GLBExporter(world).write());
+
+        assertEquals(1, json.get("nodes").size);
+        assertEquals(1, json.get("meshes").size);
+        assertTrue(visible.isRenderingEnabled());
+    }
+
+    /**
+     * checks the container and that every accessor fits in its buffer view and every view in the buffer
+     *
+     * @return the parsed json chunk
+     */
+    private static JsonValue validate(ByteBuffer glb) {
+        glb.order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x46546C67, glb.getInt());
+        assertEquals(2, glb.getInt());
+        assertEquals(glb.limit(), glb.getInt());
+
+        final int jsonLength = glb.getInt();
+        assertEquals(0, jsonLength % 4);
+        assertEquals(0x4E4F534A, glb.getInt());
+        final byte[] jsonBytes = new byte[jsonLength];
+        glb.get(jsonBytes);
+        final JsonValue json = new JsonReader().parse(new String(jsonBytes, Charset.forName("UTF-8")));
+
+        final int binLength = glb.getInt();
+        assertEquals(0x004E4942, glb.getInt());
+        assertEquals(glb.remaining(), binLength);
+        assertEquals(binLength, json.get("buffers").get(0).getInt("byteLength"));
+
+        final JsonValue views = json.get("bufferViews");
+        for (JsonValue view : views) {
+            assertTrue(view.getInt("byteOffset") % 4 == 0);
+            assertTrue(view.getInt("byteOffset") + view.getInt("byteLength") <= binLength);
+        }
+        final int binStart = glb.position();
+        for (JsonValue accessor : json.get("accessors")) {
+            final JsonValue view = views.get(accessor.getInt("bufferView"));
+            final boolean vec3 = accessor.getString("type").equals("VEC3");
+            final int elementSize = vec3 ? 12 : 2;
+            final int stride = view.getInt("byteStride", elementSize);
+            final int count = accessor.getInt("count");
+            assertTrue(count > 0);
+            assertTrue(accessor.getInt("byteOffset") + (count - 1) * stride + elementSize <= view.getInt("byteLength"));
+            if (!vec3) {
+                // every index points at a vertex of the position accessor of its primitive
+                final int start = binStart + view.getInt("byteOffset") + accessor.getInt("byteOffset");
+                for (int i = 0; i < count; i++) {
+                    assertTrue((glb.getShort(start + i * 2) & 0xFFFF) < maxVertexCount(json));
+                }
+            }
+        }
+        for (JsonValue node : json.get("nodes")) {
+            assertTrue(node.getInt("mesh") < json.get("meshes").size);
+        }
+        return json;
+    }
+
+    private static int maxVertexCount(JsonValue json) {
+        int max = 0;
+        for (JsonValue accessor : json.get("accessors")) {
+            if (accessor.getString("type").equals("VEC3"))
+                max = Math.max(max, accessor.getInt("count"));
+        }
+        return max;
+    }
+}
@@ -0,0 +1,164 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.math.Vector3;
+
+import net.masonapps.csgvr.csg.CSG;
+import net.masonapps.csgvr.modeling.CsgNode;
+import net.masonapps.csgvr.primitives.Box;
+
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Records events to a text log the way a logging recorder would and parses them back. jdk.jfr is not on the android
+ * classpath these tests compile against, so the recording is the text form of {@link GeometryEvents.Event}.
+ */
+public class GeometryEventsTest {
+
+    private static final Pattern LINE = Pattern.compile("(\\w+) on (.+): (\\d+) us, polygons (\\d+) -> (\\d+), splits (\\d+), bytes (\\d+)");
+
+    private final StringBuilder log = new StringBuilder();
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        log.setLength(0);
+        GeometryEvents.setRecorder(new GeometryEvents.Recorder() {
+            @Override
+            public void record(GeometryEvents.Event event) {
+                synchronized (log) {
+                    log.append(event).append('\n');
+                }
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        GeometryEvents.setRecorder(null);
+    }
+
+    private List<Parsed> parse() {
+        final List<Parsed> events = new ArrayList<>();
+        synchronized (log) {
+            for (String line : log.toString().split("\n")) {
+                if (line.isEmpty()) continue;
+                final Matcher matcher = LINE.matcher(line);
+                assertTrue("unparsable event: " + line, matcher.matches());
+                events.add(new Parsed(matcher));
+            }
+        }
+        return events;
+    }
+
+    private static Parsed find(List<Parsed> events, GeometryEvents.Type type) {
+        Parsed found = null;
+        for (Parsed event : events) {
+            if (event.type == type) {
+                assertNull("more than one " + type, found);
+                found = event;
+            }
+        }
+        assertNotNull("no " + type + " event", found);
+        return found;
+    }
+
+    @Test
+    public void csgUnionOnAWorkerThread() throws Exception {
+        final CSG a = CSG.cube(new Vector3(0f, 0f, 0f), 1f);
+        final CSG b = CSG.cube(new Vector3(0.5f, 0.5f, 0.5f), 1f);
+        final CSG[] result = new CSG[1];
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result[0] = a.union(b);
+            }
+        }, "geometry-worker");
+        thread.start();
+        thread.join();
+
+        final List<Parsed> events = parse();
+        final Parsed union = find(events, GeometryEvents.Type.CSG_UNION);
+        assertEquals("geometry-worker", union.threadName);
+        assertEquals(a.getPolygons().size() + b.getPolygons().size(), union.polygonsIn);
+        assertEquals(result[0].getPolygons().size(), union.polygonsOut);
+        // the overlapping cubes cut each other, the splits of the nested builds count toward the union
+        assertTrue(union.splits > 0);
+        int bspBuilds = 0;
+        for (Parsed event : events) {
+            if (event.type == GeometryEvents.Type.BSP_BUILD) {
+                bspBuilds++;
+                assertTrue(event.splits <= union.splits);
+            }
+        }
+        assertTrue(bspBuilds > 0);
+    }
+
+    @Test
+    public void regionBooleanAndMeshing() throws Exception {
+        final PolyhedronsSet box = new Box(2f, 2f, 2f).createPolyhedronsSet();
+        final PolyhedronsSet cutter = new Box(1f, 4f, 1f).createPolyhedronsSet();
+
+        final PolyhedronsSet difference = CsgNode.apply(CsgNode.Operator.DIFFERENCE, box, cutter);
+        final MeshData meshData = ConversionUtils.polyhedronsSetToMeshData(difference);
+
+        final List<Parsed> events = parse();
+        final Parsed region = find(events, GeometryEvents.Type.REGION_DIFFERENCE);
+        assertEquals(GeometryEvents.countNodes(box.getTree(false)) + GeometryEvents.countNodes(cutter.getTree(false)), region.polygonsIn);
+        assertTrue(region.polygonsOut > 0);
+        final Parsed mesh = find(events, GeometryEvents.Type.POLYHEDRONS_TO_MESH);
+        assertEquals(meshData.indices.length / 3, mesh.polygonsOut);
+        assertEquals(Thread.currentThread().getName(), mesh.threadName);
+    }
+
+    @Test
+    public void binaryStlWriteReportsBytesWritten() throws Exception {
+        final MeshData meshData = ConversionUtils.polyhedronsSetToMeshData(new Box(1f, 1f, 1f).createPolyhedronsSet());
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        STLExporter.fromMeshData(meshData).writeToOutputStream(out, STLExporter.FileType.BINARY);
+
+        final Parsed write = find(parse(), GeometryEvents.Type.STL_WRITE);
+        final int triangles = meshData.indices.length / 3;
+        assertEquals(triangles, write.polygonsIn);
+        assertEquals(out.size(), write.bytesWritten);
+    }
+
+    @Test
+    public void nothingIsRecordedWithoutARecorder() throws Exception {
+        GeometryEvents.setRecorder(null);
+        assertFalse(GeometryEvents.isEnabled());
+        assertNull(GeometryEvents.begin(GeometryEvents.Type.CSG_UNION));
+        CSG.cube(new Vector3(), 1f).subtract(CSG.cube(new Vector3(0.5f, 0f, 0f), 1f));
+        assertEquals(0, log.length());
+    }
+
+    private static class Parsed {
+        final GeometryEvents.Type type;
+        final String threadName;
+        final int polygonsIn;
+        final int polygonsOut;
+        final int splits;
+        final long bytesWritten;
+
+        Parsed(Matcher matcher) {
+            type = GeometryEvents.Type.valueOf(matcher.group(1));
+            threadName = matcher.group(2);
+            polygonsIn = Integer.parseInt(matcher.group(4));
+            polygonsOut = Integer.parseInt(matcher.group(5));
+            splits = Integer.parseInt(matcher.group(6));
+            bytesWritten = Long.parseLong(matcher.group(7));
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+import net.masonapps.csgvr.primitives.Box;
+import net.masonapps.csgvr.primitives.Icosphere;
+
+import org.apache.commons.math3.geometry.euclidean.threed.Euclidean3D;
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
+import org.apache.commons.math3.geometry.partitioning.RegionFactory;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class MeshCreationTreeVisitorTest {
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+    }
+
+    private static MeshCreationTreeVisitor visit(PolyhedronsSet polyhedronsSet) {
+        final MeshCreationTreeVisitor visitor = new MeshCreationTreeVisitor((Vector3D) polyhedronsSet.getBarycenter());
+        polyhedronsSet.getTree(true).visit(visitor);
+        return visitor;
+    }
+
+    /**
+     * a sphere with a box cut out of it, so some faces are concave or have holes
+     */
+    private static PolyhedronsSet cutSphere() {
+        final PolyhedronsSet sphere = new Icosphere(1f).createPolyhedronsSet();
+        final Box box = new Box(0.8f, 0.8f, 3f);
+        box.setPosition(0.3f, 0.2f, 0f);
+        return (PolyhedronsSet) new RegionFactory<Euclidean3D>().difference(sphere, box.createPolyhedronsSet());
+    }
+
+    private static void assertSameOutput(final PolyhedronsSet polyhedronsSet) throws Exception {
+        final FloatArray sequentialVertices = new FloatArray();
+        final IntArray sequentialIndices = new IntArray();
+        final MeshCreationTreeVisitor sequential = visit(polyhedronsSet);
+        assertTrue(sequential.getFaceCount() >= 16);
+        sequential.triangulate(sequentialVertices, sequentialIndices, false);
+
+        final FloatArray parallelVertices = new FloatArray();
+        final IntArray parallelIndices = new IntArray();
+        final MeshCreationTreeVisitor parallel = visit(polyhedronsSet);
+        // a pool of its own so the faces are spread over several threads even on a single core
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    parallel.triangulate(parallelVertices, parallelIndices, true);
+                    return null;
+                }
+            }).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(sequentialIndices.size > 0);
+        assertArrayEquals(sequentialVertices.toArray(), parallelVertices.toArray(), 0f);
+        assertArrayEquals(sequentialIndices.toArray(), parallelIndices.toArray());
+        assertEquals(0, parallel.getFaceCount());
+    }
+
+    @Test
+    public void parallelTriangulationMatchesSequential() throws Exception {
+        assertSameOutput(new Icosphere(1f).createPolyhedronsSet());
+    }
+
+    @Test
+    public void parallelTriangulationOfCutFacesMatchesSequential() throws Exception {
+        assertSameOutput(cutSphere());
+    }
+
+    @Test
+    public void repeatedParallelRunsAreIdentical() throws Exception {
+        final PolyhedronsSet polyhedronsSet = cutSphere();
+        final FloatArray firstVertices = new FloatArray();
+        final IntArray firstIndices = new IntArray();
+        visit(polyhedronsSet).triangulate(firstVertices, firstIndices, true);
+        for (int i = 0; i < 5; i++) {
+            final FloatArray vertices = new FloatArray();
+            final IntArray indices = new IntArray();
+            visit(polyhedronsSet).triangulate(vertices, indices, true);
+            assertArrayEquals(firstVertices.toArray(), vertices.toArray(), 0f);
+            assertArrayEquals(firstIndices.toArray(), indices.toArray());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class MeshDataTest {
+
+    private static final int VERTEX_SIZE = 6;
+
+    private Array<Mesh> meshes = new Array<>();
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (Mesh mesh : meshes) {
+            mesh.dispose();
+        }
+        meshes.clear();
+    }
+
+    /**
+     * every vertex has a unique position so a remapped index can be traced back to the original vertex
+     */
+    private static MeshData createMeshData(int vertexCount, int extraTriangles) {
+        final float[] vertices = new float[vertexCount * VERTEX_SIZE];
+        for (int i = 0; i < vertexCount; i++) {
+            final int o = i * VERTEX_SIZE;
+            vertices[o] = i;
+            vertices[o + 1] = i % 257;
+            vertices[o + 2] = -i;
+            vertices[o + 5] = 1f;
+        }
+        // a strip through all vertices, then triangles between random far apart vertices
+        final int stripTriangles = vertexCount - 2;
+        final int[] indices = new int[(stripTriangles + extraTriangles) * 3];
+        for (int t = 0; t < stripTriangles; t++) {
+            indices[t * 3] = t;
+            indices[t * 3 + 1] = t + 1;
+            indices[t * 3 + 2] = t + 2;
+        }
+        final Random random = new Random(28L);
+        for (int t = stripTriangles; t < stripTriangles + extraTriangles; t++) {
+            for (int j = 0; j < 3; j++) {
+                indices[t * 3 + j] = random.nextInt(vertexCount);
+            }
+        }
+        return new MeshData(vertices, indices, VERTEX_SIZE, Vector3.Zero);
+    }
+
+    /**
+     * checks that the meshes hold the triangles of the mesh data in order with the same vertices
+     */
+    private static void assertSameTriangles(MeshData meshData, Array<Mesh> meshes) {
+        int triangle = 0;
+        for (Mesh mesh : meshes) {
+            final int numVertices = mesh.getNumVertices();
+            assertTrue(numVertices + " vertices", numVertices <= MeshData.MAX_MESH_VERTICES);
+            assertEquals(0, mesh.getNumIndices() % 3);
+            final float[] vertices = new float[numVertices * VERTEX_SIZE];
+            mesh.getVertices(vertices);
+            final short[] indices = new short[mesh.getNumIndices()];
+            mesh.getIndices(indices);
+            for (int i = 0; i < indices.length; i++) {
+                final int local = indices[i] & 0xffff;
+                assertTrue(local < numVertices);
+                final int original = meshData.indices[triangle * 3 + i % 3];
+                for (int c = 0; c < VERTEX_SIZE; c++) {
+                    if (vertices[local * VERTEX_SIZE + c] != meshData.vertices[original * VERTEX_SIZE + c])
+                        fail("triangle " + triangle + " corner " + i % 3 + " does not match vertex " + original);
+                }
+                if (i % 3 == 2) triangle++;
+            }
+        }
+        assertEquals(meshData.indices.length / 3, triangle);
+    }
+
+    @Test
+    public void largeMeshIsSplit() throws Exception {
+        final MeshData meshData = createMeshData(150000, 20000);
+
+        meshes = meshData.createMeshes();
+
+        assertTrue(meshes.size >= 3);
+        assertSameTriangles(meshData, meshes);
+    }
+
+    @Test
+    public void meshJustOverTheLimitIsSplit() throws Exception {
+        final MeshData meshData = createMeshData(MeshData.MAX_MESH_VERTICES + 1, 0);
+
+        meshes = meshData.createMeshes();
+
+        assertEquals(2, meshes.size);
+        assertSameTriangles(meshData, meshes);
+    }
+
+    @Test
+    public void meshAtTheLimitIsNotSplit() throws Exception {
+        // the last vertex needs the full unsigned range of the short indices
+        final MeshData meshData = createMeshData(MeshData.MAX_MESH_VERTICES, 100);
+
+        meshes = meshData.createMeshes();
+
+        assertEquals(1, meshes.size);
+        assertEquals(MeshData.MAX_MESH_VERTICES, meshes.first().getNumVertices());
+        assertSameTriangles(meshData, meshes);
+    }
+}
@@ -0,0 +1,181 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class PolygonTriangulatorTest {
+
+    private PolygonTriangulator triangulator;
+    private final List<float[]> loops = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        triangulator = new PolygonTriangulator();
+        loops.clear();
+    }
+
+    private void loop(float... xy) {
+        loops.add(xy);
+    }
+
+    private static float[] rect(float x0, float y0, float x1, float y1, boolean hole) {
+        return hole ? new float[]{x0, y0, x0, y1, x1, y1, x1, y0} : new float[]{x0, y0, x1, y0, x1, y1, x0, y1};
+    }
+
+    private IntArray triangulate() {
+        triangulator.begin();
+        for (float[] loop : loops) {
+            triangulator.beginLoop();
+            for (int i = 0; i < loop.length; i += 2) {
+                triangulator.addPoint(loop[i], loop[i + 1]);
+            }
+        }
+        return triangulator.computeTriangles();
+    }
+
+    private float[] allPoints() {
+        int size = 0;
+        for (float[] loop : loops) size += loop.length;
+        final float[] points = new float[size];
+        int i = 0;
+        for (float[] loop : loops) {
+            System.arraycopy(loop, 0, points, i, loop.length);
+            i += loop.length;
+        }
+        return points;
+    }
+
+    private static float signedArea(float[] loop) {
+        float area = 0f;
+        for (int i = 0, j = loop.length - 2; i < loop.length; j = i, i += 2) {
+            area += (loop[j] - loop[i]) * (loop[j + 1] + loop[i + 1]);
+        }
+        return area * 0.5f;
+    }
+
+    private static boolean inside(float[] loop, float x, float y) {
+        boolean inside = false;
+        for (int i = 0, j = loop.length - 2; i < loop.length; j = i, i += 2) {
+            if ((loop[i + 1] > y) != (loop[j + 1] > y) && x < (loop[j] - loop[i]) * (y - loop[i + 1]) / (loop[j + 1] - loop[i + 1]) + loop[i])
+                inside = !inside;
+        }
+        return inside;
+    }
+
+    /**
+     * every triangle is counter clockwise and inside the region, and together they cover its area
+     */
+    private void assertCovers(IntArray triangles) {
+        final float[] points = allPoints();
+        float expected = 0f;
+        for (float[] loop : loops) expected += signedArea(loop);
+        float total = 0f;
+        for (int i = 0; i < triangles.size; i += 3) {
+            final int a = triangles.get(i) * 2, b = triangles.get(i + 1) * 2, c = triangles.get(i + 2) * 2;
+            final float area = ((points[b] - points[a]) * (points[c + 1] - points[a + 1]) - (points[b + 1] - points[a + 1]) * (points[c] - points[a])) * 0.5f;
+            assertTrue("triangle " + i / 3 + " is inverted or empty", area > 0f);
+            total += area;
+            final float cx = (points[a] + points[b] + points[c]) / 3f;
+            final float cy = (points[a + 1] + points[b + 1] + points[c + 1]) / 3f;
+            int crossings = 0;
+            for (float[] loop : loops) {
+                if (inside(loop, cx, cy)) crossings++;
+            }
+            assertTrue("triangle " + i / 3 + " is outside the region", crossings % 2 == 1);
+        }
+        assertEquals(expected, total, expected * 1e-4f);
+    }
+
+    @Test
+    public void squareWithHole() throws Exception {
+        loops.add(rect(0, 0, 10, 10, false));
+        loops.add(rect(3, 3, 6, 6, true));
+        assertCovers(triangulate());
+        assertEquals(0, triangulator.getOrphanHoleCount());
+    }
+
+    @Test
+    public void holesBridgedToTheSameVertex() throws Exception {
+        // both holes see the same outer corner, the second bridge starts at a duplicated vertex
+        loops.add(rect(0, 0, 10, 10, false));
+        loops.add(rect(4, 2, 6, 4, true));
+        loops.add(rect(4, 6, 6, 8, true));
+        loops.add(rect(7, 1, 9, 9, true));
+        assertCovers(triangulate());
+    }
+
+    @Test
+    public void bridgeAvoidsReflexVertexInTheWay() throws Exception {
+        // a notch reaches into the triangle between the hole and the edge hit by the ray
+        loop(0, 0, 10, 0, 10, 10, 0, 10, 0, 6, 3, 5.5f, 0, 5);
+        loops.add(rect(5, 4, 7, 7, true));
+        assertCovers(triangulate());
+    }
+
+    @Test
+    public void combWithHolesInEveryTooth() throws Exception {
+        loop(0, 0, 20, 0, 20, 10, 17, 10, 17, 3, 13, 3, 13, 10, 7, 10, 7, 3, 3, 3, 3, 10, 0, 10);
+        loops.add(rect(1, 1, 2, 8, true));
+        loops.add(rect(8, 1, 12, 2, true));
+        loops.add(rect(18, 4, 19, 9, true));
+        assertCovers(triangulate());
+    }
+
+    @Test
+    public void randomStarsWithHoles() throws Exception {
+        final Random random = new Random(29);
+        for (int n = 0; n < 200; n++) {
+            loops.clear();
+            final int count = 5 + random.nextInt(20);
+            final float[] star = new float[count * 2];
+            for (int i = 0; i < count; i++) {
+                final double angle = Math.PI * 2.0 * i / count;
+                final float r = 6f + random.nextFloat() * 4f;
+                star[i * 2] = (float) (Math.cos(angle) * r);
+                star[i * 2 + 1] = (float) (Math.sin(angle) * r);
+            }
+            loops.add(star);
+            final int holes = random.nextInt(4);
+            for (int h = 0; h < holes; h++) {
+                final float x = -4f + h * 2.5f;
+                final float y = -1f + random.nextFloat() * 2f;
+                loops.add(rect(x, y, x + 1f, y + 1f, true));
+            }
+            assertCovers(triangulate());
+            assertEquals(0, triangulator.getOrphanHoleCount());
+        }
+    }
+
+    @Test
+    public void holeOutsideEveryOuterLoopIsReported() throws Exception {
+        loops.add(rect(0, 0, 10, 10, false));
+        loops.add(rect(20, 20, 22, 22, true));
+        final IntArray triangles = triangulate();
+        assertEquals(1, triangulator.getOrphanHoleCount());
+        assertEquals(6, triangles.size);
+    }
+
+    @Test
+    public void selfIntersectingLoopNeverProducesInvertedTriangles() throws Exception {
+        // a bow tie with one more positive lobe, no proper ear exists after the first clips
+        loop(0, 0, 10, 10, 10, 0, 0, 10, -5, 5);
+        final float[] points = allPoints();
+        final IntArray triangles = triangulate();
+        for (int i = 0; i < triangles.size; i += 3) {
+            final int a = triangles.get(i) * 2, b = triangles.get(i + 1) * 2, c = triangles.get(i + 2) * 2;
+            final float area = (points[b] - points[a]) * (points[c + 1] - points[a + 1]) - (points[b + 1] - points[a + 1]) * (points[c] - points[a]);
+            assertTrue(area > 0f);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import net.masonapps.csgvr.modeling.CsgNode;
+import net.masonapps.csgvr.modeling.Solid;
+import net.masonapps.csgvr.modeling.SolidWorld;
+import net.masonapps.csgvr.primitives.Box;
+import net.masonapps.csgvr.primitives.Cylinder;
+import net.masonapps.csgvr.primitives.Icosphere;
+
+import org.apache.commons.math3.geometry.euclidean.threed.PolyhedronsSet;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class ProjectFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+    }
+
+    private static CsgNode createTree() {
+        final Box box = new Box(1f, 2f, 1f);
+        final Cylinder cylinder = new Cylinder(0.25f, 3f);
+        cylinder.setDivisions(8);
+        return new CsgNode(null, new CsgNode(null, box), new CsgNode(null, cylinder), CsgNode.Operator.DIFFERENCE);
+    }
+
+    @Test
+    public void worldRoundTripKeepsTreesMeshesAndTransforms() throws Exception {
+        final SolidWorld world = new SolidWorld();
+        final Solid solid = new Solid(createTree());
+        solid.setPosition(1f, 2f, 3f);
+        solid.setRotation(new Quaternion(Vector3.Y, 30f));
+        solid.setScale(2f, 2f, 2f);
+        world.add(solid);
+        final File file = folder.newFile("world.csgp");
+
+        ProjectFile.write(file, world);
+        final List<ProjectFile.Entry> entries = ProjectFile.read(file);
+
+        assertEquals(1, entries.size());
+        final ProjectFile.Entry entry = entries.get(0);
+        assertTrue(entry.position.epsilonEquals(1f, 2f, 3f, 1e-6f));
+        assertTrue(entry.rotation.equals(new Quaternion(Vector3.Y, 30f)));
+        assertTrue(entry.scale.epsilonEquals(2f, 2f, 2f, 1e-6f));
+
+        final CsgNode node = entry.node;
+        assertEquals(CsgNode.Operator.DIFFERENCE, node.getOperator());
+        assertTrue(node.getLeft().getPrimitive() instanceof Box);
+        assertTrue(node.getLeft().getPrimitive().getScale().epsilonEquals(1f, 2f, 1f, 1e-6f));
+        assertTrue(node.getRight().getPrimitive() instanceof Cylinder);
+        assertEquals(8, ((Cylinder) node.getRight().getPrimitive()).getDivisions());
+        assertTrue(node.hasMeshData());
+        assertArrayEquals(solid.getCsgNode().getMeshData().vertices, node.getMeshData().vertices, 0f);
+        assertArrayEquals(solid.getCsgNode().getMeshData().indices, node.getMeshData().indices);
+
+        final Solid loaded = entry.createSolid();
+        assertTrue(loaded.getPosition().epsilonEquals(solid.getPosition(), 1e-6f));
+        world.dispose();
+    }
+
+    @Test
+    public void loadedTreeEvaluatesToTheSameVolume() throws Exception {
+        final CsgNode tree = createTree();
+        final double volume = tree.getPolyhedronsSet().getSize();
+        final File file = folder.newFile("tree.csgp");
+        ProjectFile.write(file, Arrays.asList(new ProjectFile.Entry(tree, Vector3.Zero, new Quaternion(), new Vector3(1f, 1f, 1f))));
+
+        final CsgNode loaded = ProjectFile.read(file).get(0).node;
+        assertFalse(loaded.isEvaluated());
+        assertEquals(volume, loaded.getPolyhedronsSet().getSize(), 1e-6);
+    }
+
+    @Test
+    public void editingAPrimitiveInvalidatesItsNodes() throws Exception {
+        final CsgNode tree = createTree();
+        tree.getMeshData();
+        assertTrue(tree.hasMeshData());
+        assertTrue(tree.getLeft().isEvaluated());
+
+        tree.getLeft().getPrimitive().setScale(3f, 3f, 3f);
+
+        assertFalse(tree.getLeft().isEvaluated());
+        assertFalse(tree.isEvaluated());
+        assertFalse(tree.hasMeshData());
+        assertTrue(tree.getRight().isEvaluated());
+    }
+
+    @Test
+    public void icosphereIsTheSameEveryTime() throws Exception {
+        final Icosphere icosphere = new Icosphere(2f);
+        icosphere.setSubdivisions(1);
+        final PolyhedronsSet first = icosphere.createPolyhedronsSet();
+        final PolyhedronsSet second = icosphere.createPolyhedronsSet();
+        assertEquals(first.getSize(), second.getSize(), 1e-9);
+        // an icosahedron subdivided once has 80 faces inscribed in the sphere
+        assertTrue(first.getSize() > 0.8 * 4.0 / 3.0 * Math.PI * 8.0);
+        assertTrue(first.getSize() < 4.0 / 3.0 * Math.PI * 8.0);
+    }
+
+    @Test
+    public void truncatedFilesThrowIOException() throws Exception {
+        final File file = folder.newFile("full.csgp");
+        ProjectFile.write(file, Arrays.asList(new ProjectFile.Entry(createTree(), Vector3.Zero, new Quaternion(), new Vector3(1f, 1f, 1f))));
+        final byte[] bytes = Files.readAllBytes(file.toPath());
+        final File truncated = folder.newFile("truncated.csgp");
+        for (int length = 0; length < bytes.length; length += 7) {
+            Files.write(truncated.toPath(), Arrays.copyOf(bytes, length));
+            try {
+                ProjectFile.read(truncated);
+                fail("read " + length + " of " + bytes.length + " bytes");
+            } catch (IOException expected) {
+            }
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void unknownOperatorThrowsIOException() throws Exception {
+        final File file = folder.newFile("operator.csgp");
+        ProjectFile.write(file, Arrays.asList(new ProjectFile.Entry(createTree(), Vector3.Zero, new Quaternion(), new Vector3(1f, 1f, 1f))));
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            // magic, version, root count, node type, then the operator
+            randomAccessFile.seek(13);
+            randomAccessFile.writeByte(42);
+        } finally {
+            randomAccessFile.close();
+        }
+        ProjectFile.read(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void otherVersionsThrowIOException() throws Exception {
+        final File file = folder.newFile("version.csgp");
+        ProjectFile.write(file, Arrays.asList(new ProjectFile.Entry(createTree(), Vector3.Zero, new Quaternion(), new Vector3(1f, 1f, 1f))));
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.seek(4);
+            randomAccessFile.writeInt(ProjectFile.VERSION + 1);
+        } finally {
+            randomAccessFile.close();
+        }
+        ProjectFile.read(file);
+    }
+}
@@ -0,0 +1,146 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class StagedMeshUploadTest {
+
+    private static final int VERTEX_SIZE = 6;
+
+    private final List<float[]> chunkVertices = new ArrayList<>();
+    private final List<short[]> chunkIndices = new ArrayList<>();
+    private int disposed = 0;
+
+    /**
+     * records every chunk, the meshes only count how often they are disposed
+     */
+    private final StagedMeshUpload.MeshFactory factory = new StagedMeshUpload.MeshFactory() {
+        @Override
+        public Mesh createMesh(float[] vertices, short[] indices, int numVertices) {
+            assertEquals(numVertices * VERTEX_SIZE, vertices.length);
+            chunkVertices.add(vertices);
+            chunkIndices.add(indices);
+            return new Mesh(true, 3, 3, VertexAttribute.Position(), VertexAttribute.Normal()) {
+                @Override
+                public void dispose() {
+                    disposed++;
+                    super.dispose();
+                }
+            };
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        chunkVertices.clear();
+        chunkIndices.clear();
+        disposed = 0;
+    }
+
+    /**
+     * a strip of quads, every vertex is shared by several triangles
+     */
+    private static MeshData createStrip(int quads) {
+        final int vertexCount = (quads + 1) * 2;
+        final float[] vertices = new float[vertexCount * VERTEX_SIZE];
+        for (int i = 0; i < vertexCount; i++) {
+            vertices[i * VERTEX_SIZE] = i / 2;
+            vertices[i * VERTEX_SIZE + 1] = i % 2;
+            vertices[i * VERTEX_SIZE + 5] = 1f;
+        }
+        final int[] indices = new int[quads * 6];
+        for (int q = 0; q < quads; q++) {
+            final int v = q * 2;
+            indices[q * 6] = v;
+            indices[q * 6 + 1] = v + 2;
+            indices[q * 6 + 2] = v + 1;
+            indices[q * 6 + 3] = v + 1;
+            indices[q * 6 + 4] = v + 2;
+            indices[q * 6 + 5] = v + 3;
+        }
+        return new MeshData(vertices, indices, VERTEX_SIZE, new Vector3());
+    }
+
+    @Test
+    public void chunksRebuildTheOriginalTriangles() throws Exception {
+        final MeshData meshData = createStrip(50);
+        final StagedMeshUpload upload = new StagedMeshUpload(meshData, factory, 16);
+
+        int steps = 0;
+        while (upload.getState() == StagedMeshUpload.State.UPLOADING) {
+            final float progress = upload.getProgress();
+            upload.step();
+            assertTrue(upload.getProgress() > progress);
+            steps++;
+        }
+        assertEquals(StagedMeshUpload.State.READY, upload.getState());
+        assertEquals(1f, upload.getProgress(), 0f);
+        assertEquals(steps, chunkVertices.size());
+        assertTrue(steps > 1);
+
+        int index = 0;
+        for (int c = 0; c < chunkVertices.size(); c++) {
+            final float[] vertices = chunkVertices.get(c);
+            final short[] indices = chunkIndices.get(c);
+            assertTrue(vertices.length / VERTEX_SIZE <= 16);
+            assertEquals(0, indices.length % 3);
+            for (short local : indices) {
+                final int original = meshData.indices[index++];
+                for (int k = 0; k < VERTEX_SIZE; k++) {
+                    assertEquals(meshData.vertices[original * VERTEX_SIZE + k], vertices[local * VERTEX_SIZE + k], 0f);
+                }
+            }
+        }
+        assertEquals(meshData.indices.length, index);
+
+        final Array<Mesh> meshes = upload.takeMeshes();
+        assertEquals(steps, meshes.size);
+        assertEquals(StagedMeshUpload.State.SWAPPED, upload.getState());
+        // the caller owns the meshes now
+        upload.dispose();
+        assertEquals(0, disposed);
+    }
+
+    @Test
+    public void cancelDisposesUploadedChunks() throws Exception {
+        final StagedMeshUpload upload = new StagedMeshUpload(createStrip(50), factory, 16);
+        upload.step();
+        upload.step();
+        upload.cancel();
+
+        assertEquals(StagedMeshUpload.State.CANCELLED, upload.getState());
+        assertEquals(2, disposed);
+        assertEquals(StagedMeshUpload.State.CANCELLED, upload.step());
+        assertEquals(2, chunkVertices.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void meshesCannotBeTakenBeforeTheUploadIsDone() throws Exception {
+        final StagedMeshUpload upload = new StagedMeshUpload(createStrip(50), factory, 16);
+        upload.step();
+        upload.takeMeshes();
+    }
+
+    @Test
+    public void emptyMeshIsReadyWithoutSteps() throws Exception {
+        final StagedMeshUpload upload = new StagedMeshUpload(new MeshData(new float[0], new int[0], VERTEX_SIZE, new Vector3()), factory, 16);
+        assertTrue(upload.isReady());
+        assertEquals(0, upload.takeMeshes().size);
+        assertEquals(0, chunkVertices.size());
+    }
+}
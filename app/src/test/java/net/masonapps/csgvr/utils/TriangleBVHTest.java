@@ -0,0 +1,111 @@
+package net.masonapps.csgvr.utils;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class TriangleBVHTest {
+
+    private static final int VERTEX_SIZE = 6;
+
+    /**
+     * small triangles scattered in a cube, unshared vertices with a dummy normal
+     */
+    private static MeshData createSoup(Random random, int triangleCount) {
+        final float[] vertices = new float[triangleCount * 3 * VERTEX_SIZE];
+        final int[] indices = new int[triangleCount * 3];
+        for (int t = 0; t < triangleCount; t++) {
+            final float cx = random.nextFloat() * 20f - 10f, cy = random.nextFloat() * 20f - 10f, cz = random.nextFloat() * 20f - 10f;
+            for (int k = 0; k < 3; k++) {
+                final int o = (t * 3 + k) * VERTEX_SIZE;
+                vertices[o] = cx + random.nextFloat() * 2f - 1f;
+                vertices[o + 1] = cy + random.nextFloat() * 2f - 1f;
+                vertices[o + 2] = cz + random.nextFloat() * 2f - 1f;
+                vertices[o + 4] = 1f;
+                indices[t * 3 + k] = t * 3 + k;
+            }
+        }
+        return new MeshData(vertices, indices, VERTEX_SIZE, new Vector3());
+    }
+
+    private static void set(Vector3 v, MeshData meshData, int index) {
+        final int o = index * VERTEX_SIZE;
+        v.set(meshData.vertices[o], meshData.vertices[o + 1], meshData.vertices[o + 2]);
+    }
+
+    private static float bruteForce(MeshData meshData, Ray ray, Vector3 a, Vector3 b, Vector3 c, Vector3 point) {
+        float closest = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < meshData.indices.length; i += 3) {
+            set(a, meshData, meshData.indices[i]);
+            set(b, meshData, meshData.indices[i + 1]);
+            set(c, meshData, meshData.indices[i + 2]);
+            if (Intersector.intersectRayTriangle(ray, a, b, c, point))
+                closest = Math.min(closest, ray.origin.dst(point));
+        }
+        return closest;
+    }
+
+    @Test
+    public void closestHitMatchesBruteForce() throws Exception {
+        final Random random = new Random(31);
+        final MeshData meshData = createSoup(random, 500);
+        final TriangleBVH bvh = new TriangleBVH(meshData);
+        assertEquals(500, bvh.getTriangleCount());
+        final TriangleBVH.Hit hit = new TriangleBVH.Hit();
+        final Vector3 a = new Vector3(), b = new Vector3(), c = new Vector3(), point = new Vector3();
+        int hits = 0;
+        for (int i = 0; i < 2000; i++) {
+            final Ray ray = new Ray(new Vector3(random.nextFloat() * 30f - 15f, random.nextFloat() * 30f - 15f, 20f),
+                    new Vector3(random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, -1f).nor());
+            final float expected = bruteForce(meshData, ray, a, b, c, point);
+            final boolean hitBvh = bvh.intersect(ray, hit);
+            if (expected == Float.POSITIVE_INFINITY) {
+                assertFalse("ray " + i, hitBvh);
+            } else {
+                assertTrue("ray " + i, hitBvh);
+                assertEquals("ray " + i, expected, hit.distance, 1e-3f);
+                assertEquals(expected, ray.origin.dst(hit.point), 1e-3f);
+                hits++;
+            }
+        }
+        assertTrue(hits > 100);
+    }
+
+    @Test
+    public void axisAlignedRays() throws Exception {
+        final MeshData quad = new MeshData(new float[]{
+                -1f, -1f, 0f, 0f, 0f, 1f,
+                1f, -1f, 0f, 0f, 0f, 1f,
+                1f, 1f, 0f, 0f, 0f, 1f,
+                -1f, 1f, 0f, 0f, 0f, 1f
+        }, new int[]{0, 1, 2, 0, 2, 3}, VERTEX_SIZE, new Vector3());
+        final TriangleBVH bvh = new TriangleBVH(quad);
+        final TriangleBVH.Hit hit = new TriangleBVH.Hit();
+
+        assertTrue(bvh.intersect(new Ray(new Vector3(0.5f, 0.25f, 5f), new Vector3(0f, 0f, -1f)), hit));
+        assertEquals(5f, hit.distance, 1e-6f);
+        assertTrue(hit.point.epsilonEquals(0.5f, 0.25f, 0f, 1e-6f));
+        assertTrue(hit.normal.epsilonEquals(0f, 0f, 1f, 1e-6f));
+
+        assertFalse(bvh.intersect(new Ray(new Vector3(2f, 0f, 5f), new Vector3(0f, 0f, -1f)), hit));
+        // behind the origin
+        assertFalse(bvh.intersect(new Ray(new Vector3(0f, 0f, -5f), new Vector3(0f, 0f, -1f)), hit));
+        // parallel to the quad
+        assertFalse(bvh.intersect(new Ray(new Vector3(-5f, 0f, 0f), new Vector3(1f, 0f, 0f)), hit));
+    }
+
+    @Test
+    public void emptyMeshNeverHits() throws Exception {
+        final TriangleBVH bvh = new TriangleBVH(new float[0], new int[0], VERTEX_SIZE);
+        assertFalse(bvh.intersect(new Ray(new Vector3(), new Vector3(0f, 0f, -1f)), new TriangleBVH.Hit()));
+    }
+}
@@ -0,0 +1,273 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import android.support.annotation.Nullable;
+import android.util.Log;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.utils.Array;
+import com.google.vr.sdk.controller.Controller;
+
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+import org.masonapps.libgdxgooglevr.gfx.World;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
+import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
+import org.masonapps.libgdxgooglevr.input.DaydreamControllerHandler;
+import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
+import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
+import org.masonapps.libgdxgooglevr.input.VrCursor;
+import org.masonapps.libgdxgooglevr.input.VrUiContainer;
+import org.masonapps.libgdxgooglevr.ui.VirtualStage;
+import org.masonapps.libgdxgooglevr.vr.VrCamera;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Benchmarks the CPU side of the frame loop for scenes of 10 to 10,000 entities: culling, transform rebuilds,
+ * ui ray tests, cursor updates and controller dispatch. Nothing is drawn, run it on the GL thread of a debug build
+ * because building the shared model and the ui stages needs a context. The same scenes run on the JVM as the JMH
+ * benchmarks in src/jmh, see the jmh task of this module.
+ */
+public class FrameLoopBenchmarks {
+
+    private static final String TAG = FrameLoopBenchmarks.class.getSimpleName();
+    public static final int[] DEFAULT_SCENE_SIZES = {10, 100, 1000, 10000};
+    // every stage is a full scene2d Stage, the ui benchmarks stop at this size
+    private static final int MAX_UI_SIZE = 1000;
+
+    private final MicroBenchmark benchmark;
+    private final Batch batch;
+    private final VrCamera camera = new VrCamera();
+    private final Ray ray = new Ray(new Vector3(), new Vector3(0f, 0f, -1f));
+    private final Array<Entity> visible = new Array<>();
+
+    public FrameLoopBenchmarks(MicroBenchmark benchmark, Batch batch) {
+        this.benchmark = benchmark;
+        this.batch = batch;
+        setUpCamera();
+    }
+
+    /**
+     * the camera has no eye, so the 90 degree view and frustum are set up by hand
+     */
+    private void setUpCamera() {
+        camera.near = 0.1f;
+        camera.far = 100f;
+        camera.position.set(0f, 0f, 0f);
+        camera.direction.set(0f, 0f, -1f);
+        camera.up.set(0f, 1f, 0f);
+        camera.projection.setToProjection(camera.near, camera.far, 90f, 1f);
+        camera.view.setToLookAt(camera.position, camera.direction, camera.up);
+        camera.combined.set(camera.projection).mul(camera.view);
+        camera.invProjectionView.set(camera.combined).inv();
+        camera.frustum.update(camera.invProjectionView);
+    }
+
+    /**
+     * @param controller the live controller for the dispatch benchmark, its state is restored afterwards, may be null
+     * @return the report table, also written to the log
+     */
+    public String runAll(int[] sceneSizes, @Nullable Controller controller) {
+        final Model model = new ModelBuilder().createBox(0.5f, 0.5f, 0.5f, new Material(ColorAttribute.createDiffuse(Color.GRAY)),
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        try {
+            for (int size : sceneSizes) {
+                runWorld(model, size);
+                if (size <= MAX_UI_SIZE)
+                    runUi(size);
+            }
+        } finally {
+            model.dispose();
+        }
+        runCursor();
+        if (controller != null)
+            runControllerDispatch(controller);
+        final String report = benchmark.report();
+        Log.i(TAG, "\n" + report);
+        return report;
+    }
+
+    private void runWorld(Model model, int size) {
+        final World world = new World();
+        final Entity[] entities = new Entity[size];
+        MathUtils.random.setSeed(size);
+        // spread over a cube of constant density so about a quarter of the scene is in view
+        final float extent = (float) Math.cbrt(size) * 2f;
+        for (int i = 0; i < size; i++) {
+            final Entity entity = new Entity(new ModelInstance(model));
+            entity.setPosition(MathUtils.random(-extent, extent), MathUtils.random(-extent, extent), MathUtils.random(-extent, extent));
+            entities[i] = world.add(entity);
+        }
+        world.update();
+        world.updateBounds();
+
+        benchmark.run("World.getVisibleEntities", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                visible.clear();
+                world.getVisibleEntities(camera, visible);
+                MicroBenchmark.consume(visible.size);
+            }
+        });
+
+        benchmark.run("Entity.recalculateTransform", size, new MicroBenchmark.Operation() {
+            float angle = 0f;
+
+            @Override
+            public void run() {
+                angle += 1f;
+                for (Entity entity : entities) {
+                    entity.setRotationY(angle);
+                }
+                world.updateTransforms();
+                MicroBenchmark.consume(entities[0].modelInstance.transform.val[0]);
+            }
+        });
+
+        benchmark.run("Entity.intersectsRayBounds", size, new MicroBenchmark.Operation() {
+            final Vector3 hitPoint = new Vector3();
+
+            @Override
+            public void run() {
+                boolean hit = false;
+                for (int i = 0; i < entities.length; i += Math.max(entities.length / 16, 1)) {
+                    hit |= entities[i].intersectsRayBounds(ray, hitPoint);
+                }
+                MicroBenchmark.consume(hit);
+            }
+        });
+
+        for (Entity entity : entities) {
+            world.remove(entity);
+        }
+        world.dispose();
+    }
+
+    private void runUi(int size) {
+        final VrUiContainer container = new VrUiContainer();
+        final VirtualStage[] stages = new VirtualStage[size];
+        final int columns = (int) Math.ceil(Math.sqrt(size));
+        final Matrix4 transform = new Matrix4();
+        for (int i = 0; i < size; i++) {
+            transform.setToTranslation((i % columns) * 0.6f - columns * 0.3f, (i / columns) * 0.6f - columns * 0.3f, -2f);
+            final VirtualStage stage = new VirtualStage(batch, 0.5f, 0.5f, transform);
+            final Actor actor = new Actor();
+            actor.setBounds(0f, 0f, stage.getWidth(), stage.getHeight());
+            stage.addActor(actor);
+            stages[i] = stage;
+            container.addProcessor(stage);
+        }
+
+        benchmark.run("VirtualStage.performRayTest", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                boolean hit = false;
+                for (VirtualStage stage : stages) {
+                    hit |= stage.performRayTest(ray);
+                }
+                MicroBenchmark.consume(hit);
+            }
+        });
+
+        benchmark.run("VrUiContainer.performRayTest", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                container.invalidateRayTest();
+                MicroBenchmark.consume(container.performRayTest(ray));
+            }
+        });
+
+        // the ray did not move, only the bounds are refit
+        benchmark.run("VrUiContainer.performRayTest.still", size, new MicroBenchmark.Operation() {
+            @Override
+            public void run() {
+                MicroBenchmark.consume(container.performRayTest(ray));
+            }
+        });
+
+        container.dispose();
+    }
+
+    private void runCursor() {
+        final VrCursor cursor = new VrCursor();
+        benchmark.run("VrCursor.lookAtTarget", 1, new MicroBenchmark.Operation() {
+            final Vector3 target = new Vector3();
+            float t = 0f;
+
+            @Override
+            public void run() {
+                t += 0.01f;
+                target.set(MathUtils.sin(t), MathUtils.cos(t), -2f);
+                cursor.position.set(target).scl(0.99f);
+                cursor.lookAtTarget(target, Vector3.Y);
+                cursor.setActivation(t % 1f);
+                MicroBenchmark.consume(cursor.rotation.w);
+            }
+        });
+        cursor.dispose();
+    }
+
+    private void runControllerDispatch(final Controller controller) {
+        final boolean clickButtonState = controller.clickButtonState;
+        final boolean isTouching = controller.isTouching;
+        final float touchX = controller.touch.x;
+        final float touchY = controller.touch.y;
+
+        final DaydreamControllerHandler handler = new DaydreamControllerHandler();
+        final ControllerState state = new ControllerState();
+        final DaydreamControllerInputListener listener = new DaydreamControllerInputListener() {
+            @Override
+            public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
+                MicroBenchmark.consume(connectionState);
+            }
+
+            @Override
+            public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
+                MicroBenchmark.consume(event.button);
+            }
+
+            @Override
+            public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
+                MicroBenchmark.consume(event.x);
+            }
+
+            @Override
+            public void onControllerConnectionStateChange(int connectionState) {
+                MicroBenchmark.consume(connectionState);
+            }
+        };
+        int added = 0;
+        for (int listeners = 1; listeners <= 16; listeners *= 4) {
+            for (; added < listeners; added++) {
+                handler.addListener(listener);
+            }
+            benchmark.run("DaydreamControllerHandler.process", listeners, new MicroBenchmark.Operation() {
+                int frame = 0;
+
+                @Override
+                public void run() {
+                    frame++;
+                    // a click every 4th frame and a touch drag every other frame
+                    controller.clickButtonState = (frame & 3) == 0;
+                    controller.isTouching = (frame & 1) == 0;
+                    controller.touch.set((frame & 63) / 64f, 0.5f);
+                    handler.process(state.set(controller, Controller.ConnectionStates.CONNECTED));
+                }
+            });
+        }
+
+        controller.clickButtonState = clickButtonState;
+        controller.isTouching = isTouching;
+        controller.touch.set(touchX, touchY);
+    }
+}
@@ -0,0 +1,117 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Minimal JMH style runner for on-device measurements: a timed warmup, then batches sized to take about a
+ * millisecond each, reporting the median and best time per operation. Results feed {@link #consume(long)} so the
+ * work cannot be optimized away.
+ */
+public class MicroBenchmark {
+
+    public static final long DEFAULT_WARMUP_NANOS = 200000000L;
+    public static final long DEFAULT_MEASURE_NANOS = 500000000L;
+    private static final long TARGET_BATCH_NANOS = 1000000L;
+
+    public interface Operation {
+        void run();
+    }
+
+    private static volatile long blackhole;
+
+    private final long warmupNanos;
+    private final long measureNanos;
+    private final Array<Result> results = new Array<>();
+
+    public MicroBenchmark() {
+        this(DEFAULT_WARMUP_NANOS, DEFAULT_MEASURE_NANOS);
+    }
+
+    public MicroBenchmark(long warmupNanos, long measureNanos) {
+        this.warmupNanos = warmupNanos;
+        this.measureNanos = measureNanos;
+    }
+
+    public static void consume(long value) {
+        blackhole ^= value;
+    }
+
+    public static void consume(float value) {
+        blackhole ^= Float.floatToRawIntBits(value);
+    }
+
+    public static void consume(boolean value) {
+        if (value) blackhole++;
+    }
+
+    public static void consume(Object value) {
+        blackhole ^= System.identityHashCode(value);
+    }
+
+    public Result run(String name, int param, Operation operation) {
+        // warmup, also finds a batch size that takes about TARGET_BATCH_NANOS
+        int batchSize = 1;
+        final long warmupEnd = System.nanoTime() + warmupNanos;
+        while (System.nanoTime() < warmupEnd) {
+            final long elapsed = timeBatch(operation, batchSize);
+            if (elapsed < TARGET_BATCH_NANOS && batchSize < (1 << 24))
+                batchSize *= 2;
+        }
+
+        final int maxBatches = (int) Math.max(measureNanos / TARGET_BATCH_NANOS, 1);
+        final double[] samples = new double[maxBatches];
+        int count = 0;
+        final long measureEnd = System.nanoTime() + measureNanos;
+        while (count < maxBatches && (count == 0 || System.nanoTime() < measureEnd)) {
+            samples[count++] = timeBatch(operation, batchSize) / (double) batchSize;
+        }
+        Arrays.sort(samples, 0, count);
+        final Result result = new Result(name, param, samples[count / 2], samples[0], (long) count * batchSize);
+        results.add(result);
+        return result;
+    }
+
+    private static long timeBatch(Operation operation, int batchSize) {
+        final long start = System.nanoTime();
+        for (int i = 0; i < batchSize; i++) {
+            operation.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    public Array<Result> getResults() {
+        return results;
+    }
+
+    /**
+     * @return the results as a table in the layout of a JMH report
+     */
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.US, "%-40s %8s %14s %14s%n", "Benchmark", "(param)", "median ns/op", "best ns/op"));
+        for (Result result : results) {
+            sb.append(String.format(Locale.US, "%-40s %8d %14.1f %14.1f%n", result.name, result.param, result.medianNanosPerOp, result.bestNanosPerOp));
+        }
+        return sb.toString();
+    }
+
+    public static class Result {
+        public final String name;
+        public final int param;
+        public final double medianNanosPerOp;
+        public final double bestNanosPerOp;
+        public final long operations;
+
+        Result(String name, int param, double medianNanosPerOp, double bestNanosPerOp, long operations) {
+            this.name = name;
+            this.param = param;
+            this.medianNanosPerOp = medianNanosPerOp;
+            this.bestNanosPerOp = bestNanosPerOp;
+            this.operations = operations;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+
+import org.masonapps.libgdxgooglevr.RecordingGL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * The world part of the frame loop on the headless backend, the JVM counterpart of the device run of
+ * {@link org.masonapps.libgdxgooglevr.utils.FrameLoopBenchmarks}. Rendering goes through a {@link RecordingGL}, so it
+ * measures culling, batching and shader binding without a driver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int entityCount;
+
+    private RecordingGL gl;
+    private Model model;
+    private ModelBatch batch;
+    private final Environment environment = new Environment();
+    private World world;
+    private Entity[] entities;
+    private PerspectiveCamera camera;
+    private final Ray ray = new Ray(new Vector3(), new Vector3(0f, 0f, -1f));
+    private final Array<Entity> visible = new Array<>();
+    private final Vector3 hitPoint = new Vector3();
+    private float angle = 0f;
+
+    @Setup
+    public void setUp() {
+        gl = RecordingGL.install();
+        model = new ModelBuilder().createBox(0.5f, 0.5f, 0.5f, new Material(ColorAttribute.createDiffuse(Color.GRAY)),
+                VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        batch = new ModelBatch();
+        // updating the camera needs the natives loaded by the headless application
+        camera = new PerspectiveCamera(90f, 1f, 1f);
+        camera.near = 0.1f;
+        camera.far = 100f;
+        camera.position.set(0f, 0f, 0f);
+        camera.direction.set(0f, 0f, -1f);
+        camera.update();
+
+        world = new World();
+        entities = new Entity[entityCount];
+        MathUtils.random.setSeed(entityCount);
+        // the same scene as on the device, a cube of constant density so about a quarter of it is in view
+        final float extent = (float) Math.cbrt(entityCount) * 2f;
+        for (int i = 0; i < entityCount; i++) {
+            final Entity entity = new Entity(new ModelInstance(model));
+            entity.setPosition(MathUtils.random(-extent, extent), MathUtils.random(-extent, extent), MathUtils.random(-extent, extent));
+            entities[i] = world.add(entity);
+        }
+        world.update();
+        world.updateBounds();
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (Entity entity : entities) {
+            world.remove(entity);
+        }
+        world.dispose();
+        batch.dispose();
+        model.dispose();
+    }
+
+    @Benchmark
+    public int getVisibleEntities() {
+        visible.clear();
+        world.getVisibleEntities(camera, visible);
+        return visible.size;
+    }
+
+    @Benchmark
+    public float updateTransforms() {
+        angle += 1f;
+        for (Entity entity : entities) {
+            entity.setRotationY(angle);
+        }
+        world.updateTransforms();
+        return entities[0].modelInstance.transform.val[0];
+    }
+
+    @Benchmark
+    public boolean intersectsRayBounds() {
+        boolean hit = false;
+        for (int i = 0; i < entities.length; i += Math.max(entities.length / 16, 1)) {
+            hit |= entities[i].intersectsRayBounds(ray, hitPoint);
+        }
+        return hit;
+    }
+
+    @Benchmark
+    public int render() {
+        batch.begin(camera);
+        world.render(batch, environment);
+        batch.end();
+        final int draws = gl.draws.size();
+        gl.draws.clear();
+        return draws;
+    }
+}
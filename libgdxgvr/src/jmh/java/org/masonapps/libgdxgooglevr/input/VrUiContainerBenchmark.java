@@ -0,0 +1,94 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.scenes.scene2d.Actor;
+
+import org.masonapps.libgdxgooglevr.RecordingGL;
+import org.masonapps.libgdxgooglevr.ui.VirtualStage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Ray tests against a grid of panels, each one tested on its own and through the bounds tree of a {@link VrUiContainer}.
+ * Every panel is a full scene2d stage, so like the device run the sizes stop at 1,000.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VrUiContainerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int panelCount;
+
+    private SpriteBatch batch;
+    private VrUiContainer container;
+    private VirtualStage[] stages;
+    private final Ray ray = new Ray(new Vector3(), new Vector3(0f, 0f, -1f));
+
+    @Setup
+    public void setUp() {
+        RecordingGL.install();
+        batch = new SpriteBatch();
+        container = new VrUiContainer();
+        stages = new VirtualStage[panelCount];
+        final int columns = (int) Math.ceil(Math.sqrt(panelCount));
+        final Matrix4 transform = new Matrix4();
+        for (int i = 0; i < panelCount; i++) {
+            transform.setToTranslation((i % columns) * 0.6f - columns * 0.3f, (i / columns) * 0.6f - columns * 0.3f, -2f);
+            final VirtualStage stage = new VirtualStage(batch, 0.5f, 0.5f, transform);
+            final Actor actor = new Actor();
+            actor.setBounds(0f, 0f, stage.getWidth(), stage.getHeight());
+            stage.addActor(actor);
+            stages[i] = stage;
+            container.addProcessor(stage);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        container.dispose();
+        batch.dispose();
+    }
+
+    @Benchmark
+    public boolean eachStage() {
+        boolean hit = false;
+        for (VirtualStage stage : stages) {
+            hit |= stage.performRayTest(ray);
+        }
+        return hit;
+    }
+
+    @Benchmark
+    public boolean container() {
+        container.invalidateRayTest();
+        return container.performRayTest(ray);
+    }
+
+    /**
+     * the ray did not move, only the bounds are refit
+     */
+    @Benchmark
+    public boolean containerStillRay() {
+        return container.performRayTest(ray);
+    }
+}
@@ -5,6 +5,7 @@ import com.badlogic.gdx.Files;
 import com.badlogic.gdx.Net;
 import com.badlogic.gdx.graphics.GL20;
 
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 import org.masonapps.libgdxgooglevr.vr.VrActivity;
 import org.masonapps.libgdxgooglevr.vr.VrAndroidInput;
 import org.masonapps.libgdxgooglevr.vr.VrGraphicsGVR;
@@ -23,4 +24,6 @@ public class GdxVr {
 
     public static GL20 gl;
     public static GL20 gl20;
+
+    public static FrameProfiler profiler = new FrameProfiler();
 }
@@ -18,12 +18,19 @@ public class BulletConstructor extends World.Constructor<BulletEntity> {
     private static Vector3 tmpV = new Vector3();
     public btRigidBody.btRigidBodyConstructionInfo bodyInfo = null;
     public btCollisionShape shape = null;
+    // false for shapes shared through a cache, they are released by their owner instead of disposed here
+    private boolean ownsShape = true;
 
     public BulletConstructor(final Model model, final float mass, final btCollisionShape shape) {
         super(model);
         create(mass, shape);
     }
 
+    public BulletConstructor(final Model model, final float mass, final btCollisionShape shape, final boolean ownsShape) {
+        this(model, mass, shape);
+        this.ownsShape = ownsShape;
+    }
+
     public BulletConstructor(final Model model, final float mass, final float width, final float height, final float depth) {
         super(model);
         create(mass, width, height, depth);
@@ -69,7 +76,7 @@ public class BulletConstructor extends World.Constructor<BulletEntity> {
     @Override
     public void dispose() {
         if (bodyInfo != null) bodyInfo.dispose();
-        if (shape != null) shape.dispose();
+        if (shape != null && ownsShape) shape.dispose();
         bodyInfo = null;
         shape = null;
     }
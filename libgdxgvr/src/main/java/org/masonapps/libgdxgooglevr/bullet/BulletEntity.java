@@ -5,9 +5,12 @@ import android.support.annotation.Nullable;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelInstance;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.bullet.collision.btCollisionObject;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.linearmath.btMotionState;
+import com.badlogic.gdx.utils.Pools;
 
 import org.masonapps.libgdxgooglevr.gfx.Entity;
 
@@ -41,7 +44,7 @@ public class BulletEntity extends Entity {
         if (body != null) {
             body.userData = this;
             if (body instanceof btRigidBody) {
-                this.motionState = new MotionState(this.modelInstance != null ? this.modelInstance.transform : new Matrix4());
+                this.motionState = new MotionState(this);
                 ((btRigidBody) this.body).setMotionState(motionState);
             } else {
                 body.setWorldTransform(modelInstance.transform);
@@ -49,6 +52,26 @@ public class BulletEntity extends Entity {
         }
     }
 
+    /**
+     * @return the current transform, recalculated first if the entity was moved since
+     */
+    public Matrix4 getWorldTransform(Matrix4 out) {
+        if (!updated) recalculateTransform();
+        return getTransform(out);
+    }
+
+    /**
+     * moves the entity to a transform reported by bullet, the scale of the entity is kept
+     */
+    public void setWorldTransform(Matrix4 worldTrans) {
+        final Vector3 tmpV = Pools.obtain(Vector3.class);
+        final Quaternion tmpQ = Pools.obtain(Quaternion.class);
+        setPosition(worldTrans.getTranslation(tmpV));
+        setRotation(worldTrans.getRotation(tmpQ, true));
+        Pools.free(tmpV);
+        Pools.free(tmpQ);
+    }
+
     @Override
     public void dispose() {
         if (motionState != null) motionState.dispose();
@@ -59,19 +82,103 @@ public class BulletEntity extends Entity {
 
     public static class MotionState extends btMotionState {
         private final Matrix4 transform;
+        @Nullable
+        private final BulletEntity entity;
+        @Nullable
+        private TransformInterpolationBuffer buffer = null;
+        private int slot = -1;
+        // render thread only, bullet may call the transform methods on the physics thread
+        private final Matrix4 tmp = new Matrix4();
+        private final Vector3 tmpV = new Vector3();
 
         public MotionState(final Matrix4 transform) {
             this.transform = transform;
+            this.entity = null;
+        }
+
+        /**
+         * keeps the entity's transform in sync, moving it invalidates its matrices and bounds in the world
+         */
+        public MotionState(final BulletEntity entity) {
+            this.transform = entity.modelInstance.transform;
+            this.entity = entity;
         }
 
         @Override
         public void getWorldTransform(final Matrix4 worldTrans) {
-            worldTrans.set(transform);
+            if (buffer != null)
+                buffer.getPhysicsTransform(slot, worldTrans);
+            else if (entity != null)
+                entity.getWorldTransform(worldTrans);
+            else
+                worldTrans.set(transform);
         }
 
+        /**
+         * called by bullet on the thread that steps the world, with a buffer attached the render transform is left alone
+         */
         @Override
         public void setWorldTransform(final Matrix4 worldTrans) {
-            transform.set(worldTrans);
+            if (buffer != null)
+                buffer.write(slot, worldTrans);
+            else if (entity != null)
+                entity.setWorldTransform(worldTrans);
+            else
+                transform.set(worldTrans);
+        }
+
+        /**
+         * hands the transform over to a physics thread, the render transform only changes in {@link #interpolate()}
+         */
+        public void attach(TransformInterpolationBuffer buffer) {
+            detach();
+            this.slot = buffer.allocate(entity != null ? entity.getWorldTransform(tmp) : transform);
+            this.buffer = buffer;
+        }
+
+        /**
+         * takes the transform back at the latest simulated state, call it while the physics is not stepping
+         */
+        public void detach() {
+            if (buffer != null) {
+                buffer.getPhysicsTransform(slot, tmp);
+                setRenderTransform(tmp);
+                buffer.free(slot);
+            }
+            buffer = null;
+            slot = -1;
+        }
+
+        public boolean isAttached() {
+            return buffer != null;
+        }
+
+        /**
+         * render thread, moves the entity to the transform of the last {@link TransformInterpolationBuffer#read(long)}
+         */
+        public void interpolate() {
+            if (buffer != null) {
+                buffer.getInterpolated(slot, tmp.idt());
+                setRenderTransform(tmp);
+            }
+        }
+
+        /**
+         * the buffer only holds position and rotation, the scale of the entity or transform is kept
+         */
+        private void setRenderTransform(Matrix4 rigid) {
+            if (entity != null) {
+                entity.setWorldTransform(rigid);
+            } else {
+                transform.getScale(tmpV);
+                transform.set(rigid).scale(tmpV.x, tmpV.y, tmpV.z);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            detach();
+            super.dispose();
         }
     }
 }
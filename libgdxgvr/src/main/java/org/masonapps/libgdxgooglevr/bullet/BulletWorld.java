@@ -1,5 +1,7 @@
 package org.masonapps.libgdxgooglevr.bullet;
 
+import android.support.annotation.Nullable;
+
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
@@ -19,11 +21,15 @@ import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
 import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
 import com.badlogic.gdx.physics.bullet.dynamics.btSequentialImpulseConstraintSolver;
 import com.badlogic.gdx.physics.bullet.linearmath.btIDebugDraw;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.ObjectMap;
 import com.badlogic.gdx.utils.PerformanceCounter;
 
+import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.gfx.Entity;
 import org.masonapps.libgdxgooglevr.gfx.World;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 
 /**
  * Created by Bob on 8/10/2015.
@@ -42,6 +48,12 @@ public class BulletWorld extends World {
     public PerformanceCounter performanceCounter;
     public int maxSubSteps = 3;
     public float fixedTimeStep = 1f / 60f;
+    // held by the physics thread for every step, hold it to touch bodies while the thread runs
+    private final Object stepLock = new Object();
+    @Nullable
+    private PhysicsStepThread physicsThread = null;
+    @Nullable
+    private TransformInterpolationBuffer interpolationBuffer = null;
 
     public BulletWorld(final btCollisionConfiguration collisionConfiguration, final btCollisionDispatcher dispatcher, final btBroadphaseInterface broadphase, final btConstraintSolver solver, final btCollisionWorld collisionWorld, final Vector3 gravity) {
         this.collisionConfiguration = collisionConfiguration;
@@ -75,12 +87,16 @@ public class BulletWorld extends World {
     public BulletEntity add(BulletEntity entity) {
         super.add(entity);
         if (entity.body != null) {
-            if (entity.body instanceof btRigidBody) {
-                ((btDiscreteDynamicsWorld) collisionWorld).addRigidBody((btRigidBody) entity.body);
-            } else {
-                collisionWorld.addCollisionObject(entity.body);
+            synchronized (stepLock) {
+                if (entity.body instanceof btRigidBody) {
+                    ((btDiscreteDynamicsWorld) collisionWorld).addRigidBody((btRigidBody) entity.body);
+                } else {
+                    collisionWorld.addCollisionObject(entity.body);
+                }
+                entity.body.setUserValue(entities.size - 1);
+                if (interpolationBuffer != null && entity.motionState != null)
+                    entity.motionState.attach(interpolationBuffer);
             }
-            entity.body.setUserValue(entities.size - 1);
         }
         return entity;
     }
@@ -88,16 +104,86 @@ public class BulletWorld extends World {
     public BulletEntity add(BulletEntity entity, short group, short mask) {
         super.add(entity);
         if (entity.body != null) {
-            if (entity.body instanceof btRigidBody) {
-                ((btDiscreteDynamicsWorld) collisionWorld).addRigidBody((btRigidBody) entity.body, group, mask);
-            } else {
-                collisionWorld.addCollisionObject(entity.body, group, mask);
+            synchronized (stepLock) {
+                if (entity.body instanceof btRigidBody) {
+                    ((btDiscreteDynamicsWorld) collisionWorld).addRigidBody((btRigidBody) entity.body, group, mask);
+                } else {
+                    collisionWorld.addCollisionObject(entity.body, group, mask);
+                }
+                entity.body.setUserValue(entities.size - 1);
+                if (interpolationBuffer != null && entity.motionState != null)
+                    entity.motionState.attach(interpolationBuffer);
             }
-            entity.body.setUserValue(entities.size - 1);
         }
         return entity;
     }
 
+    @Override
+    public void remove(Entity entity) {
+        if (entity instanceof BulletEntity && ((BulletEntity) entity).body != null && entities.contains(entity, true)) {
+            final BulletEntity bulletEntity = (BulletEntity) entity;
+            synchronized (stepLock) {
+                removeBody(bulletEntity.body);
+                if (bulletEntity.motionState != null)
+                    bulletEntity.motionState.detach();
+            }
+        }
+        super.remove(entity);
+    }
+
+    private void removeBody(btCollisionObject body) {
+        if (body instanceof btRigidBody)
+            ((btDynamicsWorld) collisionWorld).removeRigidBody((btRigidBody) body);
+        else
+            collisionWorld.removeCollisionObject(body);
+    }
+
+    /**
+     * Steps the simulation at {@link #fixedTimeStep} on its own thread instead of in {@link #update()}, which then
+     * interpolates the rigid body transforms between the last two steps. Bodies may only be touched while holding
+     * {@link #getStepLock()} as long as the thread runs.
+     */
+    public void startPhysicsThread() {
+        if (physicsThread != null) return;
+        if (!(collisionWorld instanceof btDynamicsWorld))
+            throw new IllegalStateException("a physics thread needs a dynamics world");
+        interpolationBuffer = new TransformInterpolationBuffer((long) (fixedTimeStep * 1e9));
+        synchronized (stepLock) {
+            for (int i = 0; i < entities.size; i++) {
+                final Entity e = entities.get(i);
+                if (e instanceof BulletEntity && ((BulletEntity) e).motionState != null)
+                    ((BulletEntity) e).motionState.attach(interpolationBuffer);
+            }
+        }
+        physicsThread = new PhysicsStepThread((btDynamicsWorld) collisionWorld, interpolationBuffer, stepLock);
+        physicsThread.setMaxCatchUpSteps(maxSubSteps);
+        physicsThread.start();
+    }
+
+    /**
+     * joins the physics thread, bodies are left at the latest simulated step and stepped in {@link #update()} again
+     */
+    public void stopPhysicsThread() {
+        if (physicsThread == null) return;
+        physicsThread.stop();
+        physicsThread = null;
+        for (int i = 0; i < entities.size; i++) {
+            final Entity e = entities.get(i);
+            if (e instanceof BulletEntity && ((BulletEntity) e).motionState != null)
+                ((BulletEntity) e).motionState.detach();
+        }
+        interpolationBuffer = null;
+    }
+
+    @Nullable
+    public PhysicsStepThread getPhysicsThread() {
+        return physicsThread;
+    }
+
+    public Object getStepLock() {
+        return stepLock;
+    }
+
     public BulletEntity add(String type, Vector3 position, short group, short mask) {
         final BulletEntity entity = bulletConstructors.get(type).construct(position.x, position.y, position.z);
         add(entity, group, mask);
@@ -116,31 +202,53 @@ public class BulletWorld extends World {
         return entity;
     }
 
+    /**
+     * steps or interpolates the bodies before the transform pass, so entities moved by bullet are placed this frame
+     */
     @Override
     public void update() {
         if (performanceCounter != null) {
             performanceCounter.tick();
             performanceCounter.start();
         }
-        if (collisionWorld instanceof btDynamicsWorld) {
+        if (physicsThread != null && interpolationBuffer != null) {
+            final Throwable failure = physicsThread.getFailure();
+            if (failure != null)
+                throw new GdxRuntimeException("physics thread failed", failure);
+            GdxVr.profiler.begin(FrameProfiler.Phase.PHYSICS);
+            interpolationBuffer.read(System.nanoTime());
+            for (int i = 0; i < entities.size; i++) {
+                final Entity e = entities.get(i);
+                if (e instanceof BulletEntity && ((BulletEntity) e).motionState != null)
+                    ((BulletEntity) e).motionState.interpolate();
+            }
+            GdxVr.profiler.end();
+        } else if (collisionWorld instanceof btDynamicsWorld) {
+            GdxVr.profiler.begin(FrameProfiler.Phase.PHYSICS);
             ((btDynamicsWorld) collisionWorld).stepSimulation(Gdx.graphics.getDeltaTime(), maxSubSteps, fixedTimeStep);
+            GdxVr.profiler.end();
         }
         if (performanceCounter != null) performanceCounter.stop();
+        super.update();
     }
 
     @Override
-    public void render(ModelBatch batch, Environment lights, Iterable<Entity> entities) {
-        if (renderMeshes) super.render(batch, lights, entities);
+    protected void renderCulled(ModelBatch batch, Environment lights, Array<Entity> entities) {
+        if (renderMeshes) super.renderCulled(batch, lights, entities);
         if (debugDrawer != null && debugDrawer.getDebugMode() > 0) {
             batch.flush();
             debugDrawer.begin(batch.getCamera());
-            collisionWorld.debugDrawWorld();
+            // the physics thread may be stepping the world
+            synchronized (stepLock) {
+                collisionWorld.debugDrawWorld();
+            }
             debugDrawer.end();
         }
     }
 
     @Override
     public void dispose() {
+        stopPhysicsThread();
         clearEntities();
         super.dispose();
         collisionWorld.dispose();
@@ -150,21 +258,21 @@ public class BulletWorld extends World {
         if (collisionConfiguration != null) collisionConfiguration.dispose();
     }
 
+    @Override
     public void clearEntities() {
-        for (int i = 0; i < entities.size; i++) {
-            final Entity e = entities.get(i);
-            if (e instanceof BulletEntity) {
-                btCollisionObject body = ((BulletEntity)e).body;
-                if (body != null) {
-                    if (body instanceof btRigidBody)
-                        ((btDynamicsWorld) collisionWorld).removeRigidBody((btRigidBody) body);
-                    else
-                        collisionWorld.removeCollisionObject(body);
+        synchronized (stepLock) {
+            for (int i = 0; i < entities.size; i++) {
+                final Entity e = entities.get(i);
+                if (e instanceof BulletEntity) {
+                    final BulletEntity bulletEntity = (BulletEntity) e;
+                    if (bulletEntity.body != null)
+                        removeBody(bulletEntity.body);
+                    if (bulletEntity.motionState != null)
+                        bulletEntity.motionState.detach();
                 }
             }
-            e.dispose();
         }
-        entities.clear();
+        super.clearEntities();
     }
 
     public int getDebugMode() {
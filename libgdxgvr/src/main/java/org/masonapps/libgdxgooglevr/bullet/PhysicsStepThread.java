@@ -0,0 +1,135 @@
+package org.masonapps.libgdxgooglevr.bullet;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Steps a dynamics world at a fixed rate on its own thread and publishes every step to a
+ * {@link TransformInterpolationBuffer}. Step k is simulated for the time start + k * step, when the thread falls more
+ * than maxCatchUpSteps behind it drops the missed time instead of spiraling. Anything touching the bullet world from
+ * another thread has to hold {@link #getLock()}.
+ */
+public class PhysicsStepThread implements Runnable {
+
+    public static final int DEFAULT_MAX_CATCH_UP_STEPS = 3;
+
+    private final btDynamicsWorld dynamicsWorld;
+    private final TransformInterpolationBuffer buffer;
+    private final Object lock;
+    private final long stepNanos;
+    private final float stepSeconds;
+    private int maxCatchUpSteps = DEFAULT_MAX_CATCH_UP_STEPS;
+    @Nullable
+    private Thread thread = null;
+    private volatile boolean running = false;
+    @Nullable
+    private volatile Throwable failure = null;
+    private volatile long stepCount = 0;
+    private volatile long droppedSteps = 0;
+    private volatile long lastStepDurationNanos = 0;
+    private long startNanos;
+
+    /**
+     * @param lock held for every step, the same object the render thread locks to change the world
+     */
+    public PhysicsStepThread(btDynamicsWorld dynamicsWorld, TransformInterpolationBuffer buffer, Object lock) {
+        this.dynamicsWorld = dynamicsWorld;
+        this.buffer = buffer;
+        this.lock = lock;
+        this.stepNanos = buffer.getStepNanos();
+        this.stepSeconds = stepNanos * 1e-9f;
+    }
+
+    public void start() {
+        if (thread != null) return;
+        running = true;
+        startNanos = System.nanoTime();
+        thread = new Thread(this, "physics-step");
+        thread.start();
+    }
+
+    /**
+     * waits for the step in progress to finish
+     */
+    public void stop() {
+        if (thread == null) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    @Override
+    public void run() {
+        long step = 0;
+        try {
+            while (running) {
+                final long stepTime = startNanos + (step + 1) * stepNanos;
+                final long now = System.nanoTime();
+                if (now < stepTime) {
+                    LockSupport.parkNanos(stepTime - now);
+                    continue;
+                }
+                final long behind = (now - stepTime) / stepNanos;
+                if (behind > maxCatchUpSteps) {
+                    // move the clock instead of stepping through the backlog
+                    startNanos += (behind - maxCatchUpSteps) * stepNanos;
+                    droppedSteps += behind - maxCatchUpSteps;
+                    continue;
+                }
+                synchronized (lock) {
+                    final long begin = System.nanoTime();
+                    // no sub steps, exactly one fixed step
+                    dynamicsWorld.stepSimulation(stepSeconds, 0, stepSeconds);
+                    buffer.publish(step, startNanos + (step + 1) * stepNanos);
+                    lastStepDurationNanos = System.nanoTime() - begin;
+                }
+                step++;
+                stepCount = step;
+            }
+        } catch (Throwable t) {
+            failure = t;
+            running = false;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return what ended the thread, rethrow it on the render thread
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    public Object getLock() {
+        return lock;
+    }
+
+    public long getStepCount() {
+        return stepCount;
+    }
+
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    public long getLastStepDurationNanos() {
+        return lastStepDurationNanos;
+    }
+
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        this.maxCatchUpSteps = maxCatchUpSteps;
+    }
+}
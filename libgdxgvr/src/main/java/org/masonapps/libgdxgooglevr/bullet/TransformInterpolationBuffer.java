@@ -0,0 +1,192 @@
+package org.masonapps.libgdxgooglevr.bullet;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Hands rigid body transforms from the physics thread to the render thread. The physics thread writes the state of the
+ * step it is simulating into its own array and publishes it once the step is done, the front buffer then holds the last
+ * two published steps. The render thread copies both under the same lock and interpolates between them, so it only
+ * ever sees whole steps. Step times are simulated times, what is rendered for a given render time only depends on
+ * the published steps and not on thread timing.
+ */
+public class TransformInterpolationBuffer {
+
+    // position x, y, z and rotation x, y, z, w per slot
+    private static final int STRIDE = 7;
+
+    private final Object lock = new Object();
+    private final long stepNanos;
+    private int capacity = 0;
+    private int slotCount = 0;
+    private int[] freeSlots = new int[0];
+    private int freeCount = 0;
+    // written by the physics thread while it steps, and by allocate while it does not
+    private float[] physics = new float[0];
+    // guarded by lock
+    private float[] frontPrevious = new float[0];
+    private float[] frontCurrent = new float[0];
+    private long frontStep = -1;
+    private long frontTimeNanos = 0;
+    // owned by the render thread
+    private float[] readPrevious = new float[0];
+    private float[] readCurrent = new float[0];
+    private long readStep = -1;
+    private float alpha = 1f;
+    private final Vector3 writeV = new Vector3();
+    private final Quaternion writeQ = new Quaternion();
+    private final Vector3 readV = new Vector3();
+    private final Quaternion readQ = new Quaternion();
+    private final Quaternion readQ2 = new Quaternion();
+    private final Vector3 readScale = new Vector3();
+
+    /**
+     * @param stepNanos simulated time between two published steps
+     */
+    public TransformInterpolationBuffer(long stepNanos) {
+        if (stepNanos <= 0) throw new IllegalArgumentException("step must be positive, got " + stepNanos);
+        this.stepNanos = stepNanos;
+    }
+
+    /**
+     * Reserves a slot that starts at the transform in every buffer, so it does not interpolate from a stale state.
+     * Call it on the render thread while the physics is not stepping.
+     */
+    public int allocate(Matrix4 transform) {
+        final int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == capacity)
+                grow(Math.max(capacity * 2, 16));
+            slot = slotCount++;
+        }
+        write(slot, transform);
+        synchronized (lock) {
+            System.arraycopy(physics, slot * STRIDE, frontPrevious, slot * STRIDE, STRIDE);
+            System.arraycopy(physics, slot * STRIDE, frontCurrent, slot * STRIDE, STRIDE);
+        }
+        System.arraycopy(physics, slot * STRIDE, readPrevious, slot * STRIDE, STRIDE);
+        System.arraycopy(physics, slot * STRIDE, readCurrent, slot * STRIDE, STRIDE);
+        return slot;
+    }
+
+    /**
+     * same threading rules as {@link #allocate(Matrix4)}
+     */
+    public void free(int slot) {
+        if (slot < 0 || slot >= slotCount) return;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void grow(int newCapacity) {
+        physics = copyOf(physics, newCapacity * STRIDE);
+        readPrevious = copyOf(readPrevious, newCapacity * STRIDE);
+        readCurrent = copyOf(readCurrent, newCapacity * STRIDE);
+        final int[] slots = new int[newCapacity];
+        System.arraycopy(freeSlots, 0, slots, 0, freeCount);
+        freeSlots = slots;
+        synchronized (lock) {
+            frontPrevious = copyOf(frontPrevious, newCapacity * STRIDE);
+            frontCurrent = copyOf(frontCurrent, newCapacity * STRIDE);
+        }
+        capacity = newCapacity;
+    }
+
+    private static float[] copyOf(float[] array, int length) {
+        final float[] result = new float[length];
+        System.arraycopy(array, 0, result, 0, Math.min(array.length, length));
+        return result;
+    }
+
+    /**
+     * physics thread, stores the rigid part of the transform as the state of the step being simulated
+     */
+    public void write(int slot, Matrix4 transform) {
+        transform.getTranslation(writeV);
+        transform.getRotation(writeQ, true);
+        final int o = slot * STRIDE;
+        physics[o] = writeV.x;
+        physics[o + 1] = writeV.y;
+        physics[o + 2] = writeV.z;
+        physics[o + 3] = writeQ.x;
+        physics[o + 4] = writeQ.y;
+        physics[o + 5] = writeQ.z;
+        physics[o + 6] = writeQ.w;
+    }
+
+    /**
+     * physics thread, the latest state written for the slot, for bodies that read their motion state
+     */
+    public Matrix4 getPhysicsTransform(int slot, Matrix4 out) {
+        final int o = slot * STRIDE;
+        return out.set(physics[o], physics[o + 1], physics[o + 2], physics[o + 3], physics[o + 4], physics[o + 5], physics[o + 6]);
+    }
+
+    /**
+     * physics thread, makes the written state the current step and the previous current step the previous one
+     *
+     * @param stepTimeNanos simulated time the state belongs to
+     */
+    public void publish(long step, long stepTimeNanos) {
+        synchronized (lock) {
+            final float[] previous = frontPrevious;
+            frontPrevious = frontCurrent;
+            frontCurrent = previous;
+            System.arraycopy(physics, 0, frontCurrent, 0, slotCount * STRIDE);
+            frontStep = step;
+            frontTimeNanos = stepTimeNanos;
+        }
+    }
+
+    /**
+     * Render thread, takes the latest published steps and sets the interpolation factor for the render time. A step
+     * published at time t is reached at render time t + step, so the rendered state trails the simulation by one step
+     * and never has to be extrapolated.
+     *
+     * @return the step the interpolation ends at, -1 before the first publish
+     */
+    public long read(long renderTimeNanos) {
+        final long timeNanos;
+        synchronized (lock) {
+            if (frontStep != readStep) {
+                System.arraycopy(frontPrevious, 0, readPrevious, 0, slotCount * STRIDE);
+                System.arraycopy(frontCurrent, 0, readCurrent, 0, slotCount * STRIDE);
+                readStep = frontStep;
+            }
+            timeNanos = frontTimeNanos;
+        }
+        alpha = readStep < 0 ? 1f : MathUtils.clamp((float) (renderTimeNanos - timeNanos) / stepNanos, 0f, 1f);
+        return readStep;
+    }
+
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * render thread, the transform of the slot at the time of the last {@link #read(long)}, the scale of out is kept
+     */
+    public Matrix4 getInterpolated(int slot, Matrix4 out) {
+        final int o = slot * STRIDE;
+        final float[] a = readPrevious;
+        final float[] b = readCurrent;
+        readV.set(a[o] + (b[o] - a[o]) * alpha, a[o + 1] + (b[o + 1] - a[o + 1]) * alpha, a[o + 2] + (b[o + 2] - a[o + 2]) * alpha);
+        readQ.set(a[o + 3], a[o + 4], a[o + 5], a[o + 6]);
+        readQ2.set(b[o + 3], b[o + 4], b[o + 5], b[o + 6]);
+        readQ.slerp(readQ2, alpha);
+        out.getScale(readScale);
+        return out.set(readV, readQ, readScale);
+    }
+
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    public int getSlotCount() {
+        return slotCount - freeCount;
+    }
+}
@@ -19,6 +19,8 @@ public abstract class VrBulletScreen extends VrWorldScreen {
     
     private static final Vector3 tempV = new Vector3();
     private static boolean initialized = false;
+    private boolean physicsThreadEnabled = false;
+    private boolean shown = false;
 
     public VrBulletScreen(VrGame game) {
         super(game);
@@ -67,11 +69,33 @@ public abstract class VrBulletScreen extends VrWorldScreen {
     @Override
     public void show() {
         super.show();
+        shown = true;
+        if (physicsThreadEnabled)
+            getBulletWorld().startPhysicsThread();
     }
 
     @Override
     public void hide() {
         super.hide();
+        shown = false;
+        if (world != null)
+            getBulletWorld().stopPhysicsThread();
+    }
+
+    /**
+     * steps the physics on its own thread while the screen is shown, see {@link BulletWorld#startPhysicsThread()}
+     */
+    public void setPhysicsThreadEnabled(boolean enabled) {
+        physicsThreadEnabled = enabled;
+        if (!shown) return;
+        if (enabled)
+            getBulletWorld().startPhysicsThread();
+        else
+            getBulletWorld().stopPhysicsThread();
+    }
+
+    public boolean isPhysicsThreadEnabled() {
+        return physicsThreadEnabled;
     }
 
     @Override
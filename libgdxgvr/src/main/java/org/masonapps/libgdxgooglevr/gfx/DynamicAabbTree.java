@@ -0,0 +1,465 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Balanced bounding volume tree of axis aligned boxes that can be updated incrementally, based on the Box2D dynamic tree.
+ * Leaves store a box enlarged by {@link #margin} so small movements do not require reinsertion.
+ * Nodes are kept in flat arrays and queries do not allocate.
+ */
+public class DynamicAabbTree<T> {
+
+    public static final int NULL_NODE = -1;
+
+    public float margin = 0.05f;
+    // min xyz, max xyz per node
+    private float[] bounds;
+    private int[] parents;
+    private int[] children1;
+    private int[] children2;
+    private int[] heights;
+    private Object[] userData;
+    private int capacity;
+    private int freeList;
+    private int root = NULL_NODE;
+    private int[] stack = new int[64];
+    private float[] stackDistances = new float[64];
+
+    public DynamicAabbTree() {
+        capacity = 16;
+        bounds = new float[capacity * 6];
+        parents = new int[capacity];
+        children1 = new int[capacity];
+        children2 = new int[capacity];
+        heights = new int[capacity];
+        userData = new Object[capacity];
+        linkFreeNodes(0);
+    }
+
+    private void linkFreeNodes(int start) {
+        for (int i = start; i < capacity - 1; i++) {
+            parents[i] = i + 1;
+            heights[i] = -1;
+        }
+        parents[capacity - 1] = NULL_NODE;
+        heights[capacity - 1] = -1;
+        freeList = start;
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL_NODE) {
+            final int oldCapacity = capacity;
+            capacity *= 2;
+            bounds = copyOf(bounds, capacity * 6);
+            parents = copyOf(parents, capacity);
+            children1 = copyOf(children1, capacity);
+            children2 = copyOf(children2, capacity);
+            heights = copyOf(heights, capacity);
+            final Object[] newUserData = new Object[capacity];
+            System.arraycopy(userData, 0, newUserData, 0, oldCapacity);
+            userData = newUserData;
+            linkFreeNodes(oldCapacity);
+        }
+        final int node = freeList;
+        freeList = parents[node];
+        parents[node] = NULL_NODE;
+        children1[node] = NULL_NODE;
+        children2[node] = NULL_NODE;
+        heights[node] = 0;
+        userData[node] = null;
+        return node;
+    }
+
+    private static float[] copyOf(float[] array, int length) {
+        final float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        final int[] copy = new int[length];
+        System.arraycopy(array, 0, copy, 0, array.length);
+        return copy;
+    }
+
+    private void freeNode(int node) {
+        parents[node] = freeList;
+        heights[node] = -1;
+        userData[node] = null;
+        freeList = node;
+    }
+
+    private boolean isLeaf(int node) {
+        return children1[node] == NULL_NODE;
+    }
+
+    private void setFatBounds(int node, BoundingBox box) {
+        final int b = node * 6;
+        bounds[b] = box.min.x - margin;
+        bounds[b + 1] = box.min.y - margin;
+        bounds[b + 2] = box.min.z - margin;
+        bounds[b + 3] = box.max.x + margin;
+        bounds[b + 4] = box.max.y + margin;
+        bounds[b + 5] = box.max.z + margin;
+    }
+
+    /**
+     * @return the proxy id used to move or destroy the box
+     */
+    public int createProxy(BoundingBox box, T data) {
+        final int node = allocateNode();
+        setFatBounds(node, box);
+        userData[node] = data;
+        insertLeaf(node);
+        return node;
+    }
+
+    public void destroyProxy(int proxyId) {
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+    }
+
+    /**
+     * @return true if the proxy had to be reinserted because the box left its enlarged bounds
+     */
+    public boolean moveProxy(int proxyId, BoundingBox box) {
+        final int b = proxyId * 6;
+        if (bounds[b] <= box.min.x && bounds[b + 1] <= box.min.y && bounds[b + 2] <= box.min.z &&
+                bounds[b + 3] >= box.max.x && bounds[b + 4] >= box.max.y && bounds[b + 5] >= box.max.z)
+            return false;
+        removeLeaf(proxyId);
+        setFatBounds(proxyId, box);
+        insertLeaf(proxyId);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getUserData(int proxyId) {
+        return (T) userData[proxyId];
+    }
+
+    public int getHeight() {
+        return root == NULL_NODE ? 0 : heights[root];
+    }
+
+    public void clear() {
+        root = NULL_NODE;
+        for (int i = 0; i < capacity; i++) {
+            userData[i] = null;
+        }
+        linkFreeNodes(0);
+    }
+
+    private float area(int node) {
+        final int b = node * 6;
+        final float dx = bounds[b + 3] - bounds[b];
+        final float dy = bounds[b + 4] - bounds[b + 1];
+        final float dz = bounds[b + 5] - bounds[b + 2];
+        return 2f * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private float unionArea(int a, int b) {
+        final int ia = a * 6;
+        final int ib = b * 6;
+        final float dx = Math.max(bounds[ia + 3], bounds[ib + 3]) - Math.min(bounds[ia], bounds[ib]);
+        final float dy = Math.max(bounds[ia + 4], bounds[ib + 4]) - Math.min(bounds[ia + 1], bounds[ib + 1]);
+        final float dz = Math.max(bounds[ia + 5], bounds[ib + 5]) - Math.min(bounds[ia + 2], bounds[ib + 2]);
+        return 2f * (dx * dy + dy * dz + dz * dx);
+    }
+
+    private void setUnion(int node, int a, int b) {
+        final int i = node * 6;
+        final int ia = a * 6;
+        final int ib = b * 6;
+        for (int j = 0; j < 3; j++) {
+            bounds[i + j] = Math.min(bounds[ia + j], bounds[ib + j]);
+            bounds[i + 3 + j] = Math.max(bounds[ia + 3 + j], bounds[ib + 3 + j]);
+        }
+    }
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL_NODE) {
+            root = leaf;
+            parents[root] = NULL_NODE;
+            return;
+        }
+
+        // find the best sibling by surface area heuristic
+        int index = root;
+        while (!isLeaf(index)) {
+            final int child1 = children1[index];
+            final int child2 = children2[index];
+            final float area = area(index);
+            final float combinedArea = unionArea(index, leaf);
+            final float cost = 2f * combinedArea;
+            final float inheritanceCost = 2f * (combinedArea - area);
+            final float cost1 = (isLeaf(child1) ? unionArea(leaf, child1) : unionArea(leaf, child1) - area(child1)) + inheritanceCost;
+            final float cost2 = (isLeaf(child2) ? unionArea(leaf, child2) : unionArea(leaf, child2) - area(child2)) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) break;
+            index = cost1 < cost2 ? child1 : child2;
+        }
+
+        final int sibling = index;
+        final int oldParent = parents[sibling];
+        final int newParent = allocateNode();
+        parents[newParent] = oldParent;
+        setUnion(newParent, leaf, sibling);
+        heights[newParent] = heights[sibling] + 1;
+        children1[newParent] = sibling;
+        children2[newParent] = leaf;
+        parents[sibling] = newParent;
+        parents[leaf] = newParent;
+        if (oldParent != NULL_NODE) {
+            if (children1[oldParent] == sibling)
+                children1[oldParent] = newParent;
+            else
+                children2[oldParent] = newParent;
+        } else {
+            root = newParent;
+        }
+
+        refitAncestors(parents[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL_NODE;
+            return;
+        }
+        final int parent = parents[leaf];
+        final int grandParent = parents[parent];
+        final int sibling = children1[parent] == leaf ? children2[parent] : children1[parent];
+        if (grandParent != NULL_NODE) {
+            if (children1[grandParent] == parent)
+                children1[grandParent] = sibling;
+            else
+                children2[grandParent] = sibling;
+            parents[sibling] = grandParent;
+            freeNode(parent);
+            refitAncestors(grandParent);
+        } else {
+            root = sibling;
+            parents[sibling] = NULL_NODE;
+            freeNode(parent);
+        }
+        parents[leaf] = NULL_NODE;
+    }
+
+    private void refitAncestors(int index) {
+        while (index != NULL_NODE) {
+            index = balance(index);
+            final int child1 = children1[index];
+            final int child2 = children2[index];
+            heights[index] = 1 + Math.max(heights[child1], heights[child2]);
+            setUnion(index, child1, child2);
+            index = parents[index];
+        }
+    }
+
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL_NODE) {
+            root = newChild;
+        } else if (children1[parent] == oldChild) {
+            children1[parent] = newChild;
+        } else {
+            children2[parent] = newChild;
+        }
+    }
+
+    /**
+     * rotates the subtree if it is imbalanced
+     *
+     * @return the new root of the subtree
+     */
+    private int balance(int a) {
+        if (isLeaf(a) || heights[a] < 2) return a;
+        final int b = children1[a];
+        final int c = children2[a];
+        final int balance = heights[c] - heights[b];
+
+        if (balance > 1) {
+            // rotate c up
+            final int f = children1[c];
+            final int g = children2[c];
+            children1[c] = a;
+            parents[c] = parents[a];
+            parents[a] = c;
+            replaceChild(parents[c], a, c);
+            if (heights[f] > heights[g]) {
+                children2[c] = f;
+                children2[a] = g;
+                parents[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                heights[a] = 1 + Math.max(heights[b], heights[g]);
+                heights[c] = 1 + Math.max(heights[a], heights[f]);
+            } else {
+                children2[c] = g;
+                children2[a] = f;
+                parents[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                heights[a] = 1 + Math.max(heights[b], heights[f]);
+                heights[c] = 1 + Math.max(heights[a], heights[g]);
+            }
+            return c;
+        }
+
+        if (balance < -1) {
+            // rotate b up
+            final int d = children1[b];
+            final int e = children2[b];
+            children1[b] = a;
+            parents[b] = parents[a];
+            parents[a] = b;
+            replaceChild(parents[b], a, b);
+            if (heights[d] > heights[e]) {
+                children2[b] = d;
+                children1[a] = e;
+                parents[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                heights[a] = 1 + Math.max(heights[c], heights[e]);
+                heights[b] = 1 + Math.max(heights[a], heights[d]);
+            } else {
+                children2[b] = e;
+                children1[a] = d;
+                parents[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                heights[a] = 1 + Math.max(heights[c], heights[d]);
+                heights[b] = 1 + Math.max(heights[a], heights[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    private void ensureStackCapacity() {
+        final int required = getHeight() + 2;
+        if (stack.length < required) {
+            stack = new int[required * 2];
+            stackDistances = new float[required * 2];
+        }
+    }
+
+    /**
+     * adds the user data of every leaf whose box intersects the frustum to out
+     */
+    @SuppressWarnings("unchecked")
+    public void query(Frustum frustum, Array<T> out) {
+        if (root == NULL_NODE) return;
+        ensureStackCapacity();
+        int sp = 0;
+        stack[sp++] = root;
+        while (sp > 0) {
+            final int node = stack[--sp];
+            final int b = node * 6;
+            final float hx = (bounds[b + 3] - bounds[b]) * 0.5f;
+            final float hy = (bounds[b + 4] - bounds[b + 1]) * 0.5f;
+            final float hz = (bounds[b + 5] - bounds[b + 2]) * 0.5f;
+            if (!frustum.boundsInFrustum(bounds[b] + hx, bounds[b + 1] + hy, bounds[b + 2] + hz, hx, hy, hz))
+                continue;
+            if (isLeaf(node)) {
+                out.add((T) userData[node]);
+            } else {
+                stack[sp++] = children1[node];
+                stack[sp++] = children2[node];
+            }
+        }
+    }
+
+    /**
+     * @return the distance along the ray to the node's box, or infinity if it is missed
+     */
+    private float intersectNode(int node, Ray ray) {
+        final int b = node * 6;
+        final float ox = ray.origin.x, oy = ray.origin.y, oz = ray.origin.z;
+        final float idx = 1f / ray.direction.x, idy = 1f / ray.direction.y, idz = 1f / ray.direction.z;
+        float t1 = (bounds[b] - ox) * idx;
+        float t2 = (bounds[b + 3] - ox) * idx;
+        float tMin = Math.min(t1, t2);
+        float tMax = Math.max(t1, t2);
+        t1 = (bounds[b + 1] - oy) * idy;
+        t2 = (bounds[b + 4] - oy) * idy;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        t1 = (bounds[b + 2] - oz) * idz;
+        t2 = (bounds[b + 5] - oz) * idz;
+        tMin = Math.max(tMin, Math.min(t1, t2));
+        tMax = Math.min(tMax, Math.max(t1, t2));
+        if (tMax < Math.max(tMin, 0f)) return Float.POSITIVE_INFINITY;
+        return Math.max(tMin, 0f);
+    }
+
+    /**
+     * visits the leaves front to back and stops once the remaining boxes are further away than the closest hit
+     *
+     * @param ray      must have a normalized direction
+     * @param callback tests the ray against a leaf's object
+     * @return the user data with the closest hit, or null
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public T rayCast(Ray ray, RayCastCallback<T> callback) {
+        if (root == NULL_NODE) return null;
+        ensureStackCapacity();
+        float closest = Float.POSITIVE_INFINITY;
+        T result = null;
+        int sp = 0;
+        final float rootDistance = intersectNode(root, ray);
+        if (rootDistance == Float.POSITIVE_INFINITY) return null;
+        stack[sp] = root;
+        stackDistances[sp++] = rootDistance;
+        while (sp > 0) {
+            sp--;
+            final int node = stack[sp];
+            if (stackDistances[sp] >= closest) continue;
+            if (isLeaf(node)) {
+                final T data = (T) userData[node];
+                final float distance = callback.rayCast(data, ray);
+                if (distance < closest) {
+                    closest = distance;
+                    result = data;
+                }
+            } else {
+                final int child1 = children1[node];
+                final int child2 = children2[node];
+                final float d1 = intersectNode(child1, ray);
+                final float d2 = intersectNode(child2, ray);
+                // far child first so the near child is popped next
+                if (d1 <= d2) {
+                    if (d2 < closest) {
+                        stack[sp] = child2;
+                        stackDistances[sp++] = d2;
+                    }
+                    if (d1 < closest) {
+                        stack[sp] = child1;
+                        stackDistances[sp++] = d1;
+                    }
+                } else {
+                    if (d1 < closest) {
+                        stack[sp] = child1;
+                        stackDistances[sp++] = d1;
+                    }
+                    stack[sp] = child2;
+                    stackDistances[sp++] = d2;
+                }
+            }
+        }
+        return result;
+    }
+
+    public interface RayCastCallback<T> {
+        /**
+         * @return the distance along the ray to the hit, or {@link Float#POSITIVE_INFINITY} if the object is missed
+         */
+        float rayCast(T data, Ray ray);
+    }
+}
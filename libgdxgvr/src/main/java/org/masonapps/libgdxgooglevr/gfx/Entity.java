@@ -19,13 +19,13 @@ import com.badlogic.gdx.utils.Pools;
  * Created by Bob on 8/10/2015.
  */
 public class Entity implements Disposable {
-    protected final Vector3 position = new Vector3();
-    protected final Quaternion rotation = new Quaternion();
     protected final Matrix4 inverseTransform = new Matrix4();
-    protected final Vector3 scale = new Vector3(1f, 1f, 1f);
+    private final Vector3 tmpPosition = new Vector3();
+    private final Quaternion tmpRotation = new Quaternion();
+    private final Vector3 tmpScale = new Vector3();
     private final Vector3 dimensions = new Vector3();
     private final Vector3 center = new Vector3();
-    private final float radius;
+    private float radius;
     public ModelInstance modelInstance;
     @Nullable
     protected BaseShader shader = null;
@@ -33,9 +33,32 @@ public class Entity implements Disposable {
     private BoundingBox bounds = new BoundingBox();
     private boolean renderingEnabled = true;
     private boolean lightingEnabled = true;
+    @Nullable
+    World world = null;
+    int proxyId = DynamicAabbTree.NULL_NODE;
+    /**
+     * the world's store while attached, a store holding only this entity otherwise
+     */
+    private TransformStore<Entity> transforms;
+    int transformSlot;
+    boolean boundsDirty = false;
 
     public Entity(ModelInstance modelInstance) {
         this.modelInstance = modelInstance;
+        transforms = new TransformStore<>(1);
+        transformSlot = transforms.allocate(this);
+        // start from the transform the instance was created with instead of resetting it on the first update
+        final Matrix4 transform = modelInstance.transform;
+        transform.getTranslation(tmpPosition);
+        transform.getRotation(tmpRotation, true);
+        transform.getScale(tmpScale);
+        transforms.setPosition(transformSlot, tmpPosition.x, tmpPosition.y, tmpPosition.z);
+        transforms.setRotation(transformSlot, tmpRotation.x, tmpRotation.y, tmpRotation.z, tmpRotation.w);
+        transforms.setScale(transformSlot, tmpScale.x, tmpScale.y, tmpScale.z);
+        calculateBounds();
+    }
+
+    private void calculateBounds() {
         modelInstance.calculateBoundingBox(bounds);
         bounds.getDimensions(dimensions);
         bounds.getCenter(center);
@@ -43,11 +66,21 @@ public class Entity implements Disposable {
 //        radius = dimensions.len() / 2f;
     }
 
+    /**
+     * replaces the instance keeping the current transform, the caller owns the previous instance's model
+     */
+    public void setModelInstance(ModelInstance modelInstance) {
+        modelInstance.transform.set(this.modelInstance.transform);
+        this.modelInstance = modelInstance;
+        calculateBounds();
+        invalidate();
+    }
+
     public boolean isVisible(Camera camera) {
         if (!renderingEnabled) return false;
         if (!updated) recalculateTransform();
         final Vector3 tmp = Pools.obtain(Vector3.class);
-        final boolean inFrustum = camera.frustum.sphereInFrustum(tmp.set(position).add(center), radius);
+        final boolean inFrustum = camera.frustum.sphereInFrustum(tmp.set(getPosition()).add(center), radius);
         Pools.free(tmp);
         return inFrustum;
     }
@@ -88,6 +121,14 @@ public class Entity implements Disposable {
         return dimensions;
     }
 
+    /**
+     * @return the model bounds transformed into world space
+     */
+    public BoundingBox getTransformedBounds(BoundingBox out) {
+        if (!updated) recalculateTransform();
+        return out.set(bounds).mul(modelInstance.transform);
+    }
+
     @Override
     public void dispose() {
         if (shader != null)
@@ -136,207 +177,242 @@ public class Entity implements Disposable {
         return out.set(modelInstance.transform);
     }
 
+    /**
+     * moves the transform into a slot of the world's {@link TransformStore}, the slot is the only copy of the position,
+     * rotation and scale while the entity is attached
+     */
+    void attachTransform(TransformStore<Entity> worldTransforms) {
+        moveTransform(worldTransforms);
+    }
+
+    /**
+     * moves the transform back into a store of its own
+     */
+    void detachTransform(TransformStore<Entity> worldTransforms) {
+        if (transforms != worldTransforms) return;
+        moveTransform(new TransformStore<Entity>(1));
+    }
+
+    private void moveTransform(TransformStore<Entity> target) {
+        final int slot = target.allocate(this);
+        target.setPosition(slot, transforms.getX(transformSlot), transforms.getY(transformSlot), transforms.getZ(transformSlot));
+        final Quaternion rotation = transforms.getRotation(transformSlot, tmpRotation);
+        target.setRotation(slot, rotation.x, rotation.y, rotation.z, rotation.w);
+        final Vector3 scale = transforms.getScale(transformSlot, tmpScale);
+        target.setScale(slot, scale.x, scale.y, scale.z);
+        transforms.free(transformSlot);
+        transforms = target;
+        transformSlot = slot;
+        updated = false;
+    }
+
     public void setScale(float x, float y, float z) {
-        scale.set(x, y, z);
+        transforms.setScale(transformSlot, x, y, z);
         invalidate();
     }
 
     public void setScale(float scale) {
-        this.scale.set(scale, scale, scale);
-        invalidate();
+        setScale(scale, scale, scale);
+    }
+
+    /**
+     * @return a copy of the scale that is overwritten by the next call, use the setters to change it
+     */
+    public Vector3 getScale() {
+        return transforms.getScale(transformSlot, tmpScale);
     }
 
     public void scaleX(float x) {
-        scale.x *= x;
-        invalidate();
+        scale(x, 1f, 1f);
     }
 
     public void scaleY(float y) {
-        scale.y *= y;
-        invalidate();
+        scale(1f, y, 1f);
     }
 
     public void scaleZ(float z) {
-        scale.z *= z;
-        invalidate();
+        scale(1f, 1f, z);
     }
 
     public void scale(float x, float y, float z) {
-        scale.scl(x, y, z);
-        invalidate();
+        final Vector3 scale = getScale();
+        setScale(scale.x * x, scale.y * y, scale.z * z);
     }
 
     public float getScaleX() {
-        return this.scale.x;
+        return getScale().x;
     }
 
     public void setScaleX(float x) {
-        scale.x = x;
-        invalidate();
+        setScale(x, getScaleY(), getScaleZ());
     }
 
     public float getScaleY() {
-        return this.scale.y;
+        return getScale().y;
     }
 
     public void setScaleY(float y) {
-        scale.y = y;
-        invalidate();
+        setScale(getScaleX(), y, getScaleZ());
     }
 
     public float getScaleZ() {
-        return this.scale.z;
+        return getScale().z;
     }
 
     public void setScaleZ(float z) {
-        scale.z = z;
-        invalidate();
+        setScale(getScaleX(), getScaleY(), z);
     }
 
     public void setRotationX(float angle) {
-        rotation.set(Vector3.X, angle);
-        invalidate();
+        final Quaternion q = Pools.obtain(Quaternion.class);
+        setRotation(q.set(Vector3.X, angle));
+        Pools.free(q);
     }
 
     public void setRotationY(float angle) {
-        rotation.set(Vector3.Y, angle);
-        invalidate();
+        final Quaternion q = Pools.obtain(Quaternion.class);
+        setRotation(q.set(Vector3.Y, angle));
+        Pools.free(q);
     }
 
     public void setRotationZ(float angle) {
-        rotation.set(Vector3.Z, angle);
-        invalidate();
+        final Quaternion q = Pools.obtain(Quaternion.class);
+        setRotation(q.set(Vector3.Z, angle));
+        Pools.free(q);
     }
 
     public void rotateX(float angle) {
-        final Quaternion rotator = Pools.obtain(Quaternion.class);
-        rotator.set(Vector3.X, angle);
-        rotation.mul(rotator);
-        Pools.free(rotator);
-        invalidate();
+        rotate(Vector3.X, angle);
     }
 
     public void rotateY(float angle) {
-        final Quaternion rotator = Pools.obtain(Quaternion.class);
-        rotator.set(Vector3.Y, angle);
-        rotation.mul(rotator);
-        Pools.free(rotator);
-        invalidate();
+        rotate(Vector3.Y, angle);
     }
 
     public void rotateZ(float angle) {
+        rotate(Vector3.Z, angle);
+    }
+
+    private void rotate(Vector3 axis, float angle) {
         final Quaternion rotator = Pools.obtain(Quaternion.class);
-        rotator.set(Vector3.Z, angle);
-        rotation.mul(rotator);
+        rotator.set(axis, angle);
+        setRotation(getRotation().mul(rotator));
         Pools.free(rotator);
-        invalidate();
     }
 
     public void setRotation(float yaw, float pitch, float roll) {
-        rotation.setEulerAngles(yaw, pitch, roll);
-        invalidate();
+        final Quaternion q = Pools.obtain(Quaternion.class);
+        setRotation(q.setEulerAngles(yaw, pitch, roll));
+        Pools.free(q);
     }
 
     public void setRotation(Vector3 dir, Vector3 up) {
         final Vector3 tmp = Pools.obtain(Vector3.class);
         final Vector3 tmp2 = Pools.obtain(Vector3.class);
+        final Quaternion q = Pools.obtain(Quaternion.class);
         tmp.set(up).crs(dir).nor();
         tmp2.set(dir).crs(tmp).nor();
-        rotation.setFromAxes(tmp.x, tmp2.x, dir.x, tmp.y, tmp2.y, dir.y, tmp.z, tmp2.z, dir.z);
-        invalidate();
+        q.setFromAxes(tmp.x, tmp2.x, dir.x, tmp.y, tmp2.y, dir.y, tmp.z, tmp2.z, dir.z);
+        setRotation(q);
         Pools.free(tmp);
         Pools.free(tmp2);
+        Pools.free(q);
     }
 
     public void lookAt(Vector3 position, Vector3 up) {
         final Vector3 dir = Pools.obtain(Vector3.class);
-        dir.set(position).sub(this.position).nor();
+        dir.set(position).sub(getPosition()).nor();
         setRotation(dir, up);
         Pools.free(dir);
     }
 
+    /**
+     * @return a copy of the rotation that is overwritten by the next call, use the setters to change it
+     */
     public Quaternion getRotation() {
-        return rotation;
+        return transforms.getRotation(transformSlot, tmpRotation);
     }
 
     public void setRotation(Quaternion q) {
-        rotation.set(q);
+        transforms.setRotation(transformSlot, q.x, q.y, q.z, q.w);
         invalidate();
     }
 
     public void translateX(float units) {
-        this.position.x += units;
-        invalidate();
+        translate(units, 0f, 0f);
     }
 
     public float getX() {
-        return this.position.x;
+        return transforms.getX(transformSlot);
     }
 
     public void setX(float x) {
-        this.position.x = x;
-        invalidate();
+        setPosition(x, getY(), getZ());
     }
 
     public void translateY(float units) {
-        this.position.y += units;
-        invalidate();
+        translate(0f, units, 0f);
     }
 
     public float getY() {
-        return this.position.y;
+        return transforms.getY(transformSlot);
     }
 
     public void setY(float y) {
-        this.position.y = y;
-        invalidate();
+        setPosition(getX(), y, getZ());
     }
 
     public void translateZ(float units) {
-        this.position.z += units;
-        invalidate();
+        translate(0f, 0f, units);
     }
 
     public float getZ() {
-        return this.position.z;
+        return transforms.getZ(transformSlot);
     }
 
     public void setZ(float z) {
-        this.position.z = z;
-        invalidate();
+        setPosition(getX(), getY(), z);
     }
 
     public void translate(float x, float y, float z) {
-        this.position.add(x, y, z);
+        transforms.translate(transformSlot, x, y, z);
         invalidate();
     }
 
     public void translate(Vector3 trans) {
-        this.position.add(trans);
-        invalidate();
+        translate(trans.x, trans.y, trans.z);
     }
 
     public void setPosition(float x, float y, float z) {
-        this.position.set(x, y, z);
+        transforms.setPosition(transformSlot, x, y, z);
         invalidate();
     }
 
+    /**
+     * @return a copy of the position that is overwritten by the next call, use the setters to change it
+     */
     public Vector3 getPosition() {
-        return position;
+        return transforms.getPosition(transformSlot, tmpPosition);
     }
 
     public void setPosition(Vector3 pos) {
-        this.position.set(pos);
-        invalidate();
+        setPosition(pos.x, pos.y, pos.z);
     }
 
     public void invalidate() {
         updated = false;
+        transforms.markDirty(transformSlot);
+        if (world != null)
+            world.markDirty(this);
     }
 
+    /**
+     * copies the matrices computed by the world's batched pass, computing them first if the pass has not run yet
+     */
     public void recalculateTransform() {
-        modelInstance.transform.set(position, rotation, scale);
-        inverseTransform.set(position, rotation, scale);
+        transforms.update(transformSlot);
+        transforms.getTransform(transformSlot, modelInstance.transform);
+        transforms.getInverseTransform(transformSlot, inverseTransform);
         updated = true;
     }
 
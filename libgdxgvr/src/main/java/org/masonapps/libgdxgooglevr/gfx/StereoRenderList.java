@@ -0,0 +1,214 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.BlendingAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Array;
+import com.google.vr.sdk.base.Eye;
+
+import org.masonapps.libgdxgooglevr.vr.VrCamera;
+
+import java.util.Comparator;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Culls and sorts the renderables of a {@link World} once per frame so both eyes can replay the same list.
+ * The cull frustum is the left eye's frustum with its right plane taken from the right eye, the eyes only differ by a
+ * sideways offset so that volume contains both of them.
+ * The renderables are collected through {@link World#render(ModelBatch, Environment, Iterable)} so world overrides
+ * still decide what is drawn. An override that flushes the batch to draw directly, like the bullet debug drawer, makes
+ * the list invalid and the screen falls back to rendering the world for each eye.
+ */
+public class StereoRenderList {
+
+    private static final int LEFT_PLANE = 2;
+    private static final int RIGHT_PLANE = 3;
+
+    // only the frustum and position are used, the matrices are copied from the last eye for overrides that need them
+    private final PerspectiveCamera cullCamera = new PerspectiveCamera();
+    private final Frustum frustum = cullCamera.frustum;
+    private final Array<Entity> visibleEntities = new Array<>();
+    private final Array<Renderable> renderables = new Array<>();
+    @Nullable
+    private CollectingBatch batch = null;
+    private final Vector3 cameraPosition = new Vector3();
+    private final Vector3 tmpV1 = new Vector3();
+    private final Vector3 tmpV2 = new Vector3();
+    private final Comparator<Renderable> comparator = new Comparator<Renderable>() {
+        @Override
+        public int compare(Renderable o1, Renderable o2) {
+            final boolean b1 = isBlended(o1.material);
+            final boolean b2 = isBlended(o2.material);
+            if (b1 != b2) return b1 ? 1 : -1;
+            if (b1) {
+                // transparent renderables are drawn back to front
+                final float d1 = o1.worldTransform.getTranslation(tmpV1).dst2(cameraPosition);
+                final float d2 = o2.worldTransform.getTranslation(tmpV2).dst2(cameraPosition);
+                return Float.compare(d2, d1);
+            }
+            if (o1.shader != o2.shader)
+                return compareIdentity(o1.shader, o2.shader);
+            return compareIdentity(o1.material, o2.material);
+        }
+    };
+    private int cullCount = 0;
+    private int sortCount = 0;
+    private boolean valid = false;
+
+    private static boolean isBlended(@Nullable Material material) {
+        if (material == null || !material.has(BlendingAttribute.Type)) return false;
+        return ((BlendingAttribute) material.get(BlendingAttribute.Type)).blended;
+    }
+
+    private static int compareIdentity(Object o1, Object o2) {
+        return Integer.compare(System.identityHashCode(o1), System.identityHashCode(o2));
+    }
+
+    /**
+     * culls the world against both eyes and sorts the result, either eye may be null for a monocular frame
+     */
+    public void build(World world, VrCamera camera, @Nullable Eye leftEye, @Nullable Eye rightEye, Environment environment, ShaderProvider shaderProvider) {
+        clear();
+        if (leftEye == null && rightEye == null) return;
+        if (leftEye != null) {
+            camera.onDrawEye(leftEye);
+            copyPlanes(camera.frustum);
+        }
+        if (rightEye != null) {
+            camera.onDrawEye(rightEye);
+            if (leftEye == null)
+                copyPlanes(camera.frustum);
+            else
+                frustum.planes[RIGHT_PLANE].set(camera.frustum.planes[RIGHT_PLANE]);
+        }
+        cameraPosition.set(camera.position);
+        cullCamera.position.set(camera.position);
+        cullCamera.direction.set(camera.direction);
+        cullCamera.up.set(camera.up);
+        cullCamera.view.set(camera.view);
+        cullCamera.projection.set(camera.projection);
+        cullCamera.combined.set(camera.combined);
+
+        world.getVisibleEntities(frustum, visibleEntities);
+        cullCount++;
+        if (batch == null || batch.getShaderProvider() != shaderProvider)
+            batch = new CollectingBatch(shaderProvider);
+        batch.begin(cullCamera);
+        // already culled against both eyes
+        world.renderCulled(batch, environment, visibleEntities);
+        batch.end();
+        if (batch.flushed) {
+            clear();
+            return;
+        }
+        renderables.addAll(batch.getRenderables());
+        renderables.sort(comparator);
+        sortCount++;
+        valid = true;
+    }
+
+    private void copyPlanes(Frustum source) {
+        for (int i = 0; i < frustum.planes.length; i++) {
+            frustum.planes[i].set(source.planes[i]);
+        }
+    }
+
+    /**
+     * draws the list from the camera, binding each shader once per run of renderables that share it
+     */
+    public void render(Camera camera, RenderContext context) {
+        context.begin();
+        Shader currentShader = null;
+        for (int i = 0; i < renderables.size; i++) {
+            final Renderable renderable = renderables.get(i);
+            if (currentShader != renderable.shader) {
+                if (currentShader != null) currentShader.end();
+                currentShader = renderable.shader;
+                currentShader.begin(camera, context);
+            }
+            currentShader.render(renderable);
+        }
+        if (currentShader != null) currentShader.end();
+        context.end();
+    }
+
+    public void clear() {
+        visibleEntities.clear();
+        renderables.clear();
+        if (batch != null)
+            batch.reset();
+        valid = false;
+    }
+
+    /**
+     * @return true if {@link #build(World, VrCamera, Eye, Eye, Environment, ShaderProvider)} was called since the last {@link #clear()}
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    public int getRenderableCount() {
+        return renderables.size;
+    }
+
+    /**
+     * @return the number of times the world was culled, should grow by one per frame
+     */
+    public int getCullCount() {
+        return cullCount;
+    }
+
+    /**
+     * @return the number of times the renderables were sorted, should grow by one per frame
+     */
+    public int getSortCount() {
+        return sortCount;
+    }
+
+    /**
+     * keeps what the world renders instead of drawing it, the list replays the renderables for each eye
+     */
+    private static class CollectingBatch extends ModelBatch {
+        boolean flushed = false;
+
+        CollectingBatch(ShaderProvider shaderProvider) {
+            super((RenderContext) null, shaderProvider);
+        }
+
+        @Override
+        public void begin(Camera cam) {
+            camera = cam;
+            flushed = false;
+        }
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+
+        @Override
+        public void end() {
+            camera = null;
+        }
+
+        Array<Renderable> getRenderables() {
+            return renderables;
+        }
+
+        void reset() {
+            renderablesPool.flush();
+            renderables.clear();
+        }
+    }
+}
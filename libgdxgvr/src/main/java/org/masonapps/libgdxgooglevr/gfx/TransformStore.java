@@ -0,0 +1,312 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Position, rotation and scale of many objects packed into flat arrays.
+ * Changed slots are kept in a dense dirty list and {@link #update()} rebuilds only their matrices and inverses in one pass.
+ * A slot stays in the list once queued, its dirty flag decides whether the pass rebuilds it, so freeing or updating a
+ * single slot never searches the list.
+ */
+public class TransformStore<T> {
+
+    public static final int NULL_SLOT = -1;
+
+    private float[] positions;
+    private float[] rotations;
+    private float[] scales;
+    private float[] matrices;
+    private float[] inverses;
+    private boolean[] dirtyFlags;
+    private boolean[] queuedFlags;
+    private Object[] userData;
+    private int capacity;
+    private int size = 0;
+    private final IntArray freeSlots = new IntArray();
+    private final IntArray dirtySlots = new IntArray();
+    private final IntArray updatedSlots = new IntArray();
+
+    public TransformStore() {
+        this(16);
+    }
+
+    public TransformStore(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        positions = new float[this.capacity * 3];
+        rotations = new float[this.capacity * 4];
+        scales = new float[this.capacity * 3];
+        matrices = new float[this.capacity * 16];
+        inverses = new float[this.capacity * 16];
+        dirtyFlags = new boolean[this.capacity];
+        queuedFlags = new boolean[this.capacity];
+        userData = new Object[this.capacity];
+    }
+
+    private void grow() {
+        final int oldCapacity = capacity;
+        capacity *= 2;
+        positions = copyOf(positions, capacity * 3);
+        rotations = copyOf(rotations, capacity * 4);
+        scales = copyOf(scales, capacity * 3);
+        matrices = copyOf(matrices, capacity * 16);
+        inverses = copyOf(inverses, capacity * 16);
+        dirtyFlags = copyOf(dirtyFlags, capacity);
+        queuedFlags = copyOf(queuedFlags, capacity);
+        final Object[] newUserData = new Object[capacity];
+        System.arraycopy(userData, 0, newUserData, 0, oldCapacity);
+        userData = newUserData;
+    }
+
+    private static float[] copyOf(float[] array, int length) {
+        final float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    private static boolean[] copyOf(boolean[] array, int length) {
+        final boolean[] copy = new boolean[length];
+        System.arraycopy(array, 0, copy, 0, Math.min(array.length, length));
+        return copy;
+    }
+
+    /**
+     * @return a slot with an identity transform, marked dirty
+     */
+    public int allocate(T data) {
+        final int slot;
+        if (freeSlots.size > 0) {
+            slot = freeSlots.pop();
+        } else {
+            if (size == capacity) grow();
+            slot = size++;
+        }
+        userData[slot] = data;
+        dirtyFlags[slot] = false;
+        setPosition(slot, 0f, 0f, 0f);
+        setRotation(slot, 0f, 0f, 0f, 1f);
+        setScale(slot, 1f, 1f, 1f);
+        return slot;
+    }
+
+    public void free(int slot) {
+        userData[slot] = null;
+        // a queued entry is skipped by the next update unless the slot is reused and dirtied again
+        dirtyFlags[slot] = false;
+        freeSlots.add(slot);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getUserData(int slot) {
+        return (T) userData[slot];
+    }
+
+    public void markDirty(int slot) {
+        if (dirtyFlags[slot]) return;
+        dirtyFlags[slot] = true;
+        if (queuedFlags[slot]) return;
+        queuedFlags[slot] = true;
+        dirtySlots.add(slot);
+    }
+
+    public boolean isDirty(int slot) {
+        return dirtyFlags[slot];
+    }
+
+    /**
+     * @return the number of allocated slots
+     */
+    public int getCount() {
+        return size - freeSlots.size;
+    }
+
+    /**
+     * @return the number of queued slots, an upper bound for the next {@link #update()}
+     */
+    public int getDirtyCount() {
+        return dirtySlots.size;
+    }
+
+    public void setPosition(int slot, float x, float y, float z) {
+        final int i = slot * 3;
+        positions[i] = x;
+        positions[i + 1] = y;
+        positions[i + 2] = z;
+        markDirty(slot);
+    }
+
+    public void translate(int slot, float x, float y, float z) {
+        final int i = slot * 3;
+        positions[i] += x;
+        positions[i + 1] += y;
+        positions[i + 2] += z;
+        markDirty(slot);
+    }
+
+    public Vector3 getPosition(int slot, Vector3 out) {
+        final int i = slot * 3;
+        return out.set(positions[i], positions[i + 1], positions[i + 2]);
+    }
+
+    public float getX(int slot) {
+        return positions[slot * 3];
+    }
+
+    public float getY(int slot) {
+        return positions[slot * 3 + 1];
+    }
+
+    public float getZ(int slot) {
+        return positions[slot * 3 + 2];
+    }
+
+    public void setRotation(int slot, float x, float y, float z, float w) {
+        final int i = slot * 4;
+        rotations[i] = x;
+        rotations[i + 1] = y;
+        rotations[i + 2] = z;
+        rotations[i + 3] = w;
+        markDirty(slot);
+    }
+
+    public Quaternion getRotation(int slot, Quaternion out) {
+        final int i = slot * 4;
+        return out.set(rotations[i], rotations[i + 1], rotations[i + 2], rotations[i + 3]);
+    }
+
+    public void setScale(int slot, float x, float y, float z) {
+        final int i = slot * 3;
+        scales[i] = x;
+        scales[i + 1] = y;
+        scales[i + 2] = z;
+        markDirty(slot);
+    }
+
+    public Vector3 getScale(int slot, Vector3 out) {
+        final int i = slot * 3;
+        return out.set(scales[i], scales[i + 1], scales[i + 2]);
+    }
+
+    /**
+     * @return the matrix of the slot as of the last update
+     */
+    public Matrix4 getTransform(int slot, Matrix4 out) {
+        System.arraycopy(matrices, slot * 16, out.val, 0, 16);
+        return out;
+    }
+
+    public Matrix4 getInverseTransform(int slot, Matrix4 out) {
+        System.arraycopy(inverses, slot * 16, out.val, 0, 16);
+        return out;
+    }
+
+    /**
+     * rebuilds the matrices of the dirty slots and moves them to {@link #getUpdatedSlots()}
+     *
+     * @return the number of matrices rebuilt
+     */
+    public int update() {
+        updatedSlots.clear();
+        final int count = dirtySlots.size;
+        final int[] slots = dirtySlots.items;
+        for (int n = 0; n < count; n++) {
+            final int slot = slots[n];
+            queuedFlags[slot] = false;
+            if (!dirtyFlags[slot]) continue;
+            dirtyFlags[slot] = false;
+            compute(slot);
+            updatedSlots.add(slot);
+        }
+        dirtySlots.clear();
+        return updatedSlots.size;
+    }
+
+    /**
+     * rebuilds a single slot ahead of the next {@link #update()}, the slot is not added to the updated list
+     */
+    public void update(int slot) {
+        if (!dirtyFlags[slot]) return;
+        dirtyFlags[slot] = false;
+        compute(slot);
+    }
+
+    /**
+     * @return the slots rebuilt by the last {@link #update()}
+     */
+    public IntArray getUpdatedSlots() {
+        return updatedSlots;
+    }
+
+    private void compute(int slot) {
+        final int p = slot * 3;
+        final int q = slot * 4;
+        final int m = slot * 16;
+        final float tx = positions[p], ty = positions[p + 1], tz = positions[p + 2];
+        final float qx = rotations[q], qy = rotations[q + 1], qz = rotations[q + 2], qw = rotations[q + 3];
+        final float sx = scales[p], sy = scales[p + 1], sz = scales[p + 2];
+
+        final float xs = qx * 2f, ys = qy * 2f, zs = qz * 2f;
+        final float wx = qw * xs, wy = qw * ys, wz = qw * zs;
+        final float xx = qx * xs, xy = qx * ys, xz = qx * zs;
+        final float yy = qy * ys, yz = qy * zs, zz = qz * zs;
+        final float r00 = 1f - (yy + zz), r01 = xy - wz, r02 = xz + wy;
+        final float r10 = xy + wz, r11 = 1f - (xx + zz), r12 = yz - wx;
+        final float r20 = xz - wy, r21 = yz + wx, r22 = 1f - (xx + yy);
+
+        // column major, same layout as Matrix4.val
+        final float[] mat = matrices;
+        mat[m] = r00 * sx;
+        mat[m + 1] = r10 * sx;
+        mat[m + 2] = r20 * sx;
+        mat[m + 3] = 0f;
+        mat[m + 4] = r01 * sy;
+        mat[m + 5] = r11 * sy;
+        mat[m + 6] = r21 * sy;
+        mat[m + 7] = 0f;
+        mat[m + 8] = r02 * sz;
+        mat[m + 9] = r12 * sz;
+        mat[m + 10] = r22 * sz;
+        mat[m + 11] = 0f;
+        mat[m + 12] = tx;
+        mat[m + 13] = ty;
+        mat[m + 14] = tz;
+        mat[m + 15] = 1f;
+
+        // inverse of T * R * S is S^-1 * R^T * T^-1
+        final float ix = sx != 0f ? 1f / sx : 0f;
+        final float iy = sy != 0f ? 1f / sy : 0f;
+        final float iz = sz != 0f ? 1f / sz : 0f;
+        final float[] inv = inverses;
+        inv[m] = r00 * ix;
+        inv[m + 1] = r01 * iy;
+        inv[m + 2] = r02 * iz;
+        inv[m + 3] = 0f;
+        inv[m + 4] = r10 * ix;
+        inv[m + 5] = r11 * iy;
+        inv[m + 6] = r12 * iz;
+        inv[m + 7] = 0f;
+        inv[m + 8] = r20 * ix;
+        inv[m + 9] = r21 * iy;
+        inv[m + 10] = r22 * iz;
+        inv[m + 11] = 0f;
+        inv[m + 12] = -(inv[m] * tx + inv[m + 4] * ty + inv[m + 8] * tz);
+        inv[m + 13] = -(inv[m + 1] * tx + inv[m + 5] * ty + inv[m + 9] * tz);
+        inv[m + 14] = -(inv[m + 2] * tx + inv[m + 6] * ty + inv[m + 10] * tz);
+        inv[m + 15] = 1f;
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            userData[i] = null;
+            dirtyFlags[i] = false;
+            queuedFlags[i] = false;
+        }
+        size = 0;
+        freeSlots.clear();
+        dirtySlots.clear();
+        updatedSlots.clear();
+    }
+}
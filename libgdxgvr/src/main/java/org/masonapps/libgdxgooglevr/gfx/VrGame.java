@@ -18,9 +18,9 @@ import com.badlogic.gdx.math.collision.Ray;
 import com.google.vr.sdk.base.Eye;
 import com.google.vr.sdk.base.HeadTransform;
 import com.google.vr.sdk.base.Viewport;
-import com.google.vr.sdk.controller.Controller;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamButtonEvent;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
 import org.masonapps.libgdxgooglevr.input.DaydreamTouchEvent;
@@ -157,7 +157,7 @@ public class VrGame extends VrApplicationAdapter implements DaydreamControllerIn
     }
 
     @Override
-    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+    public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
         if (GdxVr.input.isControllerConnected()) {
             ray.set(GdxVr.input.getInputRay());
             if (controllerInstance != null) {
@@ -167,12 +167,12 @@ public class VrGame extends VrApplicationAdapter implements DaydreamControllerIn
     }
 
     @Override
-    public void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event) {
+    public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
 
     }
 
     @Override
-    public void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event) {
+    public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
 
     }
 
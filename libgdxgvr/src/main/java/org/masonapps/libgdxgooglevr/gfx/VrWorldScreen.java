@@ -1,6 +1,7 @@
 package org.masonapps.libgdxgooglevr.gfx;
 
 import android.support.annotation.CallSuper;
+import android.support.annotation.Nullable;
 import android.util.Log;
 
 import com.badlogic.gdx.Gdx;
@@ -15,23 +16,28 @@ import com.badlogic.gdx.graphics.g3d.environment.DirectionalLight;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.google.vr.sdk.base.Eye;
 import com.google.vr.sdk.base.HeadTransform;
 
+import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
+import org.masonapps.libgdxgooglevr.vr.GLTaskScheduler;
 
-import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * Created by Bob on 10/9/2016.
  */
 
 public abstract class VrWorldScreen extends VrScreen implements DaydreamControllerInputListener {
-    private final Queue<Runnable> tasks = new LinkedBlockingQueue<>();
+    protected final StereoRenderList renderList = new StereoRenderList();
     protected Environment environment;
     protected World world;
     private Array<Disposable> disposables = new Array<>();
     private Color backgroundColor = Color.BLACK.cpy();
+    @Nullable
+    private Eye leftEye = null;
+    @Nullable
+    private Eye rightEye = null;
 
     public VrWorldScreen(VrGame game) {
         super(game);
@@ -58,32 +64,43 @@ public abstract class VrWorldScreen extends VrScreen implements DaydreamControll
         return new World();
     }
 
+    @Override
+    public void onDrawFrame(HeadTransform headTransform, Eye leftEye, Eye rightEye) {
+        super.onDrawFrame(headTransform, leftEye, rightEye);
+        this.leftEye = leftEye;
+        this.rightEye = rightEye;
+    }
+
     @Override
     public void onNewFrame(HeadTransform headTransform) {
         super.onNewFrame(headTransform);
         Gdx.gl.glClearColor(backgroundColor.r, backgroundColor.g, backgroundColor.b, backgroundColor.a);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+        // the world has been updated by now, cull and sort it once for both eyes
+        if (leftEye != null || rightEye != null)
+            renderList.build(world, getVrCamera(), leftEye, rightEye, environment, getModelBatch().getShaderProvider());
+        else
+            renderList.clear();
+        leftEye = null;
+        rightEye = null;
     }
 
     @Override
     @CallSuper
     public void update() {
-        performQueuedTasks();
         world.update();
     }
 
-    protected void performQueuedTasks() {
-        while (!tasks.isEmpty()) {
-            tasks.poll().run();
-        }
-    }
-
     @Override
     @CallSuper
     public void render(Camera camera, int whichEye) {
-        getModelBatch().begin(camera);
-        world.render(getModelBatch(), environment);
-        getModelBatch().end();
+        if (renderList.isValid()) {
+            renderList.render(camera, getModelBatch().getRenderContext());
+        } else {
+            getModelBatch().begin(camera);
+            world.render(getModelBatch(), environment);
+            getModelBatch().end();
+        }
     }
 
     @Override
@@ -94,8 +111,15 @@ public abstract class VrWorldScreen extends VrScreen implements DaydreamControll
     public void resume() {
     }
 
+    /**
+     * queues GL work that runs before a later frame within the frame budget, see {@link GLTaskScheduler}
+     */
     public void runOnGLThread(Runnable runnable) {
-        tasks.offer(runnable);
+        runOnGLThread(runnable, GLTaskScheduler.Priority.NORMAL);
+    }
+
+    public void runOnGLThread(Runnable runnable, GLTaskScheduler.Priority priority) {
+        GdxVr.app.postRunnable(runnable, priority);
     }
 
 
@@ -113,6 +137,7 @@ public abstract class VrWorldScreen extends VrScreen implements DaydreamControll
             }
             disposables.clear();
         }
+        renderList.clear();
         if (world != null)
             world.dispose();
         world = null;
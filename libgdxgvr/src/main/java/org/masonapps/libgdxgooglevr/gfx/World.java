@@ -1,12 +1,20 @@
 package org.masonapps.libgdxgooglevr.gfx;
 
+import android.support.annotation.CallSuper;
+import android.support.annotation.Nullable;
+
+import com.badlogic.gdx.graphics.Camera;
 import com.badlogic.gdx.graphics.g3d.Environment;
 import com.badlogic.gdx.graphics.g3d.Model;
 import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.math.Frustum;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ObjectMap;
 
 /**
@@ -16,6 +24,12 @@ public class World implements Disposable {
     public final Array<Entity> entities = new Array<>();
     protected final ObjectMap<String, Constructor<Entity>> constructors = new ObjectMap<>();
     private final Array<Model> models = new Array<>();
+    protected final DynamicAabbTree<Entity> tree = new DynamicAabbTree<>();
+    protected final TransformStore<Entity> transforms = new TransformStore<>();
+    private final Array<Entity> dirtyEntities = new Array<>();
+    private final Array<Entity> visibleEntities = new Array<>();
+    private final Array<Entity> culledEntities = new Array<>();
+    private final BoundingBox tmpBounds = new BoundingBox();
 
     public void addConstructor(final String name, final Constructor<Entity> constructor) {
         constructors.put(name, constructor);
@@ -29,9 +43,60 @@ public class World implements Disposable {
 
     public Entity add(final Entity entity) {
         entities.add(entity);
+        entity.world = this;
+        entity.attachTransform(transforms);
+        entity.updated = false;
+        markDirty(entity);
         return entity;
     }
 
+    void markDirty(Entity entity) {
+        if (entity.boundsDirty) return;
+        entity.boundsDirty = true;
+        dirtyEntities.add(entity);
+    }
+
+    /**
+     * refits the bounds of every entity that was invalidated since the last call
+     */
+    public void updateBounds() {
+        for (int i = 0; i < dirtyEntities.size; i++) {
+            final Entity entity = dirtyEntities.get(i);
+            entity.boundsDirty = false;
+            if (entity.world != this) continue;
+            entity.getTransformedBounds(tmpBounds);
+            if (entity.proxyId == DynamicAabbTree.NULL_NODE)
+                entity.proxyId = tree.createProxy(tmpBounds, entity);
+            else
+                tree.moveProxy(entity.proxyId, tmpBounds);
+        }
+        dirtyEntities.clear();
+    }
+
+    /**
+     * adds the entities whose bounds intersect the camera frustum to out
+     */
+    public void getVisibleEntities(Camera camera, Array<Entity> out) {
+        getVisibleEntities(camera.frustum, out);
+    }
+
+    /**
+     * adds the entities whose bounds intersect the frustum to out
+     */
+    public void getVisibleEntities(Frustum frustum, Array<Entity> out) {
+        updateBounds();
+        tree.query(frustum, out);
+    }
+
+    /**
+     * @return the entity with the closest hit reported by the callback, tested front to back
+     */
+    @Nullable
+    public Entity rayCast(Ray ray, DynamicAabbTree.RayCastCallback<Entity> callback) {
+        updateBounds();
+        return tree.rayCast(ray, callback);
+    }
+
     public Entity add(final String type, final float x, final float y, final float z) {
         final Entity entity = constructors.get(type).construct(x, y, z);
         return add(entity);
@@ -48,42 +113,96 @@ public class World implements Disposable {
     }
 
     public void render(final ModelBatch batch, final Environment lights) {
-        render(batch, lights, entities);
+        visibleEntities.clear();
+        getVisibleEntities(batch.getCamera(), visibleEntities);
+        renderCulled(batch, lights, visibleEntities);
     }
 
+    /**
+     * renders the entities of an arbitrary list that are visible to the camera of the batch
+     */
     public void render(final ModelBatch batch, final Environment lights, final Iterable<Entity> entities) {
+        culledEntities.clear();
         for (final Entity e : entities) {
-            render(batch, lights, e);
+            if (!e.updated) e.recalculateTransform();
+            if (e.isVisible(batch.getCamera()))
+                culledEntities.add(e);
         }
+        renderCulled(batch, lights, culledEntities);
+        culledEntities.clear();
     }
 
     public void render(final ModelBatch batch, final Environment lights, final Entity entity) {
         if (!entity.updated) entity.recalculateTransform();
         if (entity.isVisible(batch.getCamera())) {
-            if (entity.isLightingEnabled()) {
-                if (entity.shader != null)
-                    batch.render(entity.modelInstance, lights, entity.shader);
-                else
-                    batch.render(entity.modelInstance, lights);
-            } else {
-                if (entity.shader != null)
-                    batch.render(entity.modelInstance, entity.shader);
-                else
-                    batch.render(entity.modelInstance);
-            }
+            renderEntity(batch, lights, entity);
         }
     }
 
-    public void update() {
+    /**
+     * Renders entities that were already culled, by the bounds tree or by the iterable overload, so they are not
+     * tested against the camera again. Every render path ends here, override it to change how the world is drawn.
+     */
+    protected void renderCulled(final ModelBatch batch, final Environment lights, final Array<Entity> entities) {
+        for (int i = 0; i < entities.size; i++) {
+            renderEntity(batch, lights, entities.get(i));
+        }
+    }
+
+    private void renderEntity(final ModelBatch batch, final Environment lights, final Entity entity) {
+        if (!entity.updated) entity.recalculateTransform();
+        if (entity.isLightingEnabled()) {
+            if (entity.shader != null)
+                batch.render(entity.modelInstance, lights, entity.shader);
+            else
+                batch.render(entity.modelInstance, lights);
+        } else {
+            if (entity.shader != null)
+                batch.render(entity.modelInstance, entity.shader);
+            else
+                batch.render(entity.modelInstance);
+        }
+    }
 
+    /**
+     * rebuilds the matrices of every entity invalidated since the last call in one pass over the transform store
+     */
+    public void updateTransforms() {
+        transforms.update();
+        final IntArray updatedSlots = transforms.getUpdatedSlots();
+        for (int i = 0; i < updatedSlots.size; i++) {
+            transforms.getUserData(updatedSlots.get(i)).recalculateTransform();
+        }
     }
 
-    @Override
-    public void dispose() {
+    public TransformStore<Entity> getTransforms() {
+        return transforms;
+    }
+
+    @CallSuper
+    public void update() {
+        updateTransforms();
+    }
+
+    /**
+     * removes and disposes every entity
+     */
+    public void clearEntities() {
         for (int i = 0; i < entities.size; i++) {
-            entities.get(i).dispose();
+            final Entity entity = entities.get(i);
+            release(entity);
+            entity.dispose();
         }
         entities.clear();
+        dirtyEntities.clear();
+    }
+
+    @Override
+    public void dispose() {
+        clearEntities();
+        transforms.clear();
+        visibleEntities.clear();
+        tree.clear();
         for (Constructor<Entity> constructor : constructors.values()) {
             constructor.dispose();
         }
@@ -93,6 +212,19 @@ public class World implements Disposable {
 
     public void remove(Entity entity) {
         entities.removeValue(entity, true);
+        release(entity);
+    }
+
+    private void release(Entity entity) {
+        if (entity.world != this) return;
+        if (entity.proxyId != DynamicAabbTree.NULL_NODE)
+            tree.destroyProxy(entity.proxyId);
+        entity.proxyId = DynamicAabbTree.NULL_NODE;
+        if (entity.boundsDirty)
+            dirtyEntities.removeValue(entity, true);
+        entity.boundsDirty = false;
+        entity.detachTransform(transforms);
+        entity.world = null;
     }
 
     public static abstract class Constructor<T extends Entity> implements Disposable {
@@ -0,0 +1,136 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.google.vr.sdk.controller.Controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Single producer single consumer ring of preallocated {@link ControllerState} snapshots. The controller thread
+ * publishes a snapshot per update, the GL thread drains the ring once per frame. Runs of updates that only move the
+ * orientation or touch position are coalesced into the newest one, so the listeners see every button and touch
+ * transition but at most one plain motion update per transition. A full ring does not drop the newest state, the
+ * producer merges it into a pending snapshot that keeps the transitions, see {@link ControllerState#seenDown}.
+ */
+public class ControllerEventRing {
+
+    public static final int DEFAULT_CAPACITY = 32;
+
+    public interface Consumer {
+        void onControllerState(ControllerState state);
+    }
+
+    private final ControllerState[] slots;
+    private final int mask;
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+    private final AtomicLong overflowCount = new AtomicLong();
+    // producer side only
+    private final ControllerState incoming = new ControllerState();
+    private final ControllerState pending = new ControllerState();
+    private boolean hasPending = false;
+    private final ControllerState lastDispatched = new ControllerState();
+    private int lastCoalescedCount = 0;
+
+    public ControllerEventRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    public ControllerEventRing(int capacity) {
+        int size = 1;
+        while (size < capacity) size <<= 1;
+        slots = new ControllerState[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new ControllerState();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * producer side, call on the controller thread after {@link Controller#update()}
+     *
+     * @return false if the ring was full, the snapshot is then merged into a pending one that is published with the
+     * next offer that finds room
+     */
+    public boolean offer(Controller controller, int connectionState) {
+        return offer(incoming.set(controller, connectionState));
+    }
+
+    /**
+     * producer side, the state is copied
+     */
+    public boolean offer(ControllerState state) {
+        if (hasPending) {
+            if (!publish(pending)) {
+                pending.merge(state);
+                overflowCount.incrementAndGet();
+                return false;
+            }
+            hasPending = false;
+        }
+        if (!publish(state)) {
+            // keep the newest state and every transition until the consumer catches up
+            pending.set(state);
+            hasPending = true;
+            overflowCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private boolean publish(ControllerState state) {
+        final long write = writeIndex.get();
+        if (write - readIndex.get() > mask)
+            return false;
+        slots[(int) (write & mask)].set(state);
+        writeIndex.lazySet(write + 1);
+        return true;
+    }
+
+    /**
+     * consumer side, call once per frame on the GL thread
+     *
+     * @return the number of snapshots handed to the consumer
+     */
+    public int drain(Consumer consumer) {
+        final long read = readIndex.get();
+        final long write = writeIndex.get();
+        int dispatched = 0;
+        for (long i = read; i < write; i++) {
+            final ControllerState state = slots[(int) (i & mask)];
+            if (i == write - 1 || state.hasDiscreteChange(lastDispatched)) {
+                lastDispatched.set(state);
+                consumer.onControllerState(state);
+                dispatched++;
+            }
+        }
+        readIndex.lazySet(write);
+        lastCoalescedCount = (int) (write - read) - dispatched;
+        return dispatched;
+    }
+
+    public boolean isEmpty() {
+        return writeIndex.get() == readIndex.get();
+    }
+
+    /**
+     * @return the latest state handed to a consumer
+     */
+    public ControllerState getLastState() {
+        return lastDispatched;
+    }
+
+    public int getLastCoalescedCount() {
+        return lastCoalescedCount;
+    }
+
+    /**
+     * @return the number of snapshots that found the ring full and were merged into the pending one
+     */
+    public long getOverflowCount() {
+        return overflowCount.get();
+    }
+}
@@ -0,0 +1,122 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector2;
+import com.google.vr.sdk.controller.Controller;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Copy of the controller fields read by the input code, taken on the controller thread so the GL thread never reads
+ * the {@link Controller} while it is being updated.
+ */
+public class ControllerState {
+
+    public static final int CLICK_BUTTON = 1;
+    public static final int APP_BUTTON = 1 << 1;
+    public static final int VOLUME_UP_BUTTON = 1 << 2;
+    public static final int VOLUME_DOWN_BUTTON = 1 << 3;
+    public static final int TOUCH = 1 << 4;
+    private static final int ALL = CLICK_BUTTON | APP_BUTTON | VOLUME_UP_BUTTON | VOLUME_DOWN_BUTTON | TOUCH;
+
+    public final Quaternion orientation = new Quaternion();
+    public final Vector2 touch = new Vector2();
+    public boolean isTouching = false;
+    public boolean clickButtonState = false;
+    public boolean appButtonState = false;
+    public boolean volumeUpButtonState = false;
+    public boolean volumeDownButtonState = false;
+    public int connectionState = Controller.ConnectionStates.DISCONNECTED;
+    public long timestampNanos = 0;
+    /**
+     * buttons and touch that were down, or up, in any of the snapshots merged into this one. A single snapshot has only
+     * its current state in here, after {@link #merge(ControllerState)} a press and release between two dispatched
+     * snapshots is still visible even though both show the button up.
+     */
+    public int seenDown = 0;
+    public int seenUp = ALL;
+
+    public ControllerState set(Controller controller, int connectionState) {
+        orientation.set(controller.orientation.x, controller.orientation.y, controller.orientation.z, controller.orientation.w);
+        touch.set(controller.touch.x, controller.touch.y);
+        isTouching = controller.isTouching;
+        clickButtonState = controller.clickButtonState;
+        appButtonState = controller.appButtonState;
+        volumeUpButtonState = controller.volumeUpButtonState;
+        volumeDownButtonState = controller.volumeDownButtonState;
+        this.connectionState = connectionState;
+        timestampNanos = System.nanoTime();
+        return clearTransitions();
+    }
+
+    public ControllerState set(ControllerState other) {
+        orientation.set(other.orientation);
+        touch.set(other.touch);
+        isTouching = other.isTouching;
+        clickButtonState = other.clickButtonState;
+        appButtonState = other.appButtonState;
+        volumeUpButtonState = other.volumeUpButtonState;
+        volumeDownButtonState = other.volumeDownButtonState;
+        connectionState = other.connectionState;
+        timestampNanos = other.timestampNanos;
+        seenDown = other.seenDown;
+        seenUp = other.seenUp;
+        return this;
+    }
+
+    /**
+     * takes the newer state of other and keeps the transitions both have seen
+     */
+    public ControllerState merge(ControllerState other) {
+        final int down = seenDown | other.seenDown;
+        final int up = seenUp | other.seenUp;
+        set(other);
+        seenDown = down;
+        seenUp = up;
+        return this;
+    }
+
+    /**
+     * forgets merged transitions, afterwards {@link #seenDown} and {@link #seenUp} only show the current state
+     */
+    public ControllerState clearTransitions() {
+        seenDown = getDownMask();
+        seenUp = ~seenDown & ALL;
+        return this;
+    }
+
+    public int getDownMask() {
+        int mask = 0;
+        if (clickButtonState) mask |= CLICK_BUTTON;
+        if (appButtonState) mask |= APP_BUTTON;
+        if (volumeUpButtonState) mask |= VOLUME_UP_BUTTON;
+        if (volumeDownButtonState) mask |= VOLUME_DOWN_BUTTON;
+        if (isTouching) mask |= TOUCH;
+        return mask;
+    }
+
+    /**
+     * @return true if something went down and back up, or up and back down, within the merged snapshots
+     */
+    public boolean hasTransientChange() {
+        final int down = getDownMask();
+        return (seenDown & ~down) != 0 || (seenUp & down) != 0;
+    }
+
+    public boolean isConnected() {
+        return connectionState == Controller.ConnectionStates.CONNECTED;
+    }
+
+    /**
+     * @return true if the two states differ in anything other than orientation and touch position, or this one carries
+     * a transition that was merged away
+     */
+    public boolean hasDiscreteChange(ControllerState other) {
+        return isTouching != other.isTouching
+                || clickButtonState != other.clickButtonState
+                || appButtonState != other.appButtonState
+                || volumeUpButtonState != other.volumeUpButtonState
+                || volumeDownButtonState != other.volumeDownButtonState
+                || connectionState != other.connectionState
+                || hasTransientChange();
+    }
+}
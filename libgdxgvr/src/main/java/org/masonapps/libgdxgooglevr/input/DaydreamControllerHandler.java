@@ -18,101 +18,107 @@ public class DaydreamControllerHandler {
     private boolean volumeUpButtonState = false;
     private boolean volumeDownButtonState = false;
     private boolean isTouching = false;
+    private final ControllerState tempState = new ControllerState();
 
     public DaydreamControllerHandler() {
         listeners = new ArrayList<>();
     }
 
+    /**
+     * @deprecated snapshots the controller on the calling thread, pass a {@link ControllerState} taken on the
+     * controller thread to {@link #process(ControllerState)} instead
+     */
+    @Deprecated
     public void process(Controller controller, int connectionState) {
-        for (DaydreamControllerInputListener listener : listeners) {
-            listener.onDaydreamControllerUpdate(controller, connectionState);
+        process(tempState.set(controller, connectionState));
+    }
+
+    /**
+     * dispatches a snapshot taken on the controller thread. A snapshot merged from several updates can carry a press
+     * and release that its button states no longer show, both events are posted for it.
+     */
+    public void process(ControllerState state) {
+        final int connectionState = state.connectionState;
+        for (int i = 0, n = listeners.size(); i < n; i++) {
+            final DaydreamControllerInputListener listener = listeners.get(i);
+            listener.onDaydreamControllerUpdate(state, connectionState);
         }
         
         if (currentConnectionState != connectionState) {
             currentConnectionState = connectionState;
-            for (DaydreamControllerInputListener listener : listeners) {
-                listener.onControllerConnectionStateChange(connectionState);
+            for (int i = 0, n = listeners.size(); i < n; i++) {
+                listeners.get(i).onControllerConnectionStateChange(connectionState);
             }
         }
 
         if (connectionState == Controller.ConnectionStates.CONNECTED) {
-            if (controller.clickButtonState) {
-                if (!clickButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_DOWN, DaydreamButtonEvent.BUTTON_TOUCHPAD);
-                }
-                clickButtonState = true;
-            } else {
-                if (clickButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_UP, DaydreamButtonEvent.BUTTON_TOUCHPAD);
-                }
-                clickButtonState = false;
-            }
-            if (controller.appButtonState) {
-                if (!appButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_DOWN, DaydreamButtonEvent.BUTTON_APP);
-                }
-                appButtonState = true;
-            } else {
-                if (appButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_UP, DaydreamButtonEvent.BUTTON_APP);
-                }
-                appButtonState = false;
-            }
-            if (controller.volumeUpButtonState) {
-                if (!volumeUpButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_DOWN, DaydreamButtonEvent.BUTTON_VOLUME_UP);
-                }
-                volumeUpButtonState = true;
-            } else {
-                if (volumeUpButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_UP, DaydreamButtonEvent.BUTTON_VOLUME_UP);
-                }
-                volumeUpButtonState = false;
-            }
-            if (controller.volumeDownButtonState) {
-                if (!volumeDownButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_DOWN, DaydreamButtonEvent.BUTTON_VOLUME_DOWN);
-                }
-                volumeDownButtonState = true;
-            } else {
-                if (volumeDownButtonState) {
-                    postButtonEvent(controller, DaydreamButtonEvent.ACTION_UP, DaydreamButtonEvent.BUTTON_VOLUME_DOWN);
-                }
-                volumeDownButtonState = false;
-            }
-            if (controller.isTouching) {
+            clickButtonState = processButton(state, clickButtonState, state.clickButtonState, ControllerState.CLICK_BUTTON, DaydreamButtonEvent.BUTTON_TOUCHPAD);
+            appButtonState = processButton(state, appButtonState, state.appButtonState, ControllerState.APP_BUTTON, DaydreamButtonEvent.BUTTON_APP);
+            volumeUpButtonState = processButton(state, volumeUpButtonState, state.volumeUpButtonState, ControllerState.VOLUME_UP_BUTTON, DaydreamButtonEvent.BUTTON_VOLUME_UP);
+            volumeDownButtonState = processButton(state, volumeDownButtonState, state.volumeDownButtonState, ControllerState.VOLUME_DOWN_BUTTON, DaydreamButtonEvent.BUTTON_VOLUME_DOWN);
+            final boolean touchSeenUp = (state.seenUp & ControllerState.TOUCH) != 0;
+            final boolean touchSeenDown = (state.seenDown & ControllerState.TOUCH) != 0;
+            if (state.isTouching) {
                 if (!isTouching) {
-                    postTouchPadEvent(controller, DaydreamTouchEvent.ACTION_DOWN, controller.touch.x, controller.touch.y);
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_DOWN, state.touch.x, state.touch.y);
+                } else if (touchSeenUp) {
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_UP, state.touch.x, state.touch.y);
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_DOWN, state.touch.x, state.touch.y);
                 }
                 isTouching = true;
-                postTouchPadEvent(controller, DaydreamTouchEvent.ACTION_MOVE, controller.touch.x, controller.touch.y);
+                postTouchPadEvent(state, DaydreamTouchEvent.ACTION_MOVE, state.touch.x, state.touch.y);
             } else {
                 if (isTouching) {
-                    postTouchPadEvent(controller, DaydreamTouchEvent.ACTION_UP, controller.touch.x, controller.touch.y);
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_UP, state.touch.x, state.touch.y);
+                } else if (touchSeenDown) {
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_DOWN, state.touch.x, state.touch.y);
+                    postTouchPadEvent(state, DaydreamTouchEvent.ACTION_UP, state.touch.x, state.touch.y);
                 }
                 isTouching = false;
             }
         }
     }
 
-    private void postButtonEvent(Controller controller, int action, int button) {
+    /**
+     * @return the new state of the button
+     */
+    private boolean processButton(ControllerState state, boolean wasDown, boolean isDown, int bit, int button) {
+        if (isDown) {
+            if (!wasDown) {
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_DOWN, button);
+            } else if ((state.seenUp & bit) != 0) {
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_UP, button);
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_DOWN, button);
+            }
+        } else {
+            if (wasDown) {
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_UP, button);
+            } else if ((state.seenDown & bit) != 0) {
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_DOWN, button);
+                postButtonEvent(state, DaydreamButtonEvent.ACTION_UP, button);
+            }
+        }
+        return isDown;
+    }
+
+    private void postButtonEvent(ControllerState state, int action, int button) {
         DaydreamButtonEvent event = Pools.obtain(DaydreamButtonEvent.class);
         event.action = action;
         event.button = button;
-        for (DaydreamControllerInputListener listener : listeners) {
-            listener.onControllerButtonEvent(controller, event);
+        for (int i = 0, n = listeners.size(); i < n; i++) {
+            listeners.get(i).onControllerButtonEvent(state, event);
         }
         Pools.free(event);
 
     }
 
-    private void postTouchPadEvent(Controller controller, int action, float x, float y) {
+    private void postTouchPadEvent(ControllerState state, int action, float x, float y) {
         DaydreamTouchEvent event = Pools.obtain(DaydreamTouchEvent.class);
         event.action = action;
         event.x = x;
         event.y = y;
-        for (DaydreamControllerInputListener listener : listeners) {
-            listener.onControllerTouchPadEvent(controller, event);
+        for (int i = 0, n = listeners.size(); i < n; i++) {
+            listeners.get(i).onControllerTouchPadEvent(state, event);
         }
         Pools.free(event);
     }
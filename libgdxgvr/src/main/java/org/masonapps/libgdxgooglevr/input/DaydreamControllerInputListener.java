@@ -1,18 +1,18 @@
 package org.masonapps.libgdxgooglevr.input;
 
-import com.google.vr.sdk.controller.Controller;
-
 /**
  * Created by Bob on 1/9/2017.
+ * Called on the GL thread with a snapshot of the controller, the controller object itself belongs to the controller
+ * thread.
  */
 
 public interface DaydreamControllerInputListener {
 
-    void onDaydreamControllerUpdate(Controller controller, int connectionState);
+    void onDaydreamControllerUpdate(ControllerState state, int connectionState);
 
-    void onControllerButtonEvent(Controller controller, DaydreamButtonEvent event);
+    void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event);
 
-    void onControllerTouchPadEvent(Controller controller, DaydreamTouchEvent event);
+    void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event);
 
     void onControllerConnectionStateChange(int connectionState);
 }
@@ -0,0 +1,302 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Bounding volume hierarchy of axis aligned boxes over the processors of a {@link VrUiContainer}. The topology is only
+ * rebuilt by {@link #build()}, moving processors just refits the boxes. Ray casts visit children front to back and skip
+ * every box that starts beyond the nearest hit found so far.
+ */
+public class ProcessorBoundsTree {
+
+    public interface LeafTest {
+        /**
+         * @param nearestDistance distance of the nearest hit so far, {@link Float#POSITIVE_INFINITY} before the first hit
+         * @return the distance along the ray to the hit, or a negative value for a miss
+         */
+        float rayTest(int leaf, float nearestDistance);
+    }
+
+    private static final int BOUNDS_STRIDE = 6;
+    private static final float EPSILON = 1e-6f;
+
+    private int leafCount = 0;
+    private int nodeCount = 0;
+    // min x, y, z and max x, y, z per leaf and per node, an empty box has min > max
+    private float[] leafBounds = new float[0];
+    private float[] nodeBounds = new float[0];
+    // children of an internal node, a leaf node stores its leaf index in left and -1 in right
+    private int[] left = new int[0];
+    private int[] right = new int[0];
+    private int[] order = new int[0];
+    private int[] stack = new int[0];
+    private float[] stackDistances = new float[0];
+    private float hitDistance = Float.POSITIVE_INFINITY;
+    // ray in the form used by the slab test
+    private float ox, oy, oz, invDx, invDy, invDz;
+
+    public void setLeafCount(int leafCount) {
+        this.leafCount = leafCount;
+        if (leafBounds.length < leafCount * BOUNDS_STRIDE) {
+            final int nodes = Math.max(leafCount * 2 - 1, 1);
+            leafBounds = new float[leafCount * BOUNDS_STRIDE];
+            nodeBounds = new float[nodes * BOUNDS_STRIDE];
+            left = new int[nodes];
+            right = new int[nodes];
+            order = new int[leafCount];
+            stack = new int[nodes];
+            stackDistances = new float[nodes];
+        }
+        for (int i = 0; i < leafCount; i++) {
+            setEmpty(leafBounds, i * BOUNDS_STRIDE);
+        }
+        nodeCount = 0;
+    }
+
+    public int getLeafCount() {
+        return leafCount;
+    }
+
+    /**
+     * @param box an empty box, as left by {@link BoundingBox#inf()}, is never hit
+     * @return true if the bounds changed
+     */
+    public boolean setLeafBounds(int leaf, BoundingBox box) {
+        if (isEmpty(box)) return setLeafEmpty(leaf);
+        return setLeafBounds(leaf, box.min.x, box.min.y, box.min.z, box.max.x, box.max.y, box.max.z);
+    }
+
+    /**
+     * for processors without known bounds, they are tested by every ray cast
+     */
+    public boolean setLeafUnbounded(int leaf) {
+        final float inf = Float.POSITIVE_INFINITY;
+        return setLeafBounds(leaf, -inf, -inf, -inf, inf, inf, inf);
+    }
+
+    public boolean setLeafEmpty(int leaf) {
+        final float inf = Float.POSITIVE_INFINITY;
+        return setLeafBounds(leaf, inf, inf, inf, -inf, -inf, -inf);
+    }
+
+    private boolean setLeafBounds(int leaf, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        final int o = leaf * BOUNDS_STRIDE;
+        final float[] b = leafBounds;
+        if (b[o] == minX && b[o + 1] == minY && b[o + 2] == minZ && b[o + 3] == maxX && b[o + 4] == maxY && b[o + 5] == maxZ)
+            return false;
+        b[o] = minX;
+        b[o + 1] = minY;
+        b[o + 2] = minZ;
+        b[o + 3] = maxX;
+        b[o + 4] = maxY;
+        b[o + 5] = maxZ;
+        return true;
+    }
+
+    /**
+     * rebuilds the hierarchy from the current leaf bounds by splitting at the median center along the longest axis
+     */
+    public void build() {
+        nodeCount = 0;
+        if (leafCount == 0) return;
+        for (int i = 0; i < leafCount; i++) {
+            order[i] = i;
+        }
+        buildNode(0, leafCount);
+        refit();
+    }
+
+    private int buildNode(int start, int end) {
+        final int node = nodeCount++;
+        if (end - start == 1) {
+            left[node] = order[start];
+            right[node] = -1;
+            return node;
+        }
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            final int o = order[i] * BOUNDS_STRIDE;
+            final float x = center(o), y = center(o + 1), z = center(o + 2);
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        final float sizeX = maxX - minX, sizeY = maxY - minY, sizeZ = maxZ - minZ;
+        final int axis = sizeX >= sizeY && sizeX >= sizeZ ? 0 : (sizeY >= sizeZ ? 1 : 2);
+        // containers hold a few dozen processors at most, an insertion sort is enough
+        for (int i = start + 1; i < end; i++) {
+            final int leaf = order[i];
+            final float c = center(leaf * BOUNDS_STRIDE + axis);
+            int j = i - 1;
+            while (j >= start && center(order[j] * BOUNDS_STRIDE + axis) > c) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = leaf;
+        }
+        final int mid = (start + end) >>> 1;
+        left[node] = buildNode(start, mid);
+        right[node] = buildNode(mid, end);
+        return node;
+    }
+
+    /**
+     * center along one axis, 0 for empty or unbounded leaves so they do not skew the split
+     */
+    private float center(int i) {
+        final float c = (leafBounds[i] + leafBounds[i + 3]) * 0.5f;
+        return Float.isNaN(c) || Float.isInfinite(c) ? 0f : c;
+    }
+
+    /**
+     * updates the node boxes from the leaf boxes without changing the hierarchy
+     */
+    public void refit() {
+        // children always have a higher index than their parent
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            final int o = node * BOUNDS_STRIDE;
+            if (right[node] == -1) {
+                System.arraycopy(leafBounds, left[node] * BOUNDS_STRIDE, nodeBounds, o, BOUNDS_STRIDE);
+                continue;
+            }
+            final int l = left[node] * BOUNDS_STRIDE;
+            final int r = right[node] * BOUNDS_STRIDE;
+            for (int i = 0; i < 3; i++) {
+                nodeBounds[o + i] = Math.min(nodeBounds[l + i], nodeBounds[r + i]);
+                nodeBounds[o + i + 3] = Math.max(nodeBounds[l + i + 3], nodeBounds[r + i + 3]);
+            }
+        }
+    }
+
+    /**
+     * @param ray with a normalized direction, so box entry distances compare with the hit distances of the leaf test
+     * @return the index of the leaf with the nearest hit or -1, see {@link #getHitDistance()}
+     */
+    public int rayCast(Ray ray, LeafTest test) {
+        hitDistance = Float.POSITIVE_INFINITY;
+        if (nodeCount == 0) return -1;
+        setRay(ray);
+        int nearest = -1;
+        final float rootDistance = entryDistance(0);
+        if (rootDistance < 0f) return -1;
+        int size = 0;
+        stack[size] = 0;
+        stackDistances[size++] = rootDistance;
+        while (size > 0) {
+            size--;
+            final int node = stack[size];
+            if (stackDistances[size] > hitDistance) continue;
+            if (right[node] == -1) {
+                final float distance = test.rayTest(left[node], hitDistance);
+                if (distance >= 0f && distance < hitDistance) {
+                    hitDistance = distance;
+                    nearest = left[node];
+                }
+                continue;
+            }
+            final float dl = entryDistance(left[node]);
+            final float dr = entryDistance(right[node]);
+            // the nearer child is pushed last so it is visited first
+            if (dl >= 0f && dr >= 0f) {
+                final boolean leftFirst = dl <= dr;
+                stack[size] = leftFirst ? right[node] : left[node];
+                stackDistances[size++] = leftFirst ? dr : dl;
+                stack[size] = leftFirst ? left[node] : right[node];
+                stackDistances[size++] = leftFirst ? dl : dr;
+            } else if (dl >= 0f) {
+                stack[size] = left[node];
+                stackDistances[size++] = dl;
+            } else if (dr >= 0f) {
+                stack[size] = right[node];
+                stackDistances[size++] = dr;
+            }
+        }
+        return nearest;
+    }
+
+    public float getHitDistance() {
+        return hitDistance;
+    }
+
+    /**
+     * @return false if there is nothing to bound or a leaf is unbounded, out is left unchanged then
+     */
+    public boolean getBounds(BoundingBox out) {
+        if (nodeCount == 0) return false;
+        final float[] b = nodeBounds;
+        for (int i = 0; i < BOUNDS_STRIDE; i++) {
+            if (Float.isInfinite(b[i]) && (i < 3 ? b[i] < 0f : b[i] > 0f))
+                return false;
+        }
+        if (b[0] > b[3]) {
+            out.inf();
+            return true;
+        }
+        out.inf();
+        out.ext(b[0], b[1], b[2]);
+        out.ext(b[3], b[4], b[5]);
+        return true;
+    }
+
+    private void setRay(Ray ray) {
+        ox = ray.origin.x;
+        oy = ray.origin.y;
+        oz = ray.origin.z;
+        invDx = Math.abs(ray.direction.x) < EPSILON ? 0f : 1f / ray.direction.x;
+        invDy = Math.abs(ray.direction.y) < EPSILON ? 0f : 1f / ray.direction.y;
+        invDz = Math.abs(ray.direction.z) < EPSILON ? 0f : 1f / ray.direction.z;
+    }
+
+    /**
+     * slab test against a node box
+     *
+     * @return the distance at which the ray enters the box, 0 if it starts inside, or -1 for a miss
+     */
+    private float entryDistance(int node) {
+        final int o = node * BOUNDS_STRIDE;
+        final float[] b = nodeBounds;
+        if (b[o] > b[o + 3]) return -1f;
+        float near = 0f;
+        float far = Float.POSITIVE_INFINITY;
+        for (int axis = 0; axis < 3; axis++) {
+            final float origin = axis == 0 ? ox : (axis == 1 ? oy : oz);
+            final float inv = axis == 0 ? invDx : (axis == 1 ? invDy : invDz);
+            final float min = b[o + axis];
+            final float max = b[o + axis + 3];
+            if (inv == 0f) {
+                // parallel to the slab
+                if (origin < min || origin > max) return -1f;
+                continue;
+            }
+            float t0 = (min - origin) * inv;
+            float t1 = (max - origin) * inv;
+            if (t0 > t1) {
+                final float t = t0;
+                t0 = t1;
+                t1 = t;
+            }
+            if (t0 > near) near = t0;
+            if (t1 < far) far = t1;
+            if (near > far) return -1f;
+        }
+        return near;
+    }
+
+    /**
+     * unlike {@link BoundingBox#isValid()} a flat box, such as the one around a panel, is not empty
+     */
+    public static boolean isEmpty(BoundingBox box) {
+        return box.min.x > box.max.x || box.min.y > box.max.y || box.min.z > box.max.z;
+    }
+
+    private static void setEmpty(float[] bounds, int offset) {
+        bounds[offset] = bounds[offset + 1] = bounds[offset + 2] = Float.POSITIVE_INFINITY;
+        bounds[offset + 3] = bounds[offset + 4] = bounds[offset + 5] = Float.NEGATIVE_INFINITY;
+    }
+}
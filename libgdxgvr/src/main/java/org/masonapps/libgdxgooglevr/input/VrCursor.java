@@ -9,6 +9,7 @@ import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.Disposable;
 import com.badlogic.gdx.utils.Pools;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
@@ -17,7 +18,7 @@ import org.masonapps.libgdxgooglevr.GdxVr;
  * Created by Bob on 12/28/2016.
  */
 
-public class VrCursor {
+public class VrCursor implements Disposable {
 
     private static final String UNIFORM_CAMERATRANSFORM = "u_projTrans";
     private static final String UNIFORM_WORLDTRANSFORM = "u_worldTrans";
@@ -134,4 +135,10 @@ public class VrCursor {
     public void setVisible(boolean visible) {
         this.visible = visible;
     }
+
+    @Override
+    public void dispose() {
+        mesh.dispose();
+        shader.dispose();
+    }
 }
@@ -3,14 +3,18 @@ package org.masonapps.libgdxgooglevr.input;
 import android.support.annotation.Nullable;
 
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.utils.Disposable;
 
+import org.masonapps.libgdxgooglevr.GdxVr;
 import org.masonapps.libgdxgooglevr.ui.VirtualStage;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -21,6 +25,8 @@ import java.util.Collections;
 
 public class VrUiContainer implements VrInputProcessor, Disposable {
 
+    public static final float DEFAULT_RAY_MOVE_THRESHOLD = 0.001f;
+    public static final float DEFAULT_RAY_ANGLE_THRESHOLD_DEG = 0.05f;
     private static final Vector3 dir = new Vector3();
     private static final Vector3 tmp = new Vector3();
     private static final Vector3 tmp2 = new Vector3();
@@ -39,6 +45,33 @@ public class VrUiContainer implements VrInputProcessor, Disposable {
     @Nullable
     private VrInputProcessor focusedProcessor;
     private boolean visible = true;
+    private final ProcessorBoundsTree boundsTree = new ProcessorBoundsTree();
+    private final BoundingBox tmpBox = new BoundingBox();
+    private boolean boundsTreeDirty = true;
+    // the last ray that was actually tested, a new ray closer than the thresholds reuses its result
+    private final Ray lastRay = new Ray();
+    private boolean rayTestDirty = true;
+    private float rayMoveThreshold = DEFAULT_RAY_MOVE_THRESHOLD;
+    private float rayAngleThresholdCos = (float) Math.cos(DEFAULT_RAY_ANGLE_THRESHOLD_DEG * MathUtils.degreesToRadians);
+    @Nullable
+    private VrInputProcessor nearestCandidate;
+    private final ProcessorBoundsTree.LeafTest leafTest = new ProcessorBoundsTree.LeafTest() {
+        @Override
+        public float rayTest(int leaf, float nearestDistance) {
+            final VrInputProcessor processor = processors.get(leaf);
+            if (!processor.performRayTest(transformedRay)) return -1f;
+            final float distance = transformedRay.origin.dst(processor.getHitPoint3D());
+            // only the nearest processor keeps the cursor
+            if (distance >= nearestDistance) {
+                clearCursorOver(processor);
+                return -1f;
+            }
+            if (nearestCandidate != null)
+                clearCursorOver(nearestCandidate);
+            nearestCandidate = processor;
+            return distance;
+        }
+    };
 
     public VrUiContainer() {
         processors = new ArrayList<>();
@@ -178,47 +211,147 @@ public class VrUiContainer implements VrInputProcessor, Disposable {
         transform.idt().set(position, rotation);
         invTransform.set(transform).inv();
         updated = true;
+        rayTestDirty = true;
     }
 
+    /**
+     * Tests the processors front to back through a bounds hierarchy and focuses the nearest hit. Nothing is tested
+     * while the ray stays within the move thresholds of the last tested ray and no processor moved.
+     */
     @Override
     public boolean performRayTest(Ray ray) {
         if (!visible) return false;
         if (!updated) recalculateTransform();
+        updateBounds();
+        if (!rayTestDirty && isWithinThreshold(ray)) return isCursorOver;
+        rayTestDirty = false;
+        lastRay.set(ray);
+        final VrInputProcessor previous = focusedProcessor;
         focusedProcessor = null;
         isCursorOver = false;
         transformedRay.origin.set(ray.origin).mul(invTransform);
-        transformedRay.direction.set(ray.direction).mul(invTransform);
-        for (VrInputProcessor inputProcessor : processors) {
-            if (inputProcessor.performRayTest(transformedRay)) {
-                focusedProcessor = inputProcessor;
-                hitPoint2DPixels.set(inputProcessor.getHitPoint2D());
-                hitPoint3D.set(inputProcessor.getHitPoint3D()).mul(transform);
-                isCursorOver = true;
-            }
+        transformedRay.direction.set(ray.direction).rot(invTransform).nor();
+        nearestCandidate = null;
+        final int leaf = boundsTree.rayCast(transformedRay, leafTest);
+        nearestCandidate = null;
+        if (leaf >= 0) {
+            focusedProcessor = processors.get(leaf);
+            hitPoint2DPixels.set(focusedProcessor.getHitPoint2D());
+            hitPoint3D.set(focusedProcessor.getHitPoint3D()).mul(transform);
+            isCursorOver = true;
         }
+        // the previous focus may have been skipped by the traversal
+        if (previous != null && previous != focusedProcessor)
+            clearCursorOver(previous);
         return isCursorOver;
     }
 
+    private boolean isWithinThreshold(Ray ray) {
+        if (lastRay.origin.dst2(ray.origin) > rayMoveThreshold * rayMoveThreshold) return false;
+        final float dot = lastRay.direction.dot(ray.direction);
+        return dot > 0f && dot * dot >= rayAngleThresholdCos * rayAngleThresholdCos * lastRay.direction.len2() * ray.direction.len2();
+    }
+
+    /**
+     * refits the bounds of every processor and rebuilds the hierarchy after processors were added or removed
+     */
+    private void updateBounds() {
+        final int n = processors.size();
+        if (boundsTreeDirty)
+            boundsTree.setLeafCount(n);
+        boolean changed = false;
+        for (int i = 0; i < n; i++) {
+            final VrInputProcessor processor = processors.get(i);
+            if (processor instanceof VirtualStage)
+                changed |= boundsTree.setLeafBounds(i, ((VirtualStage) processor).getBounds(tmpBox));
+            else if (processor instanceof VrUiContainer && ((VrUiContainer) processor).getBounds(tmpBox))
+                changed |= boundsTree.setLeafBounds(i, tmpBox);
+            else
+                changed |= boundsTree.setLeafUnbounded(i);
+        }
+        if (boundsTreeDirty) {
+            boundsTree.build();
+            boundsTreeDirty = false;
+            rayTestDirty = true;
+        } else if (changed) {
+            boundsTree.refit();
+            rayTestDirty = true;
+        }
+    }
+
+    /**
+     * @param out set to the box around all processors in the space of the parent, empty while nothing can be hit
+     * @return false if a processor has no known bounds, out is undefined then
+     */
+    public boolean getBounds(BoundingBox out) {
+        out.inf();
+        if (!visible) return true;
+        if (!updated) recalculateTransform();
+        updateBounds();
+        if (!boundsTree.getBounds(out)) return false;
+        if (!ProcessorBoundsTree.isEmpty(out))
+            out.mul(transform);
+        return true;
+    }
+
+    private static void clearCursorOver(VrInputProcessor processor) {
+        if (processor instanceof VirtualStage)
+            ((VirtualStage) processor).clearCursorOver();
+        else if (processor instanceof VrUiContainer)
+            ((VrUiContainer) processor).clearCursorOver();
+    }
+
+    public void clearCursorOver() {
+        if (focusedProcessor != null)
+            clearCursorOver(focusedProcessor);
+        focusedProcessor = null;
+        isCursorOver = false;
+        rayTestDirty = true;
+    }
+
+    /**
+     * forces the next ray test to run, for changes to processors that do not move their bounds
+     */
+    public void invalidateRayTest() {
+        rayTestDirty = true;
+    }
+
+    /**
+     * @param distance how far the ray origin can move before it is tested again
+     * @param angleDeg how far the ray direction can turn before it is tested again
+     */
+    public void setRayMoveThreshold(float distance, float angleDeg) {
+        rayMoveThreshold = distance;
+        rayAngleThresholdCos = (float) Math.cos(angleDeg * MathUtils.degreesToRadians);
+        rayTestDirty = true;
+    }
+
     public void act() {
         if (!visible) return;
+        GdxVr.profiler.begin(FrameProfiler.Phase.UI_ACT);
         if (!updated) recalculateTransform();
-        for (VrInputProcessor processor : processors) {
+        for (int i = 0, n = processors.size(); i < n; i++) {
+            final VrInputProcessor processor = processors.get(i);
             if (processor instanceof VirtualStage)
                 ((VirtualStage) processor).act();
             if (processor instanceof VrUiContainer)
                 ((VrUiContainer) processor).act();
         }
+        GdxVr.profiler.end();
     }
 
     public void draw(Camera camera) {
         if (!visible) return;
+        GdxVr.profiler.begin(FrameProfiler.Phase.UI_DRAW);
         if (!updated) recalculateTransform();
-        for (VrInputProcessor processor : processors) {
+        for (int i = 0, n = processors.size(); i < n; i++) {
+            final VrInputProcessor processor = processors.get(i);
             if (processor instanceof VirtualStage)
                 ((VirtualStage) processor).draw(camera, transform);
             if (processor instanceof VrUiContainer)
                 ((VrUiContainer) processor).draw(camera);
         }
+        GdxVr.profiler.end();
     }
 
     @Override
@@ -238,14 +371,21 @@ public class VrUiContainer implements VrInputProcessor, Disposable {
 
     public void addProcessor(VrInputProcessor processor) {
         processors.add(processor);
+        boundsTreeDirty = true;
     }
 
     public void removeProcessor(VirtualStage stage) {
-        processors.remove(stage);
+        if (processors.remove(stage)) {
+            if (focusedProcessor == stage)
+                focusedProcessor = null;
+            boundsTreeDirty = true;
+        }
     }
 
     public void clearProcessors() {
         processors.clear();
+        focusedProcessor = null;
+        boundsTreeDirty = true;
     }
 
     @Override
@@ -294,6 +434,7 @@ public class VrUiContainer implements VrInputProcessor, Disposable {
 
     public void setVisible(boolean visible) {
         this.visible = visible;
+        rayTestDirty = true;
     }
 
     @Override
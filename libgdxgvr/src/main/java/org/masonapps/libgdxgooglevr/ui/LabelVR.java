@@ -50,6 +50,7 @@ public class LabelVR extends VirtualStage {
 
     public void setStyle(Label.LabelStyle style) {
         label.setStyle(style);
+        invalidateCache();
     }
 
     public StringBuilder getText () {
@@ -58,6 +59,7 @@ public class LabelVR extends VirtualStage {
 
     public void setText(CharSequence newText) {
         label.setText(newText);
+        invalidateCache();
     }
 
     public GlyphLayout getGlyphLayout () {
@@ -77,20 +79,25 @@ public class LabelVR extends VirtualStage {
     }
     public void setWrap (boolean wrap) {
         label.setWrap(wrap);
+        invalidateCache();
     }
     
     public void setAlignment (int alignment) {
         label.setAlignment(alignment);
+        invalidateCache();
     }
     public void setAlignment (int labelAlign, int lineAlign) {
         label.setAlignment(labelAlign, lineAlign);
+        invalidateCache();
     }
     
     public void setEllipsis (String ellipsis) {
         label.setEllipsis(ellipsis);
+        invalidateCache();
     }
     
     public void setEllipsis (boolean ellipsis) {
         label.setEllipsis(ellipsis);
+        invalidateCache();
     }
 }
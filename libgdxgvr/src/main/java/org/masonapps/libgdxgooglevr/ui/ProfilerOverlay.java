@@ -0,0 +1,87 @@
+package org.masonapps.libgdxgooglevr.ui;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+
+import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Shows p50 / p99 / max of every profiled phase of {@link GdxVr#profiler} in the scene, enables the profiler while visible.
+ * The first line is the history of the recent frames, see {@link FrameProfiler#appendFrameHistory(StringBuilder, int, long)}.
+ */
+public class ProfilerOverlay extends LabelVR {
+
+    public static final int DEFAULT_REFRESH_FRAMES = 30;
+    public static final int DEFAULT_HISTORY_FRAMES = 60;
+    public static final long DEFAULT_FRAME_BUDGET_NANOS = 1000000000L / 60;
+
+    private final java.lang.StringBuilder summary = new java.lang.StringBuilder();
+    private int refreshFrames = DEFAULT_REFRESH_FRAMES;
+    private int historyFrames = DEFAULT_HISTORY_FRAMES;
+    private long frameBudgetNanos = DEFAULT_FRAME_BUDGET_NANOS;
+    private int frameCounter = 0;
+
+    public ProfilerOverlay(Batch batch, Skin skin) {
+        this(batch, skin.get(Label.LabelStyle.class));
+    }
+
+    public ProfilerOverlay(Batch batch, Label.LabelStyle labelStyle) {
+        super("profiler", batch, labelStyle);
+        GdxVr.profiler.setEnabled(true);
+    }
+
+    @Override
+    public void act(float delta) {
+        if (++frameCounter >= refreshFrames) {
+            frameCounter = 0;
+            refresh();
+        }
+        super.act(delta);
+    }
+
+    private void refresh() {
+        final FrameProfiler profiler = GdxVr.profiler;
+        summary.setLength(0);
+        profiler.appendFrameHistory(summary, historyFrames, frameBudgetNanos);
+        summary.append("phase p50 / p99 / max\n");
+        profiler.appendSummary(summary);
+        if (textEquals(summary)) return;
+        setText(summary);
+        label.pack();
+        setSize((int) label.getWidth(), (int) label.getHeight());
+        invalidate();
+    }
+
+    public int getRefreshFrames() {
+        return refreshFrames;
+    }
+
+    public void setRefreshFrames(int refreshFrames) {
+        this.refreshFrames = Math.max(refreshFrames, 1);
+    }
+
+    public int getHistoryFrames() {
+        return historyFrames;
+    }
+
+    public void setHistoryFrames(int historyFrames) {
+        this.historyFrames = Math.max(historyFrames, 1);
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        this.frameBudgetNanos = Math.max(frameBudgetNanos, 1);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        GdxVr.profiler.setEnabled(visible);
+    }
+}
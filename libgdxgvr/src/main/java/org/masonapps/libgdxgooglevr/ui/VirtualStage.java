@@ -2,26 +2,36 @@ package org.masonapps.libgdxgooglevr.ui;
 
 import android.support.annotation.Nullable;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.math.Interpolation;
-import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
 import com.badlogic.gdx.math.Plane;
 import com.badlogic.gdx.math.Quaternion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
 import com.badlogic.gdx.math.collision.Ray;
 import com.badlogic.gdx.scenes.scene2d.Actor;
+import com.badlogic.gdx.scenes.scene2d.Group;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.scenes.scene2d.Touchable;
+import com.badlogic.gdx.utils.BufferUtils;
 import com.badlogic.gdx.utils.Pools;
+import com.badlogic.gdx.utils.SnapshotArray;
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 
 import org.masonapps.libgdxgooglevr.input.VrInputProcessor;
-import org.masonapps.libgdxgooglevr.math.PlaneUtils;
+
+import java.nio.IntBuffer;
 
 
 /**
@@ -51,12 +61,27 @@ public class VirtualStage extends Stage implements VrInputProcessor {
     private float radius;
     private Matrix4 batchTransform = new Matrix4();
     private Matrix4 inverseTransform = new Matrix4();
+    private final Ray localRay = new Ray();
+    private final Vector3 tmpCorner = new Vector3();
     private float activationMovement = 0.025f;
     private float activation = 0f;
     private float animationDuration = 0.25f;
     private Interpolation interpolation = new Interpolation.Pow(2);
     private float alpha = 1f;
     private boolean activationEnabled = false;
+    // cached mode, the actors are drawn into cacheBuffer only when they change and the panel is drawn as one quad
+    private boolean cachingEnabled = false;
+    @Nullable
+    private FrameBuffer cacheBuffer = null;
+    @Nullable
+    private TextureRegion cacheRegion = null;
+    private boolean cacheDirty = true;
+    private int cacheTextureHandle = -1;
+    private final Matrix4 cacheProjection = new Matrix4();
+    private final IntBuffer glQuery = BufferUtils.newIntBuffer(16);
+    private final int[] previousViewport = new int[4];
+    private int redrawCount = 0;
+    private int cachedDrawCount = 0;
 
     public VirtualStage(Batch batch, int virtualPixelWidth, int virtualPixelHeight) {
         super(new ScreenViewport(), batch);
@@ -270,6 +295,7 @@ public class VirtualStage extends Stage implements VrInputProcessor {
         radius = (float) Math.sqrt(bounds.width * bounds.width + bounds.height * bounds.height);
         transform.idt().translate(translation).rotate(rotation).translate(-bounds.getWidth() * 0.5f, -bounds.getHeight() * 0.5f, 0).scale(pixelSizeWorld * scale.x, pixelSizeWorld * scale.y, 1f);
         inverseTransform.set(transform).inv();
+        plane.set(translation, normal);
         updated = true;
         Pools.free(tmp);
     }
@@ -281,6 +307,10 @@ public class VirtualStage extends Stage implements VrInputProcessor {
     public void draw(Camera camera, @Nullable Matrix4 parentTransform) {
         if (!visible) return;
         if (!updated) recalculateTransform();
+        if (cachingEnabled) {
+            drawCached(camera, parentTransform);
+            return;
+        }
         Batch batch = this.getBatch();
         getRoot().setTransform(false);
         batch.begin();
@@ -291,6 +321,152 @@ public class VirtualStage extends Stage implements VrInputProcessor {
         batch.setTransformMatrix(batchTransform);
         getRoot().draw(batch, alpha);
         batch.end();
+        redrawCount++;
+    }
+
+    private void drawCached(Camera camera, @Nullable Matrix4 parentTransform) {
+        final Camera stageCamera = getViewport().getCamera();
+        final int width = Math.max((int) stageCamera.viewportWidth, 1);
+        final int height = Math.max((int) stageCamera.viewportHeight, 1);
+        final boolean resize = cacheBuffer == null || cacheBuffer.getWidth() != width || cacheBuffer.getHeight() != height;
+        // a lost context recreates the texture of a managed frame buffer without its contents
+        if (resize || cacheBuffer.getColorBufferTexture().getTextureObjectHandle() != cacheTextureHandle)
+            cacheDirty = true;
+        // the first eye that finds the cache dirty redraws it, the other eye reuses it
+        if (cacheDirty)
+            redrawCache(width, height, resize);
+
+        Batch batch = this.getBatch();
+        final int blendSrc = batch.getBlendSrcFunc();
+        final int blendDst = batch.getBlendDstFunc();
+        final float previousColor = batch.getPackedColor();
+        batch.begin();
+        batch.setProjectionMatrix(camera.combined);
+        batchTransform.set(transform);
+        if (parentTransform != null)
+            batchTransform.mulLeft(parentTransform);
+        batch.setTransformMatrix(batchTransform);
+        // the cache holds colors already multiplied by their alpha
+        batch.setBlendFunction(GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setColor(alpha, alpha, alpha, alpha);
+        batch.draw(cacheRegion, 0f, 0f, width, height);
+        batch.end();
+        batch.setColor(previousColor);
+        batch.setBlendFunction(blendSrc, blendDst);
+        cachedDrawCount++;
+    }
+
+    private void createCache(int width, int height) {
+        disposeCache();
+        cacheBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, width, height, false);
+        cacheRegion = new TextureRegion(cacheBuffer.getColorBufferTexture());
+        cacheRegion.flip(false, true);
+        cacheProjection.setToOrtho2D(0f, 0f, width, height);
+        cacheDirty = true;
+    }
+
+    /**
+     * Draws the actors into the cache. The eye frame buffer bound by the vr view is not the default frame buffer
+     * FrameBuffer.end() would bind, so the previous binding and viewport are queried and restored instead. Building
+     * a FrameBuffer also binds the default frame buffer when done, so a new cache is created after the query.
+     */
+    private void redrawCache(int width, int height, boolean create) {
+        glQuery.clear();
+        Gdx.gl.glGetIntegerv(GL20.GL_FRAMEBUFFER_BINDING, glQuery);
+        final int previousFramebuffer = glQuery.get(0);
+        glQuery.clear();
+        Gdx.gl.glGetIntegerv(GL20.GL_VIEWPORT, glQuery);
+        glQuery.get(previousViewport);
+        if (create)
+            createCache(width, height);
+
+        Gdx.gl.glBindFramebuffer(GL20.GL_FRAMEBUFFER, cacheBuffer.getFramebufferHandle());
+        Gdx.gl.glViewport(0, 0, width, height);
+        Gdx.gl.glClearColor(0f, 0f, 0f, 0f);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Batch batch = this.getBatch();
+        final int blendSrc = batch.getBlendSrcFunc();
+        final int blendDst = batch.getBlendDstFunc();
+        final float previousColor = batch.getPackedColor();
+        getRoot().setTransform(false);
+        // -1 keeps the batch from setting its own blend function on flush, the alpha channel has to accumulate
+        // coverage as src + dst * (1 - src) for the cache to hold premultiplied colors
+        batch.setBlendFunction(-1, -1);
+        Gdx.gl.glBlendFuncSeparate(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        batch.begin();
+        batch.setProjectionMatrix(cacheProjection);
+        batch.setTransformMatrix(batchTransform.idt());
+        getRoot().draw(batch, 1f);
+        batch.end();
+        batch.setColor(previousColor);
+        batch.setBlendFunction(blendSrc, blendDst);
+
+        Gdx.gl.glBindFramebuffer(GL20.GL_FRAMEBUFFER, previousFramebuffer);
+        Gdx.gl.glViewport(previousViewport[0], previousViewport[1], previousViewport[2], previousViewport[3]);
+        cacheTextureHandle = cacheBuffer.getColorBufferTexture().getTextureObjectHandle();
+        cacheDirty = false;
+        redrawCount++;
+    }
+
+    private void disposeCache() {
+        if (cacheBuffer != null)
+            cacheBuffer.dispose();
+        cacheBuffer = null;
+        cacheRegion = null;
+        cacheTextureHandle = -1;
+        cacheDirty = true;
+    }
+
+    /**
+     * Marks the cached panel for a redraw on the next draw. Input events, actions, added actors and enter or exit
+     * changes do this already, call it after changing actors directly, e.g. setting the text of a label.
+     */
+    public void invalidateCache() {
+        cacheDirty = true;
+    }
+
+    public boolean isCachingEnabled() {
+        return cachingEnabled;
+    }
+
+    /**
+     * in cached mode the actors are drawn into a texture when they change and the panel is drawn as a single quad
+     */
+    public void setCachingEnabled(boolean cachingEnabled) {
+        this.cachingEnabled = cachingEnabled;
+        if (!cachingEnabled)
+            disposeCache();
+        cacheDirty = true;
+    }
+
+    /**
+     * @return the number of times the actors were drawn, per eye without caching and per change with caching
+     */
+    public int getRedrawCount() {
+        return redrawCount;
+    }
+
+    /**
+     * @return the number of times the panel was drawn from the cache
+     */
+    public int getCachedDrawCount() {
+        return cachedDrawCount;
+    }
+
+    public void resetDrawCounts() {
+        redrawCount = 0;
+        cachedDrawCount = 0;
+    }
+
+    private static boolean hasActions(Actor actor) {
+        if (actor.hasActions()) return true;
+        if (actor instanceof Group) {
+            final SnapshotArray<Actor> children = ((Group) actor).getChildren();
+            for (int i = 0, n = children.size; i < n; i++) {
+                if (hasActions(children.get(i))) return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -305,7 +481,12 @@ public class VirtualStage extends Stage implements VrInputProcessor {
                 invalidate();
             }
         }
-        mouseOverActor = fireEnterAndExit(mouseOverActor, mouseScreenX, mouseScreenY, -1);
+        final Actor over = fireEnterAndExit(mouseOverActor, mouseScreenX, mouseScreenY, -1);
+        if (over != mouseOverActor)
+            cacheDirty = true;
+        mouseOverActor = over;
+        if (cachingEnabled && !cacheDirty && hasActions(getRoot()))
+            cacheDirty = true;
     }
 
     @Override
@@ -322,22 +503,44 @@ public class VirtualStage extends Stage implements VrInputProcessor {
         isCursorOver = false;
         if (!visible | !touchable) return false;
         if (!updated) recalculateTransform();
-        final Ray tmpRay = Pools.obtain(Ray.class);
-        tmpRay.set(ray).mul(inverseTransform);
-        final Vector2 tmp = Pools.obtain(Vector2.class);
-        final Vector2 center = Pools.obtain(Vector2.class);
-        if (Intersector.intersectRayPlane(ray, plane, hitPoint3D)) {
-            PlaneUtils.toSubSpace(plane, hitPoint3D, tmp);
-            tmp.sub(bounds.getCenter(center));
-            if (bounds.contains(tmp)) {
-                hitPoint2DPixels.set(tmp).scl(1f / (pixelSizeWorld * scale.x), 1f / (pixelSizeWorld * scale.y));
-                isCursorOver = true;
-            }
-        }
-        Pools.free(tmpRay);
-        Pools.free(tmp);
-        Pools.free(center);
-        return isCursorOver;
+        // in the pixel space of the stage the panel is the rectangle from 0, 0 to the viewport size at z = 0
+        localRay.set(ray).mul(inverseTransform);
+        final Vector3 o = localRay.origin;
+        final Vector3 d = localRay.direction;
+        if (Math.abs(d.z) < MathUtils.FLOAT_ROUNDING_ERROR) return false;
+        final float t = -o.z / d.z;
+        if (t < 0f) return false;
+        final float x = o.x + d.x * t;
+        final float y = o.y + d.y * t;
+        final Camera camera = getViewport().getCamera();
+        if (x < 0f || y < 0f || x > camera.viewportWidth || y > camera.viewportHeight) return false;
+        hitPoint2DPixels.set(x, y);
+        hitPoint3D.set(x, y, 0f).mul(transform);
+        isCursorOver = true;
+        return true;
+    }
+
+    /**
+     * used by a {@link org.masonapps.libgdxgooglevr.input.VrUiContainer} when a nearer processor took the hit
+     */
+    public void clearCursorOver() {
+        isCursorOver = false;
+    }
+
+    /**
+     * @param out set to the box around the panel in the space of its parent, empty while it can not be hit
+     * @return out
+     */
+    public BoundingBox getBounds(BoundingBox out) {
+        out.inf();
+        if (!visible | !touchable) return out;
+        if (!updated) recalculateTransform();
+        final Camera camera = getViewport().getCamera();
+        out.ext(tmpCorner.set(0f, 0f, 0f).mul(transform));
+        out.ext(tmpCorner.set(camera.viewportWidth, 0f, 0f).mul(transform));
+        out.ext(tmpCorner.set(0f, camera.viewportHeight, 0f).mul(transform));
+        out.ext(tmpCorner.set(camera.viewportWidth, camera.viewportHeight, 0f).mul(transform));
+        return out;
     }
 
     @Override
@@ -364,6 +567,7 @@ public class VirtualStage extends Stage implements VrInputProcessor {
         boolean handled = event.isHandled();
         Pools.free(event);
         Pools.free(tmpV2);
+        cacheDirty = true;
         return handled;
     }
 
@@ -374,14 +578,59 @@ public class VirtualStage extends Stage implements VrInputProcessor {
 
     @Override
     public boolean touchDragged(int screenX, int screenY, int pointer) {
-        return super.touchDragged(screenX, screenY, pointer);
+        final boolean handled = super.touchDragged(screenX, screenY, pointer);
+        if (handled) cacheDirty = true;
+        return handled;
     }
 
     @Override
     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        cacheDirty = true;
         return super.touchUp(screenX, screenY, pointer, button);
     }
 
+    @Override
+    public boolean keyDown(int keyCode) {
+        cacheDirty = true;
+        return super.keyDown(keyCode);
+    }
+
+    @Override
+    public boolean keyUp(int keyCode) {
+        cacheDirty = true;
+        return super.keyUp(keyCode);
+    }
+
+    @Override
+    public boolean keyTyped(char character) {
+        cacheDirty = true;
+        return super.keyTyped(character);
+    }
+
+    @Override
+    public boolean scrolled(int amount) {
+        cacheDirty = true;
+        return super.scrolled(amount);
+    }
+
+    @Override
+    public void addActor(Actor actor) {
+        super.addActor(actor);
+        cacheDirty = true;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        cacheDirty = true;
+    }
+
+    @Override
+    public void dispose() {
+        disposeCache();
+        super.dispose();
+    }
+
     @Override
     public boolean mouseMoved(int screenX, int screenY) {
         mouseScreenX = screenX;
@@ -399,6 +648,7 @@ public class VirtualStage extends Stage implements VrInputProcessor {
         target.fire(event);
         boolean handled = event.isHandled();
         Pools.free(event);
+        if (handled) cacheDirty = true;
         return handled;
     }
 
@@ -0,0 +1,82 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Reads the number of bytes allocated by the current thread.
+ * Uses the HotSpot thread allocation counter on a desktop JVM and the Dalvik/ART allocation counter on Android,
+ * both are looked up by reflection because neither API exists on the other platform.
+ */
+public class AllocationMeter {
+
+    public static final long UNSUPPORTED = -1L;
+
+    private static final Object threadBean;
+    private static final Method getThreadAllocatedBytes;
+    private static final Method getAndroidThreadAllocSize;
+    private static final Method startAndroidAllocCounting;
+    private static boolean androidCountingStarted = false;
+
+    static {
+        Object bean = null;
+        Method hotspotMethod = null;
+        try {
+            final Class<?> factory = Class.forName("java.lang.management.ManagementFactory");
+            bean = factory.getMethod("getThreadMXBean").invoke(null);
+            final Class<?> hotspotBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (hotspotBean.isInstance(bean)) {
+                hotspotMethod = hotspotBean.getMethod("getThreadAllocatedBytes", long.class);
+                hotspotBean.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(bean, true);
+            }
+        } catch (Exception ignored) {
+            hotspotMethod = null;
+        }
+        threadBean = bean;
+        getThreadAllocatedBytes = hotspotMethod;
+
+        Method androidMethod = null;
+        Method androidStart = null;
+        if (hotspotMethod == null) {
+            try {
+                final Class<?> debug = Class.forName("android.os.Debug");
+                androidMethod = debug.getMethod("getThreadAllocSize");
+                androidStart = debug.getMethod("startAllocCounting");
+            } catch (Exception ignored) {
+                androidMethod = null;
+                androidStart = null;
+            }
+        }
+        getAndroidThreadAllocSize = androidMethod;
+        startAndroidAllocCounting = androidStart;
+    }
+
+    private AllocationMeter() {
+    }
+
+    public static boolean isSupported() {
+        return getThreadAllocatedBytes != null || getAndroidThreadAllocSize != null;
+    }
+
+    /**
+     * the value only has meaning as a difference between two calls on the same thread, the call itself may allocate a few
+     * bytes so measurements should subtract an empty measurement
+     *
+     * @return the bytes allocated by the current thread, {@link #UNSUPPORTED} if no counter is available
+     */
+    public static long getThreadAllocatedBytes() {
+        try {
+            if (getThreadAllocatedBytes != null)
+                return (Long) getThreadAllocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+            if (getAndroidThreadAllocSize != null) {
+                if (!androidCountingStarted) {
+                    startAndroidAllocCounting.invoke(null);
+                    androidCountingStarted = true;
+                }
+                return (Integer) getAndroidThreadAllocSize.invoke(null);
+            }
+        } catch (Exception ignored) {
+        }
+        return UNSUPPORTED;
+    }
+}
@@ -0,0 +1,178 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Reprojects the six faces of a cube map to an equirectangular image with bilinear sampling, split over worker threads by
+ * rows. Works on raw RGBA bytes only so it runs without a GL context. The face directions and up vectors here are the
+ * ones the faces have to be rendered with, the center of the output looks down -z like the vr camera does by default.
+ */
+public class EquirectangularProjector {
+
+    public static final int FACE_FRONT = 0;
+    public static final int FACE_RIGHT = 1;
+    public static final int FACE_BACK = 2;
+    public static final int FACE_LEFT = 3;
+    public static final int FACE_UP = 4;
+    public static final int FACE_DOWN = 5;
+    public static final int FACE_COUNT = 6;
+
+    private static final float[][] DIRECTIONS = {{0, 0, -1}, {1, 0, 0}, {0, 0, 1}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}};
+    private static final float[][] UPS = {{0, 1, 0}, {0, 1, 0}, {0, 1, 0}, {0, 1, 0}, {0, 0, 1}, {0, 0, -1}};
+    // direction x up, the screen x axis of a camera looking along the face
+    private static final float[][] RIGHTS = {{1, 0, 0}, {0, 0, 1}, {-1, 0, 0}, {0, 0, -1}, {1, 0, 0}, {1, 0, 0}};
+
+    private EquirectangularProjector() {
+    }
+
+    public static Vector3 getFaceDirection(int face, Vector3 out) {
+        return out.set(DIRECTIONS[face][0], DIRECTIONS[face][1], DIRECTIONS[face][2]);
+    }
+
+    public static Vector3 getFaceUp(int face, Vector3 out) {
+        return out.set(UPS[face][0], UPS[face][1], UPS[face][2]);
+    }
+
+    public static Vector3 getFaceRight(int face, Vector3 out) {
+        return out.set(RIGHTS[face][0], RIGHTS[face][1], RIGHTS[face][2]);
+    }
+
+    public static boolean isHorizontalFace(int face) {
+        return face < FACE_UP;
+    }
+
+    /**
+     * @param faces       RGBA bytes of each face in face order, faceSize * faceSize * 4 each, rows bottom to top as
+     *                    glReadPixels returns them, each face rendered with a 90 degree field of view
+     * @param out         receives width * height RGBA pixels starting at outOffset, rows top to bottom
+     * @param threadCount number of threads to split the rows over, the calling thread is one of them
+     */
+    public static void project(byte[][] faces, int faceSize, byte[] out, int outOffset, int width, int height, int threadCount) {
+        project(faces, faceSize, out, outOffset, width, height, 0, height, threadCount);
+    }
+
+    /**
+     * projects only the rows from startRow to endRow of the image, out receives them starting at outOffset, so a
+     * large image can be produced in bands
+     */
+    public static void project(final byte[][] faces, final int faceSize, final byte[] out, final int outOffset,
+                               final int width, final int height, final int startRow, final int endRow, int threadCount) {
+        if (faces.length != FACE_COUNT)
+            throw new IllegalArgumentException("expected " + FACE_COUNT + " faces, got " + faces.length);
+        for (byte[] face : faces) {
+            if (face.length < faceSize * faceSize * 4)
+                throw new IllegalArgumentException("face buffer smaller than " + faceSize + "x" + faceSize + " RGBA");
+        }
+        if (startRow < 0 || endRow > height || startRow > endRow)
+            throw new IllegalArgumentException("invalid rows " + startRow + " to " + endRow + " of " + height);
+        final int rows = endRow - startRow;
+        if (outOffset < 0 || out.length < outOffset + width * rows * 4)
+            throw new IllegalArgumentException("output buffer smaller than " + width + "x" + rows + " RGBA");
+
+        // the same longitude for every row and latitude for every column
+        final float[] sinTheta = new float[width];
+        final float[] cosTheta = new float[width];
+        for (int x = 0; x < width; x++) {
+            final float theta = (x + 0.5f) / width * MathUtils.PI2 - MathUtils.PI;
+            sinTheta[x] = (float) Math.sin(theta);
+            cosTheta[x] = (float) Math.cos(theta);
+        }
+
+        threadCount = MathUtils.clamp(threadCount, 1, Math.max(rows, 1));
+        final Thread[] workers = new Thread[threadCount - 1];
+        final Throwable[] failure = new Throwable[1];
+        for (int i = 0; i < workers.length; i++) {
+            final int bandStart = startRow + rows * (i + 1) / threadCount;
+            final int bandEnd = startRow + rows * (i + 2) / threadCount;
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        projectRows(faces, faceSize, out, outOffset, width, height, startRow, bandStart, bandEnd, sinTheta, cosTheta);
+                    } catch (Throwable t) {
+                        synchronized (failure) {
+                            failure[0] = t;
+                        }
+                    }
+                }
+            }, "equirect-" + i);
+            workers[i].start();
+        }
+        projectRows(faces, faceSize, out, outOffset, width, height, startRow, startRow, startRow + rows / threadCount, sinTheta, cosTheta);
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while projecting", e);
+        }
+        synchronized (failure) {
+            if (failure[0] != null)
+                throw new IllegalStateException("projection failed", failure[0]);
+        }
+    }
+
+    /**
+     * @param firstRow the row stored at outOffset
+     */
+    private static void projectRows(byte[][] faces, int faceSize, byte[] out, int outOffset, int width, int height,
+                                    int firstRow, int startRow, int endRow, float[] sinTheta, float[] cosTheta) {
+        for (int y = startRow; y < endRow; y++) {
+            final float phi = MathUtils.PI * 0.5f - (y + 0.5f) / height * MathUtils.PI;
+            final float sinPhi = (float) Math.sin(phi);
+            final float cosPhi = (float) Math.cos(phi);
+            int o = outOffset + (y - firstRow) * width * 4;
+            for (int x = 0; x < width; x++, o += 4) {
+                final float dx = sinTheta[x] * cosPhi;
+                final float dy = sinPhi;
+                final float dz = -cosTheta[x] * cosPhi;
+                final float ax = Math.abs(dx), ay = Math.abs(dy), az = Math.abs(dz);
+                final int face;
+                final float major;
+                if (ax >= ay && ax >= az) {
+                    face = dx > 0f ? FACE_RIGHT : FACE_LEFT;
+                    major = ax;
+                } else if (ay >= az) {
+                    face = dy > 0f ? FACE_UP : FACE_DOWN;
+                    major = ay;
+                } else {
+                    face = dz < 0f ? FACE_FRONT : FACE_BACK;
+                    major = az;
+                }
+                final float[] r = RIGHTS[face];
+                final float[] u = UPS[face];
+                // coordinates on the face plane at distance 1, -1 to 1 across the face
+                final float s = (dx * r[0] + dy * r[1] + dz * r[2]) / major;
+                final float t = (dx * u[0] + dy * u[1] + dz * u[2]) / major;
+                sampleBilinear(faces[face], faceSize, (s + 1f) * 0.5f * faceSize - 0.5f, (t + 1f) * 0.5f * faceSize - 0.5f, out, o);
+            }
+        }
+    }
+
+    /**
+     * samples at pixel coordinates where pixel centers are at whole numbers, clamped to the edge of the face
+     */
+    static void sampleBilinear(byte[] face, int size, float fx, float fy, byte[] out, int o) {
+        final int max = size - 1;
+        fx = MathUtils.clamp(fx, 0f, max);
+        fy = MathUtils.clamp(fy, 0f, max);
+        final int x0 = (int) fx;
+        final int y0 = (int) fy;
+        final int x1 = Math.min(x0 + 1, max);
+        final int y1 = Math.min(y0 + 1, max);
+        final float wx = fx - x0;
+        final float wy = fy - y0;
+        final int i00 = (y0 * size + x0) * 4;
+        final int i10 = (y0 * size + x1) * 4;
+        final int i01 = (y1 * size + x0) * 4;
+        final int i11 = (y1 * size + x1) * 4;
+        for (int c = 0; c < 4; c++) {
+            final float top = (face[i00 + c] & 0xff) * (1f - wx) + (face[i10 + c] & 0xff) * wx;
+            final float bottom = (face[i01 + c] & 0xff) * (1f - wx) + (face[i11 + c] & 0xff) * wx;
+            out[o + c] = (byte) (int) (top * (1f - wy) + bottom * wy + 0.5f);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Records nested timing scopes for the phases of each frame into a ring of recent frames and keeps a duration histogram per phase.
+ * Scopes are plain begin/end calls on the GL thread, a disabled profiler returns from them after a single field read.
+ */
+public class FrameProfiler {
+
+    public enum Phase {
+        FRAME,
+        GL_TASKS,
+        INPUT,
+        UPDATE,
+        PHYSICS,
+        RENDER,
+        UI_ACT,
+        UI_DRAW
+    }
+
+    public static final int DEFAULT_FRAME_COUNT = 300;
+    public static final int MAX_EVENTS_PER_FRAME = 64;
+    private static final int MAX_DEPTH = 16;
+    // 4 buckets per doubling of the duration in microseconds, the last bucket is about 65 ms
+    private static final int BUCKETS_PER_OCTAVE = 4;
+    private static final int BUCKET_COUNT = 16 * BUCKETS_PER_OCTAVE;
+    private static final Phase[] PHASES = Phase.values();
+
+    private boolean enabled = false;
+    private final int frameCount;
+    private final long[] frameStarts;
+    private final int[] frameEventCounts;
+    private final byte[] eventPhases;
+    private final byte[] eventDepths;
+    private final long[] eventStarts;
+    private final long[] eventDurations;
+    private final int[] stack = new int[MAX_DEPTH];
+    private int depth = 0;
+    // scopes opened past MAX_DEPTH, their ends are ignored
+    private int overflowDepth = 0;
+    private int currentFrame = -1;
+    private int recordedFrames = 0;
+    private final int[][] histograms = new int[PHASES.length][BUCKET_COUNT];
+    private final long[] maxDurations = new long[PHASES.length];
+    private final long[] sampleCounts = new long[PHASES.length];
+
+    public FrameProfiler() {
+        this(DEFAULT_FRAME_COUNT);
+    }
+
+    public FrameProfiler(int frameCount) {
+        this.frameCount = frameCount;
+        frameStarts = new long[frameCount];
+        frameEventCounts = new int[frameCount];
+        eventPhases = new byte[frameCount * MAX_EVENTS_PER_FRAME];
+        eventDepths = new byte[frameCount * MAX_EVENTS_PER_FRAME];
+        eventStarts = new long[frameCount * MAX_EVENTS_PER_FRAME];
+        eventDurations = new long[frameCount * MAX_EVENTS_PER_FRAME];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        currentFrame = -1;
+        depth = 0;
+        overflowDepth = 0;
+    }
+
+    /**
+     * starts a new frame in the ring and opens its {@link Phase#FRAME} scope
+     */
+    public void beginFrame() {
+        if (!enabled) return;
+        final int frame = (recordedFrames++) % frameCount;
+        currentFrame = frame;
+        frameEventCounts[frame] = 0;
+        frameStarts[frame] = System.nanoTime();
+        depth = 0;
+        overflowDepth = 0;
+        begin(Phase.FRAME);
+    }
+
+    public void endFrame() {
+        if (!enabled || currentFrame < 0) return;
+        overflowDepth = 0;
+        while (depth > 0) {
+            end();
+        }
+        currentFrame = -1;
+    }
+
+    public void begin(Phase phase) {
+        if (!enabled || currentFrame < 0) return;
+        if (depth == MAX_DEPTH) {
+            overflowDepth++;
+            return;
+        }
+        final int count = frameEventCounts[currentFrame];
+        if (count == MAX_EVENTS_PER_FRAME) {
+            // still track the nesting so the matching end is ignored
+            stack[depth++] = -1;
+            return;
+        }
+        final int event = currentFrame * MAX_EVENTS_PER_FRAME + count;
+        frameEventCounts[currentFrame] = count + 1;
+        eventPhases[event] = (byte) phase.ordinal();
+        eventDepths[event] = (byte) depth;
+        eventDurations[event] = -1;
+        stack[depth++] = event;
+        eventStarts[event] = System.nanoTime();
+    }
+
+    public void end() {
+        if (!enabled || currentFrame < 0 || depth == 0) return;
+        if (overflowDepth > 0) {
+            overflowDepth--;
+            return;
+        }
+        final long now = System.nanoTime();
+        final int event = stack[--depth];
+        if (event < 0) return;
+        final long duration = now - eventStarts[event];
+        eventDurations[event] = duration;
+        final int phase = eventPhases[event];
+        histograms[phase][bucket(duration)]++;
+        sampleCounts[phase]++;
+        if (duration > maxDurations[phase])
+            maxDurations[phase] = duration;
+    }
+
+    private static int bucket(long nanos) {
+        final double micros = nanos / 1000.0;
+        if (micros < 1.0) return 0;
+        final int bucket = (int) (Math.log(micros) / Math.log(2.0) * BUCKETS_PER_OCTAVE);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+
+    private static long bucketUpperBoundNanos(int bucket) {
+        return (long) (Math.pow(2.0, (bucket + 1) / (double) BUCKETS_PER_OCTAVE) * 1000.0);
+    }
+
+    /**
+     * @param percentile between 0 and 1
+     * @return the upper bound of the histogram bucket holding the percentile, 0 without samples
+     */
+    public long getPercentileNanos(Phase phase, float percentile) {
+        final long count = sampleCounts[phase.ordinal()];
+        if (count == 0) return 0;
+        final long target = (long) Math.ceil(count * percentile);
+        final int[] histogram = histograms[phase.ordinal()];
+        long sum = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            sum += histogram[i];
+            if (sum >= target)
+                return Math.min(bucketUpperBoundNanos(i), maxDurations[phase.ordinal()]);
+        }
+        return maxDurations[phase.ordinal()];
+    }
+
+    public long getMaxNanos(Phase phase) {
+        return maxDurations[phase.ordinal()];
+    }
+
+    public long getSampleCount(Phase phase) {
+        return sampleCounts[phase.ordinal()];
+    }
+
+    /**
+     * @return the number of frames currently held in the ring
+     */
+    public int getFrameCount() {
+        return Math.min(recordedFrames, frameCount);
+    }
+
+    /**
+     * @param age 0 for the most recent completed or current frame
+     * @return the duration of the frame scope in nanoseconds, -1 if it is still open or not recorded
+     */
+    public long getFrameDurationNanos(int age) {
+        if (age >= getFrameCount()) return -1;
+        final int frame = ((recordedFrames - 1 - age) % frameCount + frameCount) % frameCount;
+        if (frameEventCounts[frame] == 0) return -1;
+        return eventDurations[frame * MAX_EVENTS_PER_FRAME];
+    }
+
+    public void reset() {
+        for (int[] histogram : histograms) {
+            Arrays.fill(histogram, 0);
+        }
+        Arrays.fill(maxDurations, 0);
+        Arrays.fill(sampleCounts, 0);
+        Arrays.fill(frameEventCounts, 0);
+        recordedFrames = 0;
+        currentFrame = -1;
+        depth = 0;
+        overflowDepth = 0;
+    }
+
+    /**
+     * writes the recorded frames in the Chrome trace event format, load the file in chrome://tracing or Perfetto
+     */
+    public void writeChromeTrace(Writer writer) throws IOException {
+        final int frames = getFrameCount();
+        final int first = recordedFrames - frames;
+        final long origin = frames > 0 ? frameStarts[first % frameCount] : 0;
+        writer.write("{\"traceEvents\":[");
+        boolean firstEvent = true;
+        for (int f = first; f < recordedFrames; f++) {
+            final int frame = f % frameCount;
+            for (int i = 0; i < frameEventCounts[frame]; i++) {
+                final int event = frame * MAX_EVENTS_PER_FRAME + i;
+                if (eventDurations[event] < 0) continue;
+                if (!firstEvent) writer.write(',');
+                firstEvent = false;
+                writer.write("{\"name\":\"");
+                writer.write(PHASES[eventPhases[event]].name());
+                writer.write("\",\"cat\":\"frame\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":");
+                writeMicros(writer, eventStarts[event] - origin);
+                writer.write(",\"dur\":");
+                writeMicros(writer, eventDurations[event]);
+                writer.write(",\"args\":{\"frame\":");
+                writer.write(Integer.toString(f));
+                writer.write(",\"depth\":");
+                writer.write(Integer.toString(eventDepths[event]));
+                writer.write("}}");
+            }
+        }
+        writer.write("],\"displayTimeUnit\":\"ms\"}");
+        writer.flush();
+    }
+
+    private static void writeMicros(Writer writer, long nanos) throws IOException {
+        writer.write(Long.toString(nanos / 1000));
+        writer.write('.');
+        final long fraction = nanos % 1000;
+        if (fraction < 100) writer.write('0');
+        if (fraction < 10) writer.write('0');
+        writer.write(Long.toString(fraction));
+    }
+
+    /**
+     * appends p50, p99 and max per phase in milliseconds
+     */
+    public void appendSummary(StringBuilder out) {
+        for (Phase phase : PHASES) {
+            if (sampleCounts[phase.ordinal()] == 0) continue;
+            out.append(phase.name()).append(' ');
+            appendMillis(out, getPercentileNanos(phase, 0.5f));
+            out.append(" / ");
+            appendMillis(out, getPercentileNanos(phase, 0.99f));
+            out.append(" / ");
+            appendMillis(out, getMaxNanos(phase));
+            out.append(" ms\n");
+        }
+    }
+
+    /**
+     * appends one character per recent frame, oldest first: the frame time in tenths of the budget as a digit, or '!' when
+     * the frame was over budget, followed by the number of frames over budget
+     *
+     * @param frames how many of the most recent completed frames to show
+     */
+    public void appendFrameHistory(StringBuilder out, int frames, long budgetNanos) {
+        int count = 0;
+        int over = 0;
+        // the current frame is still open, start at the last completed one
+        for (int age = Math.min(frames, getFrameCount()) - 1; age >= 0; age--) {
+            final long duration = getFrameDurationNanos(age);
+            if (duration < 0) continue;
+            count++;
+            if (duration > budgetNanos) {
+                over++;
+                out.append('!');
+            } else {
+                out.append((char) ('0' + Math.min(duration * 10 / budgetNanos, 9)));
+            }
+        }
+        out.append(' ').append(over).append('/').append(count).append(" over\n");
+    }
+
+    private static void appendMillis(StringBuilder out, long nanos) {
+        final long hundredths = nanos / 10000;
+        out.append(hundredths / 100).append('.');
+        final long fraction = hundredths % 100;
+        if (fraction < 10) out.append('0');
+        out.append(fraction);
+    }
+}
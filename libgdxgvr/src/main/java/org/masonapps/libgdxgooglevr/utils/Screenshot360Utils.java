@@ -6,6 +6,8 @@ import android.util.Log;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.math.collision.Ray;
@@ -14,7 +16,10 @@ import com.google.vr.sdk.base.Eye;
 
 import org.masonapps.libgdxgooglevr.vr.VrApplicationAdapter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 
 /**
  * Created by Bob on 10/28/2016.
@@ -38,6 +43,169 @@ public class Screenshot360Utils {
 //        return null;
     }
 
+    /**
+     * renders six 90 degree cube faces instead of one scene render per column and reprojects them on worker threads
+     */
+    public static Bitmap generate360ScreenshotCubemap(VrApplicationAdapter vrApplicationAdapter, int outWidth) {
+        return new CubemapScreenshot360(vrApplicationAdapter, outWidth, 0, false).generate360Screenshot();
+    }
+
+    /**
+     * The horizontal faces of each eye are offset along their own right axis. Stereo is exact at the center of each
+     * face and the poles have none. Near objects may show seams at face edges.
+     */
+    public static Bitmap generate360StereoscopicScreenshotCubemap(VrApplicationAdapter vrApplicationAdapter, int outWidth, float IPD) {
+        return new CubemapScreenshot360(vrApplicationAdapter, outWidth, IPD, true).generate360Screenshot();
+    }
+
+    /**
+     * Same as {@link #generate360ScreenshotCubemap(VrApplicationAdapter, int)}, but streams a PNG to out instead
+     * of building a Bitmap. Only the GL work and the reprojection run on the calling thread; out is closed when done.
+     */
+    public static void write360ScreenshotCubemap(VrApplicationAdapter vrApplicationAdapter, int outWidth, OutputStream out) throws IOException {
+        new CubemapScreenshot360(vrApplicationAdapter, outWidth, 0, false).writePng(out);
+    }
+
+    /**
+     * stereoscopic version of {@link #write360ScreenshotCubemap(VrApplicationAdapter, int, OutputStream)}, left eye on top
+     */
+    public static void write360StereoscopicScreenshotCubemap(VrApplicationAdapter vrApplicationAdapter, int outWidth, float IPD, OutputStream out) throws IOException {
+        new CubemapScreenshot360(vrApplicationAdapter, outWidth, IPD, true).writePng(out);
+    }
+
+    private static class CubemapScreenshot360 {
+
+        private static final String TAG = CubemapScreenshot360.class.getSimpleName();
+        private static final int PNG_BAND_ROWS = 128;
+        private final int outWidth;
+        private final int outHeight;
+        private final int faceSize;
+        private final float IPD;
+        private final boolean isStereoscopic;
+        private final VrApplicationAdapter vrApplicationAdapter;
+        private final PerspectiveCamera cam = new PerspectiveCamera();
+        private final Vector3 vrCamPosition = new Vector3();
+        private final Vector3 right = new Vector3();
+        private final byte[][] faces = new byte[EquirectangularProjector.FACE_COUNT][];
+        private final ByteBuffer pixelBuffer;
+        private final IntBuffer glQuery = BufferUtils.newIntBuffer(16);
+
+        private CubemapScreenshot360(VrApplicationAdapter vrApplicationAdapter, int outWidth, float IPD, boolean isStereoscopic) {
+            this.vrApplicationAdapter = vrApplicationAdapter;
+            this.outWidth = outWidth;
+            this.IPD = IPD;
+            this.isStereoscopic = isStereoscopic;
+            outHeight = outWidth / 2;
+            // a quarter of the width keeps the sampling rate of the equator
+            faceSize = Math.max(outWidth / 4, 1);
+            for (int i = 0; i < faces.length; i++) {
+                faces[i] = new byte[faceSize * faceSize * 4];
+            }
+            pixelBuffer = BufferUtils.newByteBuffer(faceSize * faceSize * 4);
+        }
+
+        public Bitmap generate360Screenshot() {
+            final int eyeCount = isStereoscopic ? 2 : 1;
+            final byte[] pixels = new byte[outWidth * outHeight * 4 * eyeCount];
+            final int threads = Runtime.getRuntime().availableProcessors();
+            setUpCamera();
+            for (int eye = 0; eye < eyeCount; eye++) {
+                renderFaces(eye);
+                final long start = System.nanoTime();
+                EquirectangularProjector.project(faces, faceSize, pixels, eye * outWidth * outHeight * 4, outWidth, outHeight, threads);
+                Log.d(TAG, "reprojected eye " + eye + " in " + (System.nanoTime() - start) / 1000000 + " ms on " + threads + " threads");
+            }
+            final Bitmap bitmap = Bitmap.createBitmap(outWidth, outHeight * eyeCount, Bitmap.Config.ARGB_8888);
+            bitmap.copyPixelsFromBuffer(ByteBuffer.wrap(pixels));
+            return bitmap;
+        }
+
+        /**
+         * Projects the image in bands of rows and hands them to a {@link StreamingPngWriter}, which encodes and
+         * writes on its own threads. Only the faces and one band are held here, never the whole image.
+         */
+        public void writePng(OutputStream out) throws IOException {
+            final int eyeCount = isStereoscopic ? 2 : 1;
+            final int threads = Runtime.getRuntime().availableProcessors();
+            final byte[] band = new byte[outWidth * PNG_BAND_ROWS * 4];
+            setUpCamera();
+            final StreamingPngWriter writer = new StreamingPngWriter(out, outWidth, outHeight * eyeCount);
+            try {
+                for (int eye = 0; eye < eyeCount; eye++) {
+                    renderFaces(eye);
+                    for (int row = 0; row < outHeight; row += PNG_BAND_ROWS) {
+                        final int endRow = Math.min(row + PNG_BAND_ROWS, outHeight);
+                        EquirectangularProjector.project(faces, faceSize, band, 0, outWidth, outHeight, row, endRow, threads);
+                        // blocks while the encoder is behind, which bounds the memory held by pending bands
+                        writer.writeRows(band, 0, endRow - row);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    writer.close();
+                } catch (IOException ignored) {
+                    // the incomplete image is reported by e
+                }
+                throw e;
+            }
+            writer.close();
+        }
+
+        private void setUpCamera() {
+            cam.far = vrApplicationAdapter.getVrCamera().far;
+            cam.near = vrApplicationAdapter.getVrCamera().near;
+            cam.viewportWidth = faceSize;
+            cam.viewportHeight = faceSize;
+            cam.fieldOfView = 90f;
+            vrCamPosition.set(vrApplicationAdapter.getVrCamera().position);
+        }
+
+        /**
+         * renders the six faces of one eye into the face buffers
+         */
+        private void renderFaces(int eye) {
+            final int whichEye = isStereoscopic ? (eye == 0 ? Eye.Type.LEFT : Eye.Type.RIGHT) : Eye.Type.MONOCULAR;
+            final float eyeOffset = isStereoscopic ? (eye == 0 ? -IPD / 2f : IPD / 2f) : 0f;
+            glQuery.clear();
+            Gdx.gl.glGetIntegerv(GL20.GL_FRAMEBUFFER_BINDING, glQuery);
+            final int previousFramebuffer = glQuery.get(0);
+            glQuery.clear();
+            Gdx.gl.glGetIntegerv(GL20.GL_VIEWPORT, glQuery);
+            final int viewportX = glQuery.get(0);
+            final int viewportY = glQuery.get(1);
+            final int viewportWidth = glQuery.get(2);
+            final int viewportHeight = glQuery.get(3);
+            // queried before creating the frame buffer, creating it binds frame buffer 0
+            final FrameBuffer frameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, faceSize, faceSize, true);
+            try {
+                Gdx.gl.glBindFramebuffer(GL20.GL_FRAMEBUFFER, frameBuffer.getFramebufferHandle());
+                for (int face = 0; face < EquirectangularProjector.FACE_COUNT; face++) {
+                    renderFace(face, EquirectangularProjector.isHorizontalFace(face) ? eyeOffset : 0f, whichEye);
+                }
+            } finally {
+                Gdx.gl.glBindFramebuffer(GL20.GL_FRAMEBUFFER, previousFramebuffer);
+                Gdx.gl.glViewport(viewportX, viewportY, viewportWidth, viewportHeight);
+                frameBuffer.dispose();
+            }
+        }
+
+        private void renderFace(int face, float eyeOffset, int whichEye) {
+            EquirectangularProjector.getFaceRight(face, right);
+            cam.position.set(right).scl(eyeOffset).add(vrCamPosition);
+            EquirectangularProjector.getFaceDirection(face, cam.direction);
+            EquirectangularProjector.getFaceUp(face, cam.up);
+            cam.update();
+            Gdx.gl.glViewport(0, 0, faceSize, faceSize);
+            Gdx.gl.glClearColor(0f, 0f, 0f, 1f);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT | GL20.GL_DEPTH_BUFFER_BIT);
+            vrApplicationAdapter.render(cam, whichEye);
+            Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+            pixelBuffer.clear();
+            Gdx.gl.glReadPixels(0, 0, faceSize, faceSize, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, pixelBuffer);
+            pixelBuffer.get(faces[face]);
+        }
+    }
+
     private static class Screenshot360 {
 
         private static final String TAG = Screenshot360.class.getSimpleName();
@@ -0,0 +1,257 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Writes an 8 bit RGBA PNG from row chunks handed over by a producer, typically a capture running on the GL thread.
+ * Every chunk is filtered and deflated on a pool of threads as an independent, byte aligned part of one zlib stream,
+ * the same way pigz splits its input, and a writer thread emits the parts in order as IDAT chunks. At most
+ * maxPendingChunks chunks are held at once, {@link #writeRows(byte[], int, int)} blocks until one is written.
+ */
+public class StreamingPngWriter implements Closeable {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'};
+    private static final int FILTER_UP = 2;
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final OutputStream out;
+    private final int width;
+    private final int height;
+    private final int rowBytes;
+    private final int level;
+    private final ExecutorService deflaters;
+    private final Thread writerThread;
+    private final LinkedBlockingQueue<Future<Chunk>> queue = new LinkedBlockingQueue<>();
+    private final Semaphore pending;
+    // the last row of the previous chunk, the up filter of the next chunk needs it
+    private final byte[] previousRow;
+    private int rowsWritten = 0;
+    private boolean closed = false;
+    private volatile Throwable failure = null;
+
+    public StreamingPngWriter(OutputStream out, int width, int height) {
+        this(out, width, height, Deflater.DEFAULT_COMPRESSION, Runtime.getRuntime().availableProcessors(), 4);
+    }
+
+    /**
+     * @param threads          deflate threads
+     * @param maxPendingChunks chunks that may be held while they are deflated or waiting to be written
+     */
+    public StreamingPngWriter(OutputStream out, int width, int height, int level, int threads, int maxPendingChunks) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("invalid size " + width + "x" + height);
+        this.out = out;
+        this.width = width;
+        this.height = height;
+        this.rowBytes = width * BYTES_PER_PIXEL;
+        this.level = level;
+        this.previousRow = new byte[rowBytes];
+        this.pending = new Semaphore(Math.max(maxPendingChunks, 1));
+        deflaters = Executors.newFixedThreadPool(Math.max(threads, 1));
+        writerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "png-writer");
+        writerThread.start();
+    }
+
+    /**
+     * Copies rowCount rows of RGBA pixels, top to bottom, the buffer can be reused as soon as this returns.
+     *
+     * @throws IOException if writing an earlier chunk failed
+     */
+    public void writeRows(byte[] rgba, int offset, int rowCount) throws IOException {
+        if (closed) throw new IOException("writer is closed");
+        if (rowCount <= 0) return;
+        if (rowsWritten + rowCount > height)
+            throw new IllegalArgumentException("image has " + height + " rows, got " + (rowsWritten + rowCount));
+        checkFailure();
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while waiting for the encoder", e);
+        }
+        // filter here so the chunk does not depend on the previous one
+        final byte[] filtered = new byte[rowCount * (rowBytes + 1)];
+        int src = offset;
+        int dst = 0;
+        for (int row = 0; row < rowCount; row++) {
+            filtered[dst++] = FILTER_UP;
+            final byte[] prior = row == 0 ? previousRow : rgba;
+            final int priorOffset = row == 0 ? 0 : src - rowBytes;
+            for (int i = 0; i < rowBytes; i++) {
+                filtered[dst++] = (byte) (rgba[src + i] - prior[priorOffset + i]);
+            }
+            src += rowBytes;
+        }
+        System.arraycopy(rgba, src - rowBytes, previousRow, 0, rowBytes);
+        rowsWritten += rowCount;
+        final boolean last = rowsWritten == height;
+        queue.add(deflaters.submit(new Callable<Chunk>() {
+            @Override
+            public Chunk call() throws Exception {
+                return deflate(filtered, last);
+            }
+        }));
+    }
+
+    public int getRowsWritten() {
+        return rowsWritten;
+    }
+
+    private Chunk deflate(byte[] filtered, boolean last) {
+        final Deflater deflater = new Deflater(level, true);
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(filtered.length / 2 + 64);
+        final byte[] buffer = new byte[64 * 1024];
+        try {
+            deflater.setInput(filtered);
+            if (last) {
+                deflater.finish();
+                while (!deflater.finished()) {
+                    compressed.write(buffer, 0, deflater.deflate(buffer));
+                }
+            } else {
+                // a sync flush ends the part on a byte boundary without a final block, so the parts concatenate
+                int count;
+                do {
+                    count = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                    compressed.write(buffer, 0, count);
+                } while (count == buffer.length);
+            }
+        } finally {
+            deflater.end();
+        }
+        return new Chunk(filtered, compressed.toByteArray(), last);
+    }
+
+    private void writeLoop() {
+        final Adler32 adler = new Adler32();
+        final CRC32 crc = new CRC32();
+        try {
+            out.write(SIGNATURE);
+            final byte[] header = new byte[13];
+            putInt(header, 0, width);
+            putInt(header, 4, height);
+            header[8] = 8; // bit depth
+            header[9] = 6; // color type RGBA
+            writeChunk("IHDR", header, 0, header.length, crc);
+            boolean first = true;
+            while (true) {
+                final Chunk chunk = queue.take().get();
+                adler.update(chunk.filtered);
+                byte[] data = chunk.compressed;
+                if (first) {
+                    // zlib header, deflate with a 32k window and no preset dictionary
+                    data = concat(new byte[]{0x78, (byte) 0x9c}, data);
+                    first = false;
+                }
+                if (chunk.last) {
+                    final byte[] checksum = new byte[4];
+                    putInt(checksum, 0, (int) adler.getValue());
+                    data = concat(data, checksum);
+                }
+                writeChunk("IDAT", data, 0, data.length, crc);
+                pending.release();
+                if (chunk.last) break;
+            }
+            writeChunk("IEND", new byte[0], 0, 0, crc);
+            out.flush();
+        } catch (ExecutionException e) {
+            failure = e.getCause();
+        } catch (Throwable t) {
+            failure = t;
+        } finally {
+            // unblock a producer waiting for a slot
+            pending.release(Integer.MAX_VALUE / 2);
+        }
+    }
+
+    private void writeChunk(String type, byte[] data, int offset, int length, CRC32 crc) throws IOException {
+        final byte[] typeBytes = {(byte) type.charAt(0), (byte) type.charAt(1), (byte) type.charAt(2), (byte) type.charAt(3)};
+        final byte[] word = new byte[4];
+        putInt(word, 0, length);
+        out.write(word);
+        out.write(typeBytes);
+        out.write(data, offset, length);
+        crc.reset();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word);
+    }
+
+    private static void putInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        final byte[] result = new byte[a.length + b.length];
+        System.arraycopy(a, 0, result, 0, a.length);
+        System.arraycopy(b, 0, result, a.length, b.length);
+        return result;
+    }
+
+    private void checkFailure() throws IOException {
+        final Throwable t = failure;
+        if (t == null) return;
+        if (t instanceof IOException) throw (IOException) t;
+        throw new IOException("png encoding failed", t);
+    }
+
+    /**
+     * Waits for every chunk to be written and closes the stream.
+     *
+     * @throws IOException if writing failed or fewer rows than the image height were written
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            if (rowsWritten < height) {
+                writerThread.interrupt();
+                throw new IOException("only " + rowsWritten + " of " + height + " rows were written");
+            }
+            writerThread.join();
+            checkFailure();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while finishing the png", e);
+        } finally {
+            deflaters.shutdownNow();
+            out.close();
+        }
+    }
+
+    private static class Chunk {
+        final byte[] filtered;
+        final byte[] compressed;
+        final boolean last;
+
+        Chunk(byte[] filtered, byte[] compressed, boolean last) {
+            this.filtered = filtered;
+            this.compressed = compressed;
+            this.last = last;
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.google.vr.sdk.controller.Controller;
 import com.google.vr.sdk.proto.nano.Preferences;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 
 /**
  * Created by Bob on 6/8/2017.
@@ -30,6 +31,8 @@ public class ArmModel {
     private static final float MAX_EXTENSION_ANGLE = 60.0f;
 
     private static final float EXTENSION_WEIGHT = 0.4f;
+    // a controller sample is one to two frames old by the time the frame using it is displayed
+    public static final long DEFAULT_PREDICTION_LEAD_NANOS = 25000000L;
     private static ArmModel instance = null;
     public float addedElbowHeight = 0.0f;
     public float addedElbowDepth = 0.0f;
@@ -52,6 +55,11 @@ public class ArmModel {
     private boolean firstUpdate;
     private Vector3 handedMultiplier = new Vector3();
     private Vector3 cameraForward = new Vector3();
+    private final Vector3 armExtensionOffset = new Vector3();
+    private final PosePredictor posePredictor = new PosePredictor();
+    private final Quaternion predictedOrientation = new Quaternion();
+    private boolean predictionEnabled = false;
+    private long predictionLeadNanos = DEFAULT_PREDICTION_LEAD_NANOS;
 
     private ArmModel() {
         updateHandedness();
@@ -70,9 +78,28 @@ public class ArmModel {
     }
 
     public void onControllerUpdate(Controller controller) {
+        final Quaternion orientation = Pools.obtain(Quaternion.class).set(controller.orientation.x, controller.orientation.y, controller.orientation.z, controller.orientation.w);
+        onControllerUpdate(orientation);
+        Pools.free(orientation);
+    }
+
+    /**
+     * with prediction enabled the arm is posed with the orientation extrapolated to the expected display time
+     */
+    public void onControllerUpdate(ControllerState state) {
+        posePredictor.addSample(state.orientation, state.timestampNanos);
+        if (predictionEnabled) {
+            posePredictor.predict(System.nanoTime() + predictionLeadNanos, predictedOrientation);
+            onControllerUpdate(predictedOrientation);
+        } else {
+            onControllerUpdate(state.orientation);
+        }
+    }
+
+    private void onControllerUpdate(Quaternion orientation) {
         updateHandedness();
         updateTorsoDirection();
-        applyArmModel(controller);
+        applyArmModel(orientation);
 //        UpdateTransparency();
         updatePointer();
 
@@ -112,7 +139,7 @@ public class ArmModel {
         gazeDirection.nor();
 
         if (followGaze == GazeBehavior.Always || firstUpdate) {
-            torsoDirection = gazeDirection;
+            torsoDirection.set(gazeDirection);
         } else if (followGaze == GazeBehavior.DuringMotion) {
 //            float angularVelocity = controller..magnitude;
 //            float gazeFilterStrength = MathUtils.clamp((angularVelocity - 0.2f) / 45.0f, 0.0f, 0.1f);
@@ -128,16 +155,16 @@ public class ArmModel {
         firstUpdate = true;
     }
 
-    private void applyArmModel(Controller controller) {
+    private void applyArmModel(Quaternion orientation) {
         // Find the controller's orientation relative to the player
         Quaternion controllerOrientation = Pools.obtain(Quaternion.class).set(shoulderRotation);
-        controllerOrientation.mul(controller.orientation.x, controller.orientation.y, controller.orientation.z, controller.orientation.w);
+        controllerOrientation.mul(orientation);
 
         // Get the relative positions of the joints
         elbowPosition.set(ELBOW_POSITION).add(0.0f, addedElbowHeight, addedElbowDepth);
         elbowPosition.scl(handedMultiplier);
         wristPosition.set(WRIST_POSITION).scl(handedMultiplier);
-        Vector3 armExtensionOffset = new Vector3(ARM_EXTENSION_OFFSET).scl(handedMultiplier);
+        armExtensionOffset.set(ARM_EXTENSION_OFFSET).scl(handedMultiplier);
 
         // Extract just the x rotation angle
         Vector3 controllerForward = Pools.obtain(Vector3.class).set(WORLD_FORWARD).mul(controllerOrientation);
@@ -177,6 +204,29 @@ public class ArmModel {
         pointerRotation.set(wristRotation).mul(pointerTilt);
     }
 
+    public boolean isPredictionEnabled() {
+        return predictionEnabled;
+    }
+
+    public void setPredictionEnabled(boolean predictionEnabled) {
+        this.predictionEnabled = predictionEnabled;
+    }
+
+    public long getPredictionLeadNanos() {
+        return predictionLeadNanos;
+    }
+
+    /**
+     * @param predictionLeadNanos time from processing a controller update to the display of the frame using it
+     */
+    public void setPredictionLeadNanos(long predictionLeadNanos) {
+        this.predictionLeadNanos = predictionLeadNanos;
+    }
+
+    public PosePredictor getPosePredictor() {
+        return posePredictor;
+    }
+
     /// Represents when gaze-following behavior should occur.
     public enum GazeBehavior {
         Never,        /// The shoulder will never follow the gaze.
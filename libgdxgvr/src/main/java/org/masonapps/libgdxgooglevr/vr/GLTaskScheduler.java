@@ -0,0 +1,187 @@
+package org.masonapps.libgdxgooglevr.vr;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Runs work posted from any thread on the GL thread within a time budget per frame.
+ * Each priority class is a lock free queue, {@link Priority#CRITICAL} tasks always run, the other classes run in order
+ * until the budget is spent and the rest carries over to the next frame.
+ */
+public class GLTaskScheduler {
+
+    public static final long DEFAULT_BUDGET_NANOS = 2000000L;
+
+    public enum Priority {
+        /**
+         * input and state updates that must be seen by the next frame, never deferred
+         */
+        CRITICAL,
+        HIGH,
+        NORMAL,
+        /**
+         * background work such as uploads of cached meshes
+         */
+        LOW
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<Task>[] queues = new ConcurrentLinkedQueue[PRIORITIES.length];
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private int lastExecutedCount = 0;
+    private int lastDeferredCount = 0;
+    private long lastElapsedNanos = 0;
+    private long lastMaxWaitNanos = 0;
+    private long deferredFrameCount = 0;
+
+    public GLTaskScheduler() {
+        for (int i = 0; i < queues.length; i++) {
+            queues[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * may be called from any thread
+     */
+    public void post(Runnable runnable, Priority priority) {
+        queues[priority.ordinal()].offer(new Task(runnable, System.nanoTime()));
+        pendingCount.incrementAndGet();
+    }
+
+    public void post(Runnable runnable) {
+        post(runnable, Priority.NORMAL);
+    }
+
+    /**
+     * runs the critical tasks and as many others as fit in the budget, call once per frame on the GL thread
+     *
+     * @return the number of tasks run
+     */
+    public int run() {
+        final long start = System.nanoTime();
+        final long deadline = start + budgetNanos;
+        int executed = 0;
+        long maxWait = 0;
+
+        // only the critical tasks that were queued before this frame, so a task reposting itself cannot stall the frame
+        final ConcurrentLinkedQueue<Task> critical = queues[Priority.CRITICAL.ordinal()];
+        for (int n = critical.size(); n > 0; n--) {
+            final Task task = critical.poll();
+            if (task == null) break;
+            maxWait = Math.max(maxWait, start - task.postTime);
+            execute(task);
+            executed++;
+        }
+
+        // at least one budgeted task runs every frame so a slow task cannot starve the queue forever
+        boolean ranBudgeted = false;
+        for (int p = Priority.CRITICAL.ordinal() + 1; p < queues.length; p++) {
+            final ConcurrentLinkedQueue<Task> queue = queues[p];
+            while (!ranBudgeted || System.nanoTime() < deadline) {
+                final Task task = queue.poll();
+                if (task == null) break;
+                maxWait = Math.max(maxWait, start - task.postTime);
+                execute(task);
+                executed++;
+                ranBudgeted = true;
+            }
+            if (ranBudgeted && System.nanoTime() >= deadline) break;
+        }
+
+        lastExecutedCount = executed;
+        lastDeferredCount = pendingCount.get();
+        lastElapsedNanos = System.nanoTime() - start;
+        lastMaxWaitNanos = maxWait;
+        if (lastDeferredCount > 0) deferredFrameCount++;
+        return executed;
+    }
+
+    private void execute(Task task) {
+        pendingCount.decrementAndGet();
+        try {
+            task.runnable.run();
+        } catch (Throwable t) {
+            t.printStackTrace();
+        }
+    }
+
+    /**
+     * drops all pending tasks without running them
+     */
+    public void clear() {
+        for (ConcurrentLinkedQueue<Task> queue : queues) {
+            while (queue.poll() != null) {
+                pendingCount.decrementAndGet();
+            }
+        }
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    public int getLastExecutedCount() {
+        return lastExecutedCount;
+    }
+
+    /**
+     * @return the number of tasks left for later frames after the last {@link #run()}
+     */
+    public int getLastDeferredCount() {
+        return lastDeferredCount;
+    }
+
+    public long getLastElapsedNanos() {
+        return lastElapsedNanos;
+    }
+
+    /**
+     * @return the longest time a task run in the last frame spent in the queue
+     */
+    public long getLastMaxWaitNanos() {
+        return lastMaxWaitNanos;
+    }
+
+    /**
+     * @return how long the oldest pending task has been waiting, 0 if there is none
+     */
+    public long getOldestPendingAgeNanos() {
+        final long now = System.nanoTime();
+        long age = 0;
+        for (ConcurrentLinkedQueue<Task> queue : queues) {
+            final Task head = queue.peek();
+            if (head != null)
+                age = Math.max(age, now - head.postTime);
+        }
+        return age;
+    }
+
+    /**
+     * @return the number of frames that ended with work left in the queue
+     */
+    public long getDeferredFrameCount() {
+        return deferredFrameCount;
+    }
+
+    private static class Task {
+        final Runnable runnable;
+        final long postTime;
+
+        Task(Runnable runnable, long postTime) {
+            this.runnable = runnable;
+            this.postTime = postTime;
+        }
+    }
+}
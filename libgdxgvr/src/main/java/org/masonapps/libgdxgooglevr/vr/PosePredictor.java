@@ -0,0 +1,206 @@
+package org.masonapps.libgdxgooglevr.vr;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Extrapolates an orientation to a future time from a least squares fit of the angular velocity over the recent samples.
+ * The prediction interval and the predicted rotation are both clamped, so a bad fit can only add a bounded error on top
+ * of the latest sample.
+ */
+public class PosePredictor {
+
+    public static final int DEFAULT_CAPACITY = 8;
+    public static final long DEFAULT_WINDOW_NANOS = 60000000L;
+    public static final long DEFAULT_MAX_PREDICTION_NANOS = 50000000L;
+    public static final float DEFAULT_MAX_ANGLE_DEG = 25f;
+    private static final float NANOS_TO_SECONDS = 1e-9f;
+
+    private final long[] times;
+    private final Quaternion[] orientations;
+    private int count = 0;
+    private int newest = -1;
+    private long windowNanos = DEFAULT_WINDOW_NANOS;
+    private long maxPredictionNanos = DEFAULT_MAX_PREDICTION_NANOS;
+    private float maxAngleRad = DEFAULT_MAX_ANGLE_DEG * MathUtils.degreesToRadians;
+    // radians per second in world space
+    private final Vector3 angularVelocity = new Vector3();
+    private final Quaternion tempQ = new Quaternion();
+    private final Vector3 tempV = new Vector3();
+
+    public PosePredictor() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PosePredictor(int capacity) {
+        times = new long[capacity];
+        orientations = new Quaternion[capacity];
+        for (int i = 0; i < capacity; i++) {
+            orientations[i] = new Quaternion();
+        }
+    }
+
+    public void addSample(Quaternion orientation, long timestampNanos) {
+        if (count > 0 && timestampNanos <= times[newest]) {
+            // same or older sample, only keep the latest orientation
+            orientations[newest].set(orientation);
+            return;
+        }
+        if (count > 0 && timestampNanos - times[newest] > windowNanos)
+            reset();
+        newest = (newest + 1) % times.length;
+        times[newest] = timestampNanos;
+        orientations[newest].set(orientation);
+        if (count < times.length) count++;
+        fitAngularVelocity();
+    }
+
+    /**
+     * fits w in q_i = exp(w * (t_i - t_newest)) * q_newest through the newest sample
+     */
+    private void fitAngularVelocity() {
+        angularVelocity.setZero();
+        if (count < 2) return;
+        final Quaternion latest = orientations[newest];
+        final long latestTime = times[newest];
+        float sumTT = 0f;
+        for (int n = 1; n < count; n++) {
+            final int i = (newest - n + times.length) % times.length;
+            final long age = latestTime - times[i];
+            if (age > windowNanos) break;
+            // rotation taking sample i to the latest sample, as a rotation vector
+            tempQ.set(latest).mul(orientations[i].x * -1f, orientations[i].y * -1f, orientations[i].z * -1f, orientations[i].w);
+            rotationVector(tempQ, tempV);
+            final float dt = age * NANOS_TO_SECONDS;
+            angularVelocity.mulAdd(tempV, dt);
+            sumTT += dt * dt;
+        }
+        if (sumTT > 0f)
+            angularVelocity.scl(1f / sumTT);
+    }
+
+    private static void rotationVector(Quaternion q, Vector3 out) {
+        float x = q.x, y = q.y, z = q.z, w = q.w;
+        // shortest arc
+        if (w < 0f) {
+            x = -x;
+            y = -y;
+            z = -z;
+            w = -w;
+        }
+        final float sinHalf = (float) Math.sqrt(x * x + y * y + z * z);
+        if (sinHalf < 1e-6f) {
+            out.set(x, y, z).scl(2f);
+            return;
+        }
+        final float angle = 2f * (float) Math.atan2(sinHalf, w);
+        out.set(x, y, z).scl(angle / sinHalf);
+    }
+
+    /**
+     * @param out the newest sample rotated by the fitted angular velocity up to the target time
+     * @return out
+     */
+    public Quaternion predict(long targetTimeNanos, Quaternion out) {
+        if (count == 0) return out.idt();
+        out.set(orientations[newest]);
+        if (count < 2) return out;
+        final long dtNanos = Math.min(Math.max(targetTimeNanos - times[newest], 0L), maxPredictionNanos);
+        final float speed = angularVelocity.len();
+        if (dtNanos == 0 || speed < 1e-4f) return out;
+        final float angle = Math.min(speed * dtNanos * NANOS_TO_SECONDS, maxAngleRad);
+        tempV.set(angularVelocity).scl(1f / speed);
+        tempQ.setFromAxisRad(tempV, angle);
+        return out.mulLeft(tempQ);
+    }
+
+    public long getNewestTimestamp() {
+        return count == 0 ? 0 : times[newest];
+    }
+
+    /**
+     * @return the fitted angular velocity in radians per second
+     */
+    public Vector3 getAngularVelocity() {
+        return angularVelocity;
+    }
+
+    public void reset() {
+        count = 0;
+        newest = -1;
+        angularVelocity.setZero();
+    }
+
+    public void setWindowNanos(long windowNanos) {
+        this.windowNanos = windowNanos;
+    }
+
+    public void setMaxPredictionNanos(long maxPredictionNanos) {
+        this.maxPredictionNanos = maxPredictionNanos;
+    }
+
+    public void setMaxAngleDeg(float maxAngleDeg) {
+        this.maxAngleRad = maxAngleDeg * MathUtils.degreesToRadians;
+    }
+
+    /**
+     * Replays a recorded orientation sequence. For each sample, predicts the orientation latencyNanos later and
+     * compares it with the recorded orientation at that time, interpolated between samples. It also compares the
+     * unpredicted stale orientation, which gives the error prediction is meant to remove.
+     *
+     * @param timestamps   sample times in nanoseconds, increasing
+     * @param orientations x, y, z, w per sample
+     */
+    public ReplayResult replay(long[] timestamps, float[] orientations, long latencyNanos) {
+        reset();
+        final ReplayResult result = new ReplayResult();
+        final Quaternion sample = new Quaternion();
+        final Quaternion predicted = new Quaternion();
+        final Quaternion actual = new Quaternion();
+        final Quaternion next = new Quaternion();
+        int target = 0;
+        for (int i = 0; i < timestamps.length; i++) {
+            sample.set(orientations[i * 4], orientations[i * 4 + 1], orientations[i * 4 + 2], orientations[i * 4 + 3]);
+            addSample(sample, timestamps[i]);
+            final long targetTime = timestamps[i] + latencyNanos;
+            while (target < timestamps.length - 1 && timestamps[target + 1] < targetTime) target++;
+            if (target >= timestamps.length - 1) break;
+            actual.set(orientations[target * 4], orientations[target * 4 + 1], orientations[target * 4 + 2], orientations[target * 4 + 3]);
+            next.set(orientations[target * 4 + 4], orientations[target * 4 + 5], orientations[target * 4 + 6], orientations[target * 4 + 7]);
+            final float alpha = (float) (targetTime - timestamps[target]) / (timestamps[target + 1] - timestamps[target]);
+            actual.slerp(next, MathUtils.clamp(alpha, 0f, 1f));
+            predict(targetTime, predicted);
+            result.add(angleBetweenDeg(predicted, actual), angleBetweenDeg(sample, actual));
+        }
+        return result;
+    }
+
+    private static float angleBetweenDeg(Quaternion a, Quaternion b) {
+        final float dot = Math.min(Math.abs(a.dot(b)), 1f);
+        return 2f * (float) Math.acos(dot) * MathUtils.radiansToDegrees;
+    }
+
+    public static class ReplayResult {
+        public int sampleCount = 0;
+        public float meanPredictedErrorDeg = 0f;
+        public float maxPredictedErrorDeg = 0f;
+        public float meanStaleErrorDeg = 0f;
+        public float maxStaleErrorDeg = 0f;
+
+        void add(float predictedError, float staleError) {
+            sampleCount++;
+            meanPredictedErrorDeg += (predictedError - meanPredictedErrorDeg) / sampleCount;
+            meanStaleErrorDeg += (staleError - meanStaleErrorDeg) / sampleCount;
+            maxPredictedErrorDeg = Math.max(maxPredictedErrorDeg, predictedError);
+            maxStaleErrorDeg = Math.max(maxStaleErrorDeg, staleError);
+        }
+
+        @Override
+        public String toString() {
+            return "samples " + sampleCount + ", predicted error mean " + meanPredictedErrorDeg + " max " + maxPredictedErrorDeg +
+                    " deg, stale error mean " + meanStaleErrorDeg + " max " + maxStaleErrorDeg + " deg";
+        }
+    }
+}
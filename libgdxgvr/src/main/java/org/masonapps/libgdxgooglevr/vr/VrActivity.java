@@ -308,6 +308,7 @@ public class VrActivity extends Activity {
 
         protected final Array<Runnable> runnables = new Array<>();
         protected final Array<Runnable> executedRunnables = new Array<Runnable>();
+        protected final GLTaskScheduler glTaskScheduler = new GLTaskScheduler();
         protected final SnapshotArray<LifecycleListener> lifecycleListeners = new SnapshotArray<>();
         private final Array<AndroidEventListener> androidEventListeners = new Array<AndroidEventListener>();
         public Handler handler;
@@ -399,6 +400,10 @@ public class VrActivity extends Activity {
             return net;
         }
 
+        /**
+         * only here for {@link AndroidApplicationBase}, use {@link #postRunnable(Runnable)}, the list is drained into the
+         * {@link GLTaskScheduler} every frame
+         */
         @Override
         public Array<Runnable> getRunnables() {
             return runnables;
@@ -499,10 +504,32 @@ public class VrActivity extends Activity {
             return clipboard;
         }
 
+        /**
+         * runnables are run on the GL thread within the frame budget of the {@link GLTaskScheduler}
+         */
         @Override
         public void postRunnable(Runnable runnable) {
+            glTaskScheduler.post(runnable);
+        }
+
+        public void postRunnable(Runnable runnable, GLTaskScheduler.Priority priority) {
+            glTaskScheduler.post(runnable, priority);
+        }
+
+        public GLTaskScheduler getGLTaskScheduler() {
+            return glTaskScheduler;
+        }
+
+        /**
+         * moves runnables that backend code added to {@link #getRunnables()} into the scheduler, called on the GL thread
+         * before every frame so nothing is left in the list
+         */
+        public void drainRunnables() {
             synchronized (runnables) {
-                runnables.add(runnable);
+                for (int i = 0; i < runnables.size; i++) {
+                    glTaskScheduler.post(runnables.get(i));
+                }
+                runnables.clear();
             }
         }
 
@@ -565,7 +592,7 @@ public class VrActivity extends Activity {
     }
 
     private class EventListener extends Controller.EventListener
-            implements ControllerManager.EventListener, Runnable {
+            implements ControllerManager.EventListener {
 
         // The status of the overall controller API. This is primarily used for error handling since
         // it rarely changes.
@@ -582,7 +609,7 @@ public class VrActivity extends Activity {
         @Override
         public void onConnectionStateChanged(int state) {
             connectionState = state;
-            app.postRunnable(this);
+            publishState();
         }
 
         @Override
@@ -594,14 +621,15 @@ public class VrActivity extends Activity {
 
         @Override
         public void onUpdate() {
-            app.postRunnable(this);
+            publishState();
         }
 
-        // Update the various TextViews in the UI thread.
-        @Override
-        public void run() {
+        // runs on the controller thread, the snapshot is handed to the GL thread without locking or allocating
+        private void publishState() {
+            final VrAndroidInput input = app.input;
+            if (input == null) return;
             controller.update();
-            app.input.onDaydreamControllerUpdate(controller, connectionState);
+            input.getControllerEventRing().offer(controller, connectionState);
         }
     }
 }
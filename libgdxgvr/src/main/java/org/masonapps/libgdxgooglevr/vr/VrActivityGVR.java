@@ -249,12 +249,12 @@ public class VrActivityGVR extends GvrActivity {
                 public void run() {
                     GdxVr.app.getVrApplicationAdapter().onCardboardTrigger();
                 }
-            });
+            }, GLTaskScheduler.Priority.CRITICAL);
         }
     }
 
     private class EventListener extends Controller.EventListener
-            implements ControllerManager.EventListener, Runnable {
+            implements ControllerManager.EventListener {
 
         // The status of the overall controller API. This is primarily used for error handling since
         // it rarely changes.
@@ -271,7 +271,7 @@ public class VrActivityGVR extends GvrActivity {
         @Override
         public void onConnectionStateChanged(int state) {
             connectionState = state;
-            app.postRunnable(this);
+            publishState();
         }
 
         @Override
@@ -283,14 +283,15 @@ public class VrActivityGVR extends GvrActivity {
 
         @Override
         public void onUpdate() {
-            app.postRunnable(this);
+            publishState();
         }
 
-        // Update the various TextViews in the UI thread.
-        @Override
-        public void run() {
+        // runs on the controller thread, the snapshot is handed to the GL thread without locking or allocating
+        private void publishState() {
+            final VrAndroidInput input = app.input;
+            if (input == null) return;
             controller.update();
-            app.input.onDaydreamControllerUpdate(controller, connectionState);
+            input.getControllerEventRing().offer(controller, connectionState);
         }
     }
 }
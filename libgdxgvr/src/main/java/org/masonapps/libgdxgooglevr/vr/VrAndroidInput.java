@@ -18,6 +18,8 @@ import com.badlogic.gdx.utils.Pool;
 import com.google.vr.sdk.controller.Controller;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.input.ControllerEventRing;
+import org.masonapps.libgdxgooglevr.input.ControllerState;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerHandler;
 import org.masonapps.libgdxgooglevr.input.DaydreamControllerInputListener;
 import org.masonapps.libgdxgooglevr.input.VrInputProcessor;
@@ -41,6 +43,15 @@ public class VrAndroidInput implements Input, View.OnKeyListener {
     private Vector3 controllerPosition = new Vector3();
     private Ray inputRay = new Ray();
     private DaydreamControllerHandler daydreamControllerHandler;
+    private final ControllerEventRing controllerEvents = new ControllerEventRing();
+    private final ControllerState controllerState = new ControllerState();
+    private final ControllerState legacyState = new ControllerState();
+    private final ControllerEventRing.Consumer controllerStateConsumer = new ControllerEventRing.Consumer() {
+        @Override
+        public void onControllerState(ControllerState state) {
+            onDaydreamControllerUpdate(state);
+        }
+    };
     private Pool<KeyEvent> usedKeyEvents = new Pool<KeyEvent>(16, 1000) {
         protected KeyEvent newObject() {
             return new KeyEvent();
@@ -166,6 +177,8 @@ public class VrAndroidInput implements Input, View.OnKeyListener {
     }
 
     public void processEvents() {
+        // outside the lock, the ring is the only state shared with the controller thread
+        controllerEvents.drain(controllerStateConsumer);
         synchronized (this) {
             updateInputRay();
             if (processor instanceof VrInputProcessor) {
@@ -177,10 +190,10 @@ public class VrAndroidInput implements Input, View.OnKeyListener {
                     final int y = (int) hitPoint2D.y;
                     lastTouch.set(touch);
                     touch.set(x, y);
-                    if (controller.clickButtonState && !isInputProcessorTouched) {
+                    if (controllerState.clickButtonState && !isInputProcessorTouched) {
                         postTouchEvent(TouchEvent.TOUCH_DOWN, x, y);
                         isInputProcessorTouched = true;
-                    } else if (!controller.clickButtonState && isInputProcessorTouched) {
+                    } else if (!controllerState.clickButtonState && isInputProcessorTouched) {
                         postTouchEvent(TouchEvent.TOUCH_UP, x, y);
                         isInputProcessorTouched = false;
                     } else {
@@ -569,17 +582,44 @@ public class VrAndroidInput implements Input, View.OnKeyListener {
         }
     }
 
-    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
-        if (connectionState == Controller.ConnectionStates.CONNECTED) {
+    /**
+     * called on the GL thread for every snapshot drained from {@link #getControllerEventRing()}
+     */
+    protected void onDaydreamControllerUpdate(ControllerState state) {
+        controllerState.set(state);
+        if (state.isConnected()) {
             isControllerConnected = true;
             armModel.updateHeadDirection(GdxVr.app.getVrApplicationAdapter().getVrCamera().direction);
-            armModel.onControllerUpdate(controller);
-            controllerOrientation.set(controller.orientation.x, controller.orientation.y, controller.orientation.z, controller.orientation.w);
+            armModel.onControllerUpdate(state);
+            controllerOrientation.set(state.orientation);
             controllerPosition.set(armModel.pointerPosition).add(GdxVr.app.getVrApplicationAdapter().getVrCamera().position);
         } else {
             isControllerConnected = false;
         }
-        daydreamControllerHandler.process(controller, connectionState);
+        daydreamControllerHandler.process(state);
+    }
+
+    /**
+     * @deprecated the activities publish to {@link #getControllerEventRing()} from the controller thread. This copies
+     * the controller on the calling thread, so only call it on the GL thread with a controller nobody else updates.
+     */
+    @Deprecated
+    public void onDaydreamControllerUpdate(Controller controller, int connectionState) {
+        onDaydreamControllerUpdate(legacyState.set(controller, connectionState));
+    }
+
+    /**
+     * the controller thread publishes its updates here, see {@link ControllerEventRing#offer(Controller, int)}
+     */
+    public ControllerEventRing getControllerEventRing() {
+        return controllerEvents;
+    }
+
+    /**
+     * @return the controller state as of the last drained snapshot, only valid on the GL thread
+     */
+    public ControllerState getControllerState() {
+        return controllerState;
     }
 
     private void postTouchEvent(int type, int x, int y) {
@@ -12,6 +12,7 @@ import com.google.vr.sdk.base.HeadTransform;
 import com.google.vr.sdk.base.Viewport;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 
 /**
  * Created by Bob on 12/15/2016.
@@ -31,11 +32,19 @@ public abstract class VrApplicationAdapter implements ApplicationListener {
 
     @CallSuper
     public void onDrawFrame(HeadTransform headTransform, Eye leftEye, Eye rightEye) {
+        GdxVr.profiler.begin(FrameProfiler.Phase.UPDATE);
         onNewFrame(headTransform);
-        if (leftEye != null)
+        GdxVr.profiler.end();
+        if (leftEye != null) {
+            GdxVr.profiler.begin(FrameProfiler.Phase.RENDER);
             onDrawEye(leftEye);
-        if (rightEye != null)
+            GdxVr.profiler.end();
+        }
+        if (rightEye != null) {
+            GdxVr.profiler.begin(FrameProfiler.Phase.RENDER);
             onDrawEye(rightEye);
+            GdxVr.profiler.end();
+        }
     }
 
     @CallSuper
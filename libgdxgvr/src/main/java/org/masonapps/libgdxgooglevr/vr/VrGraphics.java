@@ -44,6 +44,7 @@ import com.google.vr.sdk.base.Eye;
 import com.google.vr.sdk.base.HeadTransform;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 
 import java.lang.ref.WeakReference;
 import java.util.concurrent.TimeUnit;
@@ -558,25 +559,21 @@ public class VrGraphics implements Graphics, GLSurfaceView.Renderer {
 //        }
 
         if (lrunning) {
-            synchronized (app.getRunnables()) {
-                app.getExecutedRunnables().clear();
-                app.getExecutedRunnables().addAll(app.getRunnables());
-                app.getRunnables().clear();
-            }
-
-            for (int i = 0; i < app.getExecutedRunnables().size; i++) {
-                try {
-                    app.getExecutedRunnables().get(i).run();
-                } catch (Throwable t) {
-                    t.printStackTrace();
-                }
-            }
+            final FrameProfiler profiler = GdxVr.profiler;
+            profiler.beginFrame();
+            profiler.begin(FrameProfiler.Phase.GL_TASKS);
+            GdxVr.app.drainRunnables();
+            GdxVr.app.getGLTaskScheduler().run();
+            profiler.end();
             handleHeadTransform(headTransform);
             final VrAndroidInput input = GdxVr.input;
 //            if (!input.isControllerConnected())
 //                input.updateInputRay();
+            profiler.begin(FrameProfiler.Phase.INPUT);
             input.processEvents();
+            profiler.end();
             ((VrApplicationAdapter) GdxVr.app.getApplicationListener()).onDrawFrame(headTransform, leftEye, rightEye);
+            profiler.endFrame();
             frameId++;
         }
 
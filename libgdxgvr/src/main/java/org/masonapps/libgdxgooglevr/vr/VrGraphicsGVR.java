@@ -34,6 +34,7 @@ import com.google.vr.sdk.base.HeadTransform;
 import com.google.vr.sdk.base.Viewport;
 
 import org.masonapps.libgdxgooglevr.GdxVr;
+import org.masonapps.libgdxgooglevr.utils.FrameProfiler;
 
 import java.util.concurrent.TimeUnit;
 
@@ -526,25 +527,21 @@ public class VrGraphicsGVR implements Graphics, GvrView.Renderer {
 //        }
 
         if (lrunning) {
-            synchronized (app.getRunnables()) {
-                app.getExecutedRunnables().clear();
-                app.getExecutedRunnables().addAll(app.getRunnables());
-                app.getRunnables().clear();
-            }
-
-            for (int i = 0; i < app.getExecutedRunnables().size; i++) {
-                try {
-                    app.getExecutedRunnables().get(i).run();
-                } catch (Throwable t) {
-                    t.printStackTrace();
-                }
-            }
+            final FrameProfiler profiler = GdxVr.profiler;
+            profiler.beginFrame();
+            profiler.begin(FrameProfiler.Phase.GL_TASKS);
+            GdxVr.app.drainRunnables();
+            GdxVr.app.getGLTaskScheduler().run();
+            profiler.end();
             handleHeadTransform(headTransform);
             final VrAndroidInput input = GdxVr.input;
 //            if (!input.isControllerConnected())
 //                input.updateInputRay();
+            profiler.begin(FrameProfiler.Phase.INPUT);
             input.processEvents();
+            profiler.end();
             ((VrApplicationAdapter) GdxVr.app.getApplicationListener()).onDrawFrame(headTransform, leftEye, rightEye);
+            profiler.endFrame();
             frameId++;
         }
 
@@ -0,0 +1,155 @@
+package org.masonapps.libgdxgooglevr.bullet;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+import com.badlogic.gdx.physics.bullet.Bullet;
+import com.badlogic.gdx.physics.bullet.collision.btBoxShape;
+import com.badlogic.gdx.physics.bullet.dynamics.btDynamicsWorld;
+import com.badlogic.gdx.physics.bullet.dynamics.btRigidBody;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+import org.masonapps.libgdxgooglevr.gfx.DynamicAabbTree;
+import org.masonapps.libgdxgooglevr.gfx.Entity;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class BulletWorldTest {
+
+    private static boolean bulletLoaded = false;
+    private static final DynamicAabbTree.RayCastCallback<Entity> ANY_HIT = new DynamicAabbTree.RayCastCallback<Entity>() {
+        @Override
+        public float rayCast(Entity data, Ray ray) {
+            return 0f;
+        }
+    };
+
+    private Model model;
+    private btBoxShape shape;
+    private btRigidBody.btRigidBodyConstructionInfo info;
+    private BulletWorld world;
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        if (!bulletLoaded) {
+            Bullet.init();
+            bulletLoaded = true;
+        }
+        model = new ModelBuilder().createBox(1f, 1f, 1f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        shape = new btBoxShape(new Vector3(0.5f, 0.5f, 0.5f));
+        final Vector3 inertia = new Vector3();
+        shape.calculateLocalInertia(1f, inertia);
+        info = new btRigidBody.btRigidBodyConstructionInfo(1f, null, shape, inertia);
+        world = new BulletWorld();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        world.dispose();
+        info.dispose();
+        shape.dispose();
+        model.dispose();
+    }
+
+    private static Ray horizontalRay(float y) {
+        return new Ray(new Vector3(-10f, y, 0f), new Vector3(1f, 0f, 0f));
+    }
+
+    @Test
+    public void steppedBodiesMoveTheirEntityAndItsBounds() throws Exception {
+        final BulletEntity entity = world.add(new BulletEntity(model, info, 0f, 10f, 0f));
+        world.updateTransforms();
+        assertSame(entity, world.rayCast(horizontalRay(10f), ANY_HIT));
+
+        for (int i = 0; i < 60; i++) {
+            ((btDynamicsWorld) world.collisionWorld).stepSimulation(1f / 60f, 0, 1f / 60f);
+        }
+
+        final float y = entity.getY();
+        assertTrue(y < 6f);
+        assertNull(world.rayCast(horizontalRay(10f), ANY_HIT));
+        assertSame(entity, world.rayCast(horizontalRay(y), ANY_HIT));
+        assertEquals(y, entity.getTransform().getTranslation(new Vector3()).y, 1e-5f);
+    }
+
+    @Test
+    public void clearEntitiesRemovesBodiesProxiesAndSlots() throws Exception {
+        world.add(new BulletEntity(model, info, 0f, 0f, 0f));
+        world.add(new BulletEntity(model, info, 0f, 2f, 0f));
+        world.updateTransforms();
+        assertEquals(2, world.collisionWorld.getNumCollisionObjects());
+
+        world.clearEntities();
+
+        assertEquals(0, world.entities.size);
+        assertEquals(0, world.collisionWorld.getNumCollisionObjects());
+        assertEquals(0, world.getTransforms().getCount());
+        assertNull(world.rayCast(horizontalRay(0f), ANY_HIT));
+    }
+
+    @Test
+    public void attachedMotionStateMovesTheEntityAndKeepsItsScale() throws Exception {
+        final BulletEntity entity = world.add(new BulletEntity(model, info, 0f, 10f, 0f));
+        entity.setScale(2f);
+        world.updateTransforms();
+        final TransformInterpolationBuffer buffer = new TransformInterpolationBuffer(10000000L);
+        entity.motionState.attach(buffer);
+
+        // what bullet reports while stepping only reaches the entity through interpolate
+        entity.motionState.setWorldTransform(new Matrix4().setToTranslation(4f, 10f, 0f));
+        assertEquals(0f, entity.getX(), 0f);
+        buffer.publish(0, 10000000L);
+        buffer.read(15000000L);
+        entity.motionState.interpolate();
+        world.updateTransforms();
+
+        assertEquals(2f, entity.getX(), 1e-5f);
+        assertEquals(2f, entity.getScaleX(), 0f);
+        final Matrix4 transform = entity.getTransform();
+        assertEquals(2f, transform.getTranslation(new Vector3()).x, 1e-5f);
+        assertTrue(transform.getScale(new Vector3()).epsilonEquals(2f, 2f, 2f, 1e-5f));
+        assertSame(entity, world.rayCast(new Ray(new Vector3(2f, 20f, 0f), new Vector3(0f, -1f, 0f)), ANY_HIT));
+
+        // detaching snaps to the latest simulated step
+        entity.motionState.detach();
+        world.updateTransforms();
+        assertEquals(4f, entity.getX(), 1e-5f);
+        assertEquals(2f, entity.getScaleX(), 0f);
+    }
+
+    @Test
+    public void physicsThreadMovesBodiesThroughUpdate() throws Exception {
+        final BulletEntity entity = world.add(new BulletEntity(model, info, 0f, 10f, 0f));
+        world.startPhysicsThread();
+        try {
+            assertTrue(entity.motionState.isAttached());
+            final long end = System.nanoTime() + 500000000L;
+            while (System.nanoTime() < end && entity.getY() > 9f) {
+                world.update();
+                Thread.sleep(5);
+            }
+            assertTrue(world.getPhysicsThread().getStepCount() > 0);
+        } finally {
+            world.stopPhysicsThread();
+        }
+        assertFalse(entity.motionState.isAttached());
+        world.updateTransforms();
+        final float y = entity.getY();
+        assertTrue(String.valueOf(y), y < 9.5f);
+        assertEquals(y, entity.getTransform().getTranslation(new Vector3()).y, 1e-5f);
+        assertSame(entity, world.rayCast(horizontalRay(y), ANY_HIT));
+    }
+}
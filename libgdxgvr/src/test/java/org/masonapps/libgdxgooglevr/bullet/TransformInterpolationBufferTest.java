@@ -0,0 +1,185 @@
+package org.masonapps.libgdxgooglevr.bullet;
+
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class TransformInterpolationBufferTest {
+
+    private static final long STEP = 10000000L;
+
+    private final TransformInterpolationBuffer buffer = new TransformInterpolationBuffer(STEP);
+    private final Matrix4 out = new Matrix4();
+    private final Vector3 v = new Vector3();
+    private final Quaternion q = new Quaternion();
+
+    private static Matrix4 at(float x, float y, float z) {
+        return new Matrix4().setToTranslation(x, y, z);
+    }
+
+    private float interpolatedX(int slot) {
+        return buffer.getInterpolated(slot, out.idt()).getTranslation(v).x;
+    }
+
+    @Test
+    public void publishedStepsAreInterpolated() throws Exception {
+        final int slot = buffer.allocate(at(0f, 0f, 0f));
+        assertEquals(-1, buffer.read(0L));
+        assertEquals(1f, buffer.getAlpha(), 0f);
+        assertEquals(0f, interpolatedX(slot), 0f);
+
+        buffer.write(slot, new Matrix4().set(new Vector3(1f, 0f, 0f), new Quaternion(Vector3.Y, 90f)));
+        buffer.publish(0, STEP);
+
+        // the step published at STEP is reached one step later
+        assertEquals(0, buffer.read(STEP));
+        assertEquals(0f, interpolatedX(slot), 1e-6f);
+        buffer.read(STEP + STEP / 2);
+        assertEquals(0.5f, buffer.getAlpha(), 1e-6f);
+        buffer.getInterpolated(slot, out.idt());
+        assertEquals(0.5f, out.getTranslation(v).x, 1e-6f);
+        assertEquals(45f, out.getRotation(q).getAngleAround(Vector3.Y), 1e-3f);
+
+        buffer.write(slot, at(3f, 0f, 0f));
+        buffer.publish(1, 2 * STEP);
+        assertEquals(1, buffer.read(2 * STEP + STEP / 2));
+        assertEquals(2f, interpolatedX(slot), 1e-6f);
+    }
+
+    @Test
+    public void unpublishedWritesAreNotRead() throws Exception {
+        final int slot = buffer.allocate(at(0f, 0f, 0f));
+        buffer.write(slot, at(1f, 0f, 0f));
+        buffer.publish(0, STEP);
+        buffer.read(2 * STEP);
+
+        // the physics thread is in the middle of the next step
+        buffer.write(slot, at(9f, 0f, 0f));
+        assertEquals(0, buffer.read(3 * STEP));
+        assertEquals(1f, interpolatedX(slot), 1e-6f);
+        assertEquals(9f, buffer.getPhysicsTransform(slot, out).getTranslation(v).x, 0f);
+    }
+
+    @Test
+    public void alphaIsClamped() throws Exception {
+        final int slot = buffer.allocate(at(0f, 0f, 0f));
+        buffer.write(slot, at(1f, 0f, 0f));
+        buffer.publish(0, 5 * STEP);
+
+        // a render time before the step would extrapolate backwards
+        buffer.read(STEP);
+        assertEquals(0f, buffer.getAlpha(), 0f);
+        assertEquals(0f, interpolatedX(slot), 0f);
+        // a stalled physics thread would extrapolate forwards
+        buffer.read(50 * STEP);
+        assertEquals(1f, buffer.getAlpha(), 0f);
+        assertEquals(1f, interpolatedX(slot), 0f);
+    }
+
+    @Test
+    public void scaleOfTheOutputIsKept() throws Exception {
+        final int slot = buffer.allocate(new Matrix4().set(new Vector3(1f, 2f, 3f), new Quaternion(), new Vector3(4f, 4f, 4f)));
+        buffer.read(0L);
+
+        buffer.getInterpolated(slot, out.setToScaling(2f, 3f, 4f));
+
+        assertTrue(out.getScale(v).toString(), v.epsilonEquals(2f, 3f, 4f, 1e-5f));
+        assertTrue(out.getTranslation(v).toString(), v.epsilonEquals(1f, 2f, 3f, 1e-6f));
+    }
+
+    @Test
+    public void freedSlotsAreReusedWithoutStaleState() throws Exception {
+        final int a = buffer.allocate(at(1f, 0f, 0f));
+        final int b = buffer.allocate(at(2f, 0f, 0f));
+        buffer.write(a, at(10f, 0f, 0f));
+        buffer.publish(0, STEP);
+        buffer.read(STEP + STEP / 2);
+        assertEquals(5.5f, interpolatedX(a), 1e-5f);
+
+        buffer.free(a);
+        assertEquals(1, buffer.getSlotCount());
+        final int c = buffer.allocate(at(-3f, 0f, 0f));
+        assertEquals(a, c);
+        assertEquals(2, buffer.getSlotCount());
+
+        // the new body starts where it was added in every buffer, nothing is left of the freed one
+        assertEquals(-3f, interpolatedX(c), 0f);
+        buffer.publish(1, 2 * STEP);
+        buffer.read(2 * STEP + STEP / 2);
+        assertEquals(-3f, interpolatedX(c), 1e-6f);
+        assertEquals(2f, interpolatedX(b), 1e-6f);
+    }
+
+    @Test
+    public void growingKeepsPublishedState() throws Exception {
+        final int first = buffer.allocate(at(0f, 0f, 0f));
+        buffer.write(first, at(1f, 0f, 0f));
+        buffer.publish(0, STEP);
+
+        // grows past the initial capacity twice
+        final int[] slots = new int[40];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = buffer.allocate(at(i + 100f, 0f, 0f));
+        }
+        assertEquals(41, buffer.getSlotCount());
+
+        buffer.read(STEP + STEP / 2);
+        assertEquals(0.5f, interpolatedX(first), 1e-6f);
+        for (int i = 0; i < slots.length; i++) {
+            assertEquals(i + 100f, interpolatedX(slots[i]), 0f);
+        }
+    }
+
+    @Test
+    public void readsNeverMixSteps() throws Exception {
+        final int[] slots = new int[64];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = buffer.allocate(at(0f, 0f, 0f));
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread physics = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final Matrix4 transform = new Matrix4();
+                    for (int step = 0; step < 5000; step++) {
+                        for (int slot : slots) {
+                            buffer.write(slot, transform.setToTranslation(step + 1, 0f, 0f));
+                        }
+                        buffer.publish(step, (step + 1) * STEP);
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        }, "physics-step");
+        physics.start();
+        long lastStep = -1;
+        while (physics.isAlive() || lastStep < 4999) {
+            final long step = buffer.read(Long.MAX_VALUE / 2);
+            assertTrue(step >= lastStep);
+            lastStep = step;
+            if (step < 0) continue;
+            // every slot is at the end of the same step
+            for (int slot : slots) {
+                assertEquals(step + 1, interpolatedX(slot), 0f);
+            }
+        }
+        physics.join();
+        assertNull(failure.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void stepMustBePositive() throws Exception {
+        new TransformInterpolationBuffer(0L);
+    }
+}
@@ -0,0 +1,179 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.Renderable;
+import com.badlogic.gdx.graphics.g3d.Shader;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.DefaultTextureBinder;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.graphics.g3d.utils.RenderContext;
+import com.badlogic.gdx.graphics.g3d.utils.ShaderProvider;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.google.vr.sdk.base.Eye;
+import com.google.vr.sdk.base.Viewport;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+import org.masonapps.libgdxgooglevr.vr.VrCamera;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class StereoRenderListTest {
+
+    private Model model;
+    private VrCamera camera;
+    private Eye leftEye;
+    private Eye rightEye;
+    private final ShaderProvider shaderProvider = new ShaderProvider() {
+        private final Shader shader = new NullShader();
+
+        @Override
+        public Shader getShader(Renderable renderable) {
+            return shader;
+        }
+
+        @Override
+        public void dispose() {
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        model = new ModelBuilder().createBox(1f, 1f, 1f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        camera = new VrCamera();
+        camera.far = 100f;
+        camera.direction.set(0f, 0f, -1f);
+        leftEye = new TestEye(Eye.Type.LEFT, -0.03f);
+        rightEye = new TestEye(Eye.Type.RIGHT, 0.03f);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        model.dispose();
+    }
+
+    @Test
+    public void buildGoesThroughTheWorldRenderOverride() throws Exception {
+        final int[] calls = {0};
+        final World world = new World() {
+            @Override
+            protected void renderCulled(ModelBatch batch, Environment lights, Array<Entity> entities) {
+                calls[0]++;
+                for (Entity entity : entities) {
+                    if (entity.getX() < 0f)
+                        render(batch, lights, entity);
+                }
+            }
+        };
+        world.add(new Entity(new ModelInstance(model, -1f, 0f, -5f)));
+        world.add(new Entity(new ModelInstance(model, 1f, 0f, -5f)));
+        world.add(new Entity(new ModelInstance(model, 0f, 0f, 5f)));
+        world.update();
+
+        final StereoRenderList list = new StereoRenderList();
+        list.build(world, camera, leftEye, rightEye, new Environment(), shaderProvider);
+
+        assertTrue(list.isValid());
+        assertEquals(1, calls[0]);
+        assertEquals(1, list.getRenderableCount());
+        assertEquals(1, list.getCullCount());
+
+        list.render(camera, new RenderContext(new DefaultTextureBinder(DefaultTextureBinder.ROUNDROBIN)));
+        list.clear();
+        assertEquals(0, list.getRenderableCount());
+        world.dispose();
+    }
+
+    @Test
+    public void overridesThatDrawDirectlyInvalidateTheList() throws Exception {
+        final World world = new World() {
+            @Override
+            protected void renderCulled(ModelBatch batch, Environment lights, Array<Entity> entities) {
+                super.renderCulled(batch, lights, entities);
+                batch.flush();
+            }
+        };
+        world.add(new Entity(new ModelInstance(model, 0f, 0f, -5f)));
+        world.update();
+
+        final StereoRenderList list = new StereoRenderList();
+        list.build(world, camera, leftEye, rightEye, new Environment(), shaderProvider);
+
+        assertFalse(list.isValid());
+        assertEquals(0, list.getRenderableCount());
+        world.dispose();
+    }
+
+    private static class TestEye extends Eye {
+        private final float offset;
+        private final Viewport viewport = new Viewport();
+
+        TestEye(int type, float offset) {
+            super(type);
+            this.offset = offset;
+            viewport.width = 100;
+            viewport.height = 100;
+        }
+
+        @Override
+        public float[] getEyeView() {
+            return new Matrix4().setToTranslation(-offset, 0f, 0f).val;
+        }
+
+        @Override
+        public float[] getPerspective(float near, float far) {
+            return new Matrix4().setToProjection(near, far, 90f, 1f).val;
+        }
+
+        @Override
+        public Viewport getViewport() {
+            return viewport;
+        }
+    }
+
+    private static class NullShader implements Shader {
+        @Override
+        public void init() {
+        }
+
+        @Override
+        public int compareTo(Shader other) {
+            return 0;
+        }
+
+        @Override
+        public boolean canRender(Renderable instance) {
+            return true;
+        }
+
+        @Override
+        public void begin(Camera camera, RenderContext context) {
+        }
+
+        @Override
+        public void render(Renderable renderable) {
+        }
+
+        @Override
+        public void end() {
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
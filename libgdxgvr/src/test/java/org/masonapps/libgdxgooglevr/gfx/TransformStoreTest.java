@@ -0,0 +1,143 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class TransformStoreTest {
+
+    @Test
+    public void matricesMatchMatrix4() throws Exception {
+        final TransformStore<Object> store = new TransformStore<>(1);
+        final Vector3 position = new Vector3(1f, -2f, 3f);
+        final Quaternion rotation = new Quaternion().setEulerAngles(30f, 45f, 60f);
+        final Vector3 scale = new Vector3(2f, 0.5f, 3f);
+        int slot = 0;
+        for (int i = 0; i < 5; i++) {
+            slot = store.allocate(null);
+        }
+        store.setPosition(slot, position.x, position.y, position.z);
+        store.setRotation(slot, rotation.x, rotation.y, rotation.z, rotation.w);
+        store.setScale(slot, scale.x, scale.y, scale.z);
+        store.update();
+
+        final Matrix4 expected = new Matrix4().set(position, rotation, scale);
+        assertArrayEquals(expected.val, store.getTransform(slot, new Matrix4()).val, 1e-5f);
+        assertArrayEquals(expected.inv().val, store.getInverseTransform(slot, new Matrix4()).val, 1e-5f);
+    }
+
+    @Test
+    public void updatedSlotsHoldEachDirtySlotOnce() throws Exception {
+        final TransformStore<Object> store = new TransformStore<>();
+        final int a = store.allocate(null);
+        final int b = store.allocate(null);
+        final int c = store.allocate(null);
+        store.update();
+
+        store.setPosition(a, 1f, 0f, 0f);
+        store.translate(a, 1f, 0f, 0f);
+        store.setScale(c, 2f, 2f, 2f);
+        assertEquals(2, store.update());
+        assertEquals(2, store.getUpdatedSlots().size);
+        assertTrue(store.getUpdatedSlots().contains(a));
+        assertTrue(store.getUpdatedSlots().contains(c));
+        assertFalse(store.getUpdatedSlots().contains(b));
+        assertEquals(0, store.update());
+    }
+
+    @Test
+    public void singleSlotUpdatesAndFreesSkipTheQueuedEntry() throws Exception {
+        final TransformStore<Object> store = new TransformStore<>();
+        final int a = store.allocate(null);
+        final int b = store.allocate(null);
+        store.update();
+
+        store.setPosition(a, 5f, 0f, 0f);
+        store.update(a);
+        assertFalse(store.isDirty(a));
+        assertEquals(5f, store.getTransform(a, new Matrix4()).val[Matrix4.M03], 0f);
+
+        store.setPosition(b, 1f, 0f, 0f);
+        store.free(b);
+        assertEquals(0, store.update());
+        assertEquals(1, store.getCount());
+
+        // dirtied again after the single update, queued only once
+        store.setPosition(a, 6f, 0f, 0f);
+        store.update(a);
+        store.setPosition(a, 7f, 0f, 0f);
+        assertEquals(1, store.update());
+        assertEquals(7f, store.getTransform(a, new Matrix4()).val[Matrix4.M03], 0f);
+    }
+
+    @Test
+    public void reusedSlotIsUpdatedAfterFree() throws Exception {
+        final TransformStore<Object> store = new TransformStore<>();
+        final int a = store.allocate(null);
+        store.setPosition(a, 1f, 0f, 0f);
+        store.free(a);
+        final int b = store.allocate(null);
+        assertEquals(a, b);
+        store.setPosition(b, 2f, 0f, 0f);
+        assertEquals(1, store.update());
+        assertEquals(2f, store.getTransform(b, new Matrix4()).val[Matrix4.M03], 0f);
+    }
+
+    @Test
+    public void entityTransformLivesInItsSlot() throws Exception {
+        HeadlessGdx.init();
+        final Model model = new ModelBuilder().createBox(1f, 1f, 1f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        final World world = new World();
+        final Entity entity = new Entity(new ModelInstance(model, 1f, 2f, 3f));
+        entity.setRotationY(90f);
+        world.add(entity);
+
+        // the detached transform moves into the world's store
+        final TransformStore<Entity> transforms = world.getTransforms();
+        final int slot = entity.transformSlot;
+        assertSame(entity, transforms.getUserData(slot));
+        assertEquals(new Vector3(1f, 2f, 3f), transforms.getPosition(slot, new Vector3()));
+        assertEquals(new Quaternion(Vector3.Y, 90f), transforms.getRotation(slot, new Quaternion()));
+
+        // the setters write the slot and the getters read it
+        entity.translate(1f, 0f, 0f);
+        assertEquals(2f, transforms.getX(slot), 0f);
+        transforms.setPosition(slot, 5f, 6f, 7f);
+        assertEquals(new Vector3(5f, 6f, 7f), entity.getPosition());
+        assertEquals(6f, entity.getY(), 0f);
+        entity.invalidate();
+        world.update();
+        final Matrix4 expected = new Matrix4().set(new Vector3(5f, 6f, 7f), new Quaternion(Vector3.Y, 90f), new Vector3(1f, 1f, 1f));
+        assertArrayEquals(expected.val, entity.getTransform().val, 1e-5f);
+
+        // the returned vector is a copy, changing it does not move the entity
+        entity.getPosition().add(1f, 0f, 0f);
+        assertEquals(5f, entity.getX(), 0f);
+
+        entity.scaleX(2f);
+        world.remove(entity);
+        assertEquals(0, transforms.getCount());
+        assertEquals(new Vector3(5f, 6f, 7f), entity.getPosition());
+        assertEquals(new Vector3(2f, 1f, 1f), entity.getScale());
+        entity.recalculateTransform();
+        expected.set(new Vector3(5f, 6f, 7f), new Quaternion(Vector3.Y, 90f), new Vector3(2f, 1f, 1f));
+        assertArrayEquals(expected.val, entity.getTransform().val, 1e-5f);
+        world.dispose();
+        model.dispose();
+    }
+}
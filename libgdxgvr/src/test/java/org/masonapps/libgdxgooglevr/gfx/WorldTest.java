@@ -0,0 +1,153 @@
+package org.masonapps.libgdxgooglevr.gfx;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.PerspectiveCamera;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.g3d.Environment;
+import com.badlogic.gdx.graphics.g3d.Material;
+import com.badlogic.gdx.graphics.g3d.Model;
+import com.badlogic.gdx.graphics.g3d.ModelBatch;
+import com.badlogic.gdx.graphics.g3d.ModelInstance;
+import com.badlogic.gdx.graphics.g3d.attributes.ColorAttribute;
+import com.badlogic.gdx.graphics.g3d.utils.ModelBuilder;
+import com.badlogic.gdx.utils.Array;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.HeadlessGdx;
+import org.masonapps.libgdxgooglevr.RecordingGL;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class WorldTest {
+
+    private Model model;
+    private PerspectiveCamera camera;
+
+    @Before
+    public void setUp() throws Exception {
+        HeadlessGdx.init();
+        model = new ModelBuilder().createBox(1f, 1f, 1f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        camera = new PerspectiveCamera(90f, 1f, 1f);
+        camera.near = 0.1f;
+        camera.far = 100f;
+        camera.position.setZero();
+        camera.direction.set(0f, 0f, -1f);
+        camera.up.set(0f, 1f, 0f);
+        camera.update();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        model.dispose();
+    }
+
+    @Test
+    public void culledRenderGoesThroughRenderCulled() throws Exception {
+        final Array<Entity> rendered = new Array<>();
+        final World world = new World() {
+            @Override
+            protected void renderCulled(ModelBatch batch, Environment lights, Array<Entity> entities) {
+                for (Entity entity : entities) {
+                    rendered.add(entity);
+                }
+            }
+        };
+        final Entity front = world.add(new Entity(new ModelInstance(model, 0f, 0f, -5f)));
+        final Entity behind = world.add(new Entity(new ModelInstance(model, 0f, 0f, 5f)));
+        world.update();
+
+        final ModelBatch batch = new ModelBatch();
+        batch.begin(camera);
+        world.render(batch, new Environment());
+        batch.end();
+
+        assertTrue(rendered.contains(front, true));
+        assertFalse(rendered.contains(behind, true));
+        batch.dispose();
+        world.dispose();
+    }
+
+    @Test
+    public void onlyTheIterablePathTestsVisibility() throws Exception {
+        // the default shader and the buffers are really created here, the recording gl reports them valid
+        RecordingGL.install();
+        final Model box = new ModelBuilder().createBox(1f, 1f, 1f, new Material(ColorAttribute.createDiffuse(Color.WHITE)), VertexAttributes.Usage.Position | VertexAttributes.Usage.Normal);
+        final World world = new World();
+        final CountingEntity front = new CountingEntity(new ModelInstance(box, 0f, 0f, -5f));
+        final CountingEntity behind = new CountingEntity(new ModelInstance(box, 0f, 0f, 5f));
+        world.add(front);
+        world.add(behind);
+        world.update();
+        final ModelBatch batch = new ModelBatch();
+
+        // the bounds tree already culled these
+        batch.begin(camera);
+        world.render(batch, new Environment());
+        batch.end();
+        assertEquals(0, front.visibilityTests);
+        assertEquals(0, behind.visibilityTests);
+
+        final Array<Entity> all = new Array<>();
+        all.add(front);
+        all.add(behind);
+        batch.begin(camera);
+        world.render(batch, new Environment(), all);
+        batch.end();
+        assertEquals(1, front.visibilityTests);
+        assertEquals(1, behind.visibilityTests);
+        batch.dispose();
+        world.dispose();
+        box.dispose();
+    }
+
+    @Test
+    public void clearEntitiesReleasesProxiesAndTransformSlots() throws Exception {
+        final World world = new World();
+        final Array<Entity> added = new Array<>();
+        for (int i = 0; i < 3; i++) {
+            final Entity entity = world.add(new Entity(new ModelInstance(model)));
+            entity.setPosition(0f, 0f, -2f - i);
+            added.add(entity);
+        }
+        world.update();
+        world.updateBounds();
+        assertEquals(3, world.getTransforms().getCount());
+
+        world.clearEntities();
+
+        assertEquals(0, world.entities.size);
+        assertEquals(0, world.getTransforms().getCount());
+        final Array<Entity> visible = new Array<>();
+        world.getVisibleEntities(camera, visible);
+        assertEquals(0, visible.size);
+        for (int i = 0; i < added.size; i++) {
+            final Entity entity = added.get(i);
+            assertNull(entity.world);
+            assertEquals(DynamicAabbTree.NULL_NODE, entity.proxyId);
+            // the slot is freed and the transform moves to a store of its own
+            assertNotSame(entity, world.getTransforms().getUserData(entity.transformSlot));
+            assertEquals(-2f - i, entity.getZ(), 0f);
+        }
+        world.dispose();
+    }
+
+    private static class CountingEntity extends Entity {
+        int visibilityTests = 0;
+
+        CountingEntity(ModelInstance modelInstance) {
+            super(modelInstance);
+        }
+
+        @Override
+        public boolean isVisible(Camera camera) {
+            visibilityTests++;
+            return super.isVisible(camera);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.math.Vector3;
+import com.google.vr.sdk.controller.Controller;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class ControllerEventRingTest {
+
+    private final List<String> events = new ArrayList<>();
+    private final DaydreamControllerHandler handler = new DaydreamControllerHandler();
+    private final ControllerEventRing.Consumer consumer = new ControllerEventRing.Consumer() {
+        @Override
+        public void onControllerState(ControllerState state) {
+            handler.process(state);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        events.clear();
+        handler.addListener(new DaydreamControllerInputListener() {
+            @Override
+            public void onDaydreamControllerUpdate(ControllerState state, int connectionState) {
+            }
+
+            @Override
+            public void onControllerButtonEvent(ControllerState state, DaydreamButtonEvent event) {
+                events.add((event.action == DaydreamButtonEvent.ACTION_DOWN ? "down " : "up ") + event.button);
+            }
+
+            @Override
+            public void onControllerTouchPadEvent(ControllerState state, DaydreamTouchEvent event) {
+                if (event.action != DaydreamTouchEvent.ACTION_MOVE)
+                    events.add((event.action == DaydreamTouchEvent.ACTION_DOWN ? "touch down" : "touch up"));
+            }
+
+            @Override
+            public void onControllerConnectionStateChange(int connectionState) {
+            }
+        });
+    }
+
+    private static ControllerState state(float angle, boolean click, boolean touching) {
+        final ControllerState state = new ControllerState();
+        state.connectionState = Controller.ConnectionStates.CONNECTED;
+        state.orientation.set(Vector3.Y, angle);
+        state.clickButtonState = click;
+        state.isTouching = touching;
+        return state.clearTransitions();
+    }
+
+    @Test
+    public void fullRingKeepsAPressAndRelease() throws Exception {
+        final ControllerEventRing ring = new ControllerEventRing(2);
+        assertTrue(ring.offer(state(0f, false, false)));
+        assertTrue(ring.offer(state(1f, false, false)));
+        // the click and the touch come and go while the ring is full
+        assertFalse(ring.offer(state(2f, true, true)));
+        assertFalse(ring.offer(state(3f, false, false)));
+        assertEquals(2, ring.getOverflowCount());
+
+        ring.drain(consumer);
+        assertTrue(events.isEmpty());
+        assertTrue(ring.offer(state(4f, false, false)));
+        ring.drain(consumer);
+
+        assertEquals("[down 2, up 2, touch down, touch up]", events.toString());
+        assertEquals(4f, ring.getLastState().orientation.getAngleAround(Vector3.Y), 1e-3f);
+    }
+
+    @Test
+    public void fullRingKeepsAReleaseAndPress() throws Exception {
+        final ControllerEventRing ring = new ControllerEventRing(1);
+        ring.offer(state(0f, true, false));
+        ring.drain(consumer);
+        assertEquals("[down 2]", events.toString());
+
+        assertTrue(ring.offer(state(1f, true, false)));
+        assertFalse(ring.offer(state(2f, false, false)));
+        assertFalse(ring.offer(state(3f, true, false)));
+        ring.drain(consumer);
+        ring.offer(state(4f, true, false));
+        ring.drain(consumer);
+
+        assertEquals("[down 2, up 2, down 2]", events.toString());
+    }
+
+    @Test
+    public void newestStateIsPublishedAfterOverflow() throws Exception {
+        final ControllerEventRing ring = new ControllerEventRing(2);
+        for (int i = 0; i < 5; i++) {
+            ring.offer(state(i * 10f, false, false));
+        }
+        ring.drain(consumer);
+        assertEquals(10f, ring.getLastState().orientation.getAngleAround(Vector3.Y), 1e-3f);
+
+        // the merged snapshot goes out first, it only moved so the drain coalesces it into the newer one
+        ring.offer(state(50f, false, false));
+        assertEquals(1, ring.drain(consumer));
+        assertEquals(1, ring.getLastCoalescedCount());
+        assertEquals(50f, ring.getLastState().orientation.getAngleAround(Vector3.Y), 1e-3f);
+    }
+
+    @Test
+    public void motionIsCoalescedButTransitionsAreNot() throws Exception {
+        final ControllerEventRing ring = new ControllerEventRing();
+        for (int i = 0; i < 10; i++) {
+            ring.offer(state(i, false, false));
+        }
+        ring.offer(state(10f, true, false));
+        for (int i = 11; i < 16; i++) {
+            ring.offer(state(i, true, false));
+        }
+
+        // the first connected snapshot, the click and the newest one
+        assertEquals(3, ring.drain(consumer));
+        assertEquals(13, ring.getLastCoalescedCount());
+        assertEquals(0, ring.getOverflowCount());
+        assertEquals("[down 2]", events.toString());
+        assertTrue(ring.isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.BoundingBox;
+import com.badlogic.gdx.math.collision.Ray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class ProcessorBoundsTreeTest {
+
+    private final ProcessorBoundsTree tree = new ProcessorBoundsTree();
+    private final List<BoundingBox> boxes = new ArrayList<>();
+    private final List<Integer> tested = new ArrayList<>();
+    private final Vector3 hit = new Vector3();
+    private Ray ray;
+    // leaves hit by the ray like solid boxes
+    private final ProcessorBoundsTree.LeafTest boxTest = new ProcessorBoundsTree.LeafTest() {
+        @Override
+        public float rayTest(int leaf, float nearestDistance) {
+            tested.add(leaf);
+            if (!Intersector.intersectRayBounds(ray, boxes.get(leaf), hit)) return -1f;
+            return ray.origin.dst(hit);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        // a row of unit boxes going away from the ray origin, one every 2 units along -z
+        for (int i = 0; i < 8; i++) {
+            boxes.add(new BoundingBox(new Vector3(-0.5f, -0.5f, -2f * i - 0.5f), new Vector3(0.5f, 0.5f, -2f * i + 0.5f)));
+        }
+        setLeaves();
+        tree.build();
+        ray = new Ray(new Vector3(0f, 0f, 10f), new Vector3(0f, 0f, -1f));
+    }
+
+    private void setLeaves() {
+        tree.setLeafCount(boxes.size());
+        for (int i = 0; i < boxes.size(); i++) {
+            tree.setLeafBounds(i, boxes.get(i));
+        }
+    }
+
+    @Test
+    public void nearestLeafWinsAndFartherBoxesAreSkipped() throws Exception {
+        assertEquals(0, tree.rayCast(ray, boxTest));
+        assertEquals(9.5f, tree.getHitDistance(), 1e-5f);
+        // every box behind the first hit starts beyond it
+        assertEquals("[0]", tested.toString());
+
+        tested.clear();
+        ray.set(new Vector3(0f, 0f, -30f), new Vector3(0f, 0f, 1f));
+        assertEquals(7, tree.rayCast(ray, boxTest));
+        assertEquals("[7]", tested.toString());
+    }
+
+    @Test
+    public void missesAreSkippedWithoutLeafTests() throws Exception {
+        ray.set(new Vector3(3f, 0f, 10f), new Vector3(0f, 0f, -1f));
+        assertEquals(-1, tree.rayCast(ray, boxTest));
+        assertTrue(tested.isEmpty());
+        assertEquals(Float.POSITIVE_INFINITY, tree.getHitDistance(), 0f);
+    }
+
+    @Test
+    public void refitFollowsMovedLeaves() throws Exception {
+        // the last box moves in front of all the others and off to the side
+        boxes.get(7).set(new Vector3(2.5f, -0.5f, 4.5f), new Vector3(3.5f, 0.5f, 5.5f));
+        assertTrue(tree.setLeafBounds(7, boxes.get(7)));
+        assertFalse(tree.setLeafBounds(7, boxes.get(7)));
+        tree.refit();
+
+        ray.set(new Vector3(3f, 0f, 10f), new Vector3(0f, 0f, -1f));
+        assertEquals(7, tree.rayCast(ray, boxTest));
+        assertEquals(4.5f, tree.getHitDistance(), 1e-5f);
+
+        final BoundingBox bounds = new BoundingBox();
+        assertTrue(tree.getBounds(bounds));
+        assertEquals(3.5f, bounds.max.x, 0f);
+        assertEquals(5.5f, bounds.max.z, 0f);
+        assertEquals(-12.5f, bounds.min.z, 0f);
+    }
+
+    @Test
+    public void nearerLeafFoundLaterReplacesTheFirstHit() throws Exception {
+        // a tilted panel whose box starts before the first box but which is hit far behind it
+        boxes.add(new BoundingBox(new Vector3(-5f, -5f, -20f), new Vector3(5f, 5f, 5f)));
+        setLeaves();
+        tree.build();
+
+        assertEquals(0, tree.rayCast(ray, new ProcessorBoundsTree.LeafTest() {
+            @Override
+            public float rayTest(int leaf, float nearestDistance) {
+                if (leaf != 8) return boxTest.rayTest(leaf, nearestDistance);
+                tested.add(leaf);
+                return 25f;
+            }
+        }));
+        assertEquals(9.5f, tree.getHitDistance(), 1e-5f);
+        assertEquals(8, (int) tested.get(0));
+    }
+
+    @Test
+    public void emptyAndUnboundedLeaves() throws Exception {
+        tree.setLeafEmpty(0);
+        tree.refit();
+        assertEquals(1, tree.rayCast(ray, boxTest));
+        assertFalse(tested.contains(0));
+
+        // an unbounded leaf is tested by every ray and stops the bounds from being known
+        tree.setLeafUnbounded(3);
+        tree.refit();
+        tested.clear();
+        ray.set(new Vector3(30f, 0f, 10f), new Vector3(0f, 0f, -1f));
+        assertEquals(-1, tree.rayCast(ray, boxTest));
+        assertEquals("[3]", tested.toString());
+        assertFalse(tree.getBounds(new BoundingBox()));
+    }
+}
@@ -0,0 +1,177 @@
+package org.masonapps.libgdxgooglevr.input;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.math.collision.Ray;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.RecordingGL;
+import org.masonapps.libgdxgooglevr.ui.VirtualStage;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class VrUiContainerTest {
+
+    private SpriteBatch batch;
+    private VrUiContainer container;
+    private final Ray ray = new Ray(new Vector3(0f, 0f, 5f), new Vector3(0f, 0f, -1f));
+
+    @Before
+    public void setUp() throws Exception {
+        RecordingGL.install();
+        batch = new SpriteBatch();
+        container = new VrUiContainer();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        container.dispose();
+        batch.dispose();
+    }
+
+    private CountingStage panel(float width, float x, float y, float z) {
+        final CountingStage stage = new CountingStage(batch, width, 1f);
+        stage.setPosition(x, y, z);
+        container.addProcessor(stage);
+        return stage;
+    }
+
+    @Test
+    public void nearestOverlappingPanelWins() throws Exception {
+        final CountingStage far = panel(1f, 0f, 0f, -1f);
+        final CountingStage near = panel(1f, 0f, 0f, 0f);
+
+        assertTrue(container.performRayTest(ray));
+        assertTrue(near.isCursorOver());
+        assertFalse(far.isCursorOver());
+        assertEquals(0f, container.getHitPoint3D().z, 1e-5f);
+        // the far panel starts behind the near hit
+        assertEquals(0, far.rayTests);
+    }
+
+    @Test
+    public void fartherPanelTestedFirstLosesTheCursor() throws Exception {
+        final CountingStage near = panel(1f, 0f, 0f, 0f);
+        // turned almost edge on, its box starts in front of the near panel but it is hit behind it
+        final CountingStage far = panel(4f, 0f, 0f, -1f);
+        far.setRotationY(80f);
+
+        assertTrue(container.performRayTest(ray));
+        assertEquals(1, far.rayTests);
+        assertTrue(near.isCursorOver());
+        assertFalse(far.isCursorOver());
+        assertEquals(0f, container.getHitPoint3D().z, 1e-5f);
+    }
+
+    @Test
+    public void previousFocusIsClearedWhenSkipped() throws Exception {
+        final CountingStage near = panel(1f, 0f, 0f, 0f);
+        final CountingStage far = panel(3f, 0f, 0f, -1f);
+
+        // only the far panel is under the ray
+        ray.origin.set(1f, 0f, 5f);
+        assertTrue(container.performRayTest(ray));
+        assertTrue(far.isCursorOver());
+        assertFalse(near.isCursorOver());
+
+        // the far panel is not even tested now, it still loses the cursor
+        ray.origin.set(0f, 0f, 5f);
+        final int farTests = far.rayTests;
+        assertTrue(container.performRayTest(ray));
+        assertEquals(farTests, far.rayTests);
+        assertTrue(near.isCursorOver());
+        assertFalse(far.isCursorOver());
+    }
+
+    @Test
+    public void raysWithinTheThresholdsAreNotTestedAgain() throws Exception {
+        final CountingStage stage = panel(1f, 0f, 0f, 0f);
+        container.setRayMoveThreshold(0.01f, 1f);
+
+        assertTrue(container.performRayTest(ray));
+        assertEquals(1, stage.rayTests);
+        ray.origin.x += 0.005f;
+        ray.direction.set(0f, 0.01f, -1f).nor();
+        assertTrue(container.performRayTest(ray));
+        assertEquals(1, stage.rayTests);
+
+        // turned past the angle
+        ray.direction.set(0f, 0.05f, -1f).nor();
+        assertTrue(container.performRayTest(ray));
+        assertEquals(2, stage.rayTests);
+        // moved past the distance
+        ray.origin.x += 0.02f;
+        assertTrue(container.performRayTest(ray));
+        assertEquals(3, stage.rayTests);
+
+        container.invalidateRayTest();
+        container.performRayTest(ray);
+        assertEquals(4, stage.rayTests);
+        container.clearCursorOver();
+        assertFalse(stage.isCursorOver());
+        assertTrue(container.performRayTest(ray));
+        assertEquals(5, stage.rayTests);
+    }
+
+    @Test
+    public void changesToTheContainerForceATest() throws Exception {
+        final CountingStage stage = panel(1f, 0f, 0f, 0f);
+        assertTrue(container.performRayTest(ray));
+
+        container.setPosition(0f, 0f, 0.5f);
+        assertTrue(container.performRayTest(ray));
+        assertEquals(2, stage.rayTests);
+        assertEquals(0.5f, container.getHitPoint3D().z, 1e-5f);
+
+        final CountingStage added = panel(1f, 0f, 0f, 1f);
+        assertTrue(container.performRayTest(ray));
+        assertTrue(added.isCursorOver());
+        assertFalse(stage.isCursorOver());
+
+        container.setVisible(false);
+        assertFalse(container.performRayTest(ray));
+        container.setVisible(true);
+        assertTrue(container.performRayTest(ray));
+        assertEquals(2, added.rayTests);
+    }
+
+    @Test
+    public void movedPanelIsRefit() throws Exception {
+        final CountingStage a = panel(1f, 0f, 0f, 0f);
+        final CountingStage b = panel(1f, 2f, 0f, 0f);
+        ray.origin.set(5f, 0f, 5f);
+        assertFalse(container.performRayTest(ray));
+        assertEquals(0, a.rayTests + b.rayTests);
+
+        // moving a panel invalidates the last result even though the ray did not move
+        b.setPosition(5f, 0f, -2f);
+        assertTrue(container.performRayTest(ray));
+        assertTrue(b.isCursorOver());
+        assertEquals(-2f, container.getHitPoint3D().z, 1e-5f);
+        assertEquals(0, a.rayTests);
+
+        b.setPosition(2f, 0f, 0f);
+        assertFalse(container.performRayTest(ray));
+        assertFalse(b.isCursorOver());
+    }
+
+    private static class CountingStage extends VirtualStage {
+        int rayTests = 0;
+
+        CountingStage(Batch batch, float width, float height) {
+            super(batch, width, height, null);
+        }
+
+        @Override
+        public boolean performRayTest(Ray ray) {
+            rayTests++;
+            return super.performRayTest(ray);
+        }
+    }
+}
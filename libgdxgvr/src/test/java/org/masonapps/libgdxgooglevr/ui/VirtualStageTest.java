@@ -0,0 +1,97 @@
+package org.masonapps.libgdxgooglevr.ui;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.scenes.scene2d.ui.Image;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.masonapps.libgdxgooglevr.RecordingGL;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class VirtualStageTest {
+
+    private static final int EYE_FRAMEBUFFER = 7;
+
+    private RecordingGL gl;
+    private SpriteBatch batch;
+    private Texture texture;
+    private VirtualStage stage;
+    private OrthographicCamera camera;
+
+    @Before
+    public void setUp() throws Exception {
+        gl = RecordingGL.install();
+        batch = new SpriteBatch();
+        final Pixmap pixmap = new Pixmap(1, 1, Pixmap.Format.RGBA8888);
+        texture = new Texture(pixmap);
+        pixmap.dispose();
+        stage = new VirtualStage(batch, 64, 32);
+        stage.addActor(new Image(texture));
+        stage.setCachingEnabled(true);
+        // the vr view renders each eye into its own frame buffer
+        gl.framebuffer = EYE_FRAMEBUFFER;
+        gl.viewport[2] = 1280;
+        gl.viewport[3] = 1440;
+        camera = new OrthographicCamera(2f, 2f);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stage.dispose();
+        texture.dispose();
+        batch.dispose();
+    }
+
+    @Test
+    public void cachePassKeepsPremultipliedAlpha() throws Exception {
+        stage.draw(camera);
+
+        assertEquals(2, gl.draws.size());
+        final RecordingGL.Draw cachePass = gl.draws.get(0);
+        assertNotEquals(EYE_FRAMEBUFFER, cachePass.framebuffer);
+        assertArrayEquals(new int[]{GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA}, cachePass.blend);
+        final RecordingGL.Draw quad = gl.draws.get(1);
+        assertEquals(EYE_FRAMEBUFFER, quad.framebuffer);
+        assertArrayEquals(new int[]{GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA, GL20.GL_ONE, GL20.GL_ONE_MINUS_SRC_ALPHA}, quad.blend);
+    }
+
+    @Test
+    public void callerStateIsRestored() throws Exception {
+        batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE);
+        batch.setColor(Color.RED);
+
+        stage.draw(camera);
+
+        assertEquals(GL20.GL_SRC_ALPHA, batch.getBlendSrcFunc());
+        assertEquals(GL20.GL_ONE, batch.getBlendDstFunc());
+        assertEquals(Color.RED.toFloatBits(), batch.getPackedColor(), 0f);
+        assertEquals(EYE_FRAMEBUFFER, gl.framebuffer);
+        assertArrayEquals(new int[]{0, 0, 1280, 1440}, gl.viewport);
+    }
+
+    @Test
+    public void cleanCacheIsOnlyRedrawnAfterInvalidation() throws Exception {
+        stage.draw(camera);
+        stage.draw(camera);
+        assertEquals(1, stage.getRedrawCount());
+        assertEquals(2, stage.getCachedDrawCount());
+        assertEquals(3, gl.draws.size());
+
+        stage.invalidateCache();
+        stage.draw(camera);
+
+        assertEquals(2, stage.getRedrawCount());
+        assertEquals(3, stage.getCachedDrawCount());
+        assertNotEquals(EYE_FRAMEBUFFER, gl.draws.get(3).framebuffer);
+    }
+}
@@ -0,0 +1,134 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class EquirectangularProjectorTest {
+
+    private static final int FACE_SIZE = 16;
+    private static final int WIDTH = 64;
+    private static final int HEIGHT = 32;
+
+    private static byte[][] solidFaces() {
+        final byte[][] faces = new byte[EquirectangularProjector.FACE_COUNT][];
+        for (int face = 0; face < faces.length; face++) {
+            faces[face] = new byte[FACE_SIZE * FACE_SIZE * 4];
+            for (int i = 0; i < FACE_SIZE * FACE_SIZE; i++) {
+                // the face index in red so every pixel tells where it was sampled from
+                faces[face][i * 4] = (byte) (face * 40);
+                faces[face][i * 4 + 3] = (byte) 0xff;
+            }
+        }
+        return faces;
+    }
+
+    private static byte[][] randomFaces(long seed) {
+        final Random random = new Random(seed);
+        final byte[][] faces = new byte[EquirectangularProjector.FACE_COUNT][FACE_SIZE * FACE_SIZE * 4];
+        for (byte[] face : faces) {
+            random.nextBytes(face);
+        }
+        return faces;
+    }
+
+    private static int faceAt(byte[] out, int x, int y) {
+        return (out[(y * WIDTH + x) * 4] & 0xff) / 40;
+    }
+
+    @Test
+    public void directionsLandOnTheirFaces() throws Exception {
+        final byte[] out = new byte[WIDTH * HEIGHT * 4];
+        EquirectangularProjector.project(solidFaces(), FACE_SIZE, out, 0, WIDTH, HEIGHT, 1);
+
+        // the center of the image looks down -z, longitude grows to the right
+        assertEquals(EquirectangularProjector.FACE_FRONT, faceAt(out, WIDTH / 2, HEIGHT / 2));
+        assertEquals(EquirectangularProjector.FACE_RIGHT, faceAt(out, WIDTH * 3 / 4, HEIGHT / 2));
+        assertEquals(EquirectangularProjector.FACE_LEFT, faceAt(out, WIDTH / 4, HEIGHT / 2));
+        assertEquals(EquirectangularProjector.FACE_BACK, faceAt(out, 0, HEIGHT / 2));
+        assertEquals(EquirectangularProjector.FACE_BACK, faceAt(out, WIDTH - 1, HEIGHT / 2));
+        // rows go top to bottom
+        assertEquals(EquirectangularProjector.FACE_UP, faceAt(out, WIDTH / 2, 0));
+        assertEquals(EquirectangularProjector.FACE_DOWN, faceAt(out, WIDTH / 2, HEIGHT - 1));
+        for (int i = 0; i < WIDTH * HEIGHT; i++) {
+            assertEquals((byte) 0xff, out[i * 4 + 3]);
+        }
+    }
+
+    @Test
+    public void faceRowsAreReadBottomToTop() throws Exception {
+        final byte[][] faces = solidFaces();
+        // the top half of the front face, as glReadPixels returns it, in green
+        final byte[] front = faces[EquirectangularProjector.FACE_FRONT];
+        for (int y = FACE_SIZE / 2; y < FACE_SIZE; y++) {
+            for (int x = 0; x < FACE_SIZE; x++) {
+                front[(y * FACE_SIZE + x) * 4 + 1] = (byte) 0xff;
+            }
+        }
+        final byte[] out = new byte[WIDTH * HEIGHT * 4];
+        EquirectangularProjector.project(faces, FACE_SIZE, out, 0, WIDTH, HEIGHT, 1);
+
+        final int above = ((HEIGHT / 2 - 3) * WIDTH + WIDTH / 2) * 4;
+        final int below = ((HEIGHT / 2 + 2) * WIDTH + WIDTH / 2) * 4;
+        assertEquals((byte) 0xff, out[above + 1]);
+        assertEquals(0, out[below + 1]);
+    }
+
+    @Test
+    public void threadsAndBandsMatchASingleThread() throws Exception {
+        final byte[][] faces = randomFaces(46L);
+        final byte[] expected = new byte[WIDTH * HEIGHT * 4];
+        EquirectangularProjector.project(faces, FACE_SIZE, expected, 0, WIDTH, HEIGHT, 1);
+
+        final byte[] threaded = new byte[WIDTH * HEIGHT * 4];
+        EquirectangularProjector.project(faces, FACE_SIZE, threaded, 0, WIDTH, HEIGHT, 5);
+        assertArrayEquals(expected, threaded);
+
+        // a band written after a 4 byte header, the way a second eye or a streamed strip is
+        final int startRow = 7;
+        final int endRow = 19;
+        final byte[] band = new byte[4 + WIDTH * (endRow - startRow) * 4];
+        EquirectangularProjector.project(faces, FACE_SIZE, band, 4, WIDTH, HEIGHT, startRow, endRow, 3);
+        assertArrayEquals(Arrays.copyOfRange(expected, startRow * WIDTH * 4, endRow * WIDTH * 4), Arrays.copyOfRange(band, 4, band.length));
+    }
+
+    @Test
+    public void bilinearSampling() throws Exception {
+        // 2x2 RGBA, one channel per corner
+        final byte[] face = {
+                (byte) 200, 0, 0, 0, 0, (byte) 200, 0, 0,
+                0, 0, (byte) 200, 0, 0, 0, 0, (byte) 200};
+        final byte[] out = new byte[4];
+
+        EquirectangularProjector.sampleBilinear(face, 2, 0f, 0f, out, 0);
+        assertArrayEquals(new byte[]{(byte) 200, 0, 0, 0}, out);
+
+        EquirectangularProjector.sampleBilinear(face, 2, 0.5f, 0.5f, out, 0);
+        assertArrayEquals(new byte[]{50, 50, 50, 50}, out);
+
+        EquirectangularProjector.sampleBilinear(face, 2, 0.25f, 1f, out, 0);
+        assertArrayEquals(new byte[]{0, 0, (byte) 150, 50}, out);
+
+        // clamped to the edge pixels
+        EquirectangularProjector.sampleBilinear(face, 2, 5f, -3f, out, 0);
+        assertArrayEquals(new byte[]{0, (byte) 200, 0, 0}, out);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void smallOutputIsRejected() throws Exception {
+        EquirectangularProjector.project(solidFaces(), FACE_SIZE, new byte[WIDTH * HEIGHT * 4 - 1], 0, WIDTH, HEIGHT, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void smallFaceIsRejected() throws Exception {
+        final byte[][] faces = solidFaces();
+        faces[EquirectangularProjector.FACE_DOWN] = new byte[FACE_SIZE * FACE_SIZE * 4 - 4];
+        EquirectangularProjector.project(faces, FACE_SIZE, new byte[WIDTH * HEIGHT * 4], 0, WIDTH, HEIGHT, 1);
+    }
+}
@@ -0,0 +1,95 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class FrameProfilerTest {
+
+    private FrameProfiler profiler;
+
+    @Before
+    public void setUp() throws Exception {
+        profiler = new FrameProfiler(8);
+        profiler.setEnabled(true);
+    }
+
+    private void frames(int count) {
+        for (int i = 0; i < count; i++) {
+            profiler.beginFrame();
+            profiler.begin(FrameProfiler.Phase.UPDATE);
+            profiler.end();
+            profiler.endFrame();
+        }
+    }
+
+    @Test
+    public void historyHasOneCharacterPerCompletedFrame() throws Exception {
+        frames(5);
+        final StringBuilder out = new StringBuilder();
+        profiler.appendFrameHistory(out, 60, Long.MAX_VALUE / 10);
+        assertEquals("00000 0/5 over\n", out.toString());
+    }
+
+    @Test
+    public void framesOverBudgetAreMarked() throws Exception {
+        frames(3);
+        final StringBuilder out = new StringBuilder();
+        profiler.appendFrameHistory(out, 2, 1L);
+        assertEquals("!! 2/2 over\n", out.toString());
+    }
+
+    @Test
+    public void historyIsLimitedByTheRingAndSkipsTheOpenFrame() throws Exception {
+        frames(20);
+        profiler.beginFrame();
+        final StringBuilder out = new StringBuilder();
+        profiler.appendFrameHistory(out, 60, Long.MAX_VALUE / 10);
+        // 8 frames in the ring, the newest is still open
+        assertEquals("0000000 0/7 over\n", out.toString());
+    }
+
+    @Test
+    public void disabledProfilerRecordsNothing() throws Exception {
+        profiler.setEnabled(false);
+        frames(3);
+        final StringBuilder out = new StringBuilder();
+        profiler.appendFrameHistory(out, 60, 1L);
+        profiler.appendSummary(out);
+        assertEquals(" 0/0 over\n", out.toString());
+        assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.UPDATE));
+    }
+
+    @Test
+    public void scopesPastTheMaximumDepthKeepTheNesting() throws Exception {
+        profiler.beginFrame();
+        profiler.begin(FrameProfiler.Phase.UPDATE);
+        // fills the stack up to its 16 levels, then opens 5 more
+        for (int i = 0; i < 14; i++) {
+            profiler.begin(FrameProfiler.Phase.RENDER);
+        }
+        for (int i = 0; i < 5; i++) {
+            profiler.begin(FrameProfiler.Phase.UI_DRAW);
+        }
+        for (int i = 0; i < 5; i++) {
+            profiler.end();
+        }
+        assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.UI_DRAW));
+        assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.RENDER));
+
+        for (int i = 0; i < 14; i++) {
+            profiler.end();
+        }
+        assertEquals(14, profiler.getSampleCount(FrameProfiler.Phase.RENDER));
+        assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.UPDATE));
+        profiler.end();
+        assertEquals(1, profiler.getSampleCount(FrameProfiler.Phase.UPDATE));
+        assertEquals(0, profiler.getSampleCount(FrameProfiler.Phase.FRAME));
+        profiler.endFrame();
+        assertEquals(1, profiler.getSampleCount(FrameProfiler.Phase.FRAME));
+    }
+}
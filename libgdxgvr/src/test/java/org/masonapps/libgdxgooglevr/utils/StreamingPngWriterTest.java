@@ -0,0 +1,179 @@
+package org.masonapps.libgdxgooglevr.utils;
+
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+
+import javax.imageio.ImageIO;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class StreamingPngWriterTest {
+
+    private static byte[] randomImage(int width, int height, long seed) {
+        final byte[] rgba = new byte[width * height * 4];
+        final Random random = new Random(seed);
+        random.nextBytes(rgba);
+        // a smooth band as well so the up filter has something to do
+        for (int y = 0; y < height / 2; y++) {
+            for (int i = 0; i < width * 4; i++) {
+                rgba[y * width * 4 + i] = (byte) (i + y);
+            }
+        }
+        return rgba;
+    }
+
+    /**
+     * hands the image over in chunks of the given row counts, repeating the last count until the image is done
+     */
+    private static byte[] encode(byte[] rgba, int width, int height, int threads, int maxPending, int... chunkRows) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final StreamingPngWriter writer = new StreamingPngWriter(out, width, height, 6, threads, maxPending);
+        // the producer reuses its buffer the way a capture does
+        final byte[] buffer = new byte[rgba.length];
+        int row = 0;
+        int chunk = 0;
+        while (row < height) {
+            final int rows = Math.min(chunkRows[Math.min(chunk++, chunkRows.length - 1)], height - row);
+            System.arraycopy(rgba, row * width * 4, buffer, 0, rows * width * 4);
+            writer.writeRows(buffer, 0, rows);
+            Arrays.fill(buffer, (byte) 0);
+            row += rows;
+        }
+        writer.close();
+        return out.toByteArray();
+    }
+
+    private static void assertDecodesTo(byte[] png, byte[] rgba, int width, int height) throws IOException {
+        final BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        assertNotNull("ImageIO could not read the png", image);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+        final Raster raster = image.getRaster();
+        assertEquals(4, raster.getNumBands());
+        final int[] pixel = new int[4];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                raster.getPixel(x, y, pixel);
+                final int i = (y * width + x) * 4;
+                for (int c = 0; c < 4; c++) {
+                    if (pixel[c] != (rgba[i + c] & 0xff))
+                        fail("pixel " + x + "," + y + " channel " + c + " is " + pixel[c] + ", expected " + (rgba[i + c] & 0xff));
+                }
+            }
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8 | (bytes[offset + 3] & 0xff);
+    }
+
+    /**
+     * checks the crc of every chunk and the adler of the zlib stream, returns the number of IDAT chunks
+     */
+    private static int assertChecksums(byte[] png, int width, int height) throws Exception {
+        final ByteArrayOutputStream zlib = new ByteArrayOutputStream();
+        final CRC32 crc = new CRC32();
+        int offset = 8;
+        int idatCount = 0;
+        String type = null;
+        while (offset < png.length) {
+            final int length = readInt(png, offset);
+            type = new String(png, offset + 4, 4, "US-ASCII");
+            crc.reset();
+            crc.update(png, offset + 4, length + 4);
+            assertEquals(type + " crc", (int) crc.getValue(), readInt(png, offset + 8 + length));
+            if (type.equals("IDAT")) {
+                zlib.write(png, offset + 8, length);
+                idatCount++;
+            }
+            offset += 12 + length;
+        }
+        assertEquals(png.length, offset);
+        assertEquals("IEND", type);
+
+        final byte[] stream = zlib.toByteArray();
+        final Inflater inflater = new Inflater();
+        inflater.setInput(stream);
+        final byte[] filtered = new byte[height * (width * 4 + 1)];
+        assertEquals(filtered.length, inflater.inflate(filtered));
+        assertTrue(inflater.finished());
+        assertEquals(0, inflater.getRemaining());
+        inflater.end();
+        final Adler32 adler = new Adler32();
+        adler.update(filtered);
+        assertEquals((int) adler.getValue(), readInt(stream, stream.length - 4));
+        return idatCount;
+    }
+
+    @Test
+    public void chunkedImageDecodesWithImageIO() throws Exception {
+        final int width = 37;
+        final int height = 53;
+        final byte[] rgba = randomImage(width, height, 47L);
+
+        final byte[] png = encode(rgba, width, height, 4, 2, 1, 7, 3, 16);
+
+        assertDecodesTo(png, rgba, width, height);
+        assertTrue(assertChecksums(png, width, height) > 1);
+    }
+
+    @Test
+    public void singleChunkImage() throws Exception {
+        final int width = 16;
+        final int height = 9;
+        final byte[] rgba = randomImage(width, height, 48L);
+
+        final byte[] png = encode(rgba, width, height, 1, 1, height);
+
+        assertDecodesTo(png, rgba, width, height);
+        assertEquals(1, assertChecksums(png, width, height));
+    }
+
+    @Test
+    public void outputDoesNotDependOnThreads() throws Exception {
+        final int width = 64;
+        final int height = 40;
+        final byte[] rgba = randomImage(width, height, 49L);
+
+        final byte[] serial = encode(rgba, width, height, 1, 1, 5);
+        final byte[] parallel = encode(rgba, width, height, 8, 6, 5);
+
+        assertArrayEquals(serial, parallel);
+    }
+
+    @Test
+    public void closingEarlyFails() throws Exception {
+        final StreamingPngWriter writer = new StreamingPngWriter(new ByteArrayOutputStream(), 4, 4);
+        writer.writeRows(new byte[4 * 4 * 2], 0, 2);
+        try {
+            writer.close();
+            fail("closed with missing rows");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("2 of 4"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyRowsAreRejected() throws Exception {
+        final StreamingPngWriter writer = new StreamingPngWriter(new ByteArrayOutputStream(), 4, 2);
+        try {
+            writer.writeRows(new byte[4 * 4 * 3], 0, 3);
+        } finally {
+            writer.writeRows(new byte[4 * 4 * 2], 0, 2);
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.masonapps.libgdxgooglevr.vr;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class GLTaskSchedulerTest {
+
+    private GLTaskScheduler scheduler;
+    private final List<String> log = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        scheduler = new GLTaskScheduler();
+        // every budget is spent by the time the first task returns
+        scheduler.setBudgetNanos(1L);
+    }
+
+    private Runnable logging(final String name) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                log.add(name);
+            }
+        };
+    }
+
+    @Test
+    public void oneBudgetedTaskRunsPerFrame() throws Exception {
+        scheduler.post(logging("a"));
+        scheduler.post(logging("b"));
+        scheduler.post(logging("c"), GLTaskScheduler.Priority.LOW);
+
+        assertEquals(1, scheduler.run());
+        assertEquals(2, scheduler.getLastDeferredCount());
+        assertEquals(1, scheduler.run());
+        assertEquals(1, scheduler.run());
+        assertEquals(0, scheduler.run());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals("[a, b, c]", log.toString());
+        assertEquals(2, scheduler.getDeferredFrameCount());
+    }
+
+    @Test
+    public void zeroBudgetStillRunsOneTask() throws Exception {
+        scheduler.setBudgetNanos(0L);
+        scheduler.post(logging("a"), GLTaskScheduler.Priority.HIGH);
+        scheduler.post(logging("b"), GLTaskScheduler.Priority.HIGH);
+
+        assertEquals(1, scheduler.run());
+        assertEquals("[a]", log.toString());
+        assertEquals(1, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void criticalTasksAllRunDespiteTheBudget() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            scheduler.post(logging("critical" + i), GLTaskScheduler.Priority.CRITICAL);
+        }
+        scheduler.post(logging("normal"));
+
+        assertEquals(6, scheduler.run());
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals("normal", log.get(5));
+    }
+
+    @Test
+    public void criticalTasksPostedDuringAFrameWaitForTheNext() throws Exception {
+        scheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                log.add("first");
+                scheduler.post(logging("reposted"), GLTaskScheduler.Priority.CRITICAL);
+            }
+        }, GLTaskScheduler.Priority.CRITICAL);
+        scheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                log.add("budgeted");
+                scheduler.post(logging("from budgeted"), GLTaskScheduler.Priority.CRITICAL);
+            }
+        });
+
+        assertEquals(2, scheduler.run());
+        assertEquals("[first, budgeted]", log.toString());
+        assertEquals(2, scheduler.getPendingCount());
+
+        assertEquals(2, scheduler.run());
+        assertEquals("[first, budgeted, reposted, from budgeted]", log.toString());
+    }
+
+    @Test
+    public void priorityOrder() throws Exception {
+        scheduler.setBudgetNanos(Long.MAX_VALUE / 2);
+        scheduler.post(logging("low"), GLTaskScheduler.Priority.LOW);
+        scheduler.post(logging("normal"), GLTaskScheduler.Priority.NORMAL);
+        scheduler.post(logging("high"), GLTaskScheduler.Priority.HIGH);
+        scheduler.post(logging("critical"), GLTaskScheduler.Priority.CRITICAL);
+        scheduler.post(logging("high2"), GLTaskScheduler.Priority.HIGH);
+
+        assertEquals(5, scheduler.run());
+        assertEquals("[critical, high, high2, normal, low]", log.toString());
+        assertEquals(0, scheduler.getLastDeferredCount());
+    }
+
+    @Test
+    public void higherPriorityIsTakenFirstUnderTheBudget() throws Exception {
+        scheduler.post(logging("low"), GLTaskScheduler.Priority.LOW);
+        scheduler.post(logging("high"), GLTaskScheduler.Priority.HIGH);
+
+        scheduler.run();
+        assertEquals("[high]", log.toString());
+        scheduler.run();
+        assertEquals("[high, low]", log.toString());
+    }
+
+    @Test
+    public void failingTaskIsCounted() throws Exception {
+        scheduler.post(new Runnable() {
+            @Override
+            public void run() {
+                throw new IllegalStateException("expected by the test");
+            }
+        }, GLTaskScheduler.Priority.CRITICAL);
+        scheduler.post(logging("after"), GLTaskScheduler.Priority.CRITICAL);
+
+        assertEquals(2, scheduler.run());
+        assertEquals("[after]", log.toString());
+        assertEquals(0, scheduler.getPendingCount());
+    }
+
+    @Test
+    public void clearDropsEveryPendingTask() throws Exception {
+        for (GLTaskScheduler.Priority priority : GLTaskScheduler.Priority.values()) {
+            scheduler.post(logging(priority.name()), priority);
+            scheduler.post(logging(priority.name()), priority);
+        }
+        assertEquals(8, scheduler.getPendingCount());
+
+        scheduler.clear();
+
+        assertEquals(0, scheduler.getPendingCount());
+        assertEquals(0, scheduler.getOldestPendingAgeNanos());
+        assertEquals(0, scheduler.run());
+        assertTrue(log.isEmpty());
+    }
+}
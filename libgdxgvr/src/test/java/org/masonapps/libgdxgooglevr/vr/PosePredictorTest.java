@@ -0,0 +1,101 @@
+package org.masonapps.libgdxgooglevr.vr;
+
+import com.badlogic.gdx.math.Quaternion;
+import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongArray;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+
+import static org.junit.Assert.*;
+
+/**
+ * Created by Bob on 10/18/2026.
+ */
+public class PosePredictorTest {
+
+    private static final long LATENCY_NANOS = 30000000L;
+
+    private final LongArray timestamps = new LongArray();
+    private final FloatArray orientations = new FloatArray();
+
+    /**
+     * reads timestampNanos,x,y,z,w lines, # starts a comment
+     */
+    private void load(String name) throws IOException {
+        final InputStream in = PosePredictorTest.class.getResourceAsStream(name);
+        assertNotNull("missing fixture " + name, in);
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                final String[] fields = line.split(",");
+                timestamps.add(Long.parseLong(fields[0]));
+                for (int i = 1; i < 5; i++) {
+                    orientations.add(Float.parseFloat(fields[i]));
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void predictionBeatsTheStaleSampleOnTheSweep() throws Exception {
+        // the fixture is synthesized, see its header
+        load("controller_sweep.csv");
+        assertEquals(360, timestamps.size);
+
+        final PosePredictor.ReplayResult result = new PosePredictor().replay(timestamps.toArray(), orientations.toArray(), LATENCY_NANOS);
+
+        assertTrue(result.toString(), result.sampleCount > 300);
+        // mean errors were 1.08 predicted and 3.87 stale degrees when the fixture was made
+        assertTrue(result.toString(), result.meanPredictedErrorDeg < 1.5f);
+        assertTrue(result.toString(), result.meanPredictedErrorDeg < result.meanStaleErrorDeg * 0.4f);
+        // the first sample has no velocity yet and keeps its stale error, nothing may be worse than that
+        assertTrue(result.toString(), result.maxPredictedErrorDeg <= result.maxStaleErrorDeg);
+    }
+
+    @Test
+    public void constantRotationIsPredictedExactly() throws Exception {
+        // 90 degrees per second around y, sampled every 10 ms
+        final long[] times = new long[50];
+        final float[] values = new float[times.length * 4];
+        final Quaternion q = new Quaternion();
+        for (int i = 0; i < times.length; i++) {
+            times[i] = i * 10000000L;
+            q.setFromAxis(Vector3.Y, i * 0.9f);
+            values[i * 4] = q.x;
+            values[i * 4 + 1] = q.y;
+            values[i * 4 + 2] = q.z;
+            values[i * 4 + 3] = q.w;
+        }
+
+        final PosePredictor.ReplayResult result = new PosePredictor().replay(times, values, LATENCY_NANOS);
+
+        assertEquals(2.7f, result.meanStaleErrorDeg, 0.05f);
+        // only the first sample, which has no velocity yet, is off by more than float noise
+        assertEquals(2.7f / result.sampleCount, result.meanPredictedErrorDeg, 0.02f);
+    }
+
+    @Test
+    public void predictionIsClampedToTheMaximumAngle() throws Exception {
+        final PosePredictor predictor = new PosePredictor();
+        predictor.setMaxAngleDeg(10f);
+        final Quaternion q = new Quaternion();
+        // 1800 degrees per second
+        for (int i = 0; i < 4; i++) {
+            predictor.addSample(q.setFromAxis(Vector3.Y, i * 18f), i * 10000000L);
+        }
+
+        final Quaternion predicted = predictor.predict(30000000L + 40000000L, new Quaternion());
+
+        assertEquals(54f + 10f, predicted.getAngleAround(Vector3.Y), 0.1f);
+    }
+}
@@ -0,0 +1,43 @@
+package org.masonapps.libgdxgooglevr;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * Starts a headless application once and installs a GL20 that does nothing, so meshes, models and batches can be
+ * created in local unit tests. Integer queries report 16 so the texture binder finds some units.
+ */
+public class HeadlessGdx {
+
+    private static HeadlessApplication application = null;
+
+    public static synchronized void init() {
+        if (application == null)
+            application = new HeadlessApplication(new ApplicationAdapter() {
+            });
+        final GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[]{GL20.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("glGetIntegerv") && args[1] instanceof IntBuffer) {
+                    final IntBuffer buffer = (IntBuffer) args[1];
+                    buffer.put(buffer.position(), 16);
+                }
+                final Class<?> type = method.getReturnType();
+                if (type == int.class) return 0;
+                if (type == boolean.class) return false;
+                if (type == float.class) return 0f;
+                return null;
+            }
+        });
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+    }
+}
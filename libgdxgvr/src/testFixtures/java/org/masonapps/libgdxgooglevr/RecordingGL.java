@@ -0,0 +1,121 @@
+package org.masonapps.libgdxgooglevr;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Created by Bob on 10/18/2026.
+ * A GL20 that tracks the frame buffer binding, viewport and blend function, answers the queries libgdx makes when
+ * creating shaders and frame buffers, and records every draw call with the state it was made in.
+ */
+public class RecordingGL implements InvocationHandler {
+
+    public final List<Draw> draws = new ArrayList<>();
+    public int framebuffer = 0;
+    public final int[] viewport = new int[4];
+    // src rgb, dst rgb, src alpha, dst alpha
+    public final int[] blend = {GL20.GL_ONE, GL20.GL_ZERO, GL20.GL_ONE, GL20.GL_ZERO};
+    private int nextHandle = 1;
+
+    /**
+     * starts the headless application if needed and replaces its GL with a new recorder
+     */
+    public static RecordingGL install() {
+        HeadlessGdx.init();
+        final RecordingGL recorder = new RecordingGL();
+        final GL20 gl = (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class[]{GL20.class}, recorder);
+        Gdx.gl = gl;
+        Gdx.gl20 = gl;
+        return recorder;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final String name = method.getName();
+        switch (name) {
+            case "glBindFramebuffer":
+                framebuffer = (Integer) args[1];
+                break;
+            case "glViewport":
+                for (int i = 0; i < 4; i++) {
+                    viewport[i] = (Integer) args[i];
+                }
+                break;
+            case "glBlendFunc":
+                blend[0] = blend[2] = (Integer) args[0];
+                blend[1] = blend[3] = (Integer) args[1];
+                break;
+            case "glBlendFuncSeparate":
+                for (int i = 0; i < 4; i++) {
+                    blend[i] = (Integer) args[i];
+                }
+                break;
+            case "glDrawElements":
+            case "glDrawArrays":
+                draws.add(new Draw(framebuffer, blend));
+                break;
+            case "glGetIntegerv":
+                getIntegerv((Integer) args[0], (IntBuffer) args[1]);
+                break;
+            case "glGetShaderiv":
+            case "glGetProgramiv":
+                final int pname = (Integer) args[1];
+                ((IntBuffer) args[2]).put(0, pname == GL20.GL_COMPILE_STATUS || pname == GL20.GL_LINK_STATUS ? 1 : 0);
+                break;
+            case "glCheckFramebufferStatus":
+                return GL20.GL_FRAMEBUFFER_COMPLETE;
+            case "glGenFramebuffer":
+            case "glGenRenderbuffer":
+            case "glGenTexture":
+            case "glGenBuffer":
+            case "glCreateShader":
+            case "glCreateProgram":
+                return nextHandle++;
+        }
+        final Class<?> type = method.getReturnType();
+        if (type == int.class) return 0;
+        if (type == boolean.class) return false;
+        if (type == float.class) return 0f;
+        if (type == String.class) return "";
+        return null;
+    }
+
+    private void getIntegerv(int pname, IntBuffer buffer) {
+        final int position = buffer.position();
+        switch (pname) {
+            case GL20.GL_FRAMEBUFFER_BINDING:
+                buffer.put(position, framebuffer);
+                break;
+            case GL20.GL_VIEWPORT:
+                for (int i = 0; i < 4; i++) {
+                    buffer.put(position + i, viewport[i]);
+                }
+                break;
+            default:
+                buffer.put(position, 16);
+        }
+    }
+
+    public static class Draw {
+        public final int framebuffer;
+        public final int[] blend;
+
+        Draw(int framebuffer, int[] blend) {
+            this.framebuffer = framebuffer;
+            this.blend = blend.clone();
+        }
+
+        @Override
+        public String toString() {
+            return "draw into " + framebuffer + " blend " + Arrays.toString(blend);
+        }
+    }
+}